@@ -0,0 +1,115 @@
+package io.odpf.firehose.consumer.kafka;
+
+import io.odpf.firehose.message.Message;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link OffsetManager} before offsets were kept in primitive arrays: one synchronized manager holding a node per
+ * offset in a set per batch and a sorted set per partition. Kept only as the baseline of {@link OffsetManagerBenchmark}.
+ */
+class BaselineOffsetManager {
+    private final Map<Object, Set<OffsetNode>> toBeCommittableBatchOffsets = new HashMap<>();
+    private final Map<TopicPartition, TreeSet<OffsetNode>> sortedOffsets = new HashMap<>();
+
+    synchronized void addOffsetToBatch(Object batch, List<Message> messageList) {
+        messageList.forEach(m -> addOffsetToBatch(batch, m));
+    }
+
+    private synchronized void addOffsetToBatch(Object batch, Message message) {
+        OffsetNode node = new OffsetNode(
+                new TopicPartition(message.getTopic(), message.getPartition()),
+                new OffsetAndMetadata(message.getOffset() + 1));
+        toBeCommittableBatchOffsets.computeIfAbsent(batch, x -> new HashSet<>()).add(node);
+        sortedOffsets.computeIfAbsent(
+                node.topicPartition,
+                topicPartition -> new TreeSet<>(Comparator.comparingLong(offsetNode -> offsetNode.offsetAndMetadata.offset()))).add(node);
+    }
+
+    synchronized void setCommittable(Object batch) {
+        toBeCommittableBatchOffsets.getOrDefault(batch, new HashSet<>()).forEach(offsetNode -> offsetNode.committable = true);
+        toBeCommittableBatchOffsets.remove(batch);
+    }
+
+    synchronized Map<TopicPartition, OffsetAndMetadata> getCommittableOffset() {
+        return sortedOffsets.entrySet().stream().collect(
+                Collectors.toMap(
+                        Map.Entry::getKey,
+                        kv -> compactAndFetchFirstCommittableNode(kv.getValue())
+                )).entrySet().stream().filter(kv -> kv.getValue().isPresent()).collect(
+                Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get().offsetAndMetadata));
+    }
+
+    private Optional<OffsetNode> compactAndFetchFirstCommittableNode(TreeSet<OffsetNode> nodes) {
+        if (nodes.size() == 0) {
+            return Optional.empty();
+        }
+        Iterator<OffsetNode> iterator = nodes.iterator();
+        OffsetNode current = null;
+        OffsetNode previous;
+        while (iterator.hasNext()) {
+            previous = current;
+            current = iterator.next();
+            if (!current.committable) {
+                break;
+            }
+            if (previous != null) {
+                previous.removable = true;
+            }
+        }
+        iterator = nodes.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().removable) {
+                iterator.remove();
+            } else {
+                break;
+            }
+        }
+        return nodes.first().committable ? Optional.of(nodes.first()) : Optional.empty();
+    }
+
+    /**
+     * Node of the baseline, with the equality on all the fields it had as a Lombok {@code @Data} class.
+     */
+    private static class OffsetNode {
+        private final TopicPartition topicPartition;
+        private final OffsetAndMetadata offsetAndMetadata;
+        private boolean committable;
+        private boolean removable;
+
+        OffsetNode(TopicPartition topicPartition, OffsetAndMetadata offsetAndMetadata) {
+            this.topicPartition = topicPartition;
+            this.offsetAndMetadata = offsetAndMetadata;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof OffsetNode)) {
+                return false;
+            }
+            OffsetNode other = (OffsetNode) o;
+            return committable == other.committable && removable == other.removable
+                    && topicPartition.equals(other.topicPartition) && offsetAndMetadata.equals(other.offsetAndMetadata);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topicPartition, offsetAndMetadata, committable, removable);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.odpf.firehose.consumer.kafka;
+
+import io.odpf.firehose.message.Message;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the add, set committable and commit cycle of {@link OffsetManager} as done by the async sink pool,
+ * against the node based {@link BaselineOffsetManager} it replaced.
+ * <p>
+ * Run with ./gradlew jmh.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OffsetManagerBenchmark {
+
+    /**
+     * Shared offset manager, polled batches are spread over all partitions like a kafka poll.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        @Param({"12", "256"})
+        private int partitions;
+        @Param({"500"})
+        private int batchSize;
+        @Param({"baseline", "partitioned"})
+        private String implementation;
+
+        private OffsetManager offsetManager;
+        private BaselineOffsetManager baselineOffsetManager;
+        private final AtomicLong nextOffset = new AtomicLong();
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            offsetManager = new OffsetManager();
+            baselineOffsetManager = new BaselineOffsetManager();
+            nextOffset.set(0);
+        }
+
+        List<Message> nextBatch() {
+            long start = nextOffset.getAndAdd(batchSize);
+            List<Message> messages = new ArrayList<>(batchSize);
+            int perPartition = Math.max(1, batchSize / partitions);
+            for (int i = 0; i < batchSize; i++) {
+                int partition = (i / perPartition) % partitions;
+                messages.add(new Message(null, null, "topic", partition, start + i));
+            }
+            return messages;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Map<TopicPartition, OffsetAndMetadata> singleThreadedBatchCycle(SharedState state) {
+        return cycle(state);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Map<TopicPartition, OffsetAndMetadata> concurrentBatchCycle(SharedState state) {
+        return cycle(state);
+    }
+
+    private Map<TopicPartition, OffsetAndMetadata> cycle(SharedState state) {
+        List<Message> messages = state.nextBatch();
+        Object batchKey = new Object();
+        if (state.implementation.equals("baseline")) {
+            state.baselineOffsetManager.addOffsetToBatch(batchKey, messages);
+            state.baselineOffsetManager.setCommittable(batchKey);
+            return state.baselineOffsetManager.getCommittableOffset();
+        }
+        state.offsetManager.addOffsetToBatch(batchKey, messages);
+        state.offsetManager.setCommittable(batchKey);
+        return state.offsetManager.getCommittableOffset();
+    }
+}
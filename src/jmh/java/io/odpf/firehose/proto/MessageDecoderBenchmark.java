@@ -0,0 +1,130 @@
+package io.odpf.firehose.proto;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a wide event message with {@link DynamicMessage#parseFrom} and with a {@link MessageDecoder}
+ * projected on three of its fields.
+ * <p>
+ * Run with ./gradlew jmh.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageDecoderBenchmark {
+    private static final int ID_FIELD = 1;
+    private static final int TIMESTAMP_FIELD = 2;
+    private static final int AMOUNT_FIELD = 3;
+    private static final int FLAG_FIELD = 4;
+    private static final int SCORES_FIELD = 5;
+    private static final int ITEMS_FIELD = 6;
+    private static final int FIRST_ATTRIBUTE_FIELD = 7;
+    private static final int ITEM_NAME_FIELD = 1;
+    private static final int ITEM_QUANTITY_FIELD = 2;
+    private static final int ITEM_PRICE_FIELD = 3;
+    private static final long TIMESTAMP = 1600000000000L;
+    private static final double AMOUNT = 1234.5;
+
+    @Param({"10", "100"})
+    private int attributes;
+    @Param({"5"})
+    private int items;
+
+    private Descriptors.Descriptor descriptor;
+    private MessageDecoder projectedDecoder;
+    private byte[] data;
+
+    @Setup
+    public void setup() throws Descriptors.DescriptorValidationException {
+        descriptor = buildDescriptor(attributes);
+        projectedDecoder = MessageDecoder.compile(descriptor,
+                new FieldProjection().addField(ID_FIELD).addField(TIMESTAMP_FIELD).addField(AMOUNT_FIELD));
+        data = buildMessage(descriptor, attributes, items).toByteArray();
+    }
+
+    @Benchmark
+    public DynamicMessage dynamicMessage() throws IOException {
+        return DynamicMessage.parseFrom(descriptor, data);
+    }
+
+    @Benchmark
+    public DynamicMessage projectedDecoder() throws IOException {
+        return projectedDecoder.decode(data);
+    }
+
+    private static Descriptors.Descriptor buildDescriptor(int attributes) throws Descriptors.DescriptorValidationException {
+        DescriptorProtos.DescriptorProto item = DescriptorProtos.DescriptorProto.newBuilder()
+                .setName("Item")
+                .addField(field("name", ITEM_NAME_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING, false))
+                .addField(field("quantity", ITEM_QUANTITY_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT64, false))
+                .addField(field("price", ITEM_PRICE_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_DOUBLE, false))
+                .build();
+        DescriptorProtos.DescriptorProto.Builder event = DescriptorProtos.DescriptorProto.newBuilder()
+                .setName("Event")
+                .addField(field("id", ID_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING, false))
+                .addField(field("timestamp", TIMESTAMP_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT64, false))
+                .addField(field("amount", AMOUNT_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_DOUBLE, false))
+                .addField(field("flag", FLAG_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_BOOL, false))
+                .addField(field("scores", SCORES_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT32, true))
+                .addField(field("items", ITEMS_FIELD, DescriptorProtos.FieldDescriptorProto.Type.TYPE_MESSAGE, true).setTypeName(".benchmark.Item"));
+        for (int i = 0; i < attributes; i++) {
+            event.addField(field("attribute_" + i, FIRST_ATTRIBUTE_FIELD + i, DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING, false));
+        }
+        DescriptorProtos.FileDescriptorProto file = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("benchmark.proto")
+                .setPackage("benchmark")
+                .setSyntax("proto3")
+                .addMessageType(item)
+                .addMessageType(event)
+                .build();
+        return Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0]).findMessageTypeByName("Event");
+    }
+
+    private static DescriptorProtos.FieldDescriptorProto.Builder field(String name, int number, DescriptorProtos.FieldDescriptorProto.Type type, boolean repeated) {
+        return DescriptorProtos.FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(repeated ? DescriptorProtos.FieldDescriptorProto.Label.LABEL_REPEATED : DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL);
+    }
+
+    private static DynamicMessage buildMessage(Descriptors.Descriptor descriptor, int attributes, int items) {
+        Descriptors.Descriptor itemDescriptor = descriptor.findFieldByNumber(ITEMS_FIELD).getMessageType();
+        DynamicMessage.Builder event = DynamicMessage.newBuilder(descriptor)
+                .setField(descriptor.findFieldByNumber(ID_FIELD), "7f3c2a9e-5b1d-4c8e-9a6f-0d2b4e6f8a1c")
+                .setField(descriptor.findFieldByNumber(TIMESTAMP_FIELD), TIMESTAMP)
+                .setField(descriptor.findFieldByNumber(AMOUNT_FIELD), AMOUNT)
+                .setField(descriptor.findFieldByNumber(FLAG_FIELD), true);
+        for (int i = 0; i < items; i++) {
+            event.addRepeatedField(descriptor.findFieldByNumber(SCORES_FIELD), i);
+            event.addRepeatedField(descriptor.findFieldByNumber(ITEMS_FIELD), DynamicMessage.newBuilder(itemDescriptor)
+                    .setField(itemDescriptor.findFieldByNumber(ITEM_NAME_FIELD), "item-" + i)
+                    .setField(itemDescriptor.findFieldByNumber(ITEM_QUANTITY_FIELD), (long) i + 1)
+                    .setField(itemDescriptor.findFieldByNumber(ITEM_PRICE_FIELD), AMOUNT / (i + 1))
+                    .build());
+        }
+        for (int i = 0; i < attributes; i++) {
+            event.setField(descriptor.findFieldByNumber(FIRST_ATTRIBUTE_FIELD + i), "value of attribute " + i);
+        }
+        return event.build();
+    }
+}
@@ -79,6 +79,22 @@ public interface AppConfig extends Config {
     @Key("INPUT_SCHEMA_PROTO_CLASS")
     String getInputSchemaProtoClass();
 
+    @Key("INPUT_SCHEMA_PROTO_DECODE_CACHE_ENABLE")
+    @DefaultValue("true")
+    boolean isInputSchemaProtoDecodeCacheEnable();
+
+    @Key("INPUT_SCHEMA_PROTO_DECODE_CACHE_MAX_PAYLOAD_BYTES")
+    @DefaultValue("1048576")
+    long getInputSchemaProtoDecodeCacheMaxPayloadBytes();
+
+    @Key("INPUT_SCHEMA_PROTO_DECODE_CACHE_MAX_BYTES")
+    @DefaultValue("67108864")
+    long getInputSchemaProtoDecodeCacheMaxBytes();
+
+    @Key("INPUT_SCHEMA_PROTO_PROJECTION_ENABLE")
+    @DefaultValue("false")
+    boolean isInputSchemaProtoProjectionEnable();
+
     @Key("INPUT_SCHEMA_PROTO_TO_COLUMN_MAPPING")
     @ConverterClass(ProtoIndexToFieldMapConverter.class)
     Properties getInputSchemaProtoToColumnMapping();
@@ -46,6 +46,10 @@ public interface BlobSinkConfig extends AppConfig {
     @DefaultValue("268435456")
     long getLocalFileRotationMaxSizeBytes();
 
+    @Key("SINK_BLOB_REVOKE_FLUSH_TIMEOUT_MS")
+    @DefaultValue("5000")
+    long getRevokeFlushTimeoutMS();
+
     @Key("SINK_BLOB_FILE_PARTITION_PROTO_TIMESTAMP_FIELD_NAME")
     String getFilePartitionProtoTimestampFieldName();
 
@@ -29,6 +29,13 @@ public interface FilterConfig extends Config {
     @Key("FILTER_JEXL_EXPRESSION")
     String getFilterJexlExpression();
 
+    @Key("FILTER_JEXL_PARALLEL_MIN_MESSAGES")
+    @DefaultValue("0")
+    int getFilterJexlParallelMinMessages();
+
+    @Key("FILTER_PROTO_EXPRESSION")
+    String getFilterProtoExpression();
+
     @Key("FILTER_JSON_SCHEMA")
     String getFilterJsonSchema();
 
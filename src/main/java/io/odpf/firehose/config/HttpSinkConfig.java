@@ -37,6 +37,22 @@ public interface HttpSinkConfig extends AppConfig {
     @DefaultValue("10")
     Integer getSinkHttpMaxConnections();
 
+    @Key("SINK_HTTP_REQUEST_PARALLELISM")
+    @DefaultValue("1")
+    int getSinkHttpRequestParallelism();
+
+    @Key("SINK_HTTP_REQUEST_STREAMING_ENABLE")
+    @DefaultValue("false")
+    Boolean isSinkHttpRequestStreamingEnable();
+
+    @Key("SINK_HTTP_REQUEST_GZIP_ENABLE")
+    @DefaultValue("false")
+    Boolean isSinkHttpRequestGzipEnable();
+
+    @Key("SINK_HTTP_REQUEST_GROUP_BY_URL_ENABLE")
+    @DefaultValue("false")
+    Boolean isSinkHttpRequestGroupByUrlEnable();
+
     @Key("SINK_HTTP_SERVICE_URL")
     String getSinkHttpServiceUrl();
 
@@ -15,6 +15,14 @@ public interface KafkaConsumerConfig extends AppConfig {
     @DefaultValue("true")
     boolean isSourceKafkaCommitOnlyCurrentPartitionsEnable();
 
+    @Key("SOURCE_KAFKA_COMMIT_INTERVAL_MS")
+    @DefaultValue("0")
+    long getSourceKafkaCommitIntervalMs();
+
+    @Key("SOURCE_KAFKA_COMMIT_MAX_BATCHES")
+    @DefaultValue("0")
+    int getSourceKafkaCommitMaxBatches();
+
     @Key("SOURCE_KAFKA_TOPIC")
     String getSourceKafkaTopic();
 
@@ -48,4 +56,32 @@ public interface KafkaConsumerConfig extends AppConfig {
     @ConverterClass(ConsumerModeConverter.class)
     @DefaultValue("SYNC")
     KafkaConsumerMode getSourceKafkaConsumerMode();
+
+    @Key("SOURCE_KAFKA_CONSUMER_PIPELINE_MAX_IN_FLIGHT_BATCHES")
+    @DefaultValue("2")
+    int getSourceKafkaConsumerPipelineMaxInFlightBatches();
+
+    @Key("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_ENABLE")
+    @DefaultValue("true")
+    boolean isSourceKafkaConsumerBackpressureEnable();
+
+    @Key("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_HIGH_WATERMARK_MESSAGES")
+    @DefaultValue("10000")
+    long getSourceKafkaConsumerBackpressureHighWatermarkMessages();
+
+    @Key("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_LOW_WATERMARK_MESSAGES")
+    @DefaultValue("5000")
+    long getSourceKafkaConsumerBackpressureLowWatermarkMessages();
+
+    @Key("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_HIGH_WATERMARK_BYTES")
+    @DefaultValue("104857600")
+    long getSourceKafkaConsumerBackpressureHighWatermarkBytes();
+
+    @Key("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_LOW_WATERMARK_BYTES")
+    @DefaultValue("52428800")
+    long getSourceKafkaConsumerBackpressureLowWatermarkBytes();
+
+    @Key("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_POLL_TIMEOUT_MS")
+    @DefaultValue("100")
+    long getSourceKafkaConsumerBackpressurePollTimeoutMs();
 }
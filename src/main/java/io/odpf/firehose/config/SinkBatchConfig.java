@@ -0,0 +1,17 @@
+package io.odpf.firehose.config;
+
+import org.aeonbits.owner.Config;
+
+public interface SinkBatchConfig extends AppConfig {
+    @Config.Key("SINK_BATCH_MAX_MESSAGES")
+    @Config.DefaultValue("10000")
+    int getSinkBatchMaxMessages();
+
+    @Config.Key("SINK_BATCH_MAX_BYTES")
+    @Config.DefaultValue("10485760")
+    long getSinkBatchMaxBytes();
+
+    @Config.Key("SINK_BATCH_LINGER_MS")
+    @Config.DefaultValue("0")
+    long getSinkBatchLingerMs();
+}
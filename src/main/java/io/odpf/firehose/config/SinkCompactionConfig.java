@@ -0,0 +1,19 @@
+package io.odpf.firehose.config;
+
+import io.odpf.firehose.config.converter.SinkCompactionKeyTypeConverter;
+import io.odpf.firehose.config.enums.SinkCompactionKeyType;
+import org.aeonbits.owner.Config;
+
+public interface SinkCompactionConfig extends AppConfig {
+    @Config.Key("SINK_COMPACTION_ENABLE")
+    @Config.DefaultValue("false")
+    boolean isSinkCompactionEnable();
+
+    @Config.Key("SINK_COMPACTION_KEY_TYPE")
+    @Config.ConverterClass(SinkCompactionKeyTypeConverter.class)
+    @Config.DefaultValue("KAFKA_KEY")
+    SinkCompactionKeyType getSinkCompactionKeyType();
+
+    @Config.Key("SINK_COMPACTION_KEY_PROTO_INDEX")
+    Integer getSinkCompactionKeyProtoIndex();
+}
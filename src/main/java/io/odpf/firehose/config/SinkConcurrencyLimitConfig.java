@@ -0,0 +1,29 @@
+package io.odpf.firehose.config;
+
+import org.aeonbits.owner.Config;
+
+public interface SinkConcurrencyLimitConfig extends AppConfig {
+    @Config.Key("SINK_CONCURRENCY_LIMIT_ENABLE")
+    @Config.DefaultValue("false")
+    boolean isSinkConcurrencyLimitEnable();
+
+    @Config.Key("SINK_CONCURRENCY_LIMIT_INITIAL")
+    @Config.DefaultValue("10")
+    int getSinkConcurrencyLimitInitial();
+
+    @Config.Key("SINK_CONCURRENCY_LIMIT_MIN")
+    @Config.DefaultValue("1")
+    int getSinkConcurrencyLimitMin();
+
+    @Config.Key("SINK_CONCURRENCY_LIMIT_MAX")
+    @Config.DefaultValue("100")
+    int getSinkConcurrencyLimitMax();
+
+    @Config.Key("SINK_CONCURRENCY_LIMIT_BACKOFF_RATIO")
+    @Config.DefaultValue("0.9")
+    double getSinkConcurrencyLimitBackoffRatio();
+
+    @Config.Key("SINK_CONCURRENCY_LIMIT_LATENCY_TOLERANCE")
+    @Config.DefaultValue("2.0")
+    double getSinkConcurrencyLimitLatencyTolerance();
+}
@@ -0,0 +1,20 @@
+package io.odpf.firehose.config;
+
+import io.odpf.firehose.config.converter.SinkLanesShardTypeConverter;
+import io.odpf.firehose.config.enums.SinkLanesShardType;
+import org.aeonbits.owner.Config;
+
+public interface SinkLanesConfig extends AppConfig {
+    @Config.Key("SINK_LANES_NUM")
+    @Config.DefaultValue("8")
+    int getSinkLanesNum();
+
+    @Config.Key("SINK_LANES_SHARD_BY")
+    @Config.ConverterClass(SinkLanesShardTypeConverter.class)
+    @Config.DefaultValue("KEY")
+    SinkLanesShardType getSinkLanesShardBy();
+
+    @Config.Key("SINK_LANES_MAX_IN_FLIGHT_TASKS")
+    @Config.DefaultValue("64")
+    int getSinkLanesMaxInFlightTasks();
+}
@@ -11,7 +11,7 @@ public class FilterEngineTypeConverter implements Converter<FilterEngineType> {
         try {
             return FilterEngineType.valueOf(input.toUpperCase());
         } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("FILTER_ENGINE must be JSON or JEXL or NOOP", e);
+            throw new IllegalArgumentException("FILTER_ENGINE must be JSON or JEXL or PROTO or NOOP", e);
         }
     }
 }
@@ -0,0 +1,17 @@
+package io.odpf.firehose.config.converter;
+
+import io.odpf.firehose.config.enums.SinkCompactionKeyType;
+import org.aeonbits.owner.Converter;
+
+import java.lang.reflect.Method;
+
+public class SinkCompactionKeyTypeConverter implements Converter<SinkCompactionKeyType> {
+    @Override
+    public SinkCompactionKeyType convert(Method method, String input) {
+        try {
+            return SinkCompactionKeyType.valueOf(input.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("SINK_COMPACTION_KEY_TYPE must be KAFKA_KEY or PROTO_FIELD", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.odpf.firehose.config.converter;
+
+import io.odpf.firehose.config.enums.SinkLanesShardType;
+import org.aeonbits.owner.Converter;
+
+import java.lang.reflect.Method;
+
+public class SinkLanesShardTypeConverter implements Converter<SinkLanesShardType> {
+    @Override
+    public SinkLanesShardType convert(Method method, String input) {
+        try {
+            return SinkLanesShardType.valueOf(input.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("SINK_LANES_SHARD_BY must be KEY or PARTITION", e);
+        }
+    }
+}
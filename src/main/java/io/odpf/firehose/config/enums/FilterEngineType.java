@@ -1,5 +1,5 @@
 package io.odpf.firehose.config.enums;
 
 public enum FilterEngineType {
-    JEXL, JSON, NO_OP
+    JEXL, JSON, PROTO, NO_OP
 }
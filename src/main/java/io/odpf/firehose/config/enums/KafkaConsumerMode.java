@@ -2,5 +2,7 @@ package io.odpf.firehose.config.enums;
 
 public enum KafkaConsumerMode {
     ASYNC,
-    SYNC
+    SYNC,
+    PIPELINED,
+    KEY_ORDERED
 }
@@ -0,0 +1,6 @@
+package io.odpf.firehose.config.enums;
+
+public enum SinkCompactionKeyType {
+    KAFKA_KEY,
+    PROTO_FIELD
+}
@@ -30,7 +30,7 @@ public class FirehoseAsyncConsumer implements FirehoseConsumer {
     public void process() {
         Instant beforeCall = Instant.now();
         try {
-            List<Message> messages = consumerAndOffsetManager.readMessages();
+            List<Message> messages = consumerAndOffsetManager.readMessages(!sinkPool.hasFreeSink());
             List<Span> spans = tracer.startTrace(messages);
             FilteredMessages filteredMessages = firehoseFilter.applyFilter(messages);
             if (filteredMessages.sizeOfInvalidMessages() > 0) {
@@ -38,7 +38,7 @@ public class FirehoseAsyncConsumer implements FirehoseConsumer {
             }
             if (filteredMessages.sizeOfValidMessages() > 0) {
                 List<Message> validMessages = filteredMessages.getValidMessages();
-                Future<List<Message>> scheduledTask = scheduleTask(validMessages);
+                Future<List<Message>> scheduledTask = sinkPool.submitTask(validMessages);
                 consumerAndOffsetManager.addOffsets(scheduledTask, validMessages);
             }
             sinkPool.fetchFinishedSinkTasks().forEach(consumerAndOffsetManager::setCommittable);
@@ -51,19 +51,6 @@ public class FirehoseAsyncConsumer implements FirehoseConsumer {
         }
     }
 
-    private Future<List<Message>> scheduleTask(List<Message> messages) {
-        while (true) {
-            Future<List<Message>> scheduledTask = sinkPool.submitTask(messages);
-            if (scheduledTask == null) {
-                instrumentation.logInfo("The Queue is full");
-                sinkPool.fetchFinishedSinkTasks().forEach(consumerAndOffsetManager::setCommittable);
-            } else {
-                instrumentation.logInfo("Adding sink task");
-                return scheduledTask;
-            }
-        }
-    }
-
     @Override
     public void close() throws IOException {
         consumerAndOffsetManager.close();
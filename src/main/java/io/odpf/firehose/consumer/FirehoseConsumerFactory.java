@@ -6,19 +6,26 @@ import io.odpf.firehose.consumer.kafka.FirehoseKafkaConsumer;
 import io.odpf.firehose.consumer.kafka.OffsetManager;
 import io.odpf.firehose.sink.SinkFactory;
 import io.odpf.firehose.utils.KafkaUtils;
+import io.odpf.firehose.utils.SharedResources;
 import io.odpf.firehose.config.AppConfig;
 import io.odpf.firehose.config.DlqConfig;
 import io.odpf.firehose.config.FilterConfig;
 import io.odpf.firehose.config.ErrorConfig;
 import io.odpf.firehose.config.KafkaConsumerConfig;
+import io.odpf.firehose.config.SinkLanesConfig;
+import io.odpf.firehose.config.SinkBatchConfig;
+import io.odpf.firehose.config.SinkCompactionConfig;
 import io.odpf.firehose.config.SinkPoolConfig;
+import io.odpf.firehose.config.enums.FilterMessageFormatType;
 import io.odpf.firehose.config.enums.KafkaConsumerMode;
+import io.odpf.firehose.sink.SinkLanes;
 import io.odpf.firehose.sink.SinkPool;
 import io.odpf.firehose.filter.Filter;
 import io.odpf.firehose.filter.NoOpFilter;
 import io.odpf.firehose.filter.jexl.JexlFilter;
 import io.odpf.firehose.filter.json.JsonFilter;
 import io.odpf.firehose.filter.json.JsonFilterUtil;
+import io.odpf.firehose.filter.proto.ProtoFilter;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.sink.Sink;
@@ -28,6 +35,7 @@ import io.odpf.firehose.sinkdecorator.BackOffProvider;
 import io.odpf.firehose.error.ErrorHandler;
 import io.odpf.firehose.sinkdecorator.ExponentialBackOffProvider;
 import io.odpf.firehose.sinkdecorator.SinkFinal;
+import io.odpf.firehose.sinkdecorator.SinkWithCompaction;
 import io.odpf.firehose.sinkdecorator.SinkWithDlq;
 import io.odpf.firehose.sinkdecorator.SinkWithFailHandler;
 import io.odpf.firehose.sinkdecorator.SinkWithRetry;
@@ -35,6 +43,7 @@ import io.odpf.firehose.sink.dlq.DlqWriter;
 import io.odpf.firehose.sink.dlq.DlqWriterFactory;
 import io.odpf.firehose.tracer.SinkTracer;
 import io.odpf.firehose.utils.StencilUtils;
+import io.odpf.stencil.Parser;
 import io.odpf.stencil.StencilClientFactory;
 import io.odpf.stencil.client.StencilClient;
 import io.opentracing.Tracer;
@@ -46,6 +55,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -61,6 +71,7 @@ public class FirehoseConsumerFactory {
     private final Instrumentation instrumentation;
     private final KeyOrMessageParser parser;
     private final OffsetManager offsetManager = new OffsetManager();
+    private final SharedResources sharedResources;
 
     /**
      * Instantiates a new Firehose consumer factory.
@@ -69,8 +80,21 @@ public class FirehoseConsumerFactory {
      * @param statsDReporter      the stats d reporter
      */
     public FirehoseConsumerFactory(KafkaConsumerConfig kafkaConsumerConfig, StatsDReporter statsDReporter) {
+        this(kafkaConsumerConfig, statsDReporter, new SharedResources(1, new Instrumentation(statsDReporter, SharedResources.class)));
+    }
+
+    /**
+     * Instantiates a new Firehose consumer factory, which shares the stencil client
+     * and the sink connection pools with the other consumer threads.
+     *
+     * @param kafkaConsumerConfig the kafka consumer config
+     * @param statsDReporter      the stats d reporter
+     * @param sharedResources     resources shared by all the consumer threads
+     */
+    public FirehoseConsumerFactory(KafkaConsumerConfig kafkaConsumerConfig, StatsDReporter statsDReporter, SharedResources sharedResources) {
         this.kafkaConsumerConfig = kafkaConsumerConfig;
         this.statsDReporter = statsDReporter;
+        this.sharedResources = sharedResources;
         instrumentation = new Instrumentation(this.statsDReporter, FirehoseConsumerFactory.class);
 
         String additionalConsumerConfig = String.format(""
@@ -81,10 +105,13 @@ public class FirehoseConsumerFactory {
         instrumentation.logDebug(additionalConsumerConfig);
 
         String stencilUrl = this.kafkaConsumerConfig.getSchemaRegistryStencilUrls();
-        stencilClient = this.kafkaConsumerConfig.isSchemaRegistryStencilEnable()
-                ? StencilClientFactory.getClient(stencilUrl, StencilUtils.getStencilConfig(kafkaConsumerConfig, statsDReporter.getClient()))
-                : StencilClientFactory.getClient();
-        parser = new KeyOrMessageParser(stencilClient.getParser(kafkaConsumerConfig.getInputSchemaProtoClass()), kafkaConsumerConfig);
+        boolean stencilEnable = this.kafkaConsumerConfig.isSchemaRegistryStencilEnable();
+        stencilClient = sharedResources.acquireProxy(StencilClient.class, "stencil:" + (stencilEnable ? stencilUrl : "classpath"),
+                () -> stencilEnable
+                        ? StencilClientFactory.getClient(stencilUrl, StencilUtils.getStencilConfig(kafkaConsumerConfig, statsDReporter.getClient()))
+                        : StencilClientFactory.getClient(),
+                StencilClient::close, "close");
+        parser = new KeyOrMessageParser(StencilUtils.getParser(stencilClient, kafkaConsumerConfig.getInputSchemaProtoClass(), kafkaConsumerConfig), kafkaConsumerConfig);
     }
 
     private FirehoseFilter buildFilter(FilterConfig filterConfig) {
@@ -95,11 +122,17 @@ public class FirehoseConsumerFactory {
                 Instrumentation jsonFilterUtilInstrumentation = new Instrumentation(statsDReporter, JsonFilterUtil.class);
                 JsonFilterUtil.logConfigs(filterConfig, jsonFilterUtilInstrumentation);
                 JsonFilterUtil.validateConfigs(filterConfig, jsonFilterUtilInstrumentation);
-                filter = new JsonFilter(stencilClient, filterConfig, new Instrumentation(statsDReporter, JsonFilter.class));
+                Parser filterParser = filterConfig.getFilterESBMessageFormat() == FilterMessageFormatType.PROTOBUF
+                        ? StencilUtils.getParser(stencilClient, filterConfig.getFilterSchemaProtoClass(), kafkaConsumerConfig)
+                        : null;
+                filter = new JsonFilter(filterParser, filterConfig, new Instrumentation(statsDReporter, JsonFilter.class));
                 break;
             case JEXL:
                 filter = new JexlFilter(filterConfig, new Instrumentation(statsDReporter, JexlFilter.class));
                 break;
+            case PROTO:
+                filter = new ProtoFilter(stencilClient.get(filterConfig.getFilterSchemaProtoClass()), filterConfig, new Instrumentation(statsDReporter, ProtoFilter.class));
+                break;
             case NO_OP:
                 filter = new NoOpFilter(new Instrumentation(statsDReporter, NoOpFilter.class));
                 break;
@@ -124,17 +157,55 @@ public class FirehoseConsumerFactory {
         FirehoseKafkaConsumer firehoseKafkaConsumer = KafkaUtils.createConsumer(kafkaConsumerConfig, config, statsDReporter, tracer);
         SinkTracer firehoseTracer = new SinkTracer(tracer, kafkaConsumerConfig.getSinkType().name() + " SINK",
                 kafkaConsumerConfig.isTraceJaegarEnable());
-        SinkFactory sinkFactory = new SinkFactory(kafkaConsumerConfig, statsDReporter, stencilClient, offsetManager);
+        SinkFactory sinkFactory = new SinkFactory(kafkaConsumerConfig, statsDReporter, stencilClient, offsetManager, sharedResources);
         sinkFactory.init();
         if (kafkaConsumerConfig.getSourceKafkaConsumerMode().equals(KafkaConsumerMode.SYNC)) {
             Sink sink = createSink(tracer, sinkFactory);
             ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(Collections.singletonList(sink), offsetManager, firehoseKafkaConsumer, kafkaConsumerConfig, new Instrumentation(statsDReporter, ConsumerAndOffsetManager.class));
+            SinkBatchConfig sinkBatchConfig = ConfigFactory.create(SinkBatchConfig.class, config);
+            MessageAccumulator messageAccumulator = null;
+            if (sinkBatchConfig.getSinkBatchLingerMs() > 0) {
+                messageAccumulator = new MessageAccumulator(
+                        sinkBatchConfig.getSinkBatchMaxMessages(),
+                        sinkBatchConfig.getSinkBatchMaxBytes(),
+                        sinkBatchConfig.getSinkBatchLingerMs());
+            }
             return new FirehoseSyncConsumer(
                     sink,
                     firehoseTracer,
                     consumerAndOffsetManager,
                     firehoseFilter,
-                    new Instrumentation(statsDReporter, FirehoseSyncConsumer.class));
+                    new Instrumentation(statsDReporter, FirehoseSyncConsumer.class),
+                    messageAccumulator);
+        } else if (kafkaConsumerConfig.getSourceKafkaConsumerMode().equals(KafkaConsumerMode.PIPELINED)) {
+            Sink sink = createSink(tracer, sinkFactory);
+            ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(Collections.singletonList(sink), offsetManager, firehoseKafkaConsumer, kafkaConsumerConfig, new Instrumentation(statsDReporter, ConsumerAndOffsetManager.class));
+            return new FirehosePipelinedConsumer(
+                    sink,
+                    firehoseTracer,
+                    consumerAndOffsetManager,
+                    firehoseFilter,
+                    Executors.newSingleThreadExecutor(),
+                    Executors.newSingleThreadExecutor(),
+                    kafkaConsumerConfig.getSourceKafkaConsumerPipelineMaxInFlightBatches(),
+                    new Instrumentation(statsDReporter, FirehosePipelinedConsumer.class));
+        } else if (kafkaConsumerConfig.getSourceKafkaConsumerMode().equals(KafkaConsumerMode.KEY_ORDERED)) {
+            SinkLanesConfig sinkLanesConfig = ConfigFactory.create(SinkLanesConfig.class, config);
+            int nLanes = sinkLanesConfig.getSinkLanesNum();
+            List<Sink> sinks = new ArrayList<>(nLanes);
+            List<ExecutorService> executors = new ArrayList<>(nLanes);
+            for (int ii = 0; ii < nLanes; ii++) {
+                sinks.add(createSink(tracer, sinkFactory));
+                executors.add(Executors.newSingleThreadExecutor());
+            }
+            ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(sinks, offsetManager, firehoseKafkaConsumer, kafkaConsumerConfig, new Instrumentation(statsDReporter, ConsumerAndOffsetManager.class));
+            return new FirehoseKeyOrderedConsumer(
+                    new SinkLanes(sinks, executors, sinkLanesConfig.getSinkLanesShardBy()),
+                    firehoseTracer,
+                    consumerAndOffsetManager,
+                    firehoseFilter,
+                    sinkLanesConfig.getSinkLanesMaxInFlightTasks(),
+                    new Instrumentation(statsDReporter, FirehoseKeyOrderedConsumer.class));
         } else {
             SinkPoolConfig sinkPoolConfig = ConfigFactory.create(SinkPoolConfig.class, config);
             int nThreads = sinkPoolConfig.getSinkPoolNumThreads();
@@ -146,7 +217,8 @@ public class FirehoseConsumerFactory {
             SinkPool sinkPool = new SinkPool(
                     new LinkedBlockingQueue<>(sinks),
                     Executors.newCachedThreadPool(),
-                    sinkPoolConfig.getSinkPoolQueuePollTimeoutMS());
+                    sinkPoolConfig.getSinkPoolQueuePollTimeoutMS(),
+                    new Instrumentation(statsDReporter, SinkPool.class));
             return new FirehoseAsyncConsumer(
                     sinkPool,
                     firehoseTracer,
@@ -156,13 +228,46 @@ public class FirehoseConsumerFactory {
         }
     }
 
+    /**
+     * Number of sinks a consumer thread creates for the consumer mode.
+     *
+     * @param kafkaConsumerConfig the kafka consumer config
+     * @param config              the configuration
+     * @return number of sinks per consumer thread
+     */
+    public static int getSinksPerThread(KafkaConsumerConfig kafkaConsumerConfig, Map<String, String> config) {
+        switch (kafkaConsumerConfig.getSourceKafkaConsumerMode()) {
+            case ASYNC:
+                return ConfigFactory.create(SinkPoolConfig.class, config).getSinkPoolNumThreads();
+            case KEY_ORDERED:
+                return ConfigFactory.create(SinkLanesConfig.class, config).getSinkLanesNum();
+            default:
+                return 1;
+        }
+    }
+
     private Sink createSink(Tracer tracer, SinkFactory sinkFactory) {
         ErrorHandler errorHandler = new ErrorHandler(ConfigFactory.create(ErrorConfig.class, config));
         Sink baseSink = sinkFactory.getSink();
         Sink sinkWithFailHandler = new SinkWithFailHandler(baseSink, errorHandler);
         Sink sinkWithRetry = withRetry(sinkWithFailHandler, errorHandler);
         Sink sinWithDLQ = withDlq(sinkWithRetry, tracer, errorHandler);
-        return new SinkFinal(sinWithDLQ, new Instrumentation(statsDReporter, SinkFinal.class));
+        Sink sinkWithCompaction = withCompaction(sinWithDLQ);
+        return new SinkFinal(sinkWithCompaction, new Instrumentation(statsDReporter, SinkFinal.class));
+    }
+
+    /**
+     * to push only the latest message of each key for upsert sinks, based on the config.
+     *
+     * @param sink Sink To wrap with compaction decorator
+     * @return Sink with compaction decorator
+     */
+    private Sink withCompaction(Sink sink) {
+        SinkCompactionConfig sinkCompactionConfig = ConfigFactory.create(SinkCompactionConfig.class, config);
+        if (!sinkCompactionConfig.isSinkCompactionEnable()) {
+            return sink;
+        }
+        return new SinkWithCompaction(sink, sinkCompactionConfig, parser, new Instrumentation(statsDReporter, SinkWithCompaction.class));
     }
 
     public Sink withDlq(Sink sink, Tracer tracer, ErrorHandler errorHandler) {
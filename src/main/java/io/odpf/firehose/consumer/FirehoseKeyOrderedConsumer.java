@@ -0,0 +1,72 @@
+package io.odpf.firehose.consumer;
+
+import io.odpf.firehose.consumer.kafka.ConsumerAndOffsetManager;
+import io.odpf.firehose.exception.FirehoseConsumerFailedException;
+import io.odpf.firehose.filter.FilterException;
+import io.odpf.firehose.filter.FilteredMessages;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.SinkLanes;
+import io.odpf.firehose.tracer.SinkTracer;
+import io.opentracing.Span;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static io.odpf.firehose.metrics.Metrics.SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS;
+
+/**
+ * Firehose consumer that polls once and pushes messages on parallel sink lanes, keeping the order per key.
+ * <p>
+ * Offsets are committed through the offset manager, which only moves the committed offset of a partition
+ * past messages whose lanes have finished. Each polled batch is split into one task per lane it touches.
+ * When too many lane tasks are in flight, the consumer waits for a lane to finish, or with backpressure
+ * enabled keeps polling with the partitions paused.
+ */
+@AllArgsConstructor
+public class FirehoseKeyOrderedConsumer implements FirehoseConsumer {
+    private final SinkLanes sinkLanes;
+    private final SinkTracer tracer;
+    private final ConsumerAndOffsetManager consumerAndOffsetManager;
+    private final FirehoseFilter firehoseFilter;
+    private final int maxInFlightTasks;
+    private final Instrumentation instrumentation;
+
+    @Override
+    public void process() {
+        Instant beforeCall = Instant.now();
+        try {
+            if (!consumerAndOffsetManager.isBackpressureEnabled()) {
+                while (sinkLanes.getInFlightTasks() >= maxInFlightTasks) {
+                    consumerAndOffsetManager.setCommittable(sinkLanes.awaitFinishedSinkTask());
+                }
+            }
+            List<Message> messages = consumerAndOffsetManager.readMessages(sinkLanes.getInFlightTasks() >= maxInFlightTasks);
+            List<Span> spans = tracer.startTrace(messages);
+            FilteredMessages filteredMessages = firehoseFilter.applyFilter(messages);
+            if (filteredMessages.sizeOfInvalidMessages() > 0) {
+                consumerAndOffsetManager.forceAddOffsetsAndSetCommittable(filteredMessages.getInvalidMessages());
+            }
+            if (filteredMessages.sizeOfValidMessages() > 0) {
+                sinkLanes.submitTasks(filteredMessages.getValidMessages()).forEach(consumerAndOffsetManager::addOffsets);
+            }
+            sinkLanes.fetchFinishedSinkTasks().forEach(consumerAndOffsetManager::setCommittable);
+            consumerAndOffsetManager.commit();
+            tracer.finishTrace(spans);
+        } catch (FilterException e) {
+            throw new FirehoseConsumerFailedException(e);
+        } finally {
+            instrumentation.captureDurationSince(SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS, beforeCall);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        consumerAndOffsetManager.close();
+        tracer.close();
+        sinkLanes.close();
+        instrumentation.close();
+    }
+}
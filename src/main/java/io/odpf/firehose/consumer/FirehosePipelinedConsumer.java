@@ -0,0 +1,162 @@
+package io.odpf.firehose.consumer;
+
+import io.odpf.firehose.consumer.kafka.ConsumerAndOffsetManager;
+import io.odpf.firehose.exception.FirehoseConsumerFailedException;
+import io.odpf.firehose.exception.SinkTaskFailedException;
+import io.odpf.firehose.filter.FilterException;
+import io.odpf.firehose.filter.FilteredMessages;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.Sink;
+import io.odpf.firehose.tracer.SinkTracer;
+import io.opentracing.Span;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import static io.odpf.firehose.metrics.Metrics.SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS;
+
+/**
+ * Firehose consumer that overlaps kafka poll, filtering and sink push.
+ * <p>
+ * Filter and sink stages run on their own single threaded executors, so batches pass through every stage in the order
+ * they were polled and per-partition ordering is kept. At most maxInFlightBatches are in the pipeline at a time:
+ * when it is full, the consumer waits for the oldest batch, or with backpressure enabled keeps polling with the
+ * partitions paused.
+ * Offsets of a batch are added and set committable only after the batch has been fully pushed to the sink.
+ */
+public class FirehosePipelinedConsumer implements FirehoseConsumer {
+
+    private final Sink sink;
+    private final SinkTracer tracer;
+    private final ConsumerAndOffsetManager consumerAndOffsetManager;
+    private final FirehoseFilter firehoseFilter;
+    private final ExecutorService filterExecutor;
+    private final ExecutorService sinkExecutor;
+    private final int maxInFlightBatches;
+    private final Instrumentation instrumentation;
+    private final Deque<PipelinedBatch> inFlightBatches = new ArrayDeque<>();
+
+    public FirehosePipelinedConsumer(Sink sink,
+                                     SinkTracer tracer,
+                                     ConsumerAndOffsetManager consumerAndOffsetManager,
+                                     FirehoseFilter firehoseFilter,
+                                     ExecutorService filterExecutor,
+                                     ExecutorService sinkExecutor,
+                                     int maxInFlightBatches,
+                                     Instrumentation instrumentation) {
+        if (maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("Max in-flight batches should be greater than 0");
+        }
+        this.sink = sink;
+        this.tracer = tracer;
+        this.consumerAndOffsetManager = consumerAndOffsetManager;
+        this.firehoseFilter = firehoseFilter;
+        this.filterExecutor = filterExecutor;
+        this.sinkExecutor = sinkExecutor;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public void process() throws IOException {
+        Instant beforeCall = Instant.now();
+        try {
+            if (!consumerAndOffsetManager.isBackpressureEnabled()) {
+                while (inFlightBatches.size() >= maxInFlightBatches) {
+                    completeBatch(inFlightBatches.pollFirst());
+                }
+            }
+            List<Message> messages = consumerAndOffsetManager.readMessages(inFlightBatches.size() >= maxInFlightBatches);
+            if (!messages.isEmpty()) {
+                List<Span> spans = tracer.startTrace(messages);
+                CompletableFuture<FilteredMessages> result = CompletableFuture
+                        .supplyAsync(() -> filter(messages), filterExecutor)
+                        .thenApplyAsync(this::push, sinkExecutor);
+                inFlightBatches.addLast(new PipelinedBatch(messages, spans, result));
+            }
+            while (!inFlightBatches.isEmpty() && inFlightBatches.peekFirst().getResult().isDone()) {
+                completeBatch(inFlightBatches.pollFirst());
+            }
+            consumerAndOffsetManager.commit();
+        } finally {
+            instrumentation.captureDurationSince(SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS, beforeCall);
+        }
+    }
+
+    private FilteredMessages filter(List<Message> messages) {
+        try {
+            return firehoseFilter.applyFilter(messages);
+        } catch (FilterException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private FilteredMessages push(FilteredMessages filteredMessages) {
+        if (filteredMessages.sizeOfValidMessages() > 0) {
+            try {
+                sink.pushMessage(filteredMessages.getValidMessages());
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }
+        return filteredMessages;
+    }
+
+    private void completeBatch(PipelinedBatch batch) throws IOException {
+        FilteredMessages filteredMessages;
+        try {
+            filteredMessages = batch.getResult().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SinkTaskFailedException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof FilterException) {
+                throw new FirehoseConsumerFailedException(cause);
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SinkTaskFailedException(cause);
+        }
+        if (filteredMessages.sizeOfInvalidMessages() > 0) {
+            consumerAndOffsetManager.forceAddOffsetsAndSetCommittable(filteredMessages.getInvalidMessages());
+        }
+        if (filteredMessages.sizeOfValidMessages() > 0) {
+            consumerAndOffsetManager.addOffsetsAndSetCommittable(filteredMessages.getValidMessages());
+        }
+        instrumentation.logInfo("Processed {} records in consumer", batch.getMessages().size());
+        tracer.finishTrace(batch.getSpans());
+    }
+
+    @Override
+    public void close() throws IOException {
+        filterExecutor.shutdownNow();
+        sinkExecutor.shutdownNow();
+        tracer.close();
+        consumerAndOffsetManager.close();
+        instrumentation.close();
+        sink.close();
+    }
+
+    @AllArgsConstructor
+    @Getter
+    private static class PipelinedBatch {
+        private final List<Message> messages;
+        private final List<Span> spans;
+        private final CompletableFuture<FilteredMessages> result;
+    }
+}
@@ -13,12 +13,18 @@ import lombok.AllArgsConstructor;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static io.odpf.firehose.metrics.Metrics.SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS;
 
 /**
  * Firehose consumer reads messages from Generic consumer and pushes messages to the configured sink.
+ * <p>
+ * With a {@link MessageAccumulator}, messages of several polls are pushed as one batch
+ * and their offsets are committable only once the batch is pushed. Their traces are finished once the batch is pushed,
+ * and when commits commit the consumer position, which covers the accumulated messages, nothing is committed
+ * until the accumulated messages are pushed.
  */
 @AllArgsConstructor
 public class FirehoseSyncConsumer implements FirehoseConsumer {
@@ -28,9 +34,19 @@ public class FirehoseSyncConsumer implements FirehoseConsumer {
     private final ConsumerAndOffsetManager consumerAndOffsetManager;
     private final FirehoseFilter firehoseFilter;
     private final Instrumentation instrumentation;
+    private final MessageAccumulator messageAccumulator;
+    private final List<Span> accumulatedSpans = new ArrayList<>();
+
+    public FirehoseSyncConsumer(Sink sink, SinkTracer tracer, ConsumerAndOffsetManager consumerAndOffsetManager, FirehoseFilter firehoseFilter, Instrumentation instrumentation) {
+        this(sink, tracer, consumerAndOffsetManager, firehoseFilter, instrumentation, null);
+    }
 
     @Override
     public void process() throws IOException {
+        if (messageAccumulator != null) {
+            processAccumulated();
+            return;
+        }
         Instant beforeCall = Instant.now();
         try {
             List<Message> messages = consumerAndOffsetManager.readMessages();
@@ -53,6 +69,42 @@ public class FirehoseSyncConsumer implements FirehoseConsumer {
         }
     }
 
+    private void processAccumulated() throws IOException {
+        Instant beforeCall = Instant.now();
+        try {
+            List<Message> messages = consumerAndOffsetManager.readMessages(messageAccumulator.getRemainingLingerMs());
+            List<Span> spans = tracer.startTrace(messages);
+            FilteredMessages filteredMessages = firehoseFilter.applyFilter(messages);
+            if (filteredMessages.sizeOfInvalidMessages() > 0) {
+                consumerAndOffsetManager.forceAddOffsetsAndSetCommittable(filteredMessages.getInvalidMessages());
+            }
+            if (filteredMessages.sizeOfValidMessages() > 0) {
+                Object batchKey = messageAccumulator.add(filteredMessages.getValidMessages());
+                consumerAndOffsetManager.addAccumulatedOffsets(batchKey, filteredMessages.getValidMessages());
+                accumulatedSpans.addAll(spans);
+            } else {
+                tracer.finishTrace(spans);
+            }
+            if (messageAccumulator.isReady()) {
+                Object batchKey = messageAccumulator.getBatchKey();
+                List<Message> batch = messageAccumulator.drain();
+                sink.pushMessage(batch);
+                consumerAndOffsetManager.setCommittable(batchKey);
+                instrumentation.logInfo("Pushed {} accumulated records", batch.size());
+                tracer.finishTrace(new ArrayList<>(accumulatedSpans));
+                accumulatedSpans.clear();
+            }
+            if (messageAccumulator.size() == 0 || !consumerAndOffsetManager.isCommittingConsumerPosition()) {
+                consumerAndOffsetManager.commit();
+            }
+            instrumentation.logInfo("Processed {} records in consumer", messages.size());
+        } catch (FilterException e) {
+            throw new FirehoseConsumerFailedException(e);
+        } finally {
+            instrumentation.captureDurationSince(SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS, beforeCall);
+        }
+    }
+
     @Override
     public void close() throws IOException {
         tracer.close();
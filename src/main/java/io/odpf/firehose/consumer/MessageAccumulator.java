@@ -0,0 +1,78 @@
+package io.odpf.firehose.consumer;
+
+import io.odpf.firehose.message.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates messages of several polls into one sink batch.
+ * <p>
+ * The batch is ready once it holds the maximum number of messages or bytes,
+ * or once its first message has waited for the linger time, whichever comes first.
+ * Every batch has its own key, which is used to track its offsets until the batch is pushed.
+ */
+public class MessageAccumulator {
+    private final int maxMessages;
+    private final long maxBytes;
+    private final long lingerMs;
+    private List<Message> messages = new ArrayList<>();
+    private long bytes = 0;
+    private long firstMessageTimeMs = 0;
+    private Object batchKey = new Object();
+
+    public MessageAccumulator(int maxMessages, long maxBytes, long lingerMs) {
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.lingerMs = lingerMs;
+    }
+
+    /**
+     * @param newMessages messages to add to the current batch
+     * @return key of the current batch
+     */
+    public Object add(List<Message> newMessages) {
+        if (messages.isEmpty()) {
+            firstMessageTimeMs = System.currentTimeMillis();
+        }
+        messages.addAll(newMessages);
+        bytes += newMessages.stream().mapToLong(Message::getSize).sum();
+        return batchKey;
+    }
+
+    public boolean isReady() {
+        return !messages.isEmpty()
+                && (messages.size() >= maxMessages || bytes >= maxBytes || getRemainingLingerMs() == 0);
+    }
+
+    /**
+     * @return time left until the current batch has lingered long enough, or Long.MAX_VALUE if it is empty.
+     */
+    public long getRemainingLingerMs() {
+        if (messages.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, lingerMs - (System.currentTimeMillis() - firstMessageTimeMs));
+    }
+
+    public Object getBatchKey() {
+        return batchKey;
+    }
+
+    /**
+     * Hands over the current batch and starts a new one with a new key.
+     *
+     * @return messages of the current batch
+     */
+    public List<Message> drain() {
+        List<Message> batch = messages;
+        messages = new ArrayList<>();
+        bytes = 0;
+        batchKey = new Object();
+        return batch;
+    }
+
+    public int size() {
+        return messages.size();
+    }
+}
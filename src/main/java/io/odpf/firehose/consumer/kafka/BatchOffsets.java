@@ -0,0 +1,51 @@
+package io.odpf.firehose.consumer.kafka;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Offsets added to a single batch, grouped per partition in primitive arrays.
+ * <p>
+ * This class is not thread safe, {@link OffsetManager} makes sure a batch is only modified by one thread at a time.
+ */
+class BatchOffsets {
+    private final Map<PartitionOffsets, OffsetBuffer> offsets = new IdentityHashMap<>();
+    private PartitionOffsets lastPartition;
+    private OffsetBuffer lastBuffer;
+
+    void add(PartitionOffsets partitionOffsets, long offset) {
+        if (partitionOffsets != lastPartition) {
+            lastPartition = partitionOffsets;
+            lastBuffer = offsets.computeIfAbsent(partitionOffsets, p -> new OffsetBuffer());
+        }
+        lastBuffer.add(offset);
+    }
+
+    void setCommittable() {
+        offsets.forEach((partitionOffsets, buffer) -> partitionOffsets.setCommittable(buffer.values, buffer.size));
+    }
+
+    int size() {
+        return offsets.values().stream().mapToInt(buffer -> buffer.size).sum();
+    }
+
+    long[] getOffsets(PartitionOffsets partitionOffsets) {
+        OffsetBuffer buffer = offsets.get(partitionOffsets);
+        return buffer == null ? new long[0] : Arrays.copyOf(buffer.values, buffer.size);
+    }
+
+    private static class OffsetBuffer {
+        private static final int INITIAL_CAPACITY = 16;
+        private long[] values = new long[INITIAL_CAPACITY];
+        private int size = 0;
+
+        void add(long offset) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size] = offset;
+            size++;
+        }
+    }
+}
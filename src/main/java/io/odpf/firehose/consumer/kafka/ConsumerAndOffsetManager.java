@@ -4,9 +4,20 @@ import io.odpf.firehose.config.KafkaConsumerConfig;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.sink.Sink;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.odpf.firehose.metrics.Metrics.SOURCE_KAFKA_IN_FLIGHT_BYTES;
+import static io.odpf.firehose.metrics.Metrics.SOURCE_KAFKA_IN_FLIGHT_MESSAGES;
+import static io.odpf.firehose.metrics.Metrics.SOURCE_KAFKA_PAUSED;
 
 /**
  * This class has APIs to read from kafka and also provide offset management.
@@ -28,15 +39,37 @@ import java.util.List;
  *
  * consumerOffsetManager.commit() calls the sink method to calculate committable offsets.
  * then it fetches the offsets from offsetManager.getCommittableOffsets() and uses kafka api to commit.
- *
+ * <p>
+ * With backpressure enabled, consumers which push on other threads read with {@link #readMessages(boolean)} instead
+ * of waiting for their sinks. Kafka partitions are paused while the sinks can not take another batch, so the
+ * consumer keeps polling to stay in the group without getting new messages. Messages added with a key are also
+ * in flight until the key is set committable, and partitions are paused when the in flight messages or bytes
+ * reach the high watermark. They are resumed once the sinks are free, and when they were paused over the high
+ * watermark, once both are back under the low watermark.
+ * <p>
+ * On rebalance, revoked partitions are flushed: sinks are told about the revocation,
+ * committable offsets of these partitions are committed synchronously and their offsets are dropped.
+ * Batches finishing after the revocation can not commit offsets of these partitions until they are assigned again.
+ * <p>
+ * Commits are coalesced: commit() only commits once the commit interval has passed
+ * or the max number of batches has been processed since the last commit, whichever comes first.
+ * forceCommit() commits right away, it is used on close.
  */
-public class ConsumerAndOffsetManager implements AutoCloseable {
+public class ConsumerAndOffsetManager implements AutoCloseable, ConsumerRebalanceListener {
     private final OffsetManager offsetManager;
     private final List<Sink> sinks;
     private final FirehoseKafkaConsumer firehoseKafkaConsumer;
     private final KafkaConsumerConfig kafkaConsumerConfig;
     private final Instrumentation instrumentation;
     private final boolean canSinkManageOffsets;
+    private final boolean backpressureEnabled;
+    private final Map<Object, InFlightBatch> inFlightBatches = new HashMap<>();
+    private final Set<TopicPartition> revokedPartitions = ConcurrentHashMap.newKeySet();
+    private long inFlightMessages = 0;
+    private long inFlightBytes = 0;
+    private boolean pausedOverWatermark = false;
+    private int batchesSinceCommit = 0;
+    private long lastCommitTimeMs = 0;
 
     public ConsumerAndOffsetManager(
             List<Sink> sinks,
@@ -50,18 +83,41 @@ public class ConsumerAndOffsetManager implements AutoCloseable {
         this.kafkaConsumerConfig = kafkaConsumerConfig;
         this.instrumentation = instrumentation;
         this.canSinkManageOffsets = sinks.get(0).canManageOffsets();
+        this.backpressureEnabled = kafkaConsumerConfig.isSourceKafkaConsumerBackpressureEnable();
+        if (firehoseKafkaConsumer != null) {
+            firehoseKafkaConsumer.addRebalanceListener(this);
+        }
     }
 
     public void addOffsets(Object key, List<Message> messages) {
         if (!canSinkManageOffsets) {
             offsetManager.addOffsetToBatch(key, messages);
         }
+        if (backpressureEnabled) {
+            trackInFlight(key, messages);
+        }
+    }
+
+    /**
+     * Adds the offsets of messages accumulated on the consumer thread. They are not in flight in the sinks,
+     * so they are not counted for backpressure.
+     *
+     * @param key      key of the accumulated batch
+     * @param messages accumulated messages
+     */
+    public void addAccumulatedOffsets(Object key, List<Message> messages) {
+        if (!canSinkManageOffsets) {
+            offsetManager.addOffsetToBatch(key, messages);
+        }
     }
 
     public void setCommittable(Object key) {
         if (!canSinkManageOffsets) {
             offsetManager.setCommittable(key);
         }
+        if (backpressureEnabled) {
+            untrackInFlight(key);
+        }
     }
 
     public void addOffsetsAndSetCommittable(List<Message> messages) {
@@ -79,24 +135,161 @@ public class ConsumerAndOffsetManager implements AutoCloseable {
     }
 
     public List<Message> readMessages() {
+        return readMessages(false);
+    }
+
+    /**
+     * Reads messages, pausing the partitions while the sinks are full when backpressure is enabled.
+     * Paused partitions return no messages, the poll only keeps the consumer in the group.
+     *
+     * @param sinksFull whether the sinks can not take another batch without waiting
+     * @return messages read from kafka
+     */
+    public List<Message> readMessages(boolean sinksFull) {
+        if (backpressureEnabled) {
+            applyBackpressure(sinksFull);
+        }
         return firehoseKafkaConsumer.readMessages();
     }
 
+    /**
+     * Reads messages without backpressure, for the sync consumer which pushes on the consumer thread.
+     *
+     * @param maxPollTimeoutMs upper bound for the kafka poll timeout
+     * @return messages read from kafka
+     */
+    public List<Message> readMessages(long maxPollTimeoutMs) {
+        return firehoseKafkaConsumer.readMessages(maxPollTimeoutMs);
+    }
+
+    public boolean isBackpressureEnabled() {
+        return backpressureEnabled;
+    }
+
+    private void trackInFlight(Object key, List<Message> messages) {
+        long bytes = messages.stream().mapToLong(Message::getSize).sum();
+        InFlightBatch batch = inFlightBatches.computeIfAbsent(key, k -> new InFlightBatch());
+        batch.messages += messages.size();
+        batch.bytes += bytes;
+        inFlightMessages += messages.size();
+        inFlightBytes += bytes;
+    }
+
+    private void untrackInFlight(Object key) {
+        InFlightBatch batch = inFlightBatches.remove(key);
+        if (batch != null) {
+            inFlightMessages -= batch.messages;
+            inFlightBytes -= batch.bytes;
+        }
+    }
+
+    private void applyBackpressure(boolean sinksFull) {
+        boolean overHighWatermark = inFlightMessages >= kafkaConsumerConfig.getSourceKafkaConsumerBackpressureHighWatermarkMessages()
+                || inFlightBytes >= kafkaConsumerConfig.getSourceKafkaConsumerBackpressureHighWatermarkBytes();
+        if (!firehoseKafkaConsumer.isPaused() && (sinksFull || overHighWatermark)) {
+            instrumentation.logDebug("Sinks full: {}, in flight work at {} messages and {} bytes, pausing", sinksFull, inFlightMessages, inFlightBytes);
+            pausedOverWatermark = overHighWatermark;
+            firehoseKafkaConsumer.pause();
+        } else if (firehoseKafkaConsumer.isPaused() && !sinksFull && (!pausedOverWatermark || isUnderLowWatermark())) {
+            instrumentation.logDebug("Sinks free, in flight work at {} messages and {} bytes, resuming", inFlightMessages, inFlightBytes);
+            firehoseKafkaConsumer.resume();
+        }
+        instrumentation.captureValue(SOURCE_KAFKA_IN_FLIGHT_MESSAGES, (int) inFlightMessages);
+        instrumentation.captureValue(SOURCE_KAFKA_IN_FLIGHT_BYTES, (int) Math.min(inFlightBytes, Integer.MAX_VALUE));
+        instrumentation.captureValue(SOURCE_KAFKA_PAUSED, firehoseKafkaConsumer.isPaused() ? 1 : 0);
+    }
+
+    private boolean isUnderLowWatermark() {
+        return inFlightMessages <= kafkaConsumerConfig.getSourceKafkaConsumerBackpressureLowWatermarkMessages()
+                && inFlightBytes <= kafkaConsumerConfig.getSourceKafkaConsumerBackpressureLowWatermarkBytes();
+    }
+
+    /**
+     * Commits offsets if a commit is due, otherwise keeps them to be committed with the next one.
+     */
     public void commit() {
+        batchesSinceCommit++;
+        if (isCommitDue()) {
+            forceCommit();
+        }
+    }
+
+    private boolean isCommitDue() {
+        int maxBatches = kafkaConsumerConfig.getSourceKafkaCommitMaxBatches();
+        return System.currentTimeMillis() - lastCommitTimeMs >= kafkaConsumerConfig.getSourceKafkaCommitIntervalMs()
+                || (maxBatches > 0 && batchesSinceCommit >= maxBatches);
+    }
+
+    /**
+     * @return whether commits commit the position of the kafka consumer, which covers every polled message,
+     * instead of the committable offsets only
+     */
+    public boolean isCommittingConsumerPosition() {
+        return !kafkaConsumerConfig.isSourceKafkaCommitOnlyCurrentPartitionsEnable();
+    }
+
+    public void forceCommit() {
+        batchesSinceCommit = 0;
+        lastCommitTimeMs = System.currentTimeMillis();
         if (kafkaConsumerConfig.isSourceKafkaCommitOnlyCurrentPartitionsEnable()) {
             sinks.forEach(Sink::calculateCommittableOffsets);
+            if (!revokedPartitions.isEmpty()) {
+                offsetManager.removePartitions(revokedPartitions);
+            }
             firehoseKafkaConsumer.commit(offsetManager.getCommittableOffset());
         } else {
             firehoseKafkaConsumer.commit();
         }
     }
 
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        sinks.forEach(sink -> sink.onPartitionsRevoked(partitions));
+        sinks.forEach(Sink::calculateCommittableOffsets);
+        try {
+            firehoseKafkaConsumer.commitRevoked(offsetManager.getCommittableOffset(partitions), partitions);
+        } catch (Exception e) {
+            instrumentation.captureNonFatalError(e, "Failed to commit offsets of revoked partitions {}", partitions);
+        }
+        dropPartitions(partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        revokedPartitions.removeAll(partitions);
+        offsetManager.removePartitions(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Collection<TopicPartition> partitions) {
+        dropPartitions(partitions);
+    }
+
+    private void dropPartitions(Collection<TopicPartition> partitions) {
+        revokedPartitions.addAll(partitions);
+        offsetManager.removePartitions(partitions);
+    }
+
     @Override
     public void close() throws IOException {
         if (firehoseKafkaConsumer != null) {
+            if (kafkaConsumerConfig.isSourceKafkaCommitOnlyCurrentPartitionsEnable()) {
+                try {
+                    forceCommit();
+                } catch (Exception e) {
+                    instrumentation.captureNonFatalError(e, "Failed to commit offsets on close");
+                }
+            }
             instrumentation.logInfo("closing consumer");
             firehoseKafkaConsumer.close();
         }
     }
 
+    private static class InFlightBatch {
+        private long messages;
+        private long bytes;
+    }
 }
@@ -4,7 +4,9 @@ import io.odpf.firehose.config.KafkaConsumerConfig;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.Metrics;
 import io.odpf.firehose.message.Message;
+import io.odpf.firehose.utils.ConsumerRebalancer;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
@@ -12,6 +14,7 @@ import org.apache.kafka.common.TopicPartition;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,6 +33,8 @@ public class FirehoseKafkaConsumer implements AutoCloseable {
     private final KafkaConsumerConfig consumerConfig;
     private final Instrumentation instrumentation;
     private final Map<TopicPartition, OffsetAndMetadata> committedOffsets = new ConcurrentHashMap<>();
+    private final ConsumerRebalancer consumerRebalancer;
+    private boolean paused = false;
 
     /**
      * A Constructor.
@@ -39,9 +44,33 @@ public class FirehoseKafkaConsumer implements AutoCloseable {
      * @param instrumentation Contain logging and metrics collection
      */
     public FirehoseKafkaConsumer(Consumer<byte[], byte[]> kafkaConsumer, KafkaConsumerConfig config, Instrumentation instrumentation) {
+        this(kafkaConsumer, config, instrumentation, null);
+    }
+
+    /**
+     * A Constructor.
+     *
+     * @param kafkaConsumer      {@see KafkaConsumer}
+     * @param config             Consumer configuration.
+     * @param instrumentation    Contain logging and metrics collection
+     * @param consumerRebalancer rebalance listener the kafka consumer is subscribed with
+     */
+    public FirehoseKafkaConsumer(Consumer<byte[], byte[]> kafkaConsumer, KafkaConsumerConfig config, Instrumentation instrumentation, ConsumerRebalancer consumerRebalancer) {
         this.kafkaConsumer = kafkaConsumer;
         this.consumerConfig = config;
         this.instrumentation = instrumentation;
+        this.consumerRebalancer = consumerRebalancer;
+    }
+
+    /**
+     * Registers a listener to be called on rebalances, from the thread reading the messages.
+     *
+     * @param listener rebalance listener
+     */
+    public void addRebalanceListener(ConsumerRebalanceListener listener) {
+        if (consumerRebalancer != null) {
+            consumerRebalancer.addListener(listener);
+        }
     }
 
     /**
@@ -50,7 +79,24 @@ public class FirehoseKafkaConsumer implements AutoCloseable {
      * @return list of EsbMessage {@see EsbMessage}
      */
     public List<Message> readMessages() {
-        ConsumerRecords<byte[], byte[]> records = kafkaConsumer.poll(Duration.ofMillis(consumerConfig.getSourceKafkaPollTimeoutMs()));
+        return readMessages(Long.MAX_VALUE);
+    }
+
+    /**
+     * method to read next batch of messages from kafka, waiting at most the given time.
+     *
+     * @param maxPollTimeoutMs upper bound for the configured poll timeout
+     * @return list of EsbMessage {@see EsbMessage}
+     */
+    public List<Message> readMessages(long maxPollTimeoutMs) {
+        long pollTimeoutMs;
+        if (paused) {
+            kafkaConsumer.pause(kafkaConsumer.assignment());
+            pollTimeoutMs = consumerConfig.getSourceKafkaConsumerBackpressurePollTimeoutMs();
+        } else {
+            pollTimeoutMs = consumerConfig.getSourceKafkaPollTimeoutMs();
+        }
+        ConsumerRecords<byte[], byte[]> records = kafkaConsumer.poll(Duration.ofMillis(Math.min(pollTimeoutMs, maxPollTimeoutMs)));
         instrumentation.logInfo("Pulled {} messages", records.count());
         instrumentation.capturePulledMessageHistogram(records.count());
         instrumentation.captureGlobalMessageMetrics(Metrics.MessageScope.CONSUMER, records.count());
@@ -63,6 +109,34 @@ public class FirehoseKafkaConsumer implements AutoCloseable {
         return messages;
     }
 
+    /**
+     * Pauses fetching from all assigned partitions.
+     * Subsequent reads keep polling with the backpressure poll timeout, so the consumer stays in the group.
+     * Partitions assigned while paused are paused on the next read.
+     */
+    public void pause() {
+        if (!paused) {
+            instrumentation.logDebug("Pausing partitions {}", kafkaConsumer.assignment());
+            kafkaConsumer.pause(kafkaConsumer.assignment());
+            paused = true;
+        }
+    }
+
+    /**
+     * Resumes fetching from all paused partitions.
+     */
+    public void resume() {
+        if (paused) {
+            instrumentation.logDebug("Resuming partitions {}", kafkaConsumer.paused());
+            kafkaConsumer.resume(kafkaConsumer.paused());
+            paused = false;
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
     public void close() {
         try {
             instrumentation.logInfo("Consumer is closing");
@@ -87,6 +161,24 @@ public class FirehoseKafkaConsumer implements AutoCloseable {
     }
 
     public void commit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        commit(offsets, consumerConfig.isSourceKafkaAsyncCommitEnable());
+    }
+
+    /**
+     * Commits the offsets of partitions being revoked synchronously and forgets them afterwards.
+     *
+     * @param offsets offsets of the revoked partitions
+     * @param partitions revoked partitions
+     */
+    public void commitRevoked(Map<TopicPartition, OffsetAndMetadata> offsets, Collection<TopicPartition> partitions) {
+        try {
+            commit(offsets, false);
+        } finally {
+            partitions.forEach(committedOffsets::remove);
+        }
+    }
+
+    private void commit(Map<TopicPartition, OffsetAndMetadata> offsets, boolean async) {
         Map<TopicPartition, OffsetAndMetadata> latestOffsets =
                 offsets.entrySet()
                         .stream()
@@ -96,9 +188,10 @@ public class FirehoseKafkaConsumer implements AutoCloseable {
         if (latestOffsets.isEmpty()) {
             return;
         }
+        instrumentation.logInfo("Committing offsets of {} partitions", latestOffsets.size());
         latestOffsets.forEach((k, v) ->
-                instrumentation.logInfo("Committing Offsets " + k.topic() + ":" + k.partition() + "=>" + v.offset()));
-        if (consumerConfig.isSourceKafkaAsyncCommitEnable()) {
+                instrumentation.logDebug("Committing Offsets {}:{}=>{}", k.topic(), k.partition(), v.offset()));
+        if (async) {
             commitAsync(latestOffsets);
         } else {
             kafkaConsumer.commitSync(latestOffsets);
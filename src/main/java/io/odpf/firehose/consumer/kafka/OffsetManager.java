@@ -4,124 +4,125 @@ import io.odpf.firehose.message.Message;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OffsetManager is a data structure which keeps tracks of all offsets that can be committed to kafka.
  * <p>
+ * Offsets are kept per partition in primitive arrays and each partition is locked on its own,
+ * batches are kept in a concurrent map.
  * This class is thread safe. Multiple sinks can use the same object.
  */
 public class OffsetManager {
-    private final Map<Object, Set<OffsetNode>> toBeCommittableBatchOffsets = new HashMap<>();
-    private final Map<TopicPartition, TreeSet<OffsetNode>> sortedOffsets = new HashMap<>();
+    private final Map<Object, BatchOffsets> toBeCommittableBatchOffsets = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionOffsets> sortedOffsets = new ConcurrentHashMap<>();
 
     /**
      * @param offsetKeyToMessagesMap A map of key to list of messages to be added
      */
-    public synchronized void addOffsetToBatch(Map<Object, List<Message>> offsetKeyToMessagesMap) {
+    public void addOffsetToBatch(Map<Object, List<Message>> offsetKeyToMessagesMap) {
         offsetKeyToMessagesMap.forEach(this::addOffsetToBatch);
     }
 
-    public synchronized void addOffsetsAndSetCommittable(List<Message> messageList) {
-        String syncBatchKey = "sync_batch_key";
-        addOffsetToBatch(syncBatchKey, messageList);
-        setCommittable(syncBatchKey);
+    public void addOffsetsAndSetCommittable(List<Message> messageList) {
+        BatchOffsets batchOffsets = new BatchOffsets();
+        addToBatch(batchOffsets, messageList);
+        batchOffsets.setCommittable();
     }
 
-    public synchronized void addOffsetToBatch(Object batch, List<Message> messageList) {
-        messageList.forEach(m -> addOffsetToBatch(batch, m));
+    public void addOffsetToBatch(Object batch, List<Message> messageList) {
+        toBeCommittableBatchOffsets.compute(batch, (key, batchOffsets) -> {
+            BatchOffsets current = batchOffsets == null ? new BatchOffsets() : batchOffsets;
+            addToBatch(current, messageList);
+            return current;
+        });
     }
 
     /**
      * @param batch   key for which this offset belongs to.
      * @param message message to extract offset metadata.
      */
-    public synchronized void addOffsetToBatch(Object batch, Message message) {
-        OffsetNode currentNode = new OffsetNode(
-                new TopicPartition(message.getTopic(), message.getPartition()),
-                new OffsetAndMetadata(message.getOffset() + 1));
-        addOffsetToBatch(batch, currentNode);
+    public void addOffsetToBatch(Object batch, Message message) {
+        addOffsetToBatch(batch, Collections.singletonList(message));
     }
 
-    private synchronized void addOffsetToBatch(Object batch, OffsetNode node) {
-        toBeCommittableBatchOffsets.computeIfAbsent(batch, x -> new HashSet<>()).add(node);
-        sortedOffsets.computeIfAbsent(
-                node.getTopicPartition(),
-                topicPartition -> new TreeSet<>(Comparator.comparingLong(offsetNode -> offsetNode.getOffsetAndMetadata().offset()))).add(node);
+    private void addToBatch(BatchOffsets batchOffsets, List<Message> messageList) {
+        PartitionOffsets partitionOffsets = null;
+        for (Message message : messageList) {
+            if (partitionOffsets == null || !partitionOffsets.belongsTo(message.getTopic(), message.getPartition())) {
+                partitionOffsets = sortedOffsets.computeIfAbsent(
+                        new TopicPartition(message.getTopic(), message.getPartition()),
+                        PartitionOffsets::new);
+            }
+            long offset = message.getOffset() + 1;
+            partitionOffsets.add(offset);
+            batchOffsets.add(partitionOffsets, offset);
+        }
     }
 
     /**
      * @param batch key for which all offsets can be committed.
      *              Removes the batch from the global map for the cleanup.
      */
-    public synchronized void setCommittable(Object batch) {
-        toBeCommittableBatchOffsets.getOrDefault(batch, new HashSet<>()).forEach(offsetNode -> offsetNode.setCommittable(true));
-        toBeCommittableBatchOffsets.remove(batch);
+    public void setCommittable(Object batch) {
+        BatchOffsets batchOffsets = toBeCommittableBatchOffsets.remove(batch);
+        if (batchOffsets != null) {
+            batchOffsets.setCommittable();
+        }
     }
 
     /**
      * @return offsets for all partitions
      * It also compact internal sorted list per partition by removing redundant offsets.
      */
-    public synchronized Map<TopicPartition, OffsetAndMetadata> getCommittableOffset() {
-        return sortedOffsets.entrySet().stream().collect(
-                Collectors.toMap(
-                        Map.Entry::getKey,
-                        kv -> compactAndFetchFirstCommittableNode(kv.getValue())
-                )).entrySet().stream().filter(kv -> kv.getValue().isPresent()).collect(
-                Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get().getOffsetAndMetadata()));
+    public Map<TopicPartition, OffsetAndMetadata> getCommittableOffset() {
+        Map<TopicPartition, OffsetAndMetadata> committableOffsets = new HashMap<>();
+        sortedOffsets.forEach((topicPartition, partitionOffsets) -> {
+            long offset = partitionOffsets.fetchCommittableOffset();
+            if (offset != PartitionOffsets.NO_OFFSET) {
+                committableOffsets.put(topicPartition, new OffsetAndMetadata(offset));
+            }
+        });
+        return committableOffsets;
     }
 
     /**
-     * @param nodes Sorted List of offsets
-     * @return the first offset that is set to be committable just before a non-committable offset in the list.
+     * @param topicPartitions partitions to fetch the offsets for
+     * @return committable offsets of the given partitions which are tracked here
      */
-    protected Optional<OffsetNode> compactAndFetchFirstCommittableNode(TreeSet<OffsetNode> nodes) {
-        if (nodes.size() == 0) {
-            return Optional.empty();
-        }
-        Iterator<OffsetNode> iterator = nodes.iterator();
-        OffsetNode current = null;
-        OffsetNode previous;
-        while (iterator.hasNext()) {
-            previous = current;
-            current = iterator.next();
-            if (!current.isCommittable()) {
-                break;
-            }
-            if (previous != null) {
-                previous.setRemovable(true);
+    public Map<TopicPartition, OffsetAndMetadata> getCommittableOffset(Collection<TopicPartition> topicPartitions) {
+        Map<TopicPartition, OffsetAndMetadata> committableOffsets = new HashMap<>();
+        for (TopicPartition topicPartition : topicPartitions) {
+            PartitionOffsets partitionOffsets = sortedOffsets.get(topicPartition);
+            long offset = partitionOffsets == null ? PartitionOffsets.NO_OFFSET : partitionOffsets.fetchCommittableOffset();
+            if (offset != PartitionOffsets.NO_OFFSET) {
+                committableOffsets.put(topicPartition, new OffsetAndMetadata(offset));
             }
         }
+        return committableOffsets;
+    }
 
-        // Compact
-        iterator = nodes.iterator();
-        while (iterator.hasNext()) {
-            if (iterator.next().isRemovable()) {
-                iterator.remove();
-            } else {
-                break;
-            }
-        }
-        return nodes.first().isCommittable() ? Optional.of(nodes.first()) : Optional.empty();
+    /**
+     * Drops all offsets of the given partitions, after they are revoked from this consumer.
+     * Batches still holding offsets of these partitions can be set committable,
+     * but those offsets are not returned as committable anymore.
+     *
+     * @param topicPartitions partitions to drop
+     */
+    public void removePartitions(Collection<TopicPartition> topicPartitions) {
+        topicPartitions.forEach(sortedOffsets::remove);
     }
 
-    protected TreeSet<OffsetNode> getOffsetsForTopicPartition(TopicPartition topicPartition) {
+    protected PartitionOffsets getOffsetsForTopicPartition(TopicPartition topicPartition) {
         return sortedOffsets.get(topicPartition);
     }
 
-    protected Set<OffsetNode> getOffsetsForBatch(Object key) {
+    protected BatchOffsets getOffsetsForBatch(Object key) {
         return toBeCommittableBatchOffsets.get(key);
     }
-
-
 }
@@ -0,0 +1,116 @@
+package io.odpf.firehose.consumer.kafka;
+
+import lombok.Getter;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Arrays;
+
+/**
+ * Offsets of a single topic-partition, kept sorted in a primitive array with a committable flag per offset.
+ * <p>
+ * Live offsets are stored in the window [head, tail). The offset at head is the last one returned as committable,
+ * everything before it has already been compacted away.
+ * Methods are synchronized on the instance, so callers only contend on the same partition.
+ */
+class PartitionOffsets {
+    static final long NO_OFFSET = -1L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    @Getter
+    private final TopicPartition topicPartition;
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private boolean[] committable = new boolean[INITIAL_CAPACITY];
+    private int head = 0;
+    private int tail = 0;
+
+    PartitionOffsets(TopicPartition topicPartition) {
+        this.topicPartition = topicPartition;
+    }
+
+    boolean belongsTo(String topic, int partition) {
+        return topicPartition.partition() == partition && topicPartition.topic().equals(topic);
+    }
+
+    /**
+     * Registers an offset as not committable. Offsets already registered are ignored.
+     *
+     * @param offset offset to be committed once the message is processed
+     */
+    synchronized void add(long offset) {
+        ensureCapacity();
+        if (head == tail || offsets[tail - 1] < offset) {
+            offsets[tail] = offset;
+            committable[tail] = false;
+            tail++;
+            return;
+        }
+        int index = Arrays.binarySearch(offsets, head, tail, offset);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        System.arraycopy(offsets, insertAt, offsets, insertAt + 1, tail - insertAt);
+        System.arraycopy(committable, insertAt, committable, insertAt + 1, tail - insertAt);
+        offsets[insertAt] = offset;
+        committable[insertAt] = false;
+        tail++;
+    }
+
+    /**
+     * @param batchOffsets offsets to be set committable
+     * @param size         number of offsets to read from batchOffsets
+     */
+    synchronized void setCommittable(long[] batchOffsets, int size) {
+        for (int i = 0; i < size; i++) {
+            int index = Arrays.binarySearch(offsets, head, tail, batchOffsets[i]);
+            if (index >= 0) {
+                committable[index] = true;
+            }
+        }
+    }
+
+    /**
+     * @return the last offset of the contiguous committable offsets from the start or {@link #NO_OFFSET}.
+     * It also drops the offsets before the returned one.
+     */
+    synchronized long fetchCommittableOffset() {
+        int index = head;
+        while (index < tail && committable[index]) {
+            index++;
+        }
+        if (index == head) {
+            return NO_OFFSET;
+        }
+        head = index - 1;
+        return offsets[head];
+    }
+
+    synchronized int size() {
+        return tail - head;
+    }
+
+    synchronized boolean isCommittable(long offset) {
+        int index = Arrays.binarySearch(offsets, head, tail, offset);
+        return index >= 0 && committable[index];
+    }
+
+    private void ensureCapacity() {
+        if (tail < offsets.length) {
+            return;
+        }
+        int size = tail - head;
+        if (head >= offsets.length / 2) {
+            System.arraycopy(offsets, head, offsets, 0, size);
+            System.arraycopy(committable, head, committable, 0, size);
+        } else {
+            long[] newOffsets = new long[offsets.length * 2];
+            boolean[] newCommittable = new boolean[offsets.length * 2];
+            System.arraycopy(offsets, head, newOffsets, 0, size);
+            System.arraycopy(committable, head, newCommittable, 0, size);
+            offsets = newOffsets;
+            committable = newCommittable;
+        }
+        head = 0;
+        tail = size;
+    }
+}
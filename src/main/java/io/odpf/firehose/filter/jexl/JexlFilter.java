@@ -7,15 +7,17 @@ import io.odpf.firehose.filter.Filter;
 import io.odpf.firehose.filter.FilterException;
 import io.odpf.firehose.filter.FilteredMessages;
 import io.odpf.firehose.metrics.Instrumentation;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
 import org.apache.commons.jexl2.Expression;
-import org.apache.commons.jexl2.JexlContext;
 import org.apache.commons.jexl2.JexlEngine;
 import org.apache.commons.jexl2.JexlException;
 import org.apache.commons.jexl2.MapContext;
-import org.apache.commons.lang3.reflect.MethodUtils;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 /**
  * A concrete class of Filter. This class is responsible
@@ -24,12 +26,20 @@ import java.util.List;
  * The filter expression is obtained from the {@link FilterConfig#getFilterJexlExpression()}
  * along with configurations for {@link FilterConfig#getFilterDataSource()} - [key|message]
  * and {@link FilterConfig#getFilterSchemaProtoClass()} - FQCN of the protobuf schema.
+ * <p>
+ * The expression, the parser of the schema and the object accessor are resolved once,
+ * and every thread reuses its own context. Batches of at least {@link FilterConfig#getFilterJexlParallelMinMessages()}
+ * messages are evaluated in parallel on the common fork join pool.
  */
 public class JexlFilter implements Filter {
 
     private final Expression expression;
     private final FilterDataSourceType filterDataSourceType;
     private final String protoSchema;
+    private final Parser<?> protoParser;
+    private final String objectAccessor;
+    private final int parallelMinMessages;
+    private final ThreadLocal<MapContext> contexts = ThreadLocal.withInitial(MapContext::new);
 
     /**
      * Instantiates a new Message filter.
@@ -47,6 +57,9 @@ public class JexlFilter implements Filter {
         this.expression = engine.createExpression(filterConfig.getFilterJexlExpression());
         instrumentation.logInfo("\n\tFilter schema: {}", this.protoSchema);
         instrumentation.logInfo("\n\tFilter expression: {}", filterConfig.getFilterJexlExpression());
+        this.protoParser = getProtoParser(protoSchema);
+        this.objectAccessor = getObjectAccessor(protoSchema);
+        this.parallelMinMessages = filterConfig.getFilterJexlParallelMinMessages();
     }
 
     /**
@@ -58,30 +71,48 @@ public class JexlFilter implements Filter {
      */
     @Override
     public FilteredMessages filter(List<Message> messages) throws FilterException {
-        FilteredMessages filteredMessages = new FilteredMessages();
-        for (Message message : messages) {
-            try {
-                Object data = (filterDataSourceType.equals(FilterDataSourceType.KEY)) ? message.getLogKey() : message.getLogMessage();
-                Object obj = MethodUtils.invokeStaticMethod(Class.forName(protoSchema), "parseFrom", data);
-                if (evaluate(obj)) {
-                    filteredMessages.addToValidMessages(message);
-                } else {
-                    filteredMessages.addToInvalidMessages(message);
+        boolean[] results = new boolean[messages.size()];
+        if (parallelMinMessages > 0 && messages.size() >= parallelMinMessages) {
+            AtomicReference<FilterException> failure = new AtomicReference<>();
+            IntStream.range(0, messages.size()).parallel().forEach(index -> {
+                try {
+                    results[index] = evaluate(messages.get(index));
+                } catch (FilterException e) {
+                    failure.compareAndSet(null, e);
                 }
-            } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-                throw new FilterException("Failed while filtering EsbMessages", e);
+            });
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        } else {
+            for (int index = 0; index < messages.size(); index++) {
+                results[index] = evaluate(messages.get(index));
+            }
+        }
+        FilteredMessages filteredMessages = new FilteredMessages();
+        for (int index = 0; index < messages.size(); index++) {
+            if (results[index]) {
+                filteredMessages.addToValidMessages(messages.get(index));
+            } else {
+                filteredMessages.addToInvalidMessages(messages.get(index));
             }
         }
         return filteredMessages;
-
     }
 
-    private boolean evaluate(Object data) throws FilterException {
+    private boolean evaluate(Message message) throws FilterException {
+        byte[] data = (filterDataSourceType.equals(FilterDataSourceType.KEY)) ? message.getLogKey() : message.getLogMessage();
         Object result;
+        MapContext context = contexts.get();
         try {
-            result = expression.evaluate(convertDataToContext(data));
-        } catch (JexlException | IllegalAccessException e) {
+            context.set(objectAccessor, protoParser.parseFrom(data));
+            result = expression.evaluate(context);
+        } catch (InvalidProtocolBufferException e) {
+            throw new FilterException("Failed while filtering EsbMessages", e);
+        } catch (JexlException e) {
             throw new FilterException("Failed while filtering " + e.getMessage());
+        } finally {
+            context.set(objectAccessor, null);
         }
         if (result instanceof Boolean) {
             return (Boolean) result;
@@ -90,13 +121,15 @@ public class JexlFilter implements Filter {
         }
     }
 
-    private JexlContext convertDataToContext(Object t) throws IllegalAccessException {
-        JexlContext context = new MapContext();
-        context.set(getObjectAccessor(), t);
-        return context;
+    private static Parser<?> getProtoParser(String protoSchema) {
+        try {
+            return (Parser<?>) Class.forName(protoSchema).getMethod("parser").invoke(null);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException("Invalid FILTER_SCHEMA_PROTO_CLASS " + protoSchema, e);
+        }
     }
 
-    private String getObjectAccessor() {
+    private static String getObjectAccessor(String protoSchema) {
         String[] schemaNameSplit = protoSchema.split("\\.");
         String objectAccessor = schemaNameSplit[schemaNameSplit.length - 1];
         return objectAccessor.substring(0, 1).toLowerCase() + objectAccessor.substring(1);
@@ -1,10 +1,8 @@
 package io.odpf.firehose.filter.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.protobuf.DynamicMessage;
-import com.google.protobuf.util.JsonFormat;
 import com.networknt.schema.JsonSchema;
 import com.networknt.schema.JsonSchemaFactory;
 import com.networknt.schema.SpecVersion;
@@ -16,10 +14,12 @@ import io.odpf.firehose.filter.Filter;
 import io.odpf.firehose.filter.FilterException;
 import io.odpf.firehose.filter.FilteredMessages;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.proto.CachingParser;
+import io.odpf.firehose.proto.ProtoToJsonNode;
 import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.Parser;
 
-import java.nio.charset.Charset;
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
@@ -35,7 +35,7 @@ public class JsonFilter implements Filter {
     private final Instrumentation instrumentation;
     private final JsonSchema schema;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private JsonFormat.Printer jsonPrinter;
+    private ProtoToJsonNode protoToJsonNode;
     private Parser parser;
 
     /**
@@ -45,13 +45,27 @@ public class JsonFilter implements Filter {
      * @param instrumentation the instrumentation
      */
     public JsonFilter(StencilClient stencilClient, FilterConfig filterConfig, Instrumentation instrumentation) {
+        this(filterConfig.getFilterESBMessageFormat() == FilterMessageFormatType.PROTOBUF
+                        ? stencilClient.getParser(filterConfig.getFilterSchemaProtoClass())
+                        : null,
+                filterConfig, instrumentation);
+    }
+
+    /**
+     * Instantiates a new Json filter with the given parser.
+     *
+     * @param parser          parser of the filter schema, used when the message format is PROTOBUF
+     * @param filterConfig    the consumer config
+     * @param instrumentation the instrumentation
+     */
+    public JsonFilter(Parser parser, FilterConfig filterConfig, Instrumentation instrumentation) {
         this.instrumentation = instrumentation;
         this.filterConfig = filterConfig;
         JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
         this.schema = schemaFactory.getSchema(filterConfig.getFilterJsonSchema());
         if (filterConfig.getFilterESBMessageFormat() == FilterMessageFormatType.PROTOBUF) {
-            this.parser = stencilClient.getParser(filterConfig.getFilterSchemaProtoClass());
-            this.jsonPrinter = JsonFormat.printer().preservingProtoFieldNames();
+            this.parser = parser;
+            this.protoToJsonNode = new ProtoToJsonNode(true);
         }
     }
 
@@ -66,8 +80,7 @@ public class JsonFilter implements Filter {
     public FilteredMessages filter(List<Message> messages) throws FilterException {
         FilteredMessages filteredMessages = new FilteredMessages();
         for (Message message : messages) {
-            byte[] data = (filterConfig.getFilterDataSource().equals(KEY)) ? message.getLogKey() : message.getLogMessage();
-            String jsonMessage = deserialize(data);
+            JsonNode jsonMessage = deserialize(message);
             if (evaluate(jsonMessage)) {
                 filteredMessages.addToValidMessages(message);
             } else {
@@ -77,34 +90,36 @@ public class JsonFilter implements Filter {
         return filteredMessages;
     }
 
-    private boolean evaluate(String jsonMessage) throws FilterException {
-        try {
-            JsonNode message = objectMapper.readTree(jsonMessage);
-            if (instrumentation.isDebugEnabled()) {
-                instrumentation.logDebug("Json Message: \n {}", message.toPrettyString());
-            }
-            Set<ValidationMessage> validationErrors = schema.validate(message);
-            validationErrors.forEach(error -> {
-                instrumentation.logDebug("Message filtered out due to: {}", error.getMessage());
-            });
-            return validationErrors.isEmpty();
-        } catch (JsonProcessingException e) {
-            throw new FilterException("Failed to parse JSON message", e);
+    private boolean evaluate(JsonNode message) {
+        if (instrumentation.isDebugEnabled()) {
+            instrumentation.logDebug("Json Message: \n {}", message.toPrettyString());
         }
+        Set<ValidationMessage> validationErrors = schema.validate(message);
+        validationErrors.forEach(error -> {
+            instrumentation.logDebug("Message filtered out due to: {}", error.getMessage());
+        });
+        return validationErrors.isEmpty();
     }
 
-    private String deserialize(byte[] data) throws FilterException {
+    private JsonNode deserialize(Message message) throws FilterException {
+        boolean isKey = filterConfig.getFilterDataSource().equals(KEY);
         switch (filterConfig.getFilterESBMessageFormat()) {
             case PROTOBUF:
                 try {
-                    DynamicMessage message = parser.parse(data);
-                    return jsonPrinter.print(message);
+                    DynamicMessage parsedMessage = isKey
+                            ? CachingParser.parseLogKey(parser, message)
+                            : CachingParser.parseLogMessage(parser, message);
+                    return protoToJsonNode.convert(parsedMessage);
 
                 } catch (Exception e) {
                     throw new FilterException("Failed to parse Protobuf message", e);
                 }
             case JSON:
-                return new String(data, Charset.defaultCharset());
+                try {
+                    return objectMapper.readTree(isKey ? message.getLogKey() : message.getLogMessage());
+                } catch (IOException e) {
+                    throw new FilterException("Failed to parse JSON message", e);
+                }
             default:
                 throw new FilterException("Invalid message format type");
         }
@@ -0,0 +1,221 @@
+package io.odpf.firehose.filter.proto;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compares one field of a serialized protobuf message with a literal.
+ * <p>
+ * The field is read by scanning the wire format and skipping every other field. Like the protobuf parser,
+ * the last occurrence of the field wins, and occurrences of a parent message are merged. Nested fields are
+ * read by scanning only the bytes of their parent message. A missing field compares as its default value.
+ * Unsigned 64 bit fields are compared as unsigned, and literals of these fields are expected to be parsed
+ * with {@link Long#parseUnsignedLong}.
+ */
+public class ProtoFieldComparison implements ProtoPredicate {
+    private static final long UNSIGNED_INT_MASK = 0xFFFFFFFFL;
+    private static final double UNSIGNED_LONG_OFFSET = 0x1p63;
+
+    private final int[] path;
+    private final Descriptors.FieldDescriptor field;
+    private final Operator operator;
+    private final Object value;
+    private final Object defaultValue;
+    private final boolean unsigned;
+
+    /**
+     * @param fields   fields from the root message to the compared field
+     * @param operator comparison operator
+     * @param value    literal to compare with, a String, Boolean, Long or Double matching the type of the field
+     */
+    public ProtoFieldComparison(List<Descriptors.FieldDescriptor> fields, Operator operator, Object value) {
+        this.path = fields.stream().mapToInt(Descriptors.FieldDescriptor::getNumber).toArray();
+        this.field = fields.get(fields.size() - 1);
+        this.operator = operator;
+        this.value = value;
+        this.defaultValue = getDefaultValue(field);
+        this.unsigned = isUnsignedLong(field);
+    }
+
+    /**
+     * @param field field to compare
+     * @return true if the values of the field are unsigned 64 bit integers
+     */
+    public static boolean isUnsignedLong(Descriptors.FieldDescriptor field) {
+        return field.getType() == Descriptors.FieldDescriptor.Type.UINT64 || field.getType() == Descriptors.FieldDescriptor.Type.FIXED64;
+    }
+
+    @Override
+    public boolean test(byte[] data) throws IOException {
+        Object fieldValue = read(CodedInputStream.newInstance(data), 0);
+        return operator.test(compare(fieldValue == null ? defaultValue : fieldValue));
+    }
+
+    private Object read(CodedInputStream input, int depth) throws IOException {
+        boolean leaf = depth == path.length - 1;
+        Object fieldValue = null;
+        while (true) {
+            int tag = input.readTag();
+            if (tag == 0) {
+                return fieldValue;
+            }
+            if (WireFormat.getTagFieldNumber(tag) != path[depth]) {
+                input.skipField(tag);
+            } else if (leaf && WireFormat.getTagWireType(tag) == field.getLiteType().getWireType()) {
+                fieldValue = readValue(input);
+            } else if (!leaf && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                int oldLimit = input.pushLimit(input.readRawVarint32());
+                Object nestedValue = read(input, depth + 1);
+                input.popLimit(oldLimit);
+                if (nestedValue != null) {
+                    fieldValue = nestedValue;
+                }
+            } else {
+                input.skipField(tag);
+            }
+        }
+    }
+
+    private Object readValue(CodedInputStream input) throws IOException {
+        switch (field.getType()) {
+            case INT32:
+            case INT64:
+            case UINT32:
+            case UINT64:
+            case ENUM:
+                return input.readRawVarint64();
+            case SINT32:
+                return (long) input.readSInt32();
+            case SINT64:
+                return input.readSInt64();
+            case FIXED32:
+                return input.readFixed32() & UNSIGNED_INT_MASK;
+            case SFIXED32:
+                return (long) input.readSFixed32();
+            case FIXED64:
+                return input.readFixed64();
+            case SFIXED64:
+                return input.readSFixed64();
+            case FLOAT:
+                return (double) input.readFloat();
+            case DOUBLE:
+                return input.readDouble();
+            case BOOL:
+                return input.readBool();
+            case STRING:
+                return input.readString();
+            default:
+                throw new IllegalArgumentException("Field " + field.getFullName() + " can not be compared");
+        }
+    }
+
+    private int compare(Object fieldValue) {
+        if (value instanceof String) {
+            return ((String) fieldValue).compareTo((String) value);
+        }
+        if (value instanceof Boolean) {
+            return Boolean.compare((Boolean) fieldValue, (Boolean) value);
+        }
+        if (fieldValue instanceof Double || value instanceof Double) {
+            return Double.compare(toDouble((Number) fieldValue), toDouble((Number) value));
+        }
+        if (unsigned) {
+            return Long.compareUnsigned((Long) fieldValue, (Long) value);
+        }
+        return Long.compare((Long) fieldValue, (Long) value);
+    }
+
+    private double toDouble(Number number) {
+        if (unsigned && number instanceof Long && number.longValue() < 0) {
+            return (number.longValue() & Long.MAX_VALUE) + UNSIGNED_LONG_OFFSET;
+        }
+        return number.doubleValue();
+    }
+
+    private static Object getDefaultValue(Descriptors.FieldDescriptor field) {
+        Object defaultValue = field.getDefaultValue();
+        switch (field.getJavaType()) {
+            case ENUM:
+                return (long) ((Descriptors.EnumValueDescriptor) defaultValue).getNumber();
+            case FLOAT:
+            case DOUBLE:
+                return ((Number) defaultValue).doubleValue();
+            case INT:
+            case LONG:
+                return ((Number) defaultValue).longValue();
+            default:
+                return defaultValue;
+        }
+    }
+
+    /**
+     * Comparison operators of the proto filter expression.
+     */
+    public enum Operator {
+        EQ("==") {
+            @Override
+            boolean test(int comparison) {
+                return comparison == 0;
+            }
+        },
+        NE("!=") {
+            @Override
+            boolean test(int comparison) {
+                return comparison != 0;
+            }
+        },
+        GT(">") {
+            @Override
+            boolean test(int comparison) {
+                return comparison > 0;
+            }
+        },
+        GE(">=") {
+            @Override
+            boolean test(int comparison) {
+                return comparison >= 0;
+            }
+        },
+        LT("<") {
+            @Override
+            boolean test(int comparison) {
+                return comparison < 0;
+            }
+        },
+        LE("<=") {
+            @Override
+            boolean test(int comparison) {
+                return comparison <= 0;
+            }
+        };
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        abstract boolean test(int comparison);
+
+        /**
+         * @param symbol symbol of the operator
+         * @return operator of the symbol, or null if there is none
+         */
+        public static Operator fromSymbol(String symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.odpf.firehose.filter.proto;
+
+import com.google.protobuf.Descriptors;
+import io.odpf.firehose.config.FilterConfig;
+import io.odpf.firehose.config.enums.FilterDataSourceType;
+import io.odpf.firehose.filter.Filter;
+import io.odpf.firehose.filter.FilterException;
+import io.odpf.firehose.filter.FilteredMessages;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Filter which evaluates {@link FilterConfig#getFilterProtoExpression()} on the serialized protobuf bytes,
+ * without parsing the whole message.
+ * <p>
+ * Only the fields used by the expression are read, and the expression stops as soon as its result is known.
+ */
+public class ProtoFilter implements Filter {
+    private final FilterDataSourceType filterDataSourceType;
+    private final ProtoPredicate predicate;
+
+    /**
+     * Instantiates a new Proto filter.
+     *
+     * @param descriptor      descriptor of {@link FilterConfig#getFilterSchemaProtoClass()}
+     * @param filterConfig    the filter config
+     * @param instrumentation the instrumentation
+     */
+    public ProtoFilter(Descriptors.Descriptor descriptor, FilterConfig filterConfig, Instrumentation instrumentation) {
+        if (descriptor == null) {
+            throw new IllegalArgumentException("FILTER_SCHEMA_PROTO_CLASS " + filterConfig.getFilterSchemaProtoClass() + " not found");
+        }
+        this.filterDataSourceType = filterConfig.getFilterDataSource();
+        this.predicate = ProtoPredicateParser.parse(descriptor, filterConfig.getFilterProtoExpression());
+        instrumentation.logInfo("\n\tFilter type: {}", filterDataSourceType);
+        instrumentation.logInfo("\n\tFilter schema: {}", filterConfig.getFilterSchemaProtoClass());
+        instrumentation.logInfo("\n\tFilter expression: {}", filterConfig.getFilterProtoExpression());
+    }
+
+    /**
+     * method to filter the EsbMessages.
+     *
+     * @param messages the protobuf records in binary format that are wrapped in {@link Message}
+     * @return the list of filtered Messages
+     * @throws FilterException the filter exception
+     */
+    @Override
+    public FilteredMessages filter(List<Message> messages) throws FilterException {
+        FilteredMessages filteredMessages = new FilteredMessages();
+        for (Message message : messages) {
+            byte[] data = filterDataSourceType.equals(FilterDataSourceType.KEY) ? message.getLogKey() : message.getLogMessage();
+            try {
+                if (predicate.test(data == null ? new byte[0] : data)) {
+                    filteredMessages.addToValidMessages(message);
+                } else {
+                    filteredMessages.addToInvalidMessages(message);
+                }
+            } catch (IOException e) {
+                throw new FilterException("Failed to parse Protobuf message", e);
+            }
+        }
+        return filteredMessages;
+    }
+}
@@ -0,0 +1,17 @@
+package io.odpf.firehose.filter.proto;
+
+import java.io.IOException;
+
+/**
+ * Predicate evaluated on the serialized bytes of a protobuf message.
+ */
+@FunctionalInterface
+public interface ProtoPredicate {
+
+    /**
+     * @param data serialized protobuf message
+     * @return whether the message matches the predicate
+     * @throws IOException when the bytes are not a valid protobuf message
+     */
+    boolean test(byte[] data) throws IOException;
+}
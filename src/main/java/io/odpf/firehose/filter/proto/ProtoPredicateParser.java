@@ -0,0 +1,255 @@
+package io.odpf.firehose.filter.proto;
+
+import com.google.protobuf.Descriptors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses a proto filter expression into a {@link ProtoPredicate}.
+ * <p>
+ * An expression combines comparisons with {@code &&}, {@code ||}, {@code !} and parentheses.
+ * A comparison is a field path, an operator ({@code ==, !=, >, >=, <, <=}) and a literal,
+ * e.g. {@code 3 == "BOOKING" && 7.2 > 100}. Path segments are field numbers or field names, separated by dots.
+ * Literals are double quoted strings, numbers, {@code true} or {@code false}; enum fields also accept value names.
+ * Paths are resolved against the descriptor of the schema once, so evaluation needs no descriptor.
+ */
+public class ProtoPredicateParser {
+    private final Descriptors.Descriptor descriptor;
+    private final String expression;
+    private final List<String> tokens;
+    private int position = 0;
+
+    private ProtoPredicateParser(Descriptors.Descriptor descriptor, String expression) {
+        this.descriptor = descriptor;
+        this.expression = expression;
+        this.tokens = tokenize(expression);
+    }
+
+    /**
+     * @param descriptor descriptor of the filtered messages
+     * @param expression proto filter expression
+     * @return predicate of the expression
+     * @throws IllegalArgumentException when the expression is invalid for the descriptor
+     */
+    public static ProtoPredicate parse(Descriptors.Descriptor descriptor, String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("FILTER_PROTO_EXPRESSION is empty");
+        }
+        ProtoPredicateParser parser = new ProtoPredicateParser(descriptor, expression);
+        ProtoPredicate predicate = parser.parseOr();
+        if (parser.position != parser.tokens.size()) {
+            throw parser.invalid("unexpected " + parser.tokens.get(parser.position));
+        }
+        return predicate;
+    }
+
+    private ProtoPredicate parseOr() {
+        ProtoPredicate predicate = parseAnd();
+        while (accept("||")) {
+            predicate = or(predicate, parseAnd());
+        }
+        return predicate;
+    }
+
+    private ProtoPredicate parseAnd() {
+        ProtoPredicate predicate = parseUnary();
+        while (accept("&&")) {
+            predicate = and(predicate, parseUnary());
+        }
+        return predicate;
+    }
+
+    private ProtoPredicate parseUnary() {
+        if (accept("!")) {
+            return not(parseUnary());
+        }
+        if (accept("(")) {
+            ProtoPredicate predicate = parseOr();
+            if (!accept(")")) {
+                throw invalid("missing )");
+            }
+            return predicate;
+        }
+        return parseComparison();
+    }
+
+    private ProtoPredicate parseComparison() {
+        List<Descriptors.FieldDescriptor> fields = resolvePath(next());
+        String symbol = next();
+        ProtoFieldComparison.Operator operator = ProtoFieldComparison.Operator.fromSymbol(symbol);
+        if (operator == null) {
+            throw invalid("unknown operator " + symbol);
+        }
+        Descriptors.FieldDescriptor field = fields.get(fields.size() - 1);
+        Object value = toValue(field, operator, next());
+        return new ProtoFieldComparison(fields, operator, value);
+    }
+
+    private List<Descriptors.FieldDescriptor> resolvePath(String path) {
+        List<Descriptors.FieldDescriptor> fields = new ArrayList<>();
+        Descriptors.Descriptor current = descriptor;
+        String[] segments = path.split("\\.");
+        for (int i = 0; i < segments.length; i++) {
+            if (current == null) {
+                throw invalid(path + " is not a field of a message");
+            }
+            String segment = segments[i];
+            Descriptors.FieldDescriptor field = isNumber(segment)
+                    ? current.findFieldByNumber(Integer.parseInt(segment))
+                    : current.findFieldByName(segment);
+            if (field == null) {
+                throw invalid("unknown field " + segment + " in " + path);
+            }
+            if (field.isRepeated()) {
+                throw invalid("repeated field " + path + " is not supported");
+            }
+            boolean message = field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE;
+            if (i == segments.length - 1 && (message || field.getJavaType() == Descriptors.FieldDescriptor.JavaType.BYTE_STRING)) {
+                throw invalid(path + " can not be compared");
+            }
+            current = message ? field.getMessageType() : null;
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private Object toValue(Descriptors.FieldDescriptor field, ProtoFieldComparison.Operator operator, String literal) {
+        boolean string = literal.startsWith("\"");
+        switch (field.getJavaType()) {
+            case STRING:
+                if (!string) {
+                    throw invalid(field.getName() + " must be compared with a string");
+                }
+                return unquote(literal);
+            case BOOLEAN:
+                if (!literal.equals("true") && !literal.equals("false")) {
+                    throw invalid(field.getName() + " must be compared with true or false");
+                }
+                if (operator != ProtoFieldComparison.Operator.EQ && operator != ProtoFieldComparison.Operator.NE) {
+                    throw invalid(field.getName() + " supports only == and !=");
+                }
+                return Boolean.valueOf(literal);
+            case ENUM:
+                if (string) {
+                    Descriptors.EnumValueDescriptor enumValue = field.getEnumType().findValueByName(unquote(literal));
+                    if (enumValue == null) {
+                        throw invalid("unknown value " + literal + " of " + field.getName());
+                    }
+                    return (long) enumValue.getNumber();
+                }
+                return toNumber(field, literal);
+            case FLOAT:
+            case DOUBLE:
+                return toNumber(field, literal).doubleValue();
+            default:
+                return toNumber(field, literal);
+        }
+    }
+
+    private Number toNumber(Descriptors.FieldDescriptor field, String literal) {
+        boolean unsigned = ProtoFieldComparison.isUnsignedLong(field);
+        if (unsigned && literal.startsWith("-")) {
+            throw invalid(field.getName() + " must be compared with an unsigned number");
+        }
+        try {
+            return unsigned ? Long.parseUnsignedLong(literal) : Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            try {
+                return Double.parseDouble(literal);
+            } catch (NumberFormatException ex) {
+                throw invalid(field.getName() + " must be compared with a number");
+            }
+        }
+    }
+
+    private boolean accept(String token) {
+        if (position < tokens.size() && tokens.get(position).equals(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private String next() {
+        if (position >= tokens.size()) {
+            throw invalid("unexpected end");
+        }
+        return tokens.get(position++);
+    }
+
+    private IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid FILTER_PROTO_EXPRESSION " + expression + ": " + reason);
+    }
+
+    private List<String> tokenize(String input) {
+        List<String> result = new ArrayList<>();
+        int i = 0;
+        while (i < input.length()) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = i + 1;
+                while (end < input.length() && input.charAt(end) != '"') {
+                    end += input.charAt(end) == '\\' ? 2 : 1;
+                }
+                if (end >= input.length()) {
+                    throw invalid("unterminated string");
+                }
+                result.add(input.substring(i, end + 1));
+                i = end + 1;
+            } else if (input.startsWith("&&", i) || input.startsWith("||", i) || input.startsWith("==", i)
+                    || input.startsWith("!=", i) || input.startsWith(">=", i) || input.startsWith("<=", i)) {
+                result.add(input.substring(i, i + 2));
+                i += 2;
+            } else if (c == '!' || c == '(' || c == ')' || c == '>' || c == '<') {
+                result.add(String.valueOf(c));
+                i++;
+            } else if (isWordCharacter(c)) {
+                int end = i;
+                while (end < input.length() && isWordCharacter(input.charAt(end))) {
+                    end++;
+                }
+                result.add(input.substring(i, end));
+                i = end;
+            } else {
+                throw invalid("unexpected character " + c);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-' || c == '+';
+    }
+
+    private static boolean isNumber(String segment) {
+        return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+    }
+
+    private static String unquote(String literal) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i < literal.length() - 1; i++) {
+            char c = literal.charAt(i);
+            if (c == '\\' && i + 1 < literal.length() - 1) {
+                i++;
+                c = literal.charAt(i);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static ProtoPredicate and(ProtoPredicate left, ProtoPredicate right) {
+        return data -> left.test(data) && right.test(data);
+    }
+
+    private static ProtoPredicate or(ProtoPredicate left, ProtoPredicate right) {
+        return data -> left.test(data) || right.test(data);
+    }
+
+    private static ProtoPredicate not(ProtoPredicate predicate) {
+        return data -> !predicate.test(data);
+    }
+}
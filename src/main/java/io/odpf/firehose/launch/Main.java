@@ -6,6 +6,7 @@ import io.odpf.firehose.consumer.FirehoseConsumerFactory;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.metrics.StatsDReporterFactory;
+import io.odpf.firehose.utils.SharedResources;
 import org.aeonbits.owner.ConfigFactory;
 
 import java.io.IOException;
@@ -33,6 +34,9 @@ public class Main {
         Instrumentation instrumentation = new Instrumentation(statsDReporter, Main.class);
         instrumentation.logInfo("Number of consumer threads: " + kafkaConsumerConfig.getApplicationThreadCount());
         instrumentation.logInfo("Delay to clean up consumer threads in ms: " + kafkaConsumerConfig.getApplicationThreadCleanupDelay());
+        int sinkConcurrency = kafkaConsumerConfig.getApplicationThreadCount()
+                * FirehoseConsumerFactory.getSinksPerThread(kafkaConsumerConfig, System.getenv());
+        SharedResources sharedResources = new SharedResources(sinkConcurrency, new Instrumentation(statsDReporter, SharedResources.class));
 
         Task consumerTask = new Task(
                 kafkaConsumerConfig.getApplicationThreadCount(),
@@ -42,7 +46,7 @@ public class Main {
 
                     FirehoseConsumer firehoseConsumer = null;
                     try {
-                        firehoseConsumer = new FirehoseConsumerFactory(kafkaConsumerConfig, statsDReporter).buildConsumer();
+                        firehoseConsumer = new FirehoseConsumerFactory(kafkaConsumerConfig, statsDReporter, sharedResources).buildConsumer();
                         while (true) {
                             if (Thread.interrupted()) {
                                 instrumentation.logWarn("Consumer Thread interrupted, leaving the loop!");
@@ -0,0 +1,71 @@
+package io.odpf.firehose.message;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import lombok.AllArgsConstructor;
+
+/**
+ * Parsed key and value of a {@link Message}.
+ * <p>
+ * Each entry is valid only for the descriptor it was parsed with, so a refreshed schema parses the message again.
+ * Entries are only kept within a {@link DecodeCacheBudget}.
+ */
+public class DecodeCache {
+    private volatile Entry logKey;
+    private volatile Entry logMessage;
+
+    public DynamicMessage getLogKey(Descriptors.Descriptor descriptor) {
+        return get(logKey, descriptor);
+    }
+
+    public DynamicMessage getLogMessage(Descriptors.Descriptor descriptor) {
+        return get(logMessage, descriptor);
+    }
+
+    /**
+     * @param descriptor   descriptor the key was parsed with
+     * @param parsedKey    parsed key
+     * @param payloadBytes size of the serialized key
+     * @param budget       budget charged with the payload size
+     * @return whether the key is cached, it is not when the budget is used up
+     */
+    public boolean putLogKey(Descriptors.Descriptor descriptor, DynamicMessage parsedKey, long payloadBytes, DecodeCacheBudget budget) {
+        Entry entry = new Entry(descriptor, parsedKey);
+        if (!budget.tryCharge(entry, payloadBytes)) {
+            return false;
+        }
+        logKey = entry;
+        return true;
+    }
+
+    /**
+     * @param descriptor    descriptor the value was parsed with
+     * @param parsedMessage parsed value
+     * @param payloadBytes  size of the serialized value
+     * @param budget        budget charged with the payload size
+     * @return whether the value is cached, it is not when the budget is used up
+     */
+    public boolean putLogMessage(Descriptors.Descriptor descriptor, DynamicMessage parsedMessage, long payloadBytes, DecodeCacheBudget budget) {
+        Entry entry = new Entry(descriptor, parsedMessage);
+        if (!budget.tryCharge(entry, payloadBytes)) {
+            return false;
+        }
+        logMessage = entry;
+        return true;
+    }
+
+    void copyFrom(DecodeCache other) {
+        logKey = other.logKey;
+        logMessage = other.logMessage;
+    }
+
+    private static DynamicMessage get(Entry entry, Descriptors.Descriptor descriptor) {
+        return entry != null && entry.descriptor == descriptor ? entry.parsed : null;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final Descriptors.Descriptor descriptor;
+        private final DynamicMessage parsed;
+    }
+}
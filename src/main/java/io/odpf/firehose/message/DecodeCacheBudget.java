@@ -0,0 +1,79 @@
+package io.odpf.firehose.message;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the bytes of the payloads whose parsed form is kept in {@link DecodeCache}s, across all the messages.
+ * <p>
+ * An entry is charged with the size of its payload when it is cached, and released once it is garbage collected,
+ * with its message or after being replaced, so messages held in flight, in an accumulator or in a sink pool count
+ * until they are gone. Entries which would go over the budget are not cached, their payload is parsed again when needed.
+ */
+public class DecodeCacheBudget {
+    private static DecodeCacheBudget shared;
+
+    private final long maxBytes;
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final Set<Charge> charges = ConcurrentHashMap.newKeySet();
+
+    public DecodeCacheBudget(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Budget shared by the parsers of all the consumer threads, created with the max bytes of the first call.
+     *
+     * @param maxBytes max bytes of cached payloads
+     * @return the shared budget
+     */
+    public static synchronized DecodeCacheBudget shared(long maxBytes) {
+        if (shared == null) {
+            shared = new DecodeCacheBudget(maxBytes);
+        }
+        return shared;
+    }
+
+    /**
+     * @return bytes of the cached payloads which are not collected yet
+     */
+    public long getCachedBytes() {
+        releaseCollected();
+        return cachedBytes.get();
+    }
+
+    boolean tryCharge(Object entry, long bytes) {
+        releaseCollected();
+        if (cachedBytes.addAndGet(bytes) > maxBytes) {
+            cachedBytes.addAndGet(-bytes);
+            return false;
+        }
+        charges.add(new Charge(entry, bytes, collected));
+        return true;
+    }
+
+    private void releaseCollected() {
+        Reference<?> reference = collected.poll();
+        while (reference != null) {
+            Charge charge = (Charge) reference;
+            if (charges.remove(charge)) {
+                cachedBytes.addAndGet(-charge.bytes);
+            }
+            reference = collected.poll();
+        }
+    }
+
+    private static class Charge extends PhantomReference<Object> {
+        private final long bytes;
+
+        Charge(Object entry, long bytes, ReferenceQueue<Object> queue) {
+            super(entry, queue);
+            this.bytes = bytes;
+        }
+    }
+}
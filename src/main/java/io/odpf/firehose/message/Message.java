@@ -4,6 +4,7 @@ package io.odpf.firehose.message;
 import io.odpf.firehose.error.ErrorInfo;
 import io.odpf.firehose.error.ErrorType;
 import io.odpf.firehose.exception.DefaultException;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -29,6 +30,9 @@ public class Message {
     private long consumeTimestamp;
     @Setter
     private ErrorInfo errorInfo;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private final transient DecodeCache decodeCache = new DecodeCache();
 
     public void setDefaultErrorIfNotPresent() {
         if (errorInfo == null) {
@@ -79,6 +83,16 @@ public class Message {
                 message.getTimestamp(),
                 message.getConsumeTimestamp(),
                 errorInfo);
+        this.decodeCache.copyFrom(message.decodeCache);
+    }
+
+    /**
+     * Parsed key and value shared by all stages that parse this message.
+     *
+     * @return the decode cache
+     */
+    public DecodeCache decodeCache() {
+        return decodeCache;
     }
 
     /**
@@ -99,6 +113,13 @@ public class Message {
         return encodedSerializedStringFrom(logMessage);
     }
 
+    /**
+     * @return number of bytes of the key and the value of this message.
+     */
+    public long getSize() {
+        return (logKey == null ? 0 : logKey.length) + (logMessage == null ? 0 : logMessage.length);
+    }
+
     private static String encodedSerializedStringFrom(byte[] bytes) {
         if (bytes == null || bytes.length == 0) {
             return "";
@@ -14,6 +14,7 @@ public class Metrics {
     public static final String BLOB_SINK_PREFIX = "blob_";
 
     public static final String MONGO_SINK_PREFIX = "mongo_";
+    public static final String POOL_PREFIX = "pool_";
 
 
     //RETRY PREFIX
@@ -35,6 +36,9 @@ public class Metrics {
     public static final String SOURCE_KAFKA_MESSAGES_FILTER_TOTAL = APPLICATION_PREFIX + SOURCE_PREFIX + KAFKA_PREFIX + "messages_filter_total";
     public static final String SOURCE_KAFKA_MESSAGES_COMMIT_TOTAL = APPLICATION_PREFIX + SOURCE_PREFIX + KAFKA_PREFIX + "messages_commit_total";
     public static final String SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS = APPLICATION_PREFIX + SOURCE_PREFIX + KAFKA_PREFIX + "partitions_process_milliseconds";
+    public static final String SOURCE_KAFKA_IN_FLIGHT_MESSAGES = APPLICATION_PREFIX + SOURCE_PREFIX + KAFKA_PREFIX + "in_flight_messages";
+    public static final String SOURCE_KAFKA_IN_FLIGHT_BYTES = APPLICATION_PREFIX + SOURCE_PREFIX + KAFKA_PREFIX + "in_flight_bytes";
+    public static final String SOURCE_KAFKA_PAUSED = APPLICATION_PREFIX + SOURCE_PREFIX + KAFKA_PREFIX + "paused";
     public static final String SOURCE_KAFKA_PULL_BATCH_SIZE_TOTAL = APPLICATION_PREFIX + SOURCE_PREFIX + KAFKA_PREFIX + "pull_batch_size_total";
 
     // SINK MEASUREMENTS
@@ -43,6 +47,13 @@ public class Metrics {
     public static final String SINK_MESSAGES_DROP_TOTAL = APPLICATION_PREFIX + SINK_PREFIX + "messages_drop_total";
     public static final String SINK_HTTP_RESPONSE_CODE_TOTAL = APPLICATION_PREFIX + SINK_PREFIX + HTTP_SINK_PREFIX + "response_code_total";
     public static final String SINK_PUSH_BATCH_SIZE_TOTAL = APPLICATION_PREFIX + SINK_PREFIX + "push_batch_size_total";
+    public static final String SINK_MESSAGES_COMPACTED_TOTAL = APPLICATION_PREFIX + SINK_PREFIX + "messages_compacted_total";
+    public static final String SINK_CONCURRENCY_LIMIT = APPLICATION_PREFIX + SINK_PREFIX + "concurrency_limit";
+
+    // SINK POOL MEASUREMENTS
+    public static final String SINK_POOL_SIZE = APPLICATION_PREFIX + SINK_PREFIX + POOL_PREFIX + "size";
+    public static final String SINK_POOL_ACTIVE_TASKS = APPLICATION_PREFIX + SINK_PREFIX + POOL_PREFIX + "active_tasks";
+    public static final String SINK_POOL_QUEUE_DEPTH = APPLICATION_PREFIX + SINK_PREFIX + POOL_PREFIX + "queue_depth";
 
     // MONGO SINK MEASUREMENTS
     public static final String SINK_MONGO_INSERTED_TOTAL = APPLICATION_PREFIX + SINK_PREFIX + MONGO_SINK_PREFIX + "inserted_total";
@@ -0,0 +1,98 @@
+package io.odpf.firehose.proto;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.odpf.firehose.message.DecodeCache;
+import io.odpf.firehose.message.DecodeCacheBudget;
+import io.odpf.firehose.message.Message;
+import io.odpf.stencil.Parser;
+import io.odpf.stencil.client.StencilClient;
+
+/**
+ * Parser that keeps the parsed key and value on the {@link Message}, so filter, sink, retry and DLQ
+ * parse a message only once for the same descriptor.
+ * <p>
+ * Payloads bigger than the max cached payload bytes are parsed every time, to bound the memory kept per message,
+ * and the cached payloads of all the messages are bounded by a {@link DecodeCacheBudget}.
+ */
+public class CachingParser implements Parser {
+    private final StencilClient stencilClient;
+    private final String protoClassName;
+    private final Parser parser;
+    private final long maxCachedPayloadBytes;
+    private final DecodeCacheBudget budget;
+
+    public CachingParser(StencilClient stencilClient, String protoClassName, long maxCachedPayloadBytes, DecodeCacheBudget budget) {
+        this.stencilClient = stencilClient;
+        this.protoClassName = protoClassName;
+        this.parser = stencilClient.getParser(protoClassName);
+        this.maxCachedPayloadBytes = maxCachedPayloadBytes;
+        this.budget = budget;
+    }
+
+    @Override
+    public DynamicMessage parse(byte[] data) throws InvalidProtocolBufferException {
+        return parser.parse(data);
+    }
+
+    public DynamicMessage parseLogKey(Message message) throws InvalidProtocolBufferException {
+        Descriptors.Descriptor descriptor = stencilClient.get(protoClassName);
+        DecodeCache decodeCache = message.decodeCache();
+        DynamicMessage parsedKey = descriptor == null ? null : decodeCache.getLogKey(descriptor);
+        if (parsedKey == null) {
+            parsedKey = parser.parse(message.getLogKey());
+            if (descriptor != null && isCacheable(message.getLogKey())) {
+                decodeCache.putLogKey(descriptor, parsedKey, message.getLogKey().length, budget);
+            }
+        }
+        return parsedKey;
+    }
+
+    public DynamicMessage parseLogMessage(Message message) throws InvalidProtocolBufferException {
+        Descriptors.Descriptor descriptor = stencilClient.get(protoClassName);
+        DecodeCache decodeCache = message.decodeCache();
+        DynamicMessage parsedMessage = descriptor == null ? null : decodeCache.getLogMessage(descriptor);
+        if (parsedMessage == null) {
+            parsedMessage = parser.parse(message.getLogMessage());
+            if (descriptor != null && isCacheable(message.getLogMessage())) {
+                decodeCache.putLogMessage(descriptor, parsedMessage, message.getLogMessage().length, budget);
+            }
+        }
+        return parsedMessage;
+    }
+
+    private boolean isCacheable(byte[] payload) {
+        return payload != null && payload.length <= maxCachedPayloadBytes;
+    }
+
+    /**
+     * Parses the key of the message, through the decode cache if the parser is a caching parser.
+     *
+     * @param parser  parser of the key schema
+     * @param message message to parse
+     * @return parsed key
+     * @throws InvalidProtocolBufferException when the key can not be parsed
+     */
+    public static DynamicMessage parseLogKey(Parser parser, Message message) throws InvalidProtocolBufferException {
+        if (parser instanceof CachingParser) {
+            return ((CachingParser) parser).parseLogKey(message);
+        }
+        return parser.parse(message.getLogKey());
+    }
+
+    /**
+     * Parses the value of the message, through the decode cache if the parser is a caching parser.
+     *
+     * @param parser  parser of the value schema
+     * @param message message to parse
+     * @return parsed value
+     * @throws InvalidProtocolBufferException when the value can not be parsed
+     */
+    public static DynamicMessage parseLogMessage(Parser parser, Message message) throws InvalidProtocolBufferException {
+        if (parser instanceof CachingParser) {
+            return ((CachingParser) parser).parseLogMessage(message);
+        }
+        return parser.parse(message.getLogMessage());
+    }
+}
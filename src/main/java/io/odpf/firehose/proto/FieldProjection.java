@@ -0,0 +1,68 @@
+package io.odpf.firehose.proto;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Trie of the field numbers a sink reads from a message.
+ * <p>
+ * A field is either read whole, or only the fields of its nested projection are read. A field added both ways
+ * is read whole.
+ */
+public class FieldProjection {
+    private final Map<Integer, FieldProjection> fields = new HashMap<>();
+
+    /**
+     * Creates the projection of proto index mappings, where a field mapped to a string is read whole and a field
+     * mapped to properties is read through the nested mapping.
+     *
+     * @param mappings proto index mappings, null mappings are ignored
+     * @return the projection
+     */
+    public static FieldProjection of(Properties... mappings) {
+        FieldProjection projection = new FieldProjection();
+        for (Properties mapping : mappings) {
+            if (mapping != null) {
+                projection.addMapping(mapping);
+            }
+        }
+        return projection;
+    }
+
+    /**
+     * @param number number of the field to read whole
+     * @return this projection
+     */
+    public FieldProjection addField(int number) {
+        fields.put(number, null);
+        return this;
+    }
+
+    private void addMapping(Properties mapping) {
+        mapping.forEach((key, value) -> {
+            int number = Integer.parseInt((String) key);
+            if (!(value instanceof Properties)) {
+                addField(number);
+            } else if (!fields.containsKey(number) || fields.get(number) != null) {
+                fields.computeIfAbsent(number, n -> new FieldProjection()).addMapping((Properties) value);
+            }
+        });
+    }
+
+    /**
+     * @param number field number
+     * @return whether the field is read
+     */
+    public boolean contains(int number) {
+        return fields.containsKey(number);
+    }
+
+    /**
+     * @param number field number
+     * @return projection of the fields read from the field, or null if the field is read whole
+     */
+    public FieldProjection getNested(int number) {
+        return fields.get(number);
+    }
+}
@@ -0,0 +1,243 @@
+package io.odpf.firehose.proto;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decoder of the projected fields of serialized messages of one descriptor into sparse {@link DynamicMessage}s.
+ * <p>
+ * The decoder is compiled once for the descriptor and a {@link FieldProjection}: every projected field is bound to
+ * a reader which knows its tag, its cardinality and how to read its type, and fields with a nested projection get
+ * their own decoders. Every other field is skipped on the wire, so the decoded messages have no unknown fields.
+ * Message fields read whole are parsed by the generic protobuf parser.
+ * Required fields outside the projection are never read, so the decoded messages are not checked to be initialized.
+ * Inputs the readers do not handle, such as unknown enum values or a message field written twice,
+ * throw {@link FallbackException}, so the caller can parse them with the generic parser instead.
+ */
+public class MessageDecoder {
+    private static final int MAX_DENSE_FIELD_NUMBER = 1024;
+    private static final int TAG_TYPE_BITS = 3;
+
+    private final Descriptors.Descriptor descriptor;
+    private FieldReader[] denseFields;
+    private Map<Integer, FieldReader> sparseFields;
+
+    private MessageDecoder(Descriptors.Descriptor descriptor) {
+        this.descriptor = descriptor;
+    }
+
+    public Descriptors.Descriptor getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Compiles a decoder which only reads the projected fields of the descriptor.
+     *
+     * @param descriptor descriptor of the messages
+     * @param projection fields to read
+     * @return the decoder
+     * @throws UnsupportedOperationException when a projected field is a group, which the decoder does not read
+     */
+    public static MessageDecoder compile(Descriptors.Descriptor descriptor, FieldProjection projection) {
+        MessageDecoder decoder = new MessageDecoder(descriptor);
+        int maxFieldNumber = 0;
+        Map<Integer, FieldReader> fields = new HashMap<>();
+        for (Descriptors.FieldDescriptor field : descriptor.getFields()) {
+            if (!projection.contains(field.getNumber())) {
+                continue;
+            }
+            fields.put(field.getNumber(), fieldReader(field, valueReader(field, projection.getNested(field.getNumber()))));
+            maxFieldNumber = Math.max(maxFieldNumber, field.getNumber());
+        }
+        if (maxFieldNumber <= MAX_DENSE_FIELD_NUMBER) {
+            decoder.denseFields = new FieldReader[maxFieldNumber + 1];
+            fields.forEach((number, field) -> decoder.denseFields[number] = field);
+        } else {
+            decoder.sparseFields = fields;
+        }
+        return decoder;
+    }
+
+    private static ValueReader valueReader(Descriptors.FieldDescriptor field, FieldProjection nested) {
+        switch (field.getType()) {
+            case DOUBLE:
+                return CodedInputStream::readDouble;
+            case FLOAT:
+                return CodedInputStream::readFloat;
+            case INT64:
+                return CodedInputStream::readInt64;
+            case UINT64:
+                return CodedInputStream::readUInt64;
+            case INT32:
+                return CodedInputStream::readInt32;
+            case FIXED64:
+                return CodedInputStream::readFixed64;
+            case FIXED32:
+                return CodedInputStream::readFixed32;
+            case BOOL:
+                return CodedInputStream::readBool;
+            case STRING:
+                return CodedInputStream::readStringRequireUtf8;
+            case BYTES:
+                return CodedInputStream::readBytes;
+            case UINT32:
+                return CodedInputStream::readUInt32;
+            case SFIXED32:
+                return CodedInputStream::readSFixed32;
+            case SFIXED64:
+                return CodedInputStream::readSFixed64;
+            case SINT32:
+                return CodedInputStream::readSInt32;
+            case SINT64:
+                return CodedInputStream::readSInt64;
+            case ENUM:
+                return enumReader(field.getEnumType());
+            case MESSAGE:
+                if (nested == null) {
+                    return wholeMessageReader(field.getMessageType());
+                }
+                return compile(field.getMessageType(), nested)::decodeNested;
+            default:
+                throw new UnsupportedOperationException("group field " + field.getFullName() + " is not supported");
+        }
+    }
+
+    private static ValueReader enumReader(Descriptors.EnumDescriptor enumType) {
+        return input -> {
+            Descriptors.EnumValueDescriptor enumValue = enumType.findValueByNumber(input.readEnum());
+            if (enumValue == null) {
+                throw FallbackException.INSTANCE;
+            }
+            return enumValue;
+        };
+    }
+
+    private static ValueReader wholeMessageReader(Descriptors.Descriptor messageType) {
+        return input -> {
+            DynamicMessage.Builder builder = DynamicMessage.newBuilder(messageType);
+            input.readMessage(builder, ExtensionRegistryLite.getEmptyRegistry());
+            return builder.buildPartial();
+        };
+    }
+
+    private static FieldReader fieldReader(Descriptors.FieldDescriptor field, ValueReader value) {
+        int tag = field.getNumber() << TAG_TYPE_BITS | field.getLiteType().getWireType();
+        if (!field.isRepeated() && field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+            return (actualTag, input, builder) -> {
+                if (actualTag != tag || builder.hasField(field)) {
+                    throw FallbackException.INSTANCE;
+                }
+                builder.setField(field, value.read(input));
+            };
+        }
+        if (!field.isRepeated()) {
+            return (actualTag, input, builder) -> {
+                if (actualTag != tag) {
+                    throw FallbackException.INSTANCE;
+                }
+                builder.setField(field, value.read(input));
+            };
+        }
+        if (!field.getLiteType().isPackable()) {
+            return (actualTag, input, builder) -> {
+                if (actualTag != tag) {
+                    throw FallbackException.INSTANCE;
+                }
+                builder.addRepeatedField(field, value.read(input));
+            };
+        }
+        int packedTag = field.getNumber() << TAG_TYPE_BITS | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+        return (actualTag, input, builder) -> {
+            if (actualTag == tag) {
+                builder.addRepeatedField(field, value.read(input));
+            } else if (actualTag == packedTag) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                while (input.getBytesUntilLimit() > 0) {
+                    builder.addRepeatedField(field, value.read(input));
+                }
+                input.popLimit(limit);
+            } else {
+                throw FallbackException.INSTANCE;
+            }
+        };
+    }
+
+    /**
+     * @param data serialized message
+     * @return the parsed message
+     * @throws IOException       when the data is not a valid message
+     * @throws FallbackException when the data should be parsed with the generic parser
+     */
+    public DynamicMessage decode(byte[] data) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(data);
+        DynamicMessage message = decode(input);
+        input.checkLastTagWas(0);
+        return message;
+    }
+
+    private DynamicMessage decodeNested(CodedInputStream input) throws IOException {
+        int limit = input.pushLimit(input.readRawVarint32());
+        DynamicMessage message = decode(input);
+        input.checkLastTagWas(0);
+        input.popLimit(limit);
+        return message;
+    }
+
+    private DynamicMessage decode(CodedInputStream input) throws IOException {
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+        while (true) {
+            int tag = input.readTag();
+            if (tag == 0) {
+                break;
+            }
+            FieldReader field = getField(WireFormat.getTagFieldNumber(tag));
+            if (field != null) {
+                field.read(tag, input, builder);
+            } else if (!input.skipField(tag)) {
+                throw FallbackException.INSTANCE;
+            }
+        }
+        return builder.buildPartial();
+    }
+
+    private FieldReader getField(int number) {
+        if (denseFields != null) {
+            return number < denseFields.length ? denseFields[number] : null;
+        }
+        return sparseFields.get(number);
+    }
+
+    /**
+     * Reads one value of a type from the wire.
+     */
+    @FunctionalInterface
+    private interface ValueReader {
+        Object read(CodedInputStream input) throws IOException;
+    }
+
+    /**
+     * Reads the value, or the packed values, of one tag of a field into the builder.
+     */
+    @FunctionalInterface
+    private interface FieldReader {
+        void read(int tag, CodedInputStream input, DynamicMessage.Builder builder) throws IOException;
+    }
+
+    /**
+     * Thrown when a message should be parsed with the generic parser.
+     */
+    public static final class FallbackException extends RuntimeException {
+        static final FallbackException INSTANCE = new FallbackException();
+
+        private FallbackException() {
+            super("message can not be decoded by the projected decoder", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package io.odpf.firehose.proto;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Duration;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Durations;
+import com.google.protobuf.util.JsonFormat;
+import com.google.protobuf.util.Timestamps;
+import com.jayway.jsonpath.Configuration;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a JSON path like {@code $.route.locations[0].name} directly from a protobuf message.
+ * <p>
+ * The path is resolved against the descriptor once, and the value is the one JsonPath reads from the message printed
+ * with {@link JsonFormat#printer()} including default values and preserving proto field names: numbers, strings,
+ * booleans, and ordered maps and lists for messages and repeated fields.
+ * Only property and index segments are compiled; paths through maps or well known types are not.
+ */
+public class ProtoFieldPath {
+    /**
+     * Value read when the path is not present in the printed message.
+     */
+    public static final Object MISSING = new Object();
+
+    private static final Pattern SEGMENT = Pattern.compile("([A-Za-z_][A-Za-z0-9_]*)(?:\\[(\\d+)])?");
+    private static final String WELL_KNOWN_TYPES_PACKAGE = "google.protobuf.";
+    private static final String TIMESTAMP = "google.protobuf.Timestamp";
+    private static final String DURATION = "google.protobuf.Duration";
+    private static final JsonFormat.Printer PRINTER = JsonFormat.printer().includingDefaultValueFields().preservingProtoFieldNames();
+
+    private final Descriptors.FieldDescriptor[] fields;
+    private final int[] indexes;
+
+    private ProtoFieldPath(Descriptors.FieldDescriptor[] fields, int[] indexes) {
+        this.fields = fields;
+        this.indexes = indexes;
+    }
+
+    /**
+     * @param descriptor descriptor of the messages to read
+     * @param jsonPath   JSON path starting with {@code $.}
+     * @return compiled path, or null if the path can not be read without printing the message
+     */
+    public static ProtoFieldPath compile(Descriptors.Descriptor descriptor, String jsonPath) {
+        if (!jsonPath.startsWith("$.")) {
+            return null;
+        }
+        String[] segments = jsonPath.substring(2).split("\\.", -1);
+        Descriptors.FieldDescriptor[] fields = new Descriptors.FieldDescriptor[segments.length];
+        int[] indexes = new int[segments.length];
+        Descriptors.Descriptor current = descriptor;
+        for (int i = 0; i < segments.length; i++) {
+            Matcher matcher = SEGMENT.matcher(segments[i]);
+            if (current == null || !matcher.matches()) {
+                return null;
+            }
+            Descriptors.FieldDescriptor field = current.findFieldByName(matcher.group(1));
+            boolean indexed = matcher.group(2) != null;
+            boolean last = i == segments.length - 1;
+            if (field == null || (indexed && (!field.isRepeated() || field.isMapField()))
+                    || (!last && field.isRepeated() && !indexed)) {
+                return null;
+            }
+            fields[i] = field;
+            indexes[i] = indexed ? Integer.parseInt(matcher.group(2)) : -1;
+            current = isPlainMessage(field) ? field.getMessageType() : null;
+        }
+        return new ProtoFieldPath(fields, indexes);
+    }
+
+    /**
+     * @param message message of the compiled descriptor
+     * @return value at the path, or {@link #MISSING} if the path is not present
+     * @throws InvalidProtocolBufferException when a well known type can not be represented in JSON
+     */
+    public Object read(MessageOrBuilder message) throws InvalidProtocolBufferException {
+        Object current = message;
+        for (int i = 0; i < fields.length; i++) {
+            MessageOrBuilder parent = (MessageOrBuilder) current;
+            Descriptors.FieldDescriptor field = fields[i];
+            if (indexes[i] >= 0) {
+                if (indexes[i] >= parent.getRepeatedFieldCount(field)) {
+                    return MISSING;
+                }
+                current = parent.getRepeatedField(field, indexes[i]);
+                if (i == fields.length - 1) {
+                    return toJsonValue(field, current);
+                }
+            } else {
+                if (!isPrinted(parent, field)) {
+                    return MISSING;
+                }
+                current = parent.getField(field);
+                if (i == fields.length - 1) {
+                    return toJsonFieldValue(field, current);
+                }
+            }
+        }
+        return current;
+    }
+
+    private static boolean isPrinted(MessageOrBuilder message, Descriptors.FieldDescriptor field) {
+        if (field.isRepeated() || message.hasField(field)) {
+            return true;
+        }
+        return field.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE && field.getContainingOneof() == null;
+    }
+
+    private static boolean isPlainMessage(Descriptors.FieldDescriptor field) {
+        return field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE
+                && !field.isMapField()
+                && !field.getMessageType().getFullName().startsWith(WELL_KNOWN_TYPES_PACKAGE);
+    }
+
+    private static Object toJsonFieldValue(Descriptors.FieldDescriptor field, Object value) throws InvalidProtocolBufferException {
+        if (field.isMapField()) {
+            Descriptors.FieldDescriptor keyField = field.getMessageType().findFieldByName("key");
+            Descriptors.FieldDescriptor valueField = field.getMessageType().findFieldByName("value");
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Object element : (List<?>) value) {
+                Message entry = (Message) element;
+                map.put(mapKey(keyField, entry.getField(keyField)), toJsonValue(valueField, entry.getField(valueField)));
+            }
+            return map;
+        }
+        if (field.isRepeated()) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                list.add(toJsonValue(field, element));
+            }
+            return list;
+        }
+        return toJsonValue(field, value);
+    }
+
+    private static Object toJsonValue(Descriptors.FieldDescriptor field, Object value) throws InvalidProtocolBufferException {
+        switch (field.getType()) {
+            case UINT32:
+            case FIXED32:
+                long unsignedValue = Integer.toUnsignedLong((Integer) value);
+                return unsignedValue == (int) unsignedValue ? (Object) (int) unsignedValue : (Object) unsignedValue;
+            case INT64:
+            case SINT64:
+            case SFIXED64:
+                return value.toString();
+            case UINT64:
+            case FIXED64:
+                return Long.toUnsignedString((Long) value);
+            case FLOAT:
+                Float floatValue = (Float) value;
+                return floatValue.isNaN() || floatValue.isInfinite() ? floatValue.toString() : (Object) Double.parseDouble(floatValue.toString());
+            case DOUBLE:
+                Double doubleValue = (Double) value;
+                return doubleValue.isNaN() || doubleValue.isInfinite() ? doubleValue.toString() : doubleValue;
+            case BYTES:
+                return Base64.getEncoder().encodeToString(((ByteString) value).toByteArray());
+            case ENUM:
+                Descriptors.EnumValueDescriptor enumValue = (Descriptors.EnumValueDescriptor) value;
+                return enumValue.getIndex() == -1 ? (Object) enumValue.getNumber() : enumValue.getName();
+            case MESSAGE:
+            case GROUP:
+                return toJsonMessage((Message) value);
+            default:
+                return value;
+        }
+    }
+
+    private static Object toJsonMessage(Message message) throws InvalidProtocolBufferException {
+        String typeName = message.getDescriptorForType().getFullName();
+        if (typeName.equals(TIMESTAMP)) {
+            return Timestamps.toString(Timestamp.parseFrom(message.toByteString()));
+        }
+        if (typeName.equals(DURATION)) {
+            return Durations.toString(Duration.parseFrom(message.toByteString()));
+        }
+        if (typeName.startsWith(WELL_KNOWN_TYPES_PACKAGE)) {
+            return Configuration.defaultConfiguration().jsonProvider().parse(PRINTER.print(message));
+        }
+        Map<Descriptors.FieldDescriptor, Object> printedFields = new TreeMap<>(message.getAllFields());
+        for (Descriptors.FieldDescriptor field : message.getDescriptorForType().getFields()) {
+            if (!printedFields.containsKey(field) && isPrinted(message, field)) {
+                printedFields.put(field, message.getField(field));
+            }
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<Descriptors.FieldDescriptor, Object> entry : printedFields.entrySet()) {
+            map.put(entry.getKey().getName(), toJsonFieldValue(entry.getKey(), entry.getValue()));
+        }
+        return map;
+    }
+
+    private static String mapKey(Descriptors.FieldDescriptor keyField, Object key) {
+        switch (keyField.getType()) {
+            case UINT32:
+            case FIXED32:
+                return Integer.toUnsignedString((Integer) key);
+            case UINT64:
+            case FIXED64:
+                return Long.toUnsignedString((Long) key);
+            default:
+                return key.toString();
+        }
+    }
+}
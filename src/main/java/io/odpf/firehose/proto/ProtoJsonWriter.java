@@ -0,0 +1,247 @@
+package io.odpf.firehose.proto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Duration;
+import com.google.protobuf.Message;
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Durations;
+import com.google.protobuf.util.JsonFormat;
+import com.google.protobuf.util.Timestamps;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes protobuf messages to a Jackson {@link JsonGenerator} in one pass over their fields.
+ * <p>
+ * The output is the JSON of {@link JsonFormat#printer()}: default values are left out, 64 bit integers are strings,
+ * enums are names, bytes are base64, and well known types have their JSON representation.
+ * With the simple date format, top level timestamp fields are written like {@code Mar 20, 2017 10:54:00 AM} instead.
+ */
+public class ProtoJsonWriter {
+    private static final String TIMESTAMP = "google.protobuf.Timestamp";
+    private static final String DURATION = "google.protobuf.Duration";
+    private static final String STRUCT = "google.protobuf.Struct";
+    private static final String VALUE = "google.protobuf.Value";
+    private static final String LIST_VALUE = "google.protobuf.ListValue";
+    private static final String NULL_VALUE = "google.protobuf.NullValue";
+    private static final String FIELD_MASK = "google.protobuf.FieldMask";
+    private static final String ANY = "google.protobuf.Any";
+    private static final String WRAPPERS_PACKAGE = "google.protobuf.";
+    private static final String WRAPPER_SUFFIX = "Value";
+    private static final DateTimeFormatter SIMPLE_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy h:mm:ss a", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final boolean preserveProtoFieldNames;
+    private final boolean simpleDateFormat;
+    private final JsonFormat.Printer fallbackPrinter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param preserveProtoFieldNames whether to use the proto field names, or the lower camel case JSON names
+     * @param simpleDateFormat        whether to write top level timestamps in the simple date format
+     */
+    public ProtoJsonWriter(boolean preserveProtoFieldNames, boolean simpleDateFormat) {
+        this.preserveProtoFieldNames = preserveProtoFieldNames;
+        this.simpleDateFormat = simpleDateFormat;
+        this.fallbackPrinter = preserveProtoFieldNames ? JsonFormat.printer().preservingProtoFieldNames() : JsonFormat.printer();
+    }
+
+    /**
+     * @param message   protobuf message
+     * @param generator generator to write the JSON of the message to
+     * @throws IOException when the message can not be written or a well known type can not be represented in JSON
+     */
+    public void write(MessageOrBuilder message, JsonGenerator generator) throws IOException {
+        write(message, generator, true);
+    }
+
+    private void write(MessageOrBuilder message, JsonGenerator generator, boolean topLevel) throws IOException {
+        String typeName = message.getDescriptorForType().getFullName();
+        switch (typeName) {
+            case TIMESTAMP:
+                generator.writeString(Timestamps.toString(Timestamp.parseFrom(toByteString(message))));
+                return;
+            case DURATION:
+                generator.writeString(Durations.toString(Duration.parseFrom(toByteString(message))));
+                return;
+            case STRUCT:
+                Descriptors.FieldDescriptor fields = message.getDescriptorForType().findFieldByName("fields");
+                writeField(fields, message.getField(fields), generator);
+                return;
+            case VALUE:
+                writeValue(message, generator);
+                return;
+            case LIST_VALUE:
+                Descriptors.FieldDescriptor values = message.getDescriptorForType().findFieldByName("values");
+                writeField(values, message.getField(values), generator);
+                return;
+            case FIELD_MASK:
+            case ANY:
+                objectMapper.writeTree(generator, objectMapper.readTree(fallbackPrinter.print(message)));
+                return;
+            default:
+                if (isWrapper(message.getDescriptorForType())) {
+                    Descriptors.FieldDescriptor valueField = message.getDescriptorForType().getFields().get(0);
+                    writeSingleValue(valueField, message.getField(valueField), generator);
+                    return;
+                }
+                writeMessage(message, generator, topLevel);
+        }
+    }
+
+    private void writeMessage(MessageOrBuilder message, JsonGenerator generator, boolean topLevel) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<Descriptors.FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
+            Descriptors.FieldDescriptor field = entry.getKey();
+            generator.writeFieldName(preserveProtoFieldNames ? field.getName() : field.getJsonName());
+            if (topLevel && simpleDateFormat && !field.isRepeated() && isTimestamp(field)) {
+                Timestamp timestamp = Timestamp.parseFrom(toByteString((MessageOrBuilder) entry.getValue()));
+                generator.writeString(SIMPLE_DATE_FORMAT.format(Instant.ofEpochSecond(timestamp.getSeconds())));
+            } else {
+                writeField(field, entry.getValue(), generator);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeField(Descriptors.FieldDescriptor field, Object value, JsonGenerator generator) throws IOException {
+        if (field.isMapField()) {
+            Descriptors.FieldDescriptor keyField = field.getMessageType().findFieldByName("key");
+            Descriptors.FieldDescriptor valueField = field.getMessageType().findFieldByName("value");
+            generator.writeStartObject();
+            for (Object element : (List<?>) value) {
+                Message entry = (Message) element;
+                generator.writeFieldName(mapKey(keyField, entry.getField(keyField)));
+                writeSingleValue(valueField, entry.getField(valueField), generator);
+            }
+            generator.writeEndObject();
+        } else if (field.isRepeated()) {
+            generator.writeStartArray();
+            for (Object element : (List<?>) value) {
+                writeSingleValue(field, element, generator);
+            }
+            generator.writeEndArray();
+        } else {
+            writeSingleValue(field, value, generator);
+        }
+    }
+
+    private void writeSingleValue(Descriptors.FieldDescriptor field, Object value, JsonGenerator generator) throws IOException {
+        switch (field.getType()) {
+            case INT32:
+            case SINT32:
+            case SFIXED32:
+                generator.writeNumber((Integer) value);
+                break;
+            case UINT32:
+            case FIXED32:
+                long unsignedValue = Integer.toUnsignedLong((Integer) value);
+                if (unsignedValue == (int) unsignedValue) {
+                    generator.writeNumber((int) unsignedValue);
+                } else {
+                    generator.writeNumber(unsignedValue);
+                }
+                break;
+            case INT64:
+            case SINT64:
+            case SFIXED64:
+                generator.writeString(value.toString());
+                break;
+            case UINT64:
+            case FIXED64:
+                generator.writeString(Long.toUnsignedString((Long) value));
+                break;
+            case FLOAT:
+                Float floatValue = (Float) value;
+                if (floatValue.isNaN() || floatValue.isInfinite()) {
+                    generator.writeString(floatValue.toString());
+                } else {
+                    generator.writeNumber(Double.parseDouble(floatValue.toString()));
+                }
+                break;
+            case DOUBLE:
+                Double doubleValue = (Double) value;
+                if (doubleValue.isNaN() || doubleValue.isInfinite()) {
+                    generator.writeString(doubleValue.toString());
+                } else {
+                    generator.writeNumber(doubleValue);
+                }
+                break;
+            case BOOL:
+                generator.writeBoolean((Boolean) value);
+                break;
+            case STRING:
+                generator.writeString((String) value);
+                break;
+            case BYTES:
+                generator.writeString(Base64.getEncoder().encodeToString(((ByteString) value).toByteArray()));
+                break;
+            case ENUM:
+                Descriptors.EnumValueDescriptor enumValue = (Descriptors.EnumValueDescriptor) value;
+                if (field.getEnumType().getFullName().equals(NULL_VALUE)) {
+                    generator.writeNull();
+                } else if (enumValue.getIndex() == -1) {
+                    generator.writeNumber(enumValue.getNumber());
+                } else {
+                    generator.writeString(enumValue.getName());
+                }
+                break;
+            case MESSAGE:
+            case GROUP:
+                write((MessageOrBuilder) value, generator, false);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported field type " + field.getType());
+        }
+    }
+
+    private void writeValue(MessageOrBuilder message, JsonGenerator generator) throws IOException {
+        Map<Descriptors.FieldDescriptor, Object> fields = message.getAllFields();
+        if (fields.isEmpty()) {
+            generator.writeNull();
+            return;
+        }
+        Map.Entry<Descriptors.FieldDescriptor, Object> kind = fields.entrySet().iterator().next();
+        writeSingleValue(kind.getKey(), kind.getValue(), generator);
+    }
+
+    private static String mapKey(Descriptors.FieldDescriptor keyField, Object key) {
+        switch (keyField.getType()) {
+            case UINT32:
+            case FIXED32:
+                return Integer.toUnsignedString((Integer) key);
+            case UINT64:
+            case FIXED64:
+                return Long.toUnsignedString((Long) key);
+            default:
+                return key.toString();
+        }
+    }
+
+    private static boolean isTimestamp(Descriptors.FieldDescriptor field) {
+        return field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE
+                && field.getMessageType().getFullName().equals(TIMESTAMP);
+    }
+
+    private static boolean isWrapper(Descriptors.Descriptor descriptor) {
+        String fullName = descriptor.getFullName();
+        return fullName.startsWith(WRAPPERS_PACKAGE)
+                && fullName.endsWith(WRAPPER_SUFFIX)
+                && descriptor.getFields().size() == 1
+                && descriptor.getFields().get(0).getName().equals("value");
+    }
+
+    private static ByteString toByteString(MessageOrBuilder message) {
+        return message instanceof Message ? ((Message) message).toByteString() : ((Message.Builder) message).build().toByteString();
+    }
+}
@@ -1,25 +1,32 @@
 package io.odpf.firehose.proto;
 
 
-import io.odpf.firehose.sink.jdbc.JdbcMapper;
+import io.odpf.firehose.sink.jdbc.field.JdbcFieldType;
+import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import io.odpf.stencil.Parser;
 import org.apache.http.util.Asserts;
 
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
 /**
  * Utility class to map fields in protobuf format to corresponding fields of a table in database.
+ * <p>
+ * The mapping is compiled against the descriptor of the messages into a plan of resolved field descriptors and
+ * field types, which is rebuilt when the descriptor changes on a stencil schema refresh.
  */
 public class ProtoToFieldMapper {
 
     private final Parser protoParser;
     private final Properties protoIndexToFieldMapping;
+    private volatile MappingPlan mappingPlan;
 
     /**
      * Instantiates a new Proto to field mapper.
@@ -46,25 +53,92 @@ public class ProtoToFieldMapper {
         } catch (InvalidProtocolBufferException e) {
             throw new IllegalArgumentException(e);
         }
+        return getFields(dynamicMessage);
+    }
+
+    /**
+     * returns a map with column name of the target table in database as key and value of the field as the value field in the map.
+     *
+     * @param dynamicMessage already parsed message to access the fields from
+     * @return a map containing mapping between the column name and the actual value for the column.
+     */
+    public Map<String, Object> getFields(DynamicMessage dynamicMessage) {
         Map<String, Object> columnToValueMap = new HashMap<>();
-        updateMapping(dynamicMessage, protoIndexToFieldMapping, columnToValueMap);
+        updateMapping(dynamicMessage, getMappingPlan(dynamicMessage.getDescriptorForType()).fields, columnToValueMap);
         return columnToValueMap;
     }
 
-    private void updateMapping(Message message, Properties protoToDbMapping, Map<String, Object> columnToValueMap) {
+    private void updateMapping(Message message, FieldMapping[] fields, Map<String, Object> columnToValueMap) {
+        for (FieldMapping field : fields) {
+            Object columnValue = message.getField(field.fieldDescriptor);
+            if (field.nestedFields == null) {
+                columnToValueMap.put(field.column, field.fieldType.getColumn(columnValue));
+            } else {
+                updateMapping((Message) columnValue, field.nestedFields, columnToValueMap);
+            }
+        }
+    }
+
+    private MappingPlan getMappingPlan(Descriptors.Descriptor descriptor) {
+        MappingPlan plan = mappingPlan;
+        if (plan == null || plan.descriptor != descriptor) {
+            plan = new MappingPlan(descriptor, compile(descriptor, protoIndexToFieldMapping));
+            mappingPlan = plan;
+        }
+        return plan;
+    }
+
+    private static FieldMapping[] compile(Descriptors.Descriptor descriptor, Properties protoToDbMapping) {
+        List<FieldMapping> fields = new ArrayList<>();
         Enumeration<Object> keys = protoToDbMapping.keys();
         while (keys.hasMoreElements()) {
             String key = (String) keys.nextElement();
-            JdbcMapper jdbcMapper = new JdbcMapper(key, message, protoToDbMapping).initialize();
-            Object column = jdbcMapper.getColumn();
+            Descriptors.FieldDescriptor fieldDescriptor = descriptor.findFieldByNumber(Integer.parseInt(key));
+            if (fieldDescriptor == null) {
+                throw new IllegalArgumentException("field " + key + " not found in " + descriptor.getFullName());
+            }
+            Object column = protoToDbMapping.get(key);
             if (column instanceof String) {
-                columnToValueMap = jdbcMapper.add(columnToValueMap);
+                fields.add(new FieldMapping(fieldDescriptor, (String) column, JdbcFieldType.of(fieldDescriptor), null));
             } else if (column instanceof Properties) {
-                Asserts.check(jdbcMapper.getColumnValue() instanceof Message, "could not handle mapping");
-                updateMapping((Message) jdbcMapper.getColumnValue(), (Properties) column, columnToValueMap);
+                Asserts.check(fieldDescriptor.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE
+                        && !fieldDescriptor.isRepeated(), "could not handle mapping");
+                FieldMapping[] nestedFields = compile(fieldDescriptor.getMessageType(), (Properties) column);
+                fields.add(new FieldMapping(fieldDescriptor, null, null, nestedFields));
             } else {
                 throw new RuntimeException("column can either be properties or string");
             }
         }
+        return fields.toArray(new FieldMapping[0]);
+    }
+
+    /**
+     * Mapping compiled against a descriptor, which changes when stencil refreshes the schema.
+     */
+    private static class MappingPlan {
+        private final Descriptors.Descriptor descriptor;
+        private final FieldMapping[] fields;
+
+        MappingPlan(Descriptors.Descriptor descriptor, FieldMapping[] fields) {
+            this.descriptor = descriptor;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * Field mapped either to a column, or to the columns of its nested fields.
+     */
+    private static class FieldMapping {
+        private final Descriptors.FieldDescriptor fieldDescriptor;
+        private final String column;
+        private final JdbcFieldType fieldType;
+        private final FieldMapping[] nestedFields;
+
+        FieldMapping(Descriptors.FieldDescriptor fieldDescriptor, String column, JdbcFieldType fieldType, FieldMapping[] nestedFields) {
+            this.fieldDescriptor = fieldDescriptor;
+            this.column = column;
+            this.fieldType = fieldType;
+            this.nestedFields = nestedFields;
+        }
     }
 }
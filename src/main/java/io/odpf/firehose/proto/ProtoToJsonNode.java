@@ -0,0 +1,47 @@
+package io.odpf.firehose.proto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.util.JsonFormat;
+
+import java.io.IOException;
+
+/**
+ * Converts protobuf messages to Jackson {@link JsonNode} trees without printing and parsing a JSON string.
+ * <p>
+ * The tree is the same as reading the output of {@link JsonFormat#printer()} with an {@link ObjectMapper}:
+ * default values are left out, 64 bit integers are strings, enums are names, bytes are base64,
+ * and well known types have their JSON representation. The fields are written by {@link ProtoJsonWriter}
+ * into a token buffer, so no text is produced in between.
+ */
+public class ProtoToJsonNode {
+    private final ProtoJsonWriter writer;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param preserveProtoFieldNames whether to use the proto field names, like {@link JsonFormat.Printer#preservingProtoFieldNames()}, or the lower camel case JSON names
+     */
+    public ProtoToJsonNode(boolean preserveProtoFieldNames) {
+        this.writer = new ProtoJsonWriter(preserveProtoFieldNames, false);
+    }
+
+    /**
+     * @param message protobuf message
+     * @return JSON tree of the message
+     * @throws InvalidProtocolBufferException when a well known type can not be represented in JSON
+     */
+    public JsonNode convert(MessageOrBuilder message) throws InvalidProtocolBufferException {
+        TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+        try {
+            writer.write(message, buffer);
+            return objectMapper.readTree(buffer.asParser());
+        } catch (InvalidProtocolBufferException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InvalidProtocolBufferException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.odpf.firehose.proto;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.odpf.stencil.Parser;
+import io.odpf.stencil.client.StencilClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * Parser which decodes only the projected fields of messages into sparse messages, with a {@link MessageDecoder}
+ * compiled for the current descriptor of the proto class and a {@link FieldProjection}.
+ * <p>
+ * The decoder is compiled again when stencil refreshes the schema. Messages are parsed with the stencil parser
+ * when the decoder can not be compiled for the descriptor, and when the decoder fails on a message, so invalid
+ * messages fail with the same errors as before. Messages the decoder falls back on are parsed whole by stencil,
+ * so they still have every projected field.
+ */
+@Slf4j
+public class SpecializedParser implements Parser {
+    private final StencilClient stencilClient;
+    private final String protoClassName;
+    private final Parser parser;
+    private final FieldProjection projection;
+    private volatile Decoder decoder;
+
+    public SpecializedParser(StencilClient stencilClient, String protoClassName, FieldProjection projection) {
+        this.stencilClient = stencilClient;
+        this.protoClassName = protoClassName;
+        this.parser = stencilClient.getParser(protoClassName);
+        this.projection = projection;
+    }
+
+    @Override
+    public DynamicMessage parse(byte[] data) throws InvalidProtocolBufferException {
+        Descriptors.Descriptor descriptor = stencilClient.get(protoClassName);
+        MessageDecoder messageDecoder = descriptor == null ? null : getDecoder(descriptor);
+        if (messageDecoder == null) {
+            return parser.parse(data);
+        }
+        try {
+            return messageDecoder.decode(data);
+        } catch (IOException | MessageDecoder.FallbackException e) {
+            return parser.parse(data);
+        }
+    }
+
+    private MessageDecoder getDecoder(Descriptors.Descriptor descriptor) {
+        Decoder current = decoder;
+        if (current == null || current.descriptor != descriptor) {
+            MessageDecoder messageDecoder = null;
+            try {
+                messageDecoder = MessageDecoder.compile(descriptor, projection);
+            } catch (UnsupportedOperationException e) {
+                log.warn("projected decoder is not available for {}, parsing with stencil: {}", protoClassName, e.getMessage());
+            }
+            current = new Decoder(descriptor, messageDecoder);
+            decoder = current;
+        }
+        return current.messageDecoder;
+    }
+
+    /**
+     * Decoder compiled for a descriptor, which changes when stencil refreshes the schema.
+     */
+    private static class Decoder {
+        private final Descriptors.Descriptor descriptor;
+        private final MessageDecoder messageDecoder;
+
+        Decoder(Descriptors.Descriptor descriptor, MessageDecoder messageDecoder) {
+            this.descriptor = descriptor;
+            this.messageDecoder = messageDecoder;
+        }
+    }
+}
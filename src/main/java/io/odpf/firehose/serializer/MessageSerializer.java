@@ -3,6 +3,10 @@ package io.odpf.firehose.serializer;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.DeserializerException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Serializer serialize Message into string format.
  */
@@ -16,4 +20,27 @@ public interface MessageSerializer {
    * @throws DeserializerException the deserializer exception
    */
   String serialize(Message message) throws DeserializerException;
+
+  /**
+   * Serialize kafka message into UTF-8 bytes.
+   *
+   * @param message the message
+   * @return serialised message
+   * @throws DeserializerException the deserializer exception
+   */
+  default byte[] serializeToBytes(Message message) throws DeserializerException {
+    return serialize(message).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Serialize kafka message into the stream as UTF-8.
+   *
+   * @param message      the message
+   * @param outputStream the output stream
+   * @throws DeserializerException the deserializer exception
+   * @throws IOException           when the stream can not be written
+   */
+  default void serialize(Message message, OutputStream outputStream) throws DeserializerException, IOException {
+    outputStream.write(serializeToBytes(message));
+  }
 }
@@ -1,39 +1,35 @@
 package io.odpf.firehose.serializer;
 
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.google.protobuf.DynamicMessage;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.DeserializerException;
-import com.google.gson.ExclusionStrategy;
-import com.google.gson.FieldAttributes;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.protobuf.Descriptors;
-import com.google.protobuf.DynamicMessage;
-import com.google.protobuf.InvalidProtocolBufferException;
-import com.google.protobuf.Timestamp;
-import com.google.protobuf.util.JsonFormat;
+import io.odpf.firehose.proto.CachingParser;
+import io.odpf.firehose.proto.ProtoJsonWriter;
 import io.odpf.stencil.Parser;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
-
-import java.text.SimpleDateFormat;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.ArrayList;
-import java.util.Date;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
 
 /**
  * EsbMessageToJson Serialize protobuff message content into JSON.
+ * <p>
+ * The envelope and the payloads are written in one pass with a streaming generator: the parsed key and value
+ * are written field by field into a reused buffer and then as string values of the envelope,
+ * without building intermediate JSON objects or strings.
  */
 public class MessageToJson implements MessageSerializer {
-    private Parser protoParser;
-    private Gson gson;
-    private boolean preserveFieldNames;
-    private boolean wrapInsideArray;
-    private boolean enableSimpleDateFormat;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final Parser protoParser;
+    private final boolean wrapInsideArray;
+    private final ProtoJsonWriter protoJsonWriter;
+    private final ThreadLocal<PayloadWriter> payloadWriter = ThreadLocal.withInitial(PayloadWriter::new);
 
     public MessageToJson(Parser protoParser, boolean preserveFieldNames, boolean enableSimpleDateFormat) {
         this(protoParser, preserveFieldNames, false, enableSimpleDateFormat);
@@ -41,101 +37,114 @@ public class MessageToJson implements MessageSerializer {
 
     public MessageToJson(Parser protoParser, boolean preserveFieldNames, boolean wrappedInsideArray, boolean enableSimpleDateFormat) {
         this.protoParser = protoParser;
-        this.preserveFieldNames = preserveFieldNames;
         this.wrapInsideArray = wrappedInsideArray;
-        this.enableSimpleDateFormat = enableSimpleDateFormat;
-        this.gson = new GsonBuilder().registerTypeAdapter(Message.class, new MessageJsonSerializer())
-                .setExclusionStrategies(createGsonExclusionStrategy())
-                .setFieldNamingStrategy(field -> field.getName().replaceAll("_", "")).create();
+        this.protoJsonWriter = new ProtoJsonWriter(preserveFieldNames, enableSimpleDateFormat);
     }
 
     @Override
     public String serialize(Message message) throws DeserializerException {
-        try {
-            JSONObject jsonObject = new JSONObject();
-            jsonObject.put("topic", message.getTopic());
-
-            if (message.getLogKey() != null && message.getLogKey().length != 0) {
-                DynamicMessage key = protoParser.parse(message.getLogKey());
-                jsonObject.put("logKey", this.gson.toJson(convertDynamicMessageToJson(key)));
-            }
-
-            DynamicMessage msg = protoParser.parse(message.getLogMessage());
-            jsonObject.put("logMessage", this.gson.toJson(convertDynamicMessageToJson(msg)));
-
-            if (wrapInsideArray) {
-                return Collections.singletonList(jsonObject.toJSONString()).toString();
-            }
-            return jsonObject.toJSONString();
-        } catch (InvalidProtocolBufferException | ParseException e) {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            writeEnvelope(message, generator);
+        } catch (IOException e) {
             throw new DeserializerException(e.getMessage());
         }
+        return writer.toString();
     }
 
-    private Object convertDynamicMessageToJson(DynamicMessage message)
-            throws ParseException, InvalidProtocolBufferException {
-        Map<Descriptors.FieldDescriptor, Object> allFields = new HashMap<>();
-        List<String> timeStampKeys = new ArrayList<>();
-
-        allFields = message.getAllFields();
-        for (Descriptors.FieldDescriptor key : allFields.keySet()) {
-            Object field = allFields.get(key);
-            boolean fieldIsTimestamp = field instanceof DynamicMessage
-                    && ((DynamicMessage) field).getDescriptorForType().getName().equals(Timestamp.class.getSimpleName());
-            if (fieldIsTimestamp) {
-                if (preserveFieldNames) {
-                    timeStampKeys.add(key.getName());
-                } else {
-                    timeStampKeys.add(key.getJsonName());
-                }
-            }
+    @Override
+    public byte[] serializeToBytes(Message message) throws DeserializerException {
+        ByteArrayBuilder builder = new ByteArrayBuilder();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(builder)) {
+            writeEnvelope(message, generator);
+        } catch (IOException e) {
+            throw new DeserializerException(e.getMessage());
         }
+        return builder.toByteArray();
+    }
 
-        JSONObject tempJsonObject = new JSONObject();
-        if (preserveFieldNames) {
-            tempJsonObject.put("tempKey", JsonFormat.printer().preservingProtoFieldNames().print(message));
-        } else {
-            tempJsonObject.put("tempKey", JsonFormat.printer().print(message));
+    @Override
+    public void serialize(Message message, OutputStream outputStream) throws DeserializerException, IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            writeEnvelope(message, generator);
         }
+    }
 
-        if (enableSimpleDateFormat) {
-            for (String key : timeStampKeys) {
-                convertProtoBuffTimeStampToDateTime(tempJsonObject, "tempKey", key);
-            }
+    /**
+     * Serializes only the value of the message, which is the logMessage of the envelope.
+     *
+     * @param message the message
+     * @return JSON of the value
+     * @throws DeserializerException when the value can not be parsed
+     */
+    public String serializeLogMessage(Message message) throws DeserializerException {
+        try {
+            return renderPayload(CachingParser.parseLogMessage(protoParser, message)).toString();
+        } catch (IOException e) {
+            throw new DeserializerException(e.getMessage());
         }
-
-        return new JSONParser().parse(tempJsonObject.get("tempKey").toString());
     }
 
-    private JSONObject convertProtoBuffTimeStampToDateTime(JSONObject jsonObject, String parentField,
-                                                           String timeStampField) throws ParseException {
-        JSONObject parentObject = (JSONObject) new JSONParser().parse(jsonObject.get(parentField).toString());
-        String timestampObject = parentObject.get(timeStampField).toString();
-
-        Date date;
+    /**
+     * Serializes only the key of the message, which is the logKey of the envelope.
+     *
+     * @param message the message
+     * @return JSON of the key, or null if the message has no key
+     * @throws DeserializerException when the key can not be parsed
+     */
+    public String serializeLogKey(Message message) throws DeserializerException {
+        if (!hasLogKey(message)) {
+            return null;
+        }
         try {
-            date = new SimpleDateFormat("yyyy-MM-dd'T'hh:mm:ss").parse(timestampObject);
-        } catch (java.text.ParseException e) {
-            throw new RuntimeException(String.format("Not able to parse date, %s", timestampObject));
+            return renderPayload(CachingParser.parseLogKey(protoParser, message)).toString();
+        } catch (IOException e) {
+            throw new DeserializerException(e.getMessage());
         }
-        parentObject.put(timeStampField, date);
-        jsonObject.put(parentField, gson.toJson(parentObject));
+    }
 
-        return jsonObject;
+    private void writeEnvelope(Message message, JsonGenerator generator) throws IOException {
+        if (wrapInsideArray) {
+            generator.writeStartArray();
+        }
+        generator.writeStartObject();
+        generator.writeFieldName("logMessage");
+        writePayload(CachingParser.parseLogMessage(protoParser, message), generator);
+        generator.writeStringField("topic", message.getTopic());
+        if (hasLogKey(message)) {
+            generator.writeFieldName("logKey");
+            writePayload(CachingParser.parseLogKey(protoParser, message), generator);
+        }
+        generator.writeEndObject();
+        if (wrapInsideArray) {
+            generator.writeEndArray();
+        }
     }
 
-    private ExclusionStrategy createGsonExclusionStrategy() {
-        return new ExclusionStrategy() {
-            @Override
-            public boolean shouldSkipField(FieldAttributes fieldAttributes) {
-                return !fieldAttributes.getName().endsWith("_");
-            }
-
-            @Override
-            public boolean shouldSkipClass(Class<?> aClass) {
-                return false;
-            }
-        };
+    private void writePayload(DynamicMessage payload, JsonGenerator generator) throws IOException {
+        PayloadWriter writer = renderPayload(payload);
+        generator.writeString(writer.buffer(), 0, writer.size());
     }
 
+    private PayloadWriter renderPayload(DynamicMessage payload) throws IOException {
+        PayloadWriter writer = payloadWriter.get();
+        writer.reset();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            protoJsonWriter.write(payload, generator);
+        }
+        return writer;
+    }
+
+    private static boolean hasLogKey(Message message) {
+        return message.getLogKey() != null && message.getLogKey().length != 0;
+    }
+
+    /**
+     * Writer of the payloads, which exposes its buffer so the payload is written to the envelope without a copy.
+     */
+    private static class PayloadWriter extends CharArrayWriter {
+        char[] buffer() {
+            return buf;
+        }
+    }
 }
@@ -5,10 +5,14 @@ import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.DeserializerException;
 import io.odpf.firehose.exception.ConfigurationException;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.proto.CachingParser;
+import io.odpf.firehose.proto.ProtoFieldPath;
 import com.google.gson.Gson;
+import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.util.JsonFormat;
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 import io.odpf.stencil.Parser;
@@ -23,16 +27,25 @@ import java.util.regex.Pattern;
 
 /**
  * Converts kafka messages into Templatized json.
+ * <p>
+ * The template is split once into literal segments and paths. The paths are compiled against the descriptor of the
+ * messages into {@link ProtoFieldPath}s, and every message is rendered by appending the segments and the values read
+ * from the parsed message to a reused buffer. Paths which can not be compiled, and paths missing in a message,
+ * are read with JsonPath from the printed message as before.
  */
 public class MessageToTemplatizedJson implements MessageSerializer {
     private static final String TEMPLATE_PATH_REGEX = "\"\\$\\.[^\\s\\\\]*?\"";
     private static final String ALL_FIELDS_FROM_TEMPLATE = "\"$._all_\"";
+    private static final JsonFormat.Printer PRINTER = JsonFormat.printer().includingDefaultValueFields().preservingProtoFieldNames();
     private final String httpSinkJsonBodyTemplate;
     private final Gson gson;
     private Parser protoParser;
-    private HashSet<String> pathsToReplace;
     private JSONParser jsonParser;
     private Instrumentation instrumentation;
+    private final List<String> literals = new ArrayList<>();
+    private final List<String> placeholders = new ArrayList<>();
+    private volatile CompiledPaths compiledPaths;
+    private final ThreadLocal<StringBuilder> body = ThreadLocal.withInitial(StringBuilder::new);
 
     public static MessageToTemplatizedJson create(Instrumentation instrumentation, String httpSinkJsonBodyTemplate, Parser protoParser) {
         MessageToTemplatizedJson messageToTemplatizedJson = new MessageToTemplatizedJson(instrumentation, httpSinkJsonBodyTemplate, protoParser);
@@ -57,12 +70,16 @@ public class MessageToTemplatizedJson implements MessageSerializer {
         HashSet<String> paths = new HashSet<>();
         Pattern pattern = Pattern.compile(TEMPLATE_PATH_REGEX);
         Matcher matcher = pattern.matcher(httpSinkJsonBodyTemplate);
+        int literalStart = 0;
         while (matcher.find()) {
             paths.add(matcher.group(0));
+            literals.add(httpSinkJsonBodyTemplate.substring(literalStart, matcher.start()));
+            placeholders.add(matcher.group(0));
+            literalStart = matcher.end();
         }
+        literals.add(httpSinkJsonBodyTemplate.substring(literalStart));
         List<String> pathList = new ArrayList<>(paths);
         instrumentation.logDebug("\nPaths: {}", pathList);
-        this.pathsToReplace = paths;
     }
 
     /**
@@ -75,27 +92,53 @@ public class MessageToTemplatizedJson implements MessageSerializer {
     @Override
     public String serialize(Message message) throws DeserializerException {
         try {
-            String jsonMessage;
-            String jsonString;
             // only supports messages not keys
-            DynamicMessage msg = protoParser.parse(message.getLogMessage());
-            jsonMessage = JsonFormat.printer().includingDefaultValueFields().preservingProtoFieldNames().print(msg);
-            String finalMessage = httpSinkJsonBodyTemplate;
-            for (String path : pathsToReplace) {
+            DynamicMessage msg = CachingParser.parseLogMessage(protoParser, message);
+            ProtoFieldPath[] paths = getCompiledPaths(msg.getDescriptorForType());
+            StringBuilder finalMessage = body.get();
+            finalMessage.setLength(0);
+            String jsonMessage = null;
+            Object document = null;
+            for (int i = 0; i < placeholders.size(); i++) {
+                finalMessage.append(literals.get(i));
+                String path = placeholders.get(i);
                 if (path.equals(ALL_FIELDS_FROM_TEMPLATE)) {
-                    jsonString = jsonMessage;
-                } else {
-                    Object element = JsonPath.read(jsonMessage, path.replaceAll("\"", ""));
-                    jsonString = gson.toJson(element);
+                    jsonMessage = jsonMessage == null ? PRINTER.print(msg) : jsonMessage;
+                    finalMessage.append(jsonMessage);
+                    continue;
                 }
-                finalMessage = finalMessage.replace(path, jsonString);
+                Object element = paths[i] == null ? ProtoFieldPath.MISSING : paths[i].read(msg);
+                if (element == ProtoFieldPath.MISSING) {
+                    jsonMessage = jsonMessage == null ? PRINTER.print(msg) : jsonMessage;
+                    document = document == null ? Configuration.defaultConfiguration().jsonProvider().parse(jsonMessage) : document;
+                    element = JsonPath.read(document, toJsonPath(path));
+                }
+                gson.toJson(element, finalMessage);
             }
-            return finalMessage;
+            finalMessage.append(literals.get(placeholders.size()));
+            return finalMessage.toString();
         } catch (InvalidProtocolBufferException | PathNotFoundException e) {
             throw new DeserializerException(e.getMessage());
         }
     }
 
+    private ProtoFieldPath[] getCompiledPaths(Descriptors.Descriptor descriptor) {
+        CompiledPaths compiled = compiledPaths;
+        if (compiled == null || compiled.descriptor != descriptor) {
+            ProtoFieldPath[] paths = new ProtoFieldPath[placeholders.size()];
+            for (int i = 0; i < paths.length; i++) {
+                paths[i] = ProtoFieldPath.compile(descriptor, toJsonPath(placeholders.get(i)));
+            }
+            compiled = new CompiledPaths(descriptor, paths);
+            compiledPaths = compiled;
+        }
+        return compiled.paths;
+    }
+
+    private static String toJsonPath(String placeholder) {
+        return placeholder.replaceAll("\"", "");
+    }
+
     private boolean isInvalidJson() {
         try {
             jsonParser.parse(httpSinkJsonBodyTemplate);
@@ -104,4 +147,17 @@ public class MessageToTemplatizedJson implements MessageSerializer {
         }
         return false;
     }
+
+    /**
+     * Paths of the template compiled against a descriptor, which changes when stencil refreshes the schema.
+     */
+    private static class CompiledPaths {
+        private final Descriptors.Descriptor descriptor;
+        private final ProtoFieldPath[] paths;
+
+        CompiledPaths(Descriptors.Descriptor descriptor, ProtoFieldPath[] paths) {
+            this.descriptor = descriptor;
+            this.paths = paths;
+        }
+    }
 }
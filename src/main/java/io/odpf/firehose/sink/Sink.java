@@ -1,9 +1,11 @@
 package io.odpf.firehose.sink;
 
 import io.odpf.firehose.message.Message;
+import org.apache.kafka.common.TopicPartition;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -49,4 +51,13 @@ public interface Sink extends Closeable {
      */
     default void calculateCommittableOffsets() {
     }
+
+    /**
+     * Method called when kafka partitions are taken away from this consumer, before their offsets are committed.
+     * Sinks managing offsets should make the data of these partitions committable here, as far as they can.
+     *
+     * @param partitions revoked partitions
+     */
+    default void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+    }
 }
@@ -16,6 +16,7 @@ import io.odpf.firehose.sink.log.LogSinkFactory;
 import io.odpf.firehose.sink.mongodb.MongoSinkFactory;
 import io.odpf.firehose.sink.prometheus.PromSinkFactory;
 import io.odpf.firehose.sink.redis.RedisSinkFactory;
+import io.odpf.firehose.utils.SharedResources;
 import io.odpf.stencil.client.StencilClient;
 
 import java.util.Map;
@@ -26,6 +27,7 @@ public class SinkFactory {
     private final Instrumentation instrumentation;
     private final StencilClient stencilClient;
     private final OffsetManager offsetManager;
+    private final SharedResources sharedResources;
     private BigQuerySinkFactory bigQuerySinkFactory;
     private final Map<String, String> config = System.getenv();
 
@@ -33,11 +35,21 @@ public class SinkFactory {
                        StatsDReporter statsDReporter,
                        StencilClient stencilClient,
                        OffsetManager offsetManager) {
+        this(kafkaConsumerConfig, statsDReporter, stencilClient, offsetManager,
+                new SharedResources(1, new Instrumentation(statsDReporter, SharedResources.class)));
+    }
+
+    public SinkFactory(KafkaConsumerConfig kafkaConsumerConfig,
+                       StatsDReporter statsDReporter,
+                       StencilClient stencilClient,
+                       OffsetManager offsetManager,
+                       SharedResources sharedResources) {
         instrumentation = new Instrumentation(statsDReporter, SinkFactory.class);
         this.kafkaConsumerConfig = kafkaConsumerConfig;
         this.statsDReporter = statsDReporter;
         this.stencilClient = stencilClient;
         this.offsetManager = offsetManager;
+        this.sharedResources = sharedResources;
     }
 
     /**
@@ -69,21 +81,21 @@ public class SinkFactory {
         instrumentation.logInfo("Sink Type: {}", kafkaConsumerConfig.getSinkType().toString());
         switch (kafkaConsumerConfig.getSinkType()) {
             case JDBC:
-                return JdbcSinkFactory.create(config, statsDReporter, stencilClient);
+                return JdbcSinkFactory.create(config, statsDReporter, stencilClient, sharedResources);
             case HTTP:
-                return HttpSinkFactory.create(config, statsDReporter, stencilClient);
+                return HttpSinkFactory.create(config, statsDReporter, stencilClient, sharedResources);
             case INFLUXDB:
                 return InfluxSinkFactory.create(config, statsDReporter, stencilClient);
             case LOG:
                 return LogSinkFactory.create(config, statsDReporter, stencilClient);
             case ELASTICSEARCH:
-                return EsSinkFactory.create(config, statsDReporter, stencilClient);
+                return EsSinkFactory.create(config, statsDReporter, stencilClient, sharedResources);
             case REDIS:
                 return RedisSinkFactory.create(config, statsDReporter, stencilClient);
             case GRPC:
-                return GrpcSinkFactory.create(config, statsDReporter, stencilClient);
+                return GrpcSinkFactory.create(config, statsDReporter, stencilClient, sharedResources);
             case PROMETHEUS:
-                return PromSinkFactory.create(config, statsDReporter, stencilClient);
+                return PromSinkFactory.create(config, statsDReporter, stencilClient, sharedResources);
             case BLOB:
                 return BlobSinkFactory.create(config, offsetManager, statsDReporter, stencilClient);
             case BIGQUERY:
@@ -0,0 +1,135 @@
+package io.odpf.firehose.sink;
+
+import io.odpf.firehose.config.enums.SinkLanesShardType;
+import io.odpf.firehose.exception.SinkTaskFailedException;
+import io.odpf.firehose.message.Message;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Sink lanes shard messages by kafka key or by partition onto a fixed number of lanes.
+ * <p>
+ * Every lane owns one sink and one single threaded executor, so messages with the same key (or partition)
+ * are always pushed by the same lane in the order they were submitted, while different lanes push in parallel.
+ * Finished tasks of all lanes are collected on one completion queue.
+ */
+public class SinkLanes implements AutoCloseable {
+    private final List<Sink> sinks;
+    private final List<ExecutorService> executors;
+    private final List<CompletionService<List<Message>>> completionServices;
+    private final BlockingQueue<Future<List<Message>>> finishedTasks = new LinkedBlockingQueue<>();
+    private final SinkLanesShardType shardType;
+    private int inFlightTasks = 0;
+
+    public SinkLanes(List<Sink> sinks, List<ExecutorService> executors, SinkLanesShardType shardType) {
+        if (sinks.isEmpty() || sinks.size() != executors.size()) {
+            throw new IllegalArgumentException("Sink lanes need one sink and one executor per lane");
+        }
+        this.sinks = sinks;
+        this.executors = executors;
+        this.shardType = shardType;
+        this.completionServices = new ArrayList<>(executors.size());
+        executors.forEach(executor -> completionServices.add(new ExecutorCompletionService<>(executor, finishedTasks)));
+    }
+
+    /**
+     * Shards the messages onto lanes and submits one task per non-empty lane.
+     *
+     * @param messages messages in the order they were polled
+     * @return submitted tasks mapped to the messages they push
+     */
+    public Map<Future<List<Message>>, List<Message>> submitTasks(List<Message> messages) {
+        List<List<Message>> laneMessages = new ArrayList<>(sinks.size());
+        for (int i = 0; i < sinks.size(); i++) {
+            laneMessages.add(new ArrayList<>());
+        }
+        messages.forEach(message -> laneMessages.get(laneOf(message)).add(message));
+
+        Map<Future<List<Message>>, List<Message>> tasks = new LinkedHashMap<>();
+        for (int lane = 0; lane < sinks.size(); lane++) {
+            List<Message> batch = laneMessages.get(lane);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            tasks.put(completionServices.get(lane).submit(new SinkPool.SinkTask(sinks.get(lane), batch)), batch);
+            inFlightTasks++;
+        }
+        return tasks;
+    }
+
+    /**
+     * @return all tasks finished since the last call, without blocking.
+     */
+    public Set<Future<List<Message>>> fetchFinishedSinkTasks() {
+        Set<Future<List<Message>>> finished = new HashSet<>();
+        Future<List<Message>> future = finishedTasks.poll();
+        while (future != null) {
+            finished.add(checkFinished(future));
+            future = finishedTasks.poll();
+        }
+        return finished;
+    }
+
+    /**
+     * Blocks until any lane finishes a task.
+     *
+     * @return the finished task
+     */
+    public Future<List<Message>> awaitFinishedSinkTask() {
+        try {
+            return checkFinished(finishedTasks.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SinkTaskFailedException(e);
+        }
+    }
+
+    public int getInFlightTasks() {
+        return inFlightTasks;
+    }
+
+    private Future<List<Message>> checkFinished(Future<List<Message>> future) {
+        inFlightTasks--;
+        try {
+            future.get();
+            return future;
+        } catch (InterruptedException e) {
+            throw new SinkTaskFailedException(e);
+        } catch (ExecutionException e) {
+            throw new SinkTaskFailedException(e.getCause());
+        }
+    }
+
+    private int laneOf(Message message) {
+        int hash;
+        if (shardType == SinkLanesShardType.KEY && message.getLogKey() != null && message.getLogKey().length > 0) {
+            hash = Arrays.hashCode(message.getLogKey());
+        } else {
+            hash = Objects.hash(message.getTopic(), message.getPartition());
+        }
+        return Math.floorMod(hash, sinks.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        executors.forEach(ExecutorService::shutdownNow);
+        for (Sink sink : sinks) {
+            sink.close();
+        }
+    }
+}
@@ -2,74 +2,139 @@ package io.odpf.firehose.sink;
 
 import io.odpf.firehose.exception.SinkTaskFailedException;
 import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
 import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
-@AllArgsConstructor
+import static io.odpf.firehose.metrics.Metrics.SINK_POOL_ACTIVE_TASKS;
+import static io.odpf.firehose.metrics.Metrics.SINK_POOL_QUEUE_DEPTH;
+import static io.odpf.firehose.metrics.Metrics.SINK_POOL_SIZE;
+
+/**
+ * Sink pool pushes batches on a fixed set of sinks in parallel.
+ * <p>
+ * Finished tasks are put on a completion queue by the executor, so they are handed back without scanning
+ * the running tasks. When every sink is busy, {@link #submitTask(List)} blocks on the completion queue
+ * until a sink is free and keeps the finished task for the next {@link #fetchFinishedSinkTasks()}.
+ * Consumers which should not block check {@link #hasFreeSink()} first.
+ */
 public class SinkPool implements AutoCloseable {
-    private final Set<SinkFuture> sinkFutures = new HashSet<>();
     private final BlockingQueue<Sink> workerSinks;
     private final ExecutorService executorService;
     private final long pollTimeOutMillis;
+    private final Instrumentation instrumentation;
+    private final BlockingQueue<Future<List<Message>>> completedTasks = new LinkedBlockingQueue<>();
+    private final CompletionService<List<Message>> completionService;
+    private final Map<Future<List<Message>>, Sink> busySinks = new IdentityHashMap<>();
+    private final Set<Future<List<Message>>> finishedTasks = new HashSet<>();
+    private final int poolSize;
+
+    public SinkPool(BlockingQueue<Sink> workerSinks, ExecutorService executorService, long pollTimeOutMillis, Instrumentation instrumentation) {
+        this.workerSinks = workerSinks;
+        this.executorService = executorService;
+        this.pollTimeOutMillis = pollTimeOutMillis;
+        this.instrumentation = instrumentation;
+        this.completionService = new ExecutorCompletionService<>(executorService, completedTasks);
+        this.poolSize = workerSinks.size();
+    }
 
+    /**
+     * @return all tasks finished since the last call, without blocking.
+     */
     public Set<Future<List<Message>>> fetchFinishedSinkTasks() {
-        Set<SinkFuture> finished = sinkFutures.stream().filter(x -> {
-            if (x.getFuture().isDone()) {
-                try {
-                    x.getFuture().get();
-                    workerSinks.put(x.getSink());
-                    return true;
-                } catch (InterruptedException e) {
-                    throw new SinkTaskFailedException(e);
-                } catch (ExecutionException e) {
-                    throw new SinkTaskFailedException(e.getCause());
-                }
-            }
-            return false;
-        }).collect(Collectors.toSet());
-        sinkFutures.removeAll(finished);
-        return finished.stream().map(SinkFuture::getFuture).collect(Collectors.toSet());
+        Future<List<Message>> future = completionService.poll();
+        while (future != null) {
+            finishedTasks.add(releaseSink(future));
+            future = completionService.poll();
+        }
+        Set<Future<List<Message>>> finished = new HashSet<>(finishedTasks);
+        finishedTasks.clear();
+        captureGauges();
+        return finished;
     }
 
+    /**
+     * @return whether {@link #submitTask(List)} can submit without waiting for a running task to finish.
+     */
+    public boolean hasFreeSink() {
+        return !workerSinks.isEmpty() || !completedTasks.isEmpty();
+    }
+
+    /**
+     * Submits the messages on a free sink, blocking until one of the running tasks finishes if all sinks are busy.
+     *
+     * @param messages messages to push
+     * @return the submitted task
+     * @throws SinkTaskFailedException if the thread is interrupted while waiting for a free sink, the messages are not pushed
+     */
     public Future<List<Message>> submitTask(List<Message> messages) {
         try {
-            Sink workerSink = workerSinks.poll(pollTimeOutMillis, TimeUnit.MILLISECONDS);
-            if (workerSink == null) {
-                return null;
+            Sink workerSink = workerSinks.poll();
+            while (workerSink == null) {
+                finishedTasks.add(releaseSink(awaitCompletedTask()));
+                workerSink = workerSinks.poll();
             }
-            Future<List<Message>> future = executorService.submit(new SinkTask(workerSink, messages));
-            sinkFutures.add(new SinkFuture(future, workerSink));
+            Future<List<Message>> future = completionService.submit(new SinkTask(workerSink, messages));
+            busySinks.put(future, workerSink);
+            captureGauges();
+            return future;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SinkTaskFailedException(e);
+        }
+    }
+
+    private Future<List<Message>> awaitCompletedTask() throws InterruptedException {
+        instrumentation.logDebug("All {} sinks are busy, waiting for a sink task to finish", poolSize);
+        Future<List<Message>> future = completionService.poll(pollTimeOutMillis, TimeUnit.MILLISECONDS);
+        while (future == null) {
+            instrumentation.logDebug("No sink task finished in {} ms", pollTimeOutMillis);
+            future = completionService.poll(pollTimeOutMillis, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    private Future<List<Message>> releaseSink(Future<List<Message>> future) {
+        Sink sink = busySinks.remove(future);
+        if (sink != null) {
+            workerSinks.offer(sink);
+        }
+        try {
+            future.get();
             return future;
         } catch (InterruptedException e) {
-            return null;
+            throw new SinkTaskFailedException(e);
+        } catch (ExecutionException e) {
+            throw new SinkTaskFailedException(e.getCause());
         }
     }
 
+    private void captureGauges() {
+        instrumentation.captureValue(SINK_POOL_SIZE, poolSize);
+        instrumentation.captureValue(SINK_POOL_ACTIVE_TASKS, busySinks.size());
+        instrumentation.captureValue(SINK_POOL_QUEUE_DEPTH, completedTasks.size() + finishedTasks.size());
+    }
+
     @Override
     public void close() {
         executorService.shutdown();
     }
 
-    @Data
-    @AllArgsConstructor
-    @EqualsAndHashCode
-    protected static class SinkFuture {
-        private Future<List<Message>> future;
-        private Sink sink;
-    }
-
     /**
      * Sink Worker task.
      * It calls the pushMessage() and returns the response.
@@ -86,4 +151,3 @@ public class SinkPool implements AutoCloseable {
         }
     }
 }
-
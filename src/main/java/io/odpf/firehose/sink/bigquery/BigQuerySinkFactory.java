@@ -47,7 +47,7 @@ public class BigQuerySinkFactory {
             } else {
                 stencilClient = StencilClientFactory.getClient();
             }
-            Parser parser = stencilClient.getParser(sinkConfig.getInputSchemaProtoClass());
+            Parser parser = StencilUtils.getParser(stencilClient, sinkConfig.getInputSchemaProtoClass(), sinkConfig);
             protoUpdateListener.setStencilParser(parser);
             protoUpdateListener.onSchemaUpdate(stencilClient.getAll());
             if (sinkConfig.isRowInsertIdEnabled()) {
@@ -15,6 +15,7 @@ import io.odpf.firehose.sink.bigquery.models.Record;
 import io.odpf.firehose.sink.bigquery.models.Records;
 import io.odpf.firehose.sink.bigquery.proto.UnknownProtoFields;
 import io.odpf.firehose.proto.ProtoUtils;
+import io.odpf.firehose.proto.CachingParser;
 import io.odpf.stencil.Parser;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -62,7 +63,7 @@ public class MessageRecordConverter {
         }
 
         try {
-            DynamicMessage dynamicMessage = parser.parse(message.getLogMessage());
+            DynamicMessage dynamicMessage = CachingParser.parseLogMessage(parser, message);
             if (!config.getInputSchemaProtoAllowUnknownFieldsEnable() && ProtoUtils.hasUnknownField(dynamicMessage)) {
                 log.info("unknown fields found at offset: {}, partition: {}, message: {}", message.getOffset(), message.getPartition(), message);
                 throw new UnknownFieldsException(dynamicMessage);
@@ -13,28 +13,36 @@ import io.odpf.firehose.sink.AbstractSink;
 import io.odpf.firehose.sink.blob.message.MessageDeSerializer;
 import io.odpf.firehose.sink.blob.message.Record;
 import io.odpf.firehose.sink.blob.writer.WriterOrchestrator;
+import org.apache.kafka.common.TopicPartition;
 
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class BlobSink extends AbstractSink {
-
     private final WriterOrchestrator writerOrchestrator;
     private final OffsetManager offsetManager;
     private final MessageDeSerializer messageDeSerializer;
+    private final long revokeFlushTimeoutMs;
 
     private List<Message> messages;
 
     public BlobSink(Instrumentation instrumentation, String sinkType, OffsetManager offsetManager, WriterOrchestrator writerOrchestrator, MessageDeSerializer messageDeSerializer) {
+        this(instrumentation, sinkType, offsetManager, writerOrchestrator, messageDeSerializer, 0);
+    }
+
+    public BlobSink(Instrumentation instrumentation, String sinkType, OffsetManager offsetManager, WriterOrchestrator writerOrchestrator, MessageDeSerializer messageDeSerializer, long revokeFlushTimeoutMs) {
         super(instrumentation, sinkType);
         this.offsetManager = offsetManager;
         this.writerOrchestrator = writerOrchestrator;
         this.messageDeSerializer = messageDeSerializer;
+        this.revokeFlushTimeoutMs = revokeFlushTimeoutMs;
     }
 
     @Override
@@ -83,6 +91,33 @@ public class BlobSink extends AbstractSink {
         writerOrchestrator.getFlushedPaths().forEach(offsetManager::setCommittable);
     }
 
+    /**
+     * Files mix records of all partitions, so every open file is closed and uploaded right away, and the sink waits
+     * up to the revoke flush timeout for the uploads to finish.
+     * This runs inside the rebalance callback and holds up the rebalance of the whole group, so the timeout is kept short.
+     * Offsets of files flushed in time are committed before the partitions are handed over,
+     * the rest are consumed again by the new owner.
+     *
+     * @param partitions revoked partitions
+     */
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        getInstrumentation().logInfo("Flushing open files before partitions {} are revoked", partitions);
+        Set<String> pendingPaths;
+        try {
+            pendingPaths = writerOrchestrator.flushOpenFiles(revokeFlushTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        Set<String> flushedPaths = writerOrchestrator.getFlushedPaths();
+        flushedPaths.forEach(offsetManager::setCommittable);
+        pendingPaths.removeAll(flushedPaths);
+        if (!pendingPaths.isEmpty()) {
+            getInstrumentation().logWarn("{} files were not flushed before partitions {} were revoked", pendingPaths.size(), partitions);
+        }
+    }
+
     @Override
     public boolean canManageOffsets() {
         return true;
@@ -39,7 +39,8 @@ public class BlobSinkFactory {
                 sinkConfig.getSinkType().toString(),
                 offsetManager,
                 writerOrchestrator,
-                messageDeSerializer);
+                messageDeSerializer,
+                sinkConfig.getRevokeFlushTimeoutMS());
     }
 
     private static Descriptors.Descriptor getMetadataMessageDescriptor(BlobSinkConfig sinkConfig) {
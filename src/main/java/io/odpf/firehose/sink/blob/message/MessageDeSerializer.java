@@ -10,6 +10,8 @@ import io.odpf.firehose.proto.ProtoUtils;
 import io.odpf.firehose.exception.EmptyMessageException;
 import io.odpf.firehose.exception.UnknownFieldsException;
 import io.odpf.firehose.sink.blob.proto.KafkaMetadataProtoMessageUtils;
+import io.odpf.firehose.utils.StencilUtils;
+import io.odpf.firehose.proto.CachingParser;
 import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.Parser;
 import lombok.AllArgsConstructor;
@@ -23,7 +25,7 @@ public class MessageDeSerializer {
 
     public MessageDeSerializer(BlobSinkConfig sinkConfig, StencilClient stencilClient) {
         this.sinkConfig = sinkConfig;
-        this.protoParser = stencilClient.getParser(sinkConfig.getInputSchemaProtoClass());
+        this.protoParser = StencilUtils.getParser(stencilClient, sinkConfig.getInputSchemaProtoClass(), sinkConfig);
         this.kafkaMetadataFileDescriptor = KafkaMetadataProtoMessageUtils.createFileDescriptor(sinkConfig.getOutputKafkaMetadataColumnName());
     }
 
@@ -32,7 +34,7 @@ public class MessageDeSerializer {
             if (message.getLogMessage() == null || message.getLogMessage().length == 0) {
                 throw new EmptyMessageException();
             }
-            DynamicMessage dynamicMessage = protoParser.parse(message.getLogMessage());
+            DynamicMessage dynamicMessage = CachingParser.parseLogMessage(protoParser, message);
 
             if (!sinkConfig.getInputSchemaProtoAllowUnknownFieldsEnable() && ProtoUtils.hasUnknownField(dynamicMessage)) {
                 throw new UnknownFieldsException(dynamicMessage);
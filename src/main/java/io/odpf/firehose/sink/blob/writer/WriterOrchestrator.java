@@ -21,12 +21,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * This class manages threads for local and blob storage checking.
@@ -46,32 +49,36 @@ public class WriterOrchestrator implements Closeable {
     private final ScheduledExecutorService objectStorageCheckerScheduler = Executors.newScheduledThreadPool(1);
     private final ExecutorService remoteUploadScheduler = Executors.newFixedThreadPool(10);
     private final BlockingQueue<String> flushedToRemotePaths = new LinkedBlockingQueue<>();
+    private final Set<BlobStorageWriterFutureHandler> remoteUploadFutures = ConcurrentHashMap.newKeySet();
     private final LocalStorage localStorage;
     private final WriterOrchestratorStatus writerOrchestratorStatus;
     private final BlobSinkConfig sinkConfig;
+    private final LocalFileChecker localFileChecker;
+    private final BlobStorageChecker blobStorageChecker;
 
     public WriterOrchestrator(BlobSinkConfig sinkConfig, LocalStorage localStorage, BlobStorage blobStorage, StatsDReporter statsDReporter) {
         this.localStorage = localStorage;
         this.sinkConfig = sinkConfig;
         BlockingQueue<LocalFileMetadata> toBeFlushedToRemotePaths = new LinkedBlockingQueue<>();
+        localFileChecker = new LocalFileChecker(
+                toBeFlushedToRemotePaths,
+                timePartitionWriterMap,
+                localStorage, new Instrumentation(statsDReporter, LocalFileChecker.class));
         ScheduledFuture<?> localWriterFuture = localFileCheckerScheduler.scheduleAtFixedRate(
-                new LocalFileChecker(
-                        toBeFlushedToRemotePaths,
-                        timePartitionWriterMap,
-                        localStorage, new Instrumentation(statsDReporter, LocalFileChecker.class)),
+                localFileChecker,
                 FILE_CHECKER_THREAD_INITIAL_DELAY_SECONDS,
                 FILE_CHECKER_THREAD_FREQUENCY_SECONDS,
                 TimeUnit.SECONDS);
 
-        Set<BlobStorageWriterFutureHandler> remoteUploadFutures = new HashSet<>();
+        blobStorageChecker = new BlobStorageChecker(
+                toBeFlushedToRemotePaths,
+                flushedToRemotePaths,
+                remoteUploadFutures,
+                remoteUploadScheduler,
+                blobStorage,
+                new Instrumentation(statsDReporter, BlobStorageChecker.class));
         ScheduledFuture<?> objectStorageWriterFuture = objectStorageCheckerScheduler.scheduleWithFixedDelay(
-                new BlobStorageChecker(
-                        toBeFlushedToRemotePaths,
-                        flushedToRemotePaths,
-                        remoteUploadFutures,
-                        remoteUploadScheduler,
-                        blobStorage,
-                        new Instrumentation(statsDReporter, BlobStorageChecker.class)),
+                blobStorageChecker,
                 FILE_CHECKER_THREAD_INITIAL_DELAY_SECONDS,
                 FILE_CHECKER_THREAD_FREQUENCY_SECONDS,
                 TimeUnit.SECONDS);
@@ -91,6 +98,58 @@ public class WriterOrchestrator implements Closeable {
         return flushedPaths;
     }
 
+    /**
+     * Closes all open local files and uploads them right away, without waiting for the rotation policies
+     * or the next run of the blob storage checker. Records written afterwards go to new files.
+     * Files uploaded in time are returned by the next {@link #getFlushedPaths()}.
+     *
+     * @param timeoutMs max time to wait for the uploads in milliseconds
+     * @return local paths of the closed files.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Set<String> flushOpenFiles(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        Set<String> rotatedPaths = localFileChecker.rotateAll();
+        if (rotatedPaths.isEmpty() || !runBlobStorageChecker(deadline)) {
+            return rotatedPaths;
+        }
+        awaitUploads(rotatedPaths, deadline);
+        runBlobStorageChecker(deadline);
+        return rotatedPaths;
+    }
+
+    /**
+     * Waits for the uploads of the given files, failed uploads are reported by the blob storage checker.
+     */
+    private void awaitUploads(Set<String> paths, long deadline) throws InterruptedException {
+        for (BlobStorageWriterFutureHandler handler : remoteUploadFutures) {
+            if (!paths.contains(handler.getFullPath())) {
+                continue;
+            }
+            try {
+                handler.getFuture().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return;
+            } catch (ExecutionException e) {
+                continue;
+            }
+        }
+    }
+
+    /**
+     * Runs the blob storage checker once on its own thread, so that it does not race with the scheduled runs.
+     *
+     * @return true if the checker ran before the deadline
+     */
+    private boolean runBlobStorageChecker(long deadline) throws InterruptedException {
+        try {
+            objectStorageCheckerScheduler.submit(blobStorageChecker).get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+            return false;
+        }
+    }
+
     private void checkStatus() throws Exception {
         if (writerOrchestratorStatus.isClosed()) {
             throw new IOException(writerOrchestratorStatus.getThrowable());
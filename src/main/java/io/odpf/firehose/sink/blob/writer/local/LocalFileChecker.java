@@ -5,8 +5,11 @@ import io.odpf.firehose.metrics.Instrumentation;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static io.odpf.firehose.metrics.Metrics.FAILURE_TAG;
@@ -31,11 +34,28 @@ public class LocalFileChecker implements Runnable {
     }
 
     @Override
-    public void run() {
+    public synchronized void run() {
         instrumentation.captureValue(LOCAL_FILE_OPEN_TOTAL, timePartitionWriterMap.size());
         Map<Path, LocalFileWriter> toBeRotated =
                 timePartitionWriterMap.entrySet().stream().filter(kv -> localStorage.shouldRotate(kv.getValue()))
                         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        rotate(toBeRotated);
+        instrumentation.captureValue(LOCAL_FILE_OPEN_TOTAL, timePartitionWriterMap.size());
+    }
+
+    /**
+     * Closes all open files regardless of the rotation policies and queues them to be flushed to remote.
+     *
+     * @return full paths of the closed files
+     */
+    public synchronized Set<String> rotateAll() {
+        Set<String> rotatedPaths = rotate(new HashMap<>(timePartitionWriterMap));
+        instrumentation.captureValue(LOCAL_FILE_OPEN_TOTAL, timePartitionWriterMap.size());
+        return rotatedPaths;
+    }
+
+    private Set<String> rotate(Map<Path, LocalFileWriter> toBeRotated) {
+        Set<String> rotatedPaths = new HashSet<>();
         timePartitionWriterMap.entrySet().removeAll(toBeRotated.entrySet());
         toBeRotated.forEach((path, writer) -> {
             try {
@@ -43,6 +63,7 @@ public class LocalFileChecker implements Runnable {
                 LocalFileMetadata metadata = writer.closeAndFetchMetaData();
                 instrumentation.logInfo("Closing Local File {} ", metadata.getFullPath());
                 toBeFlushedToRemotePaths.add(metadata);
+                rotatedPaths.add(metadata.getFullPath());
                 captureFileClosedSuccessMetric(startTime, metadata);
             } catch (IOException e) {
                 e.printStackTrace();
@@ -50,7 +71,7 @@ public class LocalFileChecker implements Runnable {
                 throw new LocalFileWriterFailedException(e);
             }
         });
-        instrumentation.captureValue(LOCAL_FILE_OPEN_TOTAL, timePartitionWriterMap.size());
+        return rotatedPaths;
     }
 
     private void captureFileClosedSuccessMetric(Instant startTime, LocalFileMetadata localFileMetadata) {
@@ -1,26 +1,37 @@
 package io.odpf.firehose.sink.common;
 
 
+import io.odpf.firehose.error.ErrorInfo;
+import io.odpf.firehose.error.ErrorType;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.NeedToRetry;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.sink.AbstractSink;
 import io.odpf.stencil.client.StencilClient;
 import joptsimple.internal.Strings;
+import lombok.Setter;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.util.EntityUtils;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -29,57 +40,189 @@ import static io.odpf.firehose.metrics.Metrics.SINK_HTTP_RESPONSE_CODE_TOTAL;
 public abstract class AbstractHttpSink extends AbstractSink {
 
     private final List<HttpEntityEnclosingRequestBase> httpRequests = new ArrayList<>();
+    private final Map<HttpEntityEnclosingRequestBase, List<Message>> requestMessages = new IdentityHashMap<>();
     private final HttpClient httpClient;
     private final StencilClient stencilClient;
     private final Map<Integer, Boolean> retryStatusCodeRanges;
     private final Map<Integer, Boolean> requestLogStatusCodeRanges;
+    private final ExecutorService requestExecutor;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    /**
+     * Releases the http client and the concurrency limiter shared with the sinks of the other consumer threads
+     * when the sink is closed.
+     */
+    @Setter
+    private Closeable sharedResourcesCloser;
     protected static final String SUCCESS_CODE_PATTERN = "^2.*";
+    private static final int TOO_MANY_REQUESTS_STATUS_CODE = 429;
+    private static final int SERVER_ERROR_STATUS_CODE = 500;
 
     public AbstractHttpSink(Instrumentation instrumentation, String sinkType, HttpClient httpClient, StencilClient stencilClient, Map<Integer, Boolean> retryStatusCodeRanges, Map<Integer, Boolean> requestLogStatusCodeRanges) {
+        this(instrumentation, sinkType, httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges, 1);
+    }
+
+    /**
+     * Instantiates a new http sink which sends up to request parallelism requests of a batch at the same time.
+     *
+     * @param instrumentation            the instrumentation
+     * @param sinkType                   the sink type
+     * @param httpClient                 the http client
+     * @param stencilClient              the stencil client
+     * @param retryStatusCodeRanges      the retry status code ranges
+     * @param requestLogStatusCodeRanges the request log status code ranges
+     * @param requestParallelism         the number of requests sent at the same time, 1 sends them one after another
+     */
+    public AbstractHttpSink(Instrumentation instrumentation, String sinkType, HttpClient httpClient, StencilClient stencilClient, Map<Integer, Boolean> retryStatusCodeRanges, Map<Integer, Boolean> requestLogStatusCodeRanges, int requestParallelism) {
+        this(instrumentation, sinkType, httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges, requestParallelism, null);
+    }
+
+    /**
+     * Instantiates a new http sink which sends its requests within the limit of a concurrency limiter.
+     *
+     * @param instrumentation            the instrumentation
+     * @param sinkType                   the sink type
+     * @param httpClient                 the http client
+     * @param stencilClient              the stencil client
+     * @param retryStatusCodeRanges      the retry status code ranges
+     * @param requestLogStatusCodeRanges the request log status code ranges
+     * @param requestParallelism         the number of requests sent at the same time, 1 sends them one after another
+     * @param concurrencyLimiter         the concurrency limiter, or null to send the requests without limit
+     */
+    public AbstractHttpSink(Instrumentation instrumentation, String sinkType, HttpClient httpClient, StencilClient stencilClient, Map<Integer, Boolean> retryStatusCodeRanges, Map<Integer, Boolean> requestLogStatusCodeRanges, int requestParallelism, AdaptiveConcurrencyLimiter concurrencyLimiter) {
         super(instrumentation, sinkType);
         this.httpClient = httpClient;
         this.stencilClient = stencilClient;
         this.retryStatusCodeRanges = retryStatusCodeRanges;
         this.requestLogStatusCodeRanges = requestLogStatusCodeRanges;
+        this.requestExecutor = requestParallelism > 1 ? Executors.newFixedThreadPool(requestParallelism) : null;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
+    /**
+     * Sends the requests, and returns the messages of the requests which failed with a retryable status code or
+     * with an exception. Requests set without their messages fail the whole batch instead.
+     *
+     * @return the failed messages
+     * @throws Exception when a request without its messages fails
+     */
     @Override
     public List<Message> execute() throws Exception {
-        HttpResponse response = null;
+        List<Message> failedMessages = new ArrayList<>();
+        if (requestExecutor == null || httpRequests.size() <= 1) {
+            for (HttpEntityEnclosingRequestBase httpRequest : httpRequests) {
+                failedMessages.addAll(executeRequest(httpRequest));
+            }
+            return failedMessages;
+        }
+        List<Future<List<Message>>> responses = new ArrayList<>();
         for (HttpEntityEnclosingRequestBase httpRequest : httpRequests) {
+            responses.add(requestExecutor.submit(() -> executeRequest(httpRequest)));
+        }
+        Exception failure = null;
+        for (Future<List<Message>> response : responses) {
             try {
-                response = httpClient.execute(httpRequest);
-                List<String> contentStringList = null;
-                getInstrumentation().logInfo("Response Status: {}", statusCode(response));
-                if (shouldLogResponse(response)) {
-                    printResponse(response);
-                }
-                if (shouldLogRequest(response)) {
-                    contentStringList = readContent(httpRequest);
-                    printRequest(httpRequest, contentStringList);
+                failedMessages.addAll(response.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
                 }
-                if (shouldRetry(response)) {
-                    throw new NeedToRetry(statusCode(response));
-                } else if (!Pattern.compile(SUCCESS_CODE_PATTERN).matcher(String.valueOf(response.getStatusLine().getStatusCode())).matches()) {
-                    contentStringList = contentStringList == null ? readContent(httpRequest) : contentStringList;
-                    captureMessageDropCount(response, contentStringList);
-                }
-            } finally {
-                consumeResponse(response);
-                captureHttpStatusCount(response);
             }
         }
-        return new ArrayList<>();
+        if (failure != null) {
+            throw failure;
+        }
+        return failedMessages;
+    }
+
+    private List<Message> executeRequest(HttpEntityEnclosingRequestBase httpRequest) throws Exception {
+        HttpResponse response = null;
+        try {
+            response = send(httpRequest);
+            List<String> contentStringList = null;
+            getInstrumentation().logInfo("Response Status: {}", statusCode(response));
+            if (shouldLogResponse(response)) {
+                printResponse(response);
+            }
+            if (shouldLogRequest(response)) {
+                contentStringList = readContent(httpRequest);
+                printRequest(httpRequest, contentStringList);
+            }
+            if (shouldRetry(response)) {
+                return failRequest(httpRequest, new NeedToRetry(statusCode(response)));
+            } else if (!Pattern.compile(SUCCESS_CODE_PATTERN).matcher(String.valueOf(response.getStatusLine().getStatusCode())).matches()) {
+                captureMessageDropCount(response, httpRequest, contentStringList);
+            }
+            return Collections.emptyList();
+        } catch (IOException e) {
+            return failRequest(httpRequest, e);
+        } finally {
+            consumeResponse(response);
+            captureHttpStatusCount(response);
+        }
+    }
+
+    private HttpResponse send(HttpEntityEnclosingRequestBase httpRequest) throws IOException, InterruptedException {
+        if (concurrencyLimiter == null) {
+            return httpClient.execute(httpRequest);
+        }
+        long startTime = concurrencyLimiter.acquire();
+        boolean dropped = true;
+        try {
+            HttpResponse response = httpClient.execute(httpRequest);
+            dropped = isDropped(response);
+            return response;
+        } finally {
+            concurrencyLimiter.release(startTime, dropped);
+        }
+    }
+
+    private boolean isDropped(HttpResponse response) {
+        String statusCode = statusCode(response);
+        if (statusCode.equals("null")) {
+            return true;
+        }
+        int code = Integer.parseInt(statusCode);
+        return code == TOO_MANY_REQUESTS_STATUS_CODE || code >= SERVER_ERROR_STATUS_CODE;
+    }
+
+    private List<Message> failRequest(HttpEntityEnclosingRequestBase httpRequest, Exception exception) throws Exception {
+        List<Message> messages = requestMessages.get(httpRequest);
+        if (messages == null) {
+            throw exception;
+        }
+        messages.forEach(message -> message.setErrorInfo(new ErrorInfo(exception, ErrorType.DEFAULT_ERROR)));
+        return messages;
     }
 
     @Override
     public void close() throws IOException {
         getInstrumentation().logInfo("HTTP connection closing");
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+        }
+        releaseEntities();
         getHttpRequests().clear();
+        requestMessages.clear();
         getStencilClient().close();
+        if (sharedResourcesCloser != null) {
+            sharedResourcesCloser.close();
+        }
     }
 
 
+    private void releaseEntities() {
+        for (HttpEntityEnclosingRequestBase httpRequest : httpRequests) {
+            HttpEntity entity = httpRequest.getEntity();
+            if (entity instanceof Closeable) {
+                try {
+                    ((Closeable) entity).close();
+                } catch (IOException e) {
+                    getInstrumentation().captureNonFatalError(e, "Exception on releasing request entity");
+                }
+            }
+        }
+    }
+
     private void consumeResponse(HttpResponse response) {
         if (response != null) {
             EntityUtils.consumeQuietly(response.getEntity());
@@ -137,9 +280,45 @@ public abstract class AbstractHttpSink extends AbstractSink {
 
     protected abstract void captureMessageDropCount(HttpResponse response, List<String> contentString) throws IOException;
 
+    /**
+     * Captures the messages of the request dropped because of the response.
+     * Sinks which know the number of messages of a request can override this to avoid reading the content back.
+     *
+     * @param response          the response
+     * @param httpRequest       the request
+     * @param contentStringList the content of the request if it was already read, or null
+     * @throws IOException when the content can not be read
+     */
+    protected void captureMessageDropCount(HttpResponse response, HttpEntityEnclosingRequestBase httpRequest, List<String> contentStringList) throws IOException {
+        captureMessageDropCount(response, contentStringList == null ? readContent(httpRequest) : contentStringList);
+    }
+
     public void setHttpRequests(List<HttpEntityEnclosingRequestBase> httpRequests) {
+        releaseEntities();
         this.httpRequests.clear();
         this.httpRequests.addAll(httpRequests);
+        this.requestMessages.clear();
+    }
+
+    /**
+     * Sets the requests built from the messages, so only the messages of the failed requests are returned.
+     * The requests are either {@link HttpBatchRequest}s, one request per message in the order of the messages, or
+     * a single request for all the messages. Any other requests fail the whole batch as before.
+     *
+     * @param httpRequests the requests
+     * @param messages     the messages the requests were built from
+     */
+    public void setHttpRequests(List<HttpEntityEnclosingRequestBase> httpRequests, List<Message> messages) {
+        setHttpRequests(httpRequests);
+        if (!httpRequests.isEmpty() && httpRequests.stream().allMatch(httpRequest -> httpRequest instanceof HttpBatchRequest)) {
+            httpRequests.forEach(httpRequest -> requestMessages.put(httpRequest, ((HttpBatchRequest) httpRequest).getMessages()));
+        } else if (httpRequests.size() == messages.size()) {
+            for (int i = 0; i < httpRequests.size(); i++) {
+                requestMessages.put(httpRequests.get(i), Collections.singletonList(messages.get(i)));
+            }
+        } else if (httpRequests.size() == 1) {
+            requestMessages.put(httpRequests.get(0), messages);
+        }
     }
 
     public List<HttpEntityEnclosingRequestBase> getHttpRequests() {
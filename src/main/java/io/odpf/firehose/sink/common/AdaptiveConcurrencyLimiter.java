@@ -0,0 +1,156 @@
+package io.odpf.firehose.sink.common;
+
+import io.odpf.firehose.config.SinkConcurrencyLimitConfig;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.metrics.StatsDReporter;
+import io.odpf.firehose.utils.SharedResources;
+import org.aeonbits.owner.ConfigFactory;
+
+import java.util.Map;
+
+import static io.odpf.firehose.metrics.Metrics.SINK_CONCURRENCY_LIMIT;
+
+/**
+ * Limits the requests in flight to a downstream, adapting the limit to what the downstream absorbs.
+ * <p>
+ * The limit grows additively while the requests succeed and the limit is in use, and shrinks multiplicatively
+ * when a request is dropped by the downstream, or when its latency goes above the tolerated multiple of the
+ * baseline latency. It shrinks at most once per round trip: requests sent before the last decrease do not shrink
+ * it again, so a burst of drops backs off once, like AIMD. The baseline is the lowest latency observed, drifting slowly towards the recent latencies so
+ * it follows a downstream which got slower for good.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double BASELINE_DRIFT = 0.001;
+
+    private final Instrumentation instrumentation;
+    private final String sinkType;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private double limit;
+    private int inFlight = 0;
+    private double baselineLatencyNanos = 0;
+    private long lastDecreaseNanos;
+    private boolean closed = false;
+
+    public AdaptiveConcurrencyLimiter(Instrumentation instrumentation, String sinkType, int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        this.instrumentation = instrumentation;
+        this.sinkType = sinkType;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+        captureLimit();
+    }
+
+    /**
+     * Returns the limiter of the sink type shared by the sinks of all the consumer threads,
+     * to be released with {@link #release(String, SharedResources)} when the sink is closed.
+     *
+     * @param sinkType        the sink type
+     * @param key             key of the downstream
+     * @param configuration   the configuration
+     * @param statsDReporter  the statsd reporter
+     * @param sharedResources resources shared by all the consumer threads
+     * @return the limiter, or null when the concurrency limit is not enabled
+     */
+    public static AdaptiveConcurrencyLimiter acquire(String sinkType, String key, Map<String, String> configuration, StatsDReporter statsDReporter, SharedResources sharedResources) {
+        SinkConcurrencyLimitConfig config = ConfigFactory.create(SinkConcurrencyLimitConfig.class, configuration);
+        if (!config.isSinkConcurrencyLimitEnable()) {
+            return null;
+        }
+        return sharedResources.acquire("limiter:" + key,
+                () -> new AdaptiveConcurrencyLimiter(new Instrumentation(statsDReporter, AdaptiveConcurrencyLimiter.class), sinkType,
+                        config.getSinkConcurrencyLimitInitial(), config.getSinkConcurrencyLimitMin(), config.getSinkConcurrencyLimitMax(),
+                        config.getSinkConcurrencyLimitBackoffRatio(), config.getSinkConcurrencyLimitLatencyTolerance()),
+                AdaptiveConcurrencyLimiter::close);
+    }
+
+    /**
+     * Releases the limiter returned by {@link #acquire(String, String, Map, StatsDReporter, SharedResources)},
+     * closing it once no sink uses it.
+     *
+     * @param key             key of the downstream
+     * @param sharedResources resources shared by all the consumer threads
+     */
+    public static void release(String key, SharedResources sharedResources) {
+        sharedResources.release("limiter:" + key);
+    }
+
+    /**
+     * Waits until a request can be sent within the limit.
+     *
+     * @return start time of the request, to be passed to {@link #release(long, boolean)}
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public synchronized long acquire() throws InterruptedException {
+        while (!closed && inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Releases a request and adapts the limit to its outcome.
+     *
+     * @param startTime start time returned by {@link #acquire()}
+     * @param dropped   whether the downstream dropped the request because it was overloaded
+     */
+    public synchronized void release(long startTime, boolean dropped) {
+        long latencyNanos = System.nanoTime() - startTime;
+        boolean limitInUse = inFlight * 2 >= limit;
+        inFlight--;
+        int previousLimit = (int) limit;
+        if (dropped || isSlow(latencyNanos)) {
+            if (startTime - lastDecreaseNanos >= 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = System.nanoTime();
+            }
+        } else {
+            updateBaseline(latencyNanos);
+            if (limitInUse) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+        if ((int) limit != previousLimit) {
+            instrumentation.logDebug("Concurrency limit of {} sink changed from {} to {}", sinkType, previousLimit, (int) limit);
+            captureLimit();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Stops limiting, waking up the requests waiting for the limit.
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * @return the current limit
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    private boolean isSlow(long latencyNanos) {
+        return latencyTolerance > 0 && baselineLatencyNanos > 0 && latencyNanos > baselineLatencyNanos * latencyTolerance;
+    }
+
+    private void updateBaseline(long latencyNanos) {
+        if (baselineLatencyNanos == 0 || latencyNanos < baselineLatencyNanos) {
+            baselineLatencyNanos = latencyNanos;
+        } else {
+            baselineLatencyNanos += (latencyNanos - baselineLatencyNanos) * BASELINE_DRIFT;
+        }
+    }
+
+    private void captureLimit() {
+        instrumentation.captureValue(SINK_CONCURRENCY_LIMIT, (int) limit, "sink=" + sinkType);
+    }
+}
@@ -0,0 +1,35 @@
+package io.odpf.firehose.sink.common;
+
+import io.odpf.firehose.message.Message;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Http request of a batch of messages, which knows the messages it was built from.
+ * <p>
+ * {@link AbstractHttpSink} returns the messages of a failed batch request as the failed messages.
+ */
+public class HttpBatchRequest extends HttpEntityEnclosingRequestBase {
+    private final String method;
+    private final List<Message> messages;
+
+    public HttpBatchRequest(String method, URI uri, List<Message> messages) {
+        this.method = method;
+        this.messages = messages;
+        setURI(uri);
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the messages of the request
+     */
+    public List<Message> getMessages() {
+        return messages;
+    }
+}
@@ -1,16 +1,20 @@
 package io.odpf.firehose.sink.elasticsearch;
 
+import io.odpf.firehose.config.enums.SinkType;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.NeedToRetry;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.sink.AbstractSink;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import io.odpf.firehose.sink.elasticsearch.request.EsRequestHandler;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,11 +26,13 @@ import static io.odpf.firehose.metrics.Metrics.SINK_MESSAGES_DROP_TOTAL;
  */
 public class EsSink extends AbstractSink {
     private RestHighLevelClient client;
+    private Closeable clientCloser;
     private EsRequestHandler esRequestHandler;
     private BulkRequest bulkRequest;
     private long esRequestTimeoutInMs;
     private Integer esWaitForActiveShardsCount;
     private List<String> esRetryStatusCodeBlacklist;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     /**
      * Instantiates a new Es sink.
@@ -43,12 +49,38 @@ public class EsSink extends AbstractSink {
                   long esRequestTimeoutInMs, Integer esWaitForActiveShardsCount, List<String> esRetryStatusCodeBlacklist) {
         super(instrumentation, sinkType);
         this.client = client;
+        this.clientCloser = client;
         this.esRequestHandler = esRequestHandler;
         this.esRequestTimeoutInMs = esRequestTimeoutInMs;
         this.esWaitForActiveShardsCount = esWaitForActiveShardsCount;
         this.esRetryStatusCodeBlacklist = esRetryStatusCodeBlacklist;
     }
 
+    /**
+     * Instantiates a new Es sink with a client shared with other sinks, which sends its bulk requests within the limit
+     * of a concurrency limiter.
+     *
+     * @param instrumentation            the instrumentation
+     * @param client                     the client
+     * @param esRequestHandler           the es request handler
+     * @param esRequestTimeoutInMs       the es request timeout in ms
+     * @param esWaitForActiveShardsCount the es wait for active shards count
+     * @param esRetryStatusCodeBlacklist the es retry status code blacklist
+     * @param clientCloser               releases the client when the sink is closed
+     * @param concurrencyLimiter         the concurrency limiter, or null to send the bulk requests without limit
+     */
+    public EsSink(Instrumentation instrumentation, RestHighLevelClient client, EsRequestHandler esRequestHandler, long esRequestTimeoutInMs,
+                  Integer esWaitForActiveShardsCount, List<String> esRetryStatusCodeBlacklist, Closeable clientCloser, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        super(instrumentation, SinkType.ELASTICSEARCH.name().toLowerCase());
+        this.client = client;
+        this.clientCloser = clientCloser;
+        this.esRequestHandler = esRequestHandler;
+        this.esRequestTimeoutInMs = esRequestTimeoutInMs;
+        this.esWaitForActiveShardsCount = esWaitForActiveShardsCount;
+        this.esRetryStatusCodeBlacklist = esRetryStatusCodeBlacklist;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
     @Override
     protected void prepare(List<Message> messages) {
         bulkRequest = new BulkRequest();
@@ -59,7 +91,7 @@ public class EsSink extends AbstractSink {
 
     @Override
     protected List<Message> execute() throws Exception {
-        BulkResponse bulkResponse = getBulkResponse();
+        BulkResponse bulkResponse = sendBulkRequest();
         if (bulkResponse.hasFailures()) {
             getInstrumentation().logWarn("Bulk request failed");
             handleResponse(bulkResponse);
@@ -70,13 +102,41 @@ public class EsSink extends AbstractSink {
     @Override
     public void close() throws IOException {
         getInstrumentation().logInfo("Elastic Search connection closing");
-        this.client.close();
+        this.clientCloser.close();
     }
 
     BulkResponse getBulkResponse() throws IOException {
         return client.bulk(bulkRequest);
     }
 
+    private BulkResponse sendBulkRequest() throws IOException, InterruptedException {
+        if (concurrencyLimiter == null) {
+            return getBulkResponse();
+        }
+        long startTime = concurrencyLimiter.acquire();
+        boolean dropped = true;
+        try {
+            BulkResponse bulkResponse = getBulkResponse();
+            dropped = isDropped(bulkResponse);
+            return bulkResponse;
+        } finally {
+            concurrencyLimiter.release(startTime, dropped);
+        }
+    }
+
+    private boolean isDropped(BulkResponse bulkResponse) {
+        if (!bulkResponse.hasFailures()) {
+            return false;
+        }
+        for (BulkItemResponse response : bulkResponse.getItems()) {
+            if (response.isFailed()
+                    && (response.status() == RestStatus.TOO_MANY_REQUESTS || response.status().getStatus() >= RestStatus.INTERNAL_SERVER_ERROR.getStatus())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void handleResponse(BulkResponse bulkResponse) throws NeedToRetry {
         int failedResponseCount = 0;
         for (BulkItemResponse response : bulkResponse.getItems()) {
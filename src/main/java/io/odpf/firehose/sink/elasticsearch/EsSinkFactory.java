@@ -2,17 +2,20 @@ package io.odpf.firehose.sink.elasticsearch;
 
 
 import io.odpf.firehose.config.EsSinkConfig;
-import io.odpf.firehose.config.enums.SinkType;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.serializer.MessageToJson;
 import io.odpf.firehose.sink.Sink;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import io.odpf.firehose.sink.elasticsearch.request.EsRequestHandler;
 import io.odpf.firehose.sink.elasticsearch.request.EsRequestHandlerFactory;
+import io.odpf.firehose.utils.SharedResources;
+import io.odpf.firehose.utils.StencilUtils;
 import io.odpf.stencil.client.StencilClient;
 import org.aeonbits.owner.ConfigFactory;
 import org.apache.http.HttpHost;
 import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
 
 import java.util.Arrays;
@@ -34,6 +37,19 @@ public class EsSinkFactory {
      * @return created sink
      */
     public static Sink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient) {
+        return create(configuration, statsDReporter, stencilClient, new SharedResources(1, new Instrumentation(statsDReporter, SharedResources.class)));
+    }
+
+    /**
+     * Creates Elastic search sink, sharing one client per cluster with the sinks of the other consumer threads.
+     *
+     * @param configuration   the configuration
+     * @param statsDReporter  the stats d reporter
+     * @param stencilClient   the stencil client
+     * @param sharedResources resources shared by all the consumer threads
+     * @return created sink
+     */
+    public static Sink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient, SharedResources sharedResources) {
         EsSinkConfig esSinkConfig = ConfigFactory.create(EsSinkConfig.class, configuration);
 
         Instrumentation instrumentation = new Instrumentation(statsDReporter, EsSinkFactory.class);
@@ -48,17 +64,29 @@ public class EsSinkFactory {
         instrumentation.logDebug(esConfig);
         EsRequestHandler esRequestHandler = new EsRequestHandlerFactory(esSinkConfig, new Instrumentation(statsDReporter, EsRequestHandlerFactory.class),
                 esSinkConfig.getSinkEsIdField(), esSinkConfig.getSinkEsInputMessageType(),
-                new MessageToJson(stencilClient.getParser(esSinkConfig.getInputSchemaProtoClass()), esSinkConfig.isSinkEsPreserveProtoFieldNamesEnable(), false),
+                new MessageToJson(StencilUtils.getParser(stencilClient, esSinkConfig.getInputSchemaProtoClass(), esSinkConfig), esSinkConfig.isSinkEsPreserveProtoFieldNamesEnable(), false),
                 esSinkConfig.getSinkEsTypeName(),
                 esSinkConfig.getSinkEsIndexName(),
                 esSinkConfig.getSinkEsRoutingKeyName())
                 .getRequestHandler();
 
         HttpHost[] httpHosts = getHttpHosts(esSinkConfig.getSinkEsConnectionUrls(), instrumentation);
-        RestHighLevelClient client = new RestHighLevelClient(RestClient.builder(httpHosts));
+        String clientKey = "es:" + esSinkConfig.getSinkEsConnectionUrls();
+        int concurrency = sharedResources.getConcurrency();
+        RestHighLevelClient client = sharedResources.acquire(clientKey,
+                () -> new RestHighLevelClient(RestClient.builder(httpHosts)
+                        .setHttpClientConfigCallback(httpClientBuilder -> httpClientBuilder
+                                .setMaxConnPerRoute(Math.max(RestClientBuilder.DEFAULT_MAX_CONN_PER_ROUTE, concurrency))
+                                .setMaxConnTotal(Math.max(RestClientBuilder.DEFAULT_MAX_CONN_TOTAL, concurrency)))),
+                RestHighLevelClient::close);
         instrumentation.logInfo("ES connection established");
-        return new EsSink(new Instrumentation(statsDReporter, EsSink.class), SinkType.ELASTICSEARCH.name().toLowerCase(), client, esRequestHandler,
-                esSinkConfig.getSinkEsRequestTimeoutMs(), esSinkConfig.getSinkEsShardsActiveWaitCount(), getStatusCodesAsList(esSinkConfig.getSinkEsRetryStatusCodeBlacklist()));
+        AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.acquire("elasticsearch", clientKey, configuration, statsDReporter, sharedResources);
+        return new EsSink(new Instrumentation(statsDReporter, EsSink.class), client, esRequestHandler,
+                esSinkConfig.getSinkEsRequestTimeoutMs(), esSinkConfig.getSinkEsShardsActiveWaitCount(), getStatusCodesAsList(esSinkConfig.getSinkEsRetryStatusCodeBlacklist()),
+                () -> {
+                    sharedResources.release(clientKey);
+                    AdaptiveConcurrencyLimiter.release(clientKey, sharedResources);
+                }, concurrencyLimiter);
     }
 
     protected static HttpHost[] getHttpHosts(String esConnectionUrls, Instrumentation instrumentation) {
@@ -28,7 +28,7 @@ public abstract class EsRequestHandler {
 
     String extractPayload(Message message) {
         if (messageType.equals(EsSinkMessageType.PROTOBUF)) {
-            return getFieldFromJSON(jsonSerializer.serialize(message), "logMessage");
+            return jsonSerializer.serializeLogMessage(message);
         }
         return new String(message.getLogMessage(), Charset.defaultCharset());
     }
@@ -10,6 +10,7 @@ import io.odpf.firehose.sink.grpc.client.GrpcClient;
 import com.google.protobuf.DynamicMessage;
 import io.odpf.stencil.client.StencilClient;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,11 +24,26 @@ public class GrpcSink extends AbstractSink {
     private final GrpcClient grpcClient;
     private List<Message> messages;
     private StencilClient stencilClient;
+    private final Closeable limiterCloser;
 
     public GrpcSink(Instrumentation instrumentation, GrpcClient grpcClient, StencilClient stencilClient) {
+        this(instrumentation, grpcClient, stencilClient, () -> {
+        });
+    }
+
+    /**
+     * Instantiates a new grpc sink whose client sends its calls within the limit of a shared concurrency limiter.
+     *
+     * @param instrumentation the instrumentation
+     * @param grpcClient      the grpc client
+     * @param stencilClient   the stencil client
+     * @param limiterCloser   releases the concurrency limiter when the sink is closed
+     */
+    public GrpcSink(Instrumentation instrumentation, GrpcClient grpcClient, StencilClient stencilClient, Closeable limiterCloser) {
         super(instrumentation, "grpc");
         this.grpcClient = grpcClient;
         this.stencilClient = stencilClient;
+        this.limiterCloser = limiterCloser;
     }
 
     @Override
@@ -59,5 +75,6 @@ public class GrpcSink extends AbstractSink {
         getInstrumentation().logInfo("GRPC connection closing");
         this.messages = new ArrayList<>();
         stencilClient.close();
+        limiterCloser.close();
     }
 }
@@ -5,9 +5,11 @@ import io.odpf.firehose.config.GrpcSinkConfig;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.sink.AbstractSink;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import io.odpf.firehose.sink.grpc.client.GrpcClient;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.odpf.firehose.utils.SharedResources;
 import io.odpf.stencil.client.StencilClient;
 import org.aeonbits.owner.ConfigFactory;
 
@@ -23,6 +25,19 @@ import java.util.Map;
 public class GrpcSinkFactory {
 
     public static AbstractSink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient) {
+        return create(configuration, statsDReporter, stencilClient, new SharedResources(1, new Instrumentation(statsDReporter, SharedResources.class)));
+    }
+
+    /**
+     * Creates the GrpcSink, sharing the concurrency limiter of the service with the sinks of the other consumer threads.
+     *
+     * @param configuration   the configuration
+     * @param statsDReporter  the statsd reporter
+     * @param stencilClient   the stencil client
+     * @param sharedResources resources shared by all the consumer threads
+     * @return the grpc sink
+     */
+    public static AbstractSink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient, SharedResources sharedResources) {
         GrpcSinkConfig grpcConfig = ConfigFactory.create(GrpcSinkConfig.class, configuration);
         Instrumentation instrumentation = new Instrumentation(statsDReporter, GrpcSinkFactory.class);
         String grpcSinkConfig = String.format("\n\tService host: %s\n\tService port: %s\n\tMethod url: %s\n\tResponse proto schema: %s",
@@ -31,10 +46,14 @@ public class GrpcSinkFactory {
 
         ManagedChannel managedChannel = ManagedChannelBuilder.forAddress(grpcConfig.getSinkGrpcServiceHost(), grpcConfig.getSinkGrpcServicePort()).usePlaintext().build();
 
-        GrpcClient grpcClient = new GrpcClient(new Instrumentation(statsDReporter, GrpcClient.class), grpcConfig, managedChannel, stencilClient);
+        String limiterKey = "grpc:" + grpcConfig.getSinkGrpcServiceHost() + ":" + grpcConfig.getSinkGrpcServicePort();
+        AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.acquire("grpc", limiterKey, configuration, statsDReporter, sharedResources);
+
+        GrpcClient grpcClient = new GrpcClient(new Instrumentation(statsDReporter, GrpcClient.class), grpcConfig, managedChannel, stencilClient, concurrencyLimiter);
         instrumentation.logInfo("GRPC connection established");
 
-        return new GrpcSink(new Instrumentation(statsDReporter, GrpcSink.class), grpcClient, stencilClient);
+        return new GrpcSink(new Instrumentation(statsDReporter, GrpcSink.class), grpcClient, stencilClient,
+                () -> AdaptiveConcurrencyLimiter.release(limiterKey, sharedResources));
     }
 
 }
@@ -4,6 +4,7 @@ package io.odpf.firehose.sink.grpc.client;
 
 import io.odpf.firehose.config.GrpcSinkConfig;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import com.google.protobuf.DynamicMessage;
 
 import io.grpc.ManagedChannel;
@@ -33,12 +34,29 @@ public class GrpcClient {
     private final GrpcSinkConfig grpcSinkConfig;
     private StencilClient stencilClient;
     private ManagedChannel managedChannel;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     public GrpcClient(Instrumentation instrumentation, GrpcSinkConfig grpcSinkConfig, ManagedChannel managedChannel, StencilClient stencilClient) {
+        this(instrumentation, grpcSinkConfig, managedChannel, stencilClient, null);
+    }
+
+    /**
+     * Instantiates a new Grpc client which sends its calls within the limit of a concurrency limiter.
+     * Only calls which fail, such as on a transport error or a timeout, count as dropped for the limiter,
+     * responses of the service are not inspected.
+     *
+     * @param instrumentation    the instrumentation
+     * @param grpcSinkConfig     the grpc sink config
+     * @param managedChannel     the managed channel
+     * @param stencilClient      the stencil client
+     * @param concurrencyLimiter the concurrency limiter, or null to send the calls without limit
+     */
+    public GrpcClient(Instrumentation instrumentation, GrpcSinkConfig grpcSinkConfig, ManagedChannel managedChannel, StencilClient stencilClient, AdaptiveConcurrencyLimiter concurrencyLimiter) {
         this.instrumentation = instrumentation;
         this.grpcSinkConfig = grpcSinkConfig;
         this.stencilClient = stencilClient;
         this.managedChannel = managedChannel;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     public DynamicMessage execute(byte[] logMessage, Headers headers) {
@@ -56,18 +74,14 @@ public class GrpcClient {
 
             Channel decoratedChannel = ClientInterceptors.intercept(managedChannel,
                      MetadataUtils.newAttachHeadersInterceptor(metadata));
-            byte[] response = ClientCalls.blockingUnaryCall(
-                    decoratedChannel,
-                    MethodDescriptor.newBuilder(marshaller, marshaller)
-                            .setType(MethodDescriptor.MethodType.UNARY)
-                            .setFullMethodName(grpcSinkConfig.getSinkGrpcMethodUrl())
-                            .build(),
-                    CallOptions.DEFAULT,
-                    logMessage);
+            byte[] response = call(decoratedChannel, marshaller, logMessage);
 
             dynamicMessage = stencilClient.parse(grpcSinkConfig.getSinkGrpcResponseSchemaProtoClass(), response);
 
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             instrumentation.logWarn(e.getMessage());
             dynamicMessage = DynamicMessage.newBuilder(this.stencilClient.get(this.grpcSinkConfig.getSinkGrpcResponseSchemaProtoClass())).build();
 
@@ -76,6 +90,32 @@ public class GrpcClient {
         return dynamicMessage;
     }
 
+    private byte[] call(Channel channel, MethodDescriptor.Marshaller<byte[]> marshaller, byte[] logMessage) throws InterruptedException {
+        if (concurrencyLimiter == null) {
+            return unaryCall(channel, marshaller, logMessage);
+        }
+        long startTime = concurrencyLimiter.acquire();
+        boolean dropped = true;
+        try {
+            byte[] response = unaryCall(channel, marshaller, logMessage);
+            dropped = false;
+            return response;
+        } finally {
+            concurrencyLimiter.release(startTime, dropped);
+        }
+    }
+
+    private byte[] unaryCall(Channel channel, MethodDescriptor.Marshaller<byte[]> marshaller, byte[] logMessage) {
+        return ClientCalls.blockingUnaryCall(
+                channel,
+                MethodDescriptor.newBuilder(marshaller, marshaller)
+                        .setType(MethodDescriptor.MethodType.UNARY)
+                        .setFullMethodName(grpcSinkConfig.getSinkGrpcMethodUrl())
+                        .build(),
+                CallOptions.DEFAULT,
+                logMessage);
+    }
+
     private MethodDescriptor.Marshaller<byte[]> getMarshaller() {
         return new MethodDescriptor.Marshaller<byte[]>() {
             @Override
@@ -5,8 +5,11 @@ import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.DeserializerException;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.sink.common.AbstractHttpSink;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
+import io.odpf.firehose.sink.http.request.entity.PooledJsonEntity;
 import io.odpf.firehose.sink.http.request.types.Request;
 import io.odpf.stencil.client.StencilClient;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
@@ -43,14 +46,45 @@ public class HttpSink extends AbstractHttpSink {
      * @param requestLogStatusCodeRanges the request log status code ranges
      */
     public HttpSink(Instrumentation instrumentation, Request request, HttpClient httpClient, StencilClient stencilClient, Map<Integer, Boolean> retryStatusCodeRanges, Map<Integer, Boolean> requestLogStatusCodeRanges) {
-        super(instrumentation, "http", httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges);
+        this(instrumentation, request, httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges, 1);
+    }
+
+    /**
+     * Instantiates a new Http sink which sends up to request parallelism requests of a batch at the same time.
+     *
+     * @param instrumentation            the instrumentation
+     * @param request                    the request
+     * @param httpClient                 the http client
+     * @param stencilClient              the stencil client
+     * @param retryStatusCodeRanges      the retry status code ranges
+     * @param requestLogStatusCodeRanges the request log status code ranges
+     * @param requestParallelism         the number of requests sent at the same time
+     */
+    public HttpSink(Instrumentation instrumentation, Request request, HttpClient httpClient, StencilClient stencilClient, Map<Integer, Boolean> retryStatusCodeRanges, Map<Integer, Boolean> requestLogStatusCodeRanges, int requestParallelism) {
+        this(instrumentation, request, httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges, requestParallelism, null);
+    }
+
+    /**
+     * Instantiates a new Http sink which sends its requests within the limit of a concurrency limiter.
+     *
+     * @param instrumentation            the instrumentation
+     * @param request                    the request
+     * @param httpClient                 the http client
+     * @param stencilClient              the stencil client
+     * @param retryStatusCodeRanges      the retry status code ranges
+     * @param requestLogStatusCodeRanges the request log status code ranges
+     * @param requestParallelism         the number of requests sent at the same time
+     * @param concurrencyLimiter         the concurrency limiter, or null to send the requests without limit
+     */
+    public HttpSink(Instrumentation instrumentation, Request request, HttpClient httpClient, StencilClient stencilClient, Map<Integer, Boolean> retryStatusCodeRanges, Map<Integer, Boolean> requestLogStatusCodeRanges, int requestParallelism, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        super(instrumentation, "http", httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges, requestParallelism, concurrencyLimiter);
         this.request = request;
     }
 
     @Override
     protected void prepare(List<Message> messages) throws DeserializerException, IOException {
         try {
-            setHttpRequests(request.build(messages));
+            setHttpRequests(request.build(messages), messages);
         } catch (URISyntaxException e) {
             throw new IOException(e);
         }
@@ -58,11 +92,24 @@ public class HttpSink extends AbstractHttpSink {
 
     @Override
     protected List<String> readContent(HttpEntityEnclosingRequestBase httpRequest) throws IOException {
-        try (InputStream inputStream = httpRequest.getEntity().getContent()) {
+        HttpEntity entity = httpRequest.getEntity();
+        InputStream content = entity instanceof PooledJsonEntity ? ((PooledJsonEntity) entity).getJsonContent() : entity.getContent();
+        try (InputStream inputStream = content) {
             return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)).lines().collect(Collectors.toList());
         }
     }
 
+    @Override
+    protected void captureMessageDropCount(HttpResponse response, HttpEntityEnclosingRequestBase httpRequest, List<String> contentStringList) throws IOException {
+        if (httpRequest.getEntity() instanceof PooledJsonEntity) {
+            int messageCount = ((PooledJsonEntity) httpRequest.getEntity()).getMessageCount();
+            getInstrumentation().captureCount(SINK_MESSAGES_DROP_TOTAL, messageCount, "cause= " + statusCode(response));
+            getInstrumentation().logInfo("Message dropped because of status code: " + statusCode(response));
+            return;
+        }
+        super.captureMessageDropCount(response, httpRequest, contentStringList);
+    }
+
     protected void captureMessageDropCount(HttpResponse response, List<String> contentStringList) {
         String requestBody = joptsimple.internal.Strings.join(contentStringList, "\n");
 
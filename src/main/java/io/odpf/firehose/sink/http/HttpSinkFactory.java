@@ -5,10 +5,15 @@ import io.odpf.firehose.config.HttpSinkConfig;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.sink.AbstractSink;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
+import io.odpf.firehose.sink.http.auth.OAuth2Client;
 import io.odpf.firehose.sink.http.auth.OAuth2Credential;
+import io.odpf.firehose.sink.http.auth.OAuth2TokenManager;
 import io.odpf.firehose.sink.http.request.types.Request;
 import io.odpf.firehose.sink.http.request.RequestFactory;
 import io.odpf.firehose.sink.http.request.uri.UriParser;
+import io.odpf.firehose.utils.SharedResources;
+import io.odpf.firehose.utils.StencilUtils;
 import io.odpf.stencil.client.StencilClient;
 import org.aeonbits.owner.ConfigFactory;
 import org.apache.http.client.config.RequestConfig;
@@ -36,22 +41,53 @@ public class HttpSinkFactory {
      * @return the http sink
      */
     public static AbstractSink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient) {
+        return create(configuration, statsDReporter, stencilClient, new SharedResources(1, new Instrumentation(statsDReporter, SharedResources.class)));
+    }
+
+    /**
+     * Create Http sink, sharing one http client per service url with the sinks of the other consumer threads.
+     *
+     * @param configuration   the configuration
+     * @param statsDReporter  the statsd reporter
+     * @param stencilClient   the stencil client
+     * @param sharedResources resources shared by all the consumer threads
+     * @return the http sink
+     */
+    public static AbstractSink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient, SharedResources sharedResources) {
         HttpSinkConfig httpSinkConfig = ConfigFactory.create(HttpSinkConfig.class, configuration);
 
         Instrumentation instrumentation = new Instrumentation(statsDReporter, HttpSinkFactory.class);
 
-        CloseableHttpClient closeableHttpClient = newHttpClient(httpSinkConfig, statsDReporter);
+        String clientKey = "http:" + httpSinkConfig.getSinkHttpServiceUrl();
+        String tokenManagerKey = "oauth2:" + httpSinkConfig.getSinkHttpOAuth2AccessTokenUrl() + ":" + httpSinkConfig.getSinkHttpOAuth2ClientName() + ":" + httpSinkConfig.getSinkHttpOAuth2Scope();
+        CloseableHttpClient closeableHttpClient = sharedResources.acquire(clientKey,
+                () -> newHttpClient(httpSinkConfig, statsDReporter, sharedResources, tokenManagerKey),
+                client -> {
+                    client.close();
+                    if (httpSinkConfig.isSinkHttpOAuth2Enable()) {
+                        sharedResources.release(tokenManagerKey);
+                    }
+                });
         instrumentation.logInfo("HTTP connection established");
 
-        UriParser uriParser = new UriParser(stencilClient.getParser(httpSinkConfig.getInputSchemaProtoClass()), httpSinkConfig.getKafkaRecordParserMode());
+        UriParser uriParser = new UriParser(StencilUtils.getParser(stencilClient, httpSinkConfig.getInputSchemaProtoClass(), httpSinkConfig), httpSinkConfig.getKafkaRecordParserMode());
 
         Request request = new RequestFactory(statsDReporter, httpSinkConfig, stencilClient, uriParser).createRequest();
 
-        return new HttpSink(new Instrumentation(statsDReporter, HttpSink.class), request, closeableHttpClient, stencilClient, httpSinkConfig.getSinkHttpRetryStatusCodeRanges(), httpSinkConfig.getSinkHttpRequestLogStatusCodeRanges());
+        AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.acquire("http", clientKey, configuration, statsDReporter, sharedResources);
+
+        HttpSink httpSink = new HttpSink(new Instrumentation(statsDReporter, HttpSink.class), request, closeableHttpClient, stencilClient, httpSinkConfig.getSinkHttpRetryStatusCodeRanges(), httpSinkConfig.getSinkHttpRequestLogStatusCodeRanges(),
+                httpSinkConfig.getSinkHttpRequestParallelism(), concurrencyLimiter);
+        httpSink.setSharedResourcesCloser(() -> {
+            sharedResources.release(clientKey);
+            AdaptiveConcurrencyLimiter.release(clientKey, sharedResources);
+        });
+        return httpSink;
     }
 
-    private static CloseableHttpClient newHttpClient(HttpSinkConfig httpSinkConfig, StatsDReporter statsDReporter) {
-        Integer maxHttpConnections = httpSinkConfig.getSinkHttpMaxConnections();
+    private static CloseableHttpClient newHttpClient(HttpSinkConfig httpSinkConfig, StatsDReporter statsDReporter, SharedResources sharedResources, String tokenManagerKey) {
+        int concurrency = sharedResources.getConcurrency();
+        int maxHttpConnections = Math.max(httpSinkConfig.getSinkHttpMaxConnections(), concurrency * Math.max(httpSinkConfig.getSinkHttpRequestParallelism(), 1));
         RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(httpSinkConfig.getSinkHttpRequestTimeoutMs())
                 .setConnectionRequestTimeout(httpSinkConfig.getSinkHttpRequestTimeoutMs())
                 .setConnectTimeout(httpSinkConfig.getSinkHttpRequestTimeoutMs()).build();
@@ -60,12 +96,12 @@ public class HttpSinkFactory {
         connectionManager.setDefaultMaxPerRoute(maxHttpConnections);
         HttpClientBuilder builder = HttpClients.custom().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig);
         if (httpSinkConfig.isSinkHttpOAuth2Enable()) {
-            OAuth2Credential oauth2 = new OAuth2Credential(
-                    new Instrumentation(statsDReporter, OAuth2Credential.class),
-                    httpSinkConfig.getSinkHttpOAuth2ClientName(),
-                    httpSinkConfig.getSinkHttpOAuth2ClientSecret(),
-                    httpSinkConfig.getSinkHttpOAuth2Scope(),
-                    httpSinkConfig.getSinkHttpOAuth2AccessTokenUrl());
+            OAuth2TokenManager tokenManager = sharedResources.acquire(tokenManagerKey,
+                    () -> new OAuth2TokenManager(new Instrumentation(statsDReporter, OAuth2TokenManager.class),
+                            new OAuth2Client(httpSinkConfig.getSinkHttpOAuth2ClientName(), httpSinkConfig.getSinkHttpOAuth2ClientSecret(),
+                                    httpSinkConfig.getSinkHttpOAuth2Scope(), httpSinkConfig.getSinkHttpOAuth2AccessTokenUrl())),
+                    OAuth2TokenManager::close);
+            OAuth2Credential oauth2 = new OAuth2Credential(new Instrumentation(statsDReporter, OAuth2Credential.class), tokenManager);
             builder = oauth2.initialize(builder);
         }
         return builder.build();
@@ -29,7 +29,10 @@ public class OAuth2Client {
     private final String scope;
     private final String accessTokenEndpoint;
     private final int timeoutMs = 5000;
-    private static final String SUCCESS_CODE_PATTERN = "^2.*";
+    private static final Pattern SUCCESS_CODE_PATTERN = Pattern.compile("^2.*");
+    private static final Gson GSON = new Gson();
+    private static final Type RESPONSE_MAP_TYPE = new TypeToken<Map<String, String>>() {
+    }.getType();
 
     public OAuth2Client(String clientId, String clientSecret, String scope, String accessTokenEndpoint) {
         this.clientId = clientId;
@@ -55,11 +58,9 @@ public class OAuth2Client {
         req.setEntity(new UrlEncodedFormEntity(kv, "UTF-8"));
         HttpResponse response = this.client.execute(req);
         String body = EntityUtils.toString(response.getEntity());
-        Type responseMapType = (new TypeToken<Map<String, String>>() {
-        }).getType();
-        Map<String, String> map = new Gson().fromJson(body, responseMapType);
+        Map<String, String> map = GSON.fromJson(body, RESPONSE_MAP_TYPE);
 
-        if (!Pattern.compile(SUCCESS_CODE_PATTERN).matcher(String.valueOf(response.getStatusLine().getStatusCode())).matches()) {
+        if (!SUCCESS_CODE_PATTERN.matcher(String.valueOf(response.getStatusLine().getStatusCode())).matches()) {
             throw new OAuth2Exception("OAuthException: " + map.get("error"));
         } else {
             String accessToken = map.get("access_token");
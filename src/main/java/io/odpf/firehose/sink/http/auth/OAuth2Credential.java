@@ -16,31 +16,33 @@ import java.io.IOException;
  */
 public class OAuth2Credential implements Interceptor {
 
-    private final OAuth2Client client;
-    private OAuth2AccessToken accessToken;
+    private static final String ACCESS_TOKEN_ATTRIBUTE = "oauth2.access_token";
+    private final OAuth2TokenManager tokenManager;
     private Instrumentation instrumentation;
 
     public OAuth2Credential(Instrumentation instrumentation, String clientId, String clientSecret, String scope, String accessTokenEndpoint) {
-        this.instrumentation = instrumentation;
-        this.client = new OAuth2Client(clientId, clientSecret, scope, accessTokenEndpoint);
+        this(instrumentation, new OAuth2TokenManager(instrumentation, new OAuth2Client(clientId, clientSecret, scope, accessTokenEndpoint)));
     }
 
-    public void requestAccessToken() throws IOException {
-        instrumentation.logInfo("Requesting Access Token, expires in: {0}",
-                (this.accessToken == null ? "<none>" : this.accessToken.getExpiresIn()));
-        OAuth2AccessToken token = client.requestClientCredentialsGrantAccessToken();
-        setAccessToken(token);
+    /**
+     * Instantiates a new OAuth2 credential with a token manager shared with other credentials.
+     *
+     * @param instrumentation the instrumentation
+     * @param tokenManager    the token manager
+     */
+    public OAuth2Credential(Instrumentation instrumentation, OAuth2TokenManager tokenManager) {
+        this.instrumentation = instrumentation;
+        this.tokenManager = tokenManager;
     }
 
     public HttpRequestInterceptor requestInterceptor() {
         return (request, context) -> {
             try {
-                if (getAccessToken() == null || getAccessToken().isExpired()) {
-                    requestAccessToken();
-                }
-                request.addHeader("Authorization", "Bearer " + getAccessToken().toString());
+                OAuth2AccessToken token = tokenManager.getValidAccessToken();
+                context.setAttribute(ACCESS_TOKEN_ATTRIBUTE, token);
+                request.addHeader("Authorization", "Bearer " + token.toString());
             } catch (IOException e) {
-                instrumentation.logWarn("OAuth2 request access token failed: {0}", e.getMessage());
+                instrumentation.logWarn("OAuth2 request access token failed: {}", e.getMessage());
             }
         };
     }
@@ -49,7 +51,7 @@ public class OAuth2Credential implements Interceptor {
         return (response, context) -> {
             boolean isTokenExpired = response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED;
             if (isTokenExpired) {
-                setAccessToken(null);
+                tokenManager.invalidate((OAuth2AccessToken) context.getAttribute(ACCESS_TOKEN_ATTRIBUTE));
             }
         };
     }
@@ -59,31 +61,29 @@ public class OAuth2Credential implements Interceptor {
     }
 
     public OAuth2AccessToken getAccessToken() {
-        return accessToken;
+        return tokenManager.getAccessToken();
     }
 
     public void setAccessToken(OAuth2AccessToken accessToken) {
-        this.accessToken = accessToken;
+        tokenManager.setAccessToken(accessToken);
     }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request request = chain.request();
+        OAuth2AccessToken token = null;
         try {
-            if (getAccessToken() == null || getAccessToken().isExpired()) {
-                requestAccessToken();
-            }
-            request = request.newBuilder().header("Authorization", "Bearer " + getAccessToken().toString()).build();
+            token = tokenManager.getValidAccessToken();
+            request = request.newBuilder().header("Authorization", "Bearer " + token.toString()).build();
         } catch (IOException e) {
-            instrumentation.logWarn("OAuth2 request access token failed: {0}", e.getMessage());
+            instrumentation.logWarn("OAuth2 request access token failed: {}", e.getMessage());
         }
 
         Response response = chain.proceed(request);
         boolean isTokenExpired = response.code() == HttpStatus.SC_UNAUTHORIZED;
         if (isTokenExpired) {
-            setAccessToken(null);
+            tokenManager.invalidate(token);
         }
         return response;
     }
 }
-
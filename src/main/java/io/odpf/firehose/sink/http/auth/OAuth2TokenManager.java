@@ -0,0 +1,114 @@
+package io.odpf.firehose.sink.http.auth;
+
+import io.odpf.firehose.metrics.Instrumentation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caches the OAuth2 access token shared by the http clients of the same credentials.
+ * <p>
+ * The token is refreshed on a background thread ahead of its expiry, so requests do not wait for the token
+ * endpoint. When the token is missing or expired, or was rejected with a 401, a single request refreshes it
+ * while the others wait for the new token instead of requesting one each.
+ */
+public class OAuth2TokenManager implements Closeable {
+    private static final double REFRESH_AHEAD_RATIO = 0.8;
+    private static final long RETRY_DELAY_SECONDS = 5;
+
+    private final OAuth2Client client;
+    private final Instrumentation instrumentation;
+    private final AtomicReference<OAuth2AccessToken> accessToken = new AtomicReference<>();
+    private final Object refreshLock = new Object();
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    public OAuth2TokenManager(Instrumentation instrumentation, OAuth2Client client) {
+        this.instrumentation = instrumentation;
+        this.client = client;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oauth2-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the cached token, refreshing it first when it is missing or expired.
+     *
+     * @return the valid access token
+     * @throws IOException when the token endpoint can not be reached
+     */
+    public OAuth2AccessToken getValidAccessToken() throws IOException {
+        OAuth2AccessToken token = accessToken.get();
+        if (token != null && !token.isExpired()) {
+            return token;
+        }
+        return refresh(token);
+    }
+
+    /**
+     * Drops the token rejected by the service, unless it was already replaced.
+     *
+     * @param rejectedToken the token sent with the rejected request
+     */
+    public void invalidate(OAuth2AccessToken rejectedToken) {
+        if (rejectedToken != null && accessToken.compareAndSet(rejectedToken, null)) {
+            instrumentation.logInfo("OAuth2 access token rejected, refreshing on next request");
+        }
+    }
+
+    public OAuth2AccessToken getAccessToken() {
+        return accessToken.get();
+    }
+
+    public void setAccessToken(OAuth2AccessToken token) {
+        accessToken.set(token);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private OAuth2AccessToken refresh(OAuth2AccessToken staleToken) throws IOException {
+        synchronized (refreshLock) {
+            OAuth2AccessToken token = accessToken.get();
+            if (token != null && token != staleToken && !token.isExpired()) {
+                return token;
+            }
+            instrumentation.logInfo("Requesting Access Token, expires in: {}", token == null ? "<none>" : token.getExpiresIn());
+            token = client.requestClientCredentialsGrantAccessToken();
+            accessToken.set(token);
+            scheduleRefresh((long) (token.getExpiresIn() * REFRESH_AHEAD_RATIO));
+            return token;
+        }
+    }
+
+    private void refreshInBackground() {
+        try {
+            refresh(accessToken.get());
+        } catch (IOException | RuntimeException e) {
+            instrumentation.logWarn("OAuth2 background refresh of access token failed: {}", e.getMessage());
+            OAuth2AccessToken token = accessToken.get();
+            if (token != null && !token.isExpired()) {
+                scheduleRefresh(RETRY_DELAY_SECONDS);
+            }
+        }
+    }
+
+    private synchronized void scheduleRefresh(long delaySeconds) {
+        if (delaySeconds <= 0 || scheduler.isShutdown()) {
+            return;
+        }
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        scheduledRefresh = scheduler.schedule(this::refreshInBackground, delaySeconds, TimeUnit.SECONDS);
+    }
+}
@@ -10,6 +10,7 @@ import io.odpf.firehose.serializer.MessageSerializer;
 import io.odpf.firehose.serializer.MessageToJson;
 import io.odpf.firehose.serializer.MessageToTemplatizedJson;
 import io.odpf.firehose.serializer.JsonWrappedProtoByte;
+import io.odpf.firehose.utils.StencilUtils;
 import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.Parser;
 import lombok.AllArgsConstructor;
@@ -33,7 +34,7 @@ public class SerializerFactory {
         }
 
         if (httpSinkConfig.getSinkHttpDataFormat() == HttpSinkDataFormatType.JSON) {
-            Parser protoParser = stencilClient.getParser(httpSinkConfig.getInputSchemaProtoClass());
+            Parser protoParser = StencilUtils.getParser(stencilClient, httpSinkConfig.getInputSchemaProtoClass(), httpSinkConfig);
             if (httpSinkConfig.getSinkHttpJsonBodyTemplate().isEmpty()) {
                 instrumentation.logDebug("Serializer type: EsbMessageToJson", HttpSinkDataFormatType.JSON);
                 return new MessageToJson(protoParser, false, true);
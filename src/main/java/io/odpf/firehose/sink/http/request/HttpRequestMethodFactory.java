@@ -1,11 +1,14 @@
 package io.odpf.firehose.sink.http.request;
 
 import io.odpf.firehose.config.enums.HttpSinkRequestMethodType;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.sink.common.HttpBatchRequest;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 
 import java.net.URI;
+import java.util.List;
 
 /**
  * The type Http request method factory.
@@ -25,4 +28,20 @@ public class HttpRequestMethodFactory {
             return new HttpPut(uri);
         }
     }
+
+    /**
+     * Create http batch request of the messages.
+     *
+     * @param uri      the uri
+     * @param method   the method
+     * @param messages the messages of the request
+     * @return the http batch request
+     */
+    public static HttpBatchRequest create(URI uri, HttpSinkRequestMethodType method, List<Message> messages) {
+        if (method.equals(HttpSinkRequestMethodType.POST)) {
+            return new HttpBatchRequest(HttpPost.METHOD_NAME, uri, messages);
+        } else {
+            return new HttpBatchRequest(HttpPut.METHOD_NAME, uri, messages);
+        }
+    }
 }
@@ -57,7 +57,9 @@ public class RequestFactory {
         HttpSinkRequestMethodType httpSinkRequestMethodType = httpSinkConfig.getSinkHttpRequestMethod();
         HeaderBuilder headerBuilder = new HeaderBuilder(httpSinkConfig.getSinkHttpHeaders());
         UriBuilder uriBuilder = new UriBuilder(httpSinkConfig.getSinkHttpServiceUrl(), uriParser);
-        RequestEntityBuilder requestEntityBuilder = new RequestEntityBuilder();
+        RequestEntityBuilder requestEntityBuilder = new RequestEntityBuilder()
+                .setStreaming(httpSinkConfig.isSinkHttpRequestStreamingEnable())
+                .setGzip(httpSinkConfig.isSinkHttpRequestGzipEnable());
 
         List<Request> requests = Arrays.asList(
                 new SimpleRequest(statsDReporter, httpSinkConfig, body, httpSinkRequestMethodType),
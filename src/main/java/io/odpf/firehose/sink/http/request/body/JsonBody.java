@@ -1,5 +1,7 @@
 package io.odpf.firehose.sink.http.request.body;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,4 +41,15 @@ public class JsonBody {
     return serializedBody;
   }
 
+  /**
+   * Serialize a message into the stream.
+   *
+   * @param message      the message
+   * @param outputStream the output stream
+   * @throws DeserializerException the deserializer exception
+   * @throws IOException           when the stream can not be written
+   */
+  public void serialize(Message message, OutputStream outputStream) throws DeserializerException, IOException {
+    jsonSerializer.serialize(message, outputStream);
+  }
 }
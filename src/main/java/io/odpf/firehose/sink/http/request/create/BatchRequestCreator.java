@@ -40,11 +40,17 @@ public class BatchRequestCreator implements RequestCreator {
 
         Map<String, String> headerMap = headerBuilder.build();
         headerMap.forEach(request::addHeader);
-        String messagesString = jsonBody.serialize(messages).toString();
-
-        request.setEntity(requestEntityBuilder.buildHttpEntity(messagesString));
+        if (requestEntityBuilder.isStreaming()) {
+            request.setEntity(requestEntityBuilder.buildHttpEntity(messages, jsonBody));
+            instrumentation.logDebug("\nRequest URL: {}\nRequest headers: {}\nRequest content: {} messages\nRequest method: {}",
+                    uri, headerMap, messages.size(), method);
+            return Collections.singletonList(request);
+        }
+        List<String> serializedMessages = jsonBody.serialize(messages);
+
+        request.setEntity(requestEntityBuilder.buildHttpEntity(serializedMessages.toString()));
         instrumentation.logDebug("\nRequest URL: {}\nRequest headers: {}\nRequest content: {}\nRequest method: {}",
-                uri, headerMap, jsonBody.serialize(messages), method);
+                uri, headerMap, serializedMessages, method);
         return Collections.singletonList(request);
     }
 }
@@ -0,0 +1,74 @@
+package io.odpf.firehose.sink.http.request.create;
+
+import io.odpf.firehose.config.enums.HttpSinkRequestMethodType;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.http.request.HttpRequestMethodFactory;
+import io.odpf.firehose.sink.http.request.body.JsonBody;
+import io.odpf.firehose.sink.http.request.entity.RequestEntityBuilder;
+import io.odpf.firehose.sink.http.request.header.HeaderBuilder;
+import io.odpf.firehose.sink.http.request.uri.UriBuilder;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates one batch request for each group of messages rendering to the same uri and headers.
+ */
+public class GroupedBatchRequestCreator implements RequestCreator {
+
+    private UriBuilder uriBuilder;
+    private HeaderBuilder headerBuilder;
+    private HttpSinkRequestMethodType method;
+    private JsonBody jsonBody;
+    private Instrumentation instrumentation;
+
+    public GroupedBatchRequestCreator(Instrumentation instrumentation, UriBuilder uriBuilder, HeaderBuilder headerBuilder, HttpSinkRequestMethodType method, JsonBody jsonBody) {
+        this.uriBuilder = uriBuilder;
+        this.headerBuilder = headerBuilder;
+        this.method = method;
+        this.jsonBody = jsonBody;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public List<HttpEntityEnclosingRequestBase> create(List<Message> messages, RequestEntityBuilder requestEntityBuilder) throws URISyntaxException {
+        Map<RequestKey, List<Message>> groups = new LinkedHashMap<>();
+        for (Message message : messages) {
+            RequestKey key = new RequestKey(uriBuilder.build(message), headerBuilder.build(message));
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(message);
+        }
+        List<HttpEntityEnclosingRequestBase> requests = new ArrayList<>();
+        for (Map.Entry<RequestKey, List<Message>> group : groups.entrySet()) {
+            URI uri = group.getKey().uri;
+            Map<String, String> headerMap = group.getKey().headers;
+            List<Message> groupMessages = group.getValue();
+            HttpEntityEnclosingRequestBase request = HttpRequestMethodFactory.create(uri, method, groupMessages);
+            headerMap.forEach(request::addHeader);
+            if (requestEntityBuilder.isStreaming()) {
+                request.setEntity(requestEntityBuilder.buildHttpEntity(groupMessages, jsonBody));
+            } else {
+                request.setEntity(requestEntityBuilder.buildHttpEntity(jsonBody.serialize(groupMessages).toString()));
+            }
+            instrumentation.logDebug("\nRequest URL: {}\nRequest headers: {}\nRequest content: {} messages\nRequest method: {}",
+                    uri, headerMap, groupMessages.size(), method);
+            requests.add(request);
+        }
+        instrumentation.logDebug("Grouped {} messages into {} requests", messages.size(), requests.size());
+        return requests;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class RequestKey {
+        private final URI uri;
+        private final Map<String, String> headers;
+    }
+}
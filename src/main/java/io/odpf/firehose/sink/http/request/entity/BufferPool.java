@@ -0,0 +1,51 @@
+package io.odpf.firehose.sink.http.request.entity;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of fixed size byte chunks, which request bodies are written to and returned after the request is sent.
+ * <p>
+ * At most max pooled chunks are kept, chunks released beyond that are left to the garbage collector.
+ */
+public class BufferPool {
+    private final int chunkSize;
+    private final int maxPooledChunks;
+    private final ConcurrentLinkedQueue<byte[]> chunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledChunks = new AtomicInteger();
+
+    public BufferPool(int chunkSize, int maxPooledChunks) {
+        this.chunkSize = chunkSize;
+        this.maxPooledChunks = maxPooledChunks;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return a pooled chunk, or a new one if the pool is empty
+     */
+    public byte[] acquire() {
+        byte[] chunk = chunks.poll();
+        if (chunk == null) {
+            return new byte[chunkSize];
+        }
+        pooledChunks.decrementAndGet();
+        return chunk;
+    }
+
+    /**
+     * @param chunk chunk acquired from this pool
+     */
+    public void release(byte[] chunk) {
+        if (chunk.length != chunkSize) {
+            return;
+        }
+        if (pooledChunks.incrementAndGet() > maxPooledChunks) {
+            pooledChunks.decrementAndGet();
+            return;
+        }
+        chunks.offer(chunk);
+    }
+}
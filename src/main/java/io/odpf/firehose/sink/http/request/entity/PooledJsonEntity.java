@@ -0,0 +1,150 @@
+package io.odpf.firehose.sink.http.request.entity;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Repeatable JSON request entity of a batch of messages, written to chunks of a {@link BufferPool}.
+ * <p>
+ * The messages are serialized once into the chunks, and the chunks are written to the connection as they are,
+ * or through gzip. Closing the entity returns the chunks to the pool.
+ */
+public class PooledJsonEntity extends AbstractHttpEntity implements Closeable {
+    private static final String GZIP = "gzip";
+
+    private final BufferPool bufferPool;
+    private final boolean gzip;
+    private final int messageCount;
+    private final List<byte[]> chunks = new ArrayList<>();
+    private int lastChunkSize = 0;
+    private long length = 0;
+
+    public PooledJsonEntity(BufferPool bufferPool, boolean gzip, int messageCount) {
+        this.bufferPool = bufferPool;
+        this.gzip = gzip;
+        this.messageCount = messageCount;
+        setContentType(ContentType.APPLICATION_JSON.toString());
+        if (gzip) {
+            setContentEncoding(GZIP);
+        }
+    }
+
+    /**
+     * @return number of messages in the body
+     */
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * @return stream which appends to the body
+     */
+    public OutputStream getOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (chunks.isEmpty() || lastChunkSize == bufferPool.getChunkSize()) {
+                    addChunk();
+                }
+                chunks.get(chunks.size() - 1)[lastChunkSize++] = (byte) b;
+                length++;
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int count) {
+                int written = 0;
+                while (written < count) {
+                    if (chunks.isEmpty() || lastChunkSize == bufferPool.getChunkSize()) {
+                        addChunk();
+                    }
+                    int size = Math.min(count - written, bufferPool.getChunkSize() - lastChunkSize);
+                    System.arraycopy(bytes, offset + written, chunks.get(chunks.size() - 1), lastChunkSize, size);
+                    lastChunkSize += size;
+                    written += size;
+                }
+                length += count;
+            }
+        };
+    }
+
+    /**
+     * @return uncompressed JSON of the body
+     */
+    public InputStream getJsonContent() {
+        List<InputStream> streams = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            int size = i == chunks.size() - 1 ? lastChunkSize : chunks.get(i).length;
+            streams.add(new ByteArrayInputStream(chunks.get(i), 0, size));
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return gzip ? -1 : length;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        if (!gzip) {
+            return getJsonContent();
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        writeTo(compressed);
+        return new ByteArrayInputStream(compressed.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (gzip) {
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, bufferPool.getChunkSize());
+            writeChunks(gzipOutputStream);
+            gzipOutputStream.finish();
+        } else {
+            writeChunks(outputStream);
+        }
+        outputStream.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        chunks.forEach(bufferPool::release);
+        chunks.clear();
+        lastChunkSize = 0;
+        length = 0;
+    }
+
+    private void writeChunks(OutputStream outputStream) throws IOException {
+        for (int i = 0; i < chunks.size(); i++) {
+            int size = i == chunks.size() - 1 ? lastChunkSize : chunks.get(i).length;
+            outputStream.write(chunks.get(i), 0, size);
+        }
+    }
+
+    private void addChunk() {
+        chunks.add(bufferPool.acquire());
+        lastChunkSize = 0;
+    }
+}
@@ -1,22 +1,39 @@
 package io.odpf.firehose.sink.http.request.entity;
 
 import io.odpf.firehose.exception.DeserializerException;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.sink.http.request.body.JsonBody;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Request entity builder.
  */
 public class RequestEntityBuilder {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_CHUNKS = 256;
+    private static final byte[] ARRAY_START = "[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ARRAY_END = "]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = ", ".getBytes(StandardCharsets.UTF_8);
+
     private boolean wrapArray;
+    private boolean streaming;
+    private boolean gzip;
+    private BufferPool bufferPool;
 
     /**
      * Instantiates a new Request entity builder.
      */
     public RequestEntityBuilder() {
         this.wrapArray = false;
+        this.streaming = false;
+        this.gzip = false;
     }
 
     public RequestEntityBuilder setWrapping(boolean isArrayWrap) {
@@ -24,6 +41,32 @@ public class RequestEntityBuilder {
         return this;
     }
 
+    /**
+     * Sets whether batches are serialized straight into pooled buffers instead of a string.
+     *
+     * @param isStreaming whether to stream batches
+     * @return the request entity builder
+     */
+    public RequestEntityBuilder setStreaming(boolean isStreaming) {
+        this.streaming = isStreaming;
+        return this;
+    }
+
+    /**
+     * Sets whether streamed batches are sent gzip compressed.
+     *
+     * @param isGzip whether to compress streamed batches
+     * @return the request entity builder
+     */
+    public RequestEntityBuilder setGzip(boolean isGzip) {
+        this.gzip = isGzip;
+        return this;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     /**
      * Build http entity string entity.
      *
@@ -39,4 +82,48 @@ public class RequestEntityBuilder {
             return new StringEntity(arrayWrappedBody, ContentType.APPLICATION_JSON);
         }
     }
+
+    /**
+     * Build http entity of a batch of messages, serialized into pooled buffers as a JSON array.
+     * The entity has the same content as the string entity of the serialized messages.
+     *
+     * @param messages the messages
+     * @param body     the body serializing the messages
+     * @return the pooled entity, which should be closed once the request is sent
+     * @throws DeserializerException the deserializer exception
+     */
+    public PooledJsonEntity buildHttpEntity(List<Message> messages, JsonBody body) throws DeserializerException {
+        PooledJsonEntity entity = new PooledJsonEntity(getBufferPool(), gzip, messages.size());
+        try {
+            OutputStream outputStream = entity.getOutputStream();
+            if (wrapArray) {
+                outputStream.write(ARRAY_START);
+            }
+            outputStream.write(ARRAY_START);
+            for (int i = 0; i < messages.size(); i++) {
+                if (i > 0) {
+                    outputStream.write(SEPARATOR);
+                }
+                body.serialize(messages.get(i), outputStream);
+            }
+            outputStream.write(ARRAY_END);
+            if (wrapArray) {
+                outputStream.write(ARRAY_END);
+            }
+            return entity;
+        } catch (IOException e) {
+            entity.close();
+            throw new DeserializerException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            entity.close();
+            throw e;
+        }
+    }
+
+    private synchronized BufferPool getBufferPool() {
+        if (bufferPool == null) {
+            bufferPool = new BufferPool(CHUNK_SIZE, MAX_POOLED_CHUNKS);
+        }
+        return bufferPool;
+    }
 }
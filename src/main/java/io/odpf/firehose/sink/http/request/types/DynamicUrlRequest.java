@@ -8,6 +8,7 @@ import io.odpf.firehose.exception.DeserializerException;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.sink.http.request.body.JsonBody;
+import io.odpf.firehose.sink.http.request.create.GroupedBatchRequestCreator;
 import io.odpf.firehose.sink.http.request.create.IndividualRequestCreator;
 import io.odpf.firehose.sink.http.request.create.RequestCreator;
 import io.odpf.firehose.sink.http.request.entity.RequestEntityBuilder;
@@ -46,7 +47,8 @@ public class DynamicUrlRequest implements Request {
     }
 
     public List<HttpEntityEnclosingRequestBase> build(List<Message> messages) throws DeserializerException, URISyntaxException {
-        return requestCreator.create(messages, requestEntityBuilder.setWrapping(!isTemplateBody(httpSinkConfig)));
+        boolean isWrapping = !isTemplateBody(httpSinkConfig) && !httpSinkConfig.isSinkHttpRequestGroupByUrlEnable();
+        return requestCreator.create(messages, requestEntityBuilder.setWrapping(isWrapping));
     }
 
     /**
@@ -59,8 +61,13 @@ public class DynamicUrlRequest implements Request {
      */
     @Override
     public Request setRequestStrategy(HeaderBuilder headerBuilder, UriBuilder uriBuilder, RequestEntityBuilder requestEntitybuilder) {
-        this.requestCreator = new IndividualRequestCreator(
-                new Instrumentation(statsDReporter, IndividualRequestCreator.class), uriBuilder, headerBuilder, method, body);
+        if (httpSinkConfig.isSinkHttpRequestGroupByUrlEnable()) {
+            this.requestCreator = new GroupedBatchRequestCreator(
+                    new Instrumentation(statsDReporter, GroupedBatchRequestCreator.class), uriBuilder, headerBuilder, method, body);
+        } else {
+            this.requestCreator = new IndividualRequestCreator(
+                    new Instrumentation(statsDReporter, IndividualRequestCreator.class), uriBuilder, headerBuilder, method, body);
+        }
         this.requestEntityBuilder = requestEntitybuilder;
         return this;
     }
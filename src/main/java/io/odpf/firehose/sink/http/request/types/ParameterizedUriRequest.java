@@ -9,6 +9,7 @@ import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.proto.ProtoToFieldMapper;
 import io.odpf.firehose.sink.http.request.body.JsonBody;
+import io.odpf.firehose.sink.http.request.create.GroupedBatchRequestCreator;
 import io.odpf.firehose.sink.http.request.create.IndividualRequestCreator;
 import io.odpf.firehose.sink.http.request.create.RequestCreator;
 import io.odpf.firehose.sink.http.request.entity.RequestEntityBuilder;
@@ -57,7 +58,8 @@ public class ParameterizedUriRequest implements Request {
 
     @Override
     public List<HttpEntityEnclosingRequestBase> build(List<Message> messages) throws URISyntaxException, DeserializerException {
-        return requestCreator.create(messages, requestEntityBuilder.setWrapping(!isTemplateBody(httpSinkConfig)));
+        boolean isWrapping = !isTemplateBody(httpSinkConfig) && !httpSinkConfig.isSinkHttpRequestGroupByUrlEnable();
+        return requestCreator.create(messages, requestEntityBuilder.setWrapping(isWrapping));
     }
 
     /**
@@ -70,10 +72,14 @@ public class ParameterizedUriRequest implements Request {
      */
     @Override
     public Request setRequestStrategy(HeaderBuilder headerBuilder, UriBuilder uriBuilder, RequestEntityBuilder requestEntitybuilder) {
-        this.requestCreator = new IndividualRequestCreator(
-                new Instrumentation(statsDReporter, IndividualRequestCreator.class),
-                uriBuilder.withParameterizedURI(protoToFieldMapper, httpSinkConfig.getSinkHttpParameterSource()),
-                headerBuilder, method, body);
+        UriBuilder parameterizedUriBuilder = uriBuilder.withParameterizedURI(protoToFieldMapper, httpSinkConfig.getSinkHttpParameterSource());
+        if (httpSinkConfig.isSinkHttpRequestGroupByUrlEnable()) {
+            this.requestCreator = new GroupedBatchRequestCreator(
+                    new Instrumentation(statsDReporter, GroupedBatchRequestCreator.class), parameterizedUriBuilder, headerBuilder, method, body);
+        } else {
+            this.requestCreator = new IndividualRequestCreator(
+                    new Instrumentation(statsDReporter, IndividualRequestCreator.class), parameterizedUriBuilder, headerBuilder, method, body);
+        }
         this.requestEntityBuilder = requestEntitybuilder;
         return this;
     }
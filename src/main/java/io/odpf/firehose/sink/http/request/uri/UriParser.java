@@ -2,6 +2,7 @@ package io.odpf.firehose.sink.http.request.uri;
 
 
 import io.odpf.firehose.message.Message;
+import io.odpf.firehose.proto.CachingParser;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -33,7 +34,9 @@ public class UriParser {
     private DynamicMessage parseEsbMessage(Message message) {
         DynamicMessage parsedMessage;
         try {
-            parsedMessage = protoParser.parse(getPayload(message));
+            parsedMessage = parserMode.equals("key")
+                    ? CachingParser.parseLogKey(protoParser, message)
+                    : CachingParser.parseLogMessage(protoParser, message);
         } catch (InvalidProtocolBufferException e) {
             throw new IllegalArgumentException("Unable to parse Service URL", e);
         }
@@ -87,12 +90,4 @@ public class UriParser {
         return parsedMessage.getField(fieldDescriptor);
     }
 
-    private byte[] getPayload(Message message) {
-        if (parserMode.equals("key")) {
-            return message.getLogKey();
-        } else {
-            return message.getLogMessage();
-        }
-    }
-
 }
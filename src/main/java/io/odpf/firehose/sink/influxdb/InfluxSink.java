@@ -7,6 +7,7 @@ import io.odpf.firehose.config.InfluxSinkConfig;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.sink.AbstractSink;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.proto.CachingParser;
 import com.google.protobuf.DynamicMessage;
 import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.Parser;
@@ -54,7 +55,7 @@ public class InfluxSink extends AbstractSink {
     protected void prepare(List<Message> messages) throws IOException {
         batchPoints = BatchPoints.database(config.getSinkInfluxDbName()).retentionPolicy(config.getSinkInfluxRetentionPolicy()).build();
         for (Message message : messages) {
-            DynamicMessage dynamicMessage = protoParser.parse(message.getLogMessage());
+            DynamicMessage dynamicMessage = CachingParser.parseLogMessage(protoParser, message);
             Point point = pointBuilder.buildPoint(dynamicMessage);
             getInstrumentation().logDebug("Data point: {}", point.toString());
             batchPoints.point(point);
@@ -5,6 +5,8 @@ import io.odpf.firehose.config.InfluxSinkConfig;
 import io.odpf.firehose.sink.AbstractSink;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
+import io.odpf.firehose.proto.FieldProjection;
+import io.odpf.firehose.utils.StencilUtils;
 import io.odpf.stencil.client.StencilClient;
 import org.aeonbits.owner.ConfigFactory;
 import org.influxdb.InfluxDB;
@@ -33,6 +35,10 @@ public class InfluxSinkFactory {
         InfluxDB client = InfluxDBFactory.connect(config.getSinkInfluxUrl(), config.getSinkInfluxUsername(), config.getSinkInfluxPassword());
         instrumentation.logInfo("InfluxDB connection established");
 
-        return new InfluxSink(new Instrumentation(statsDReporter, InfluxSink.class), "influx.db", config, stencilClient.getParser(config.getInputSchemaProtoClass()), client, stencilClient);
+        FieldProjection projection = FieldProjection.of(config.getSinkInfluxTagNameProtoIndexMapping(), config.getSinkInfluxFieldNameProtoIndexMapping());
+        if (config.getSinkInfluxProtoEventTimestampIndex() != null) {
+            projection.addField(config.getSinkInfluxProtoEventTimestampIndex());
+        }
+        return new InfluxSink(new Instrumentation(statsDReporter, InfluxSink.class), "influx.db", config, StencilUtils.getParser(stencilClient, config.getInputSchemaProtoClass(), config, projection), client, stencilClient);
     }
 }
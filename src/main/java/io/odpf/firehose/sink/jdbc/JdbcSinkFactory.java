@@ -5,7 +5,10 @@ import io.odpf.firehose.config.JdbcSinkConfig;
 import io.odpf.firehose.sink.AbstractSink;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
+import io.odpf.firehose.proto.FieldProjection;
 import io.odpf.firehose.proto.ProtoToFieldMapper;
+import io.odpf.firehose.utils.SharedResources;
+import io.odpf.firehose.utils.StencilUtils;
 import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.Parser;
 import org.aeonbits.owner.ConfigFactory;
@@ -30,6 +33,19 @@ public class JdbcSinkFactory {
      * @return the abstract sink
      */
     public static AbstractSink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient client) {
+        return create(configuration, statsDReporter, client, new SharedResources(1, new Instrumentation(statsDReporter, SharedResources.class)));
+    }
+
+    /**
+     * Create JDBC sink, sharing one connection pool per database and user with the sinks of the other consumer threads.
+     *
+     * @param configuration   the configuration
+     * @param statsDReporter  the stats d reporter
+     * @param client          the client
+     * @param sharedResources resources shared by all the consumer threads
+     * @return the abstract sink
+     */
+    public static AbstractSink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient client, SharedResources sharedResources) {
         JdbcSinkConfig jdbcSinkConfig = ConfigFactory.create(JdbcSinkConfig.class, configuration);
 
         Instrumentation instrumentation = new Instrumentation(statsDReporter, JdbcSinkFactory.class);
@@ -37,9 +53,13 @@ public class JdbcSinkFactory {
                         + "\n\tJDBC URL: %s\n\tJDBC Username: %s\n\tJDBC Tablename: %s\n\tUnique keys: %s",
                 jdbcSinkConfig.getSinkJdbcUrl(), jdbcSinkConfig.getSinkJdbcUsername(), jdbcSinkConfig.getSinkJdbcTableName(), jdbcSinkConfig.getSinkJdbcUniqueKeys());
         instrumentation.logDebug(dbConfig);
-        JdbcConnectionPool connectionPool = new HikariJdbcConnectionPool(jdbcSinkConfig.getSinkJdbcUrl(), jdbcSinkConfig.getSinkJdbcUsername(),
-                jdbcSinkConfig.getSinkJdbcPassword(), jdbcSinkConfig.getSinkJdbcConnectionPoolMaxSize(),
-                jdbcSinkConfig.getSinkJdbcConnectionPoolTimeoutMs(), jdbcSinkConfig.getSinkJdbcConnectionPoolIdleTimeoutMs(), jdbcSinkConfig.getSinkJdbcConnectionPoolMinIdle());
+        int maxPoolSize = Math.max(jdbcSinkConfig.getSinkJdbcConnectionPoolMaxSize(), sharedResources.getConcurrency());
+        JdbcConnectionPool connectionPool = sharedResources.acquireProxy(JdbcConnectionPool.class,
+                "jdbc:" + jdbcSinkConfig.getSinkJdbcUrl() + ":" + jdbcSinkConfig.getSinkJdbcUsername(),
+                () -> new HikariJdbcConnectionPool(jdbcSinkConfig.getSinkJdbcUrl(), jdbcSinkConfig.getSinkJdbcUsername(),
+                        jdbcSinkConfig.getSinkJdbcPassword(), maxPoolSize,
+                        jdbcSinkConfig.getSinkJdbcConnectionPoolTimeoutMs(), jdbcSinkConfig.getSinkJdbcConnectionPoolIdleTimeoutMs(), jdbcSinkConfig.getSinkJdbcConnectionPoolMinIdle()),
+                JdbcConnectionPool::shutdown, "shutdown");
         instrumentation.logInfo("JDBC Connection established");
         QueryTemplate queryTemplate = createQueryTemplate(jdbcSinkConfig, client);
 
@@ -47,7 +67,8 @@ public class JdbcSinkFactory {
     }
 
     private static QueryTemplate createQueryTemplate(JdbcSinkConfig jdbcSinkConfig, StencilClient stencilClient) {
-        Parser protoParser = stencilClient.getParser(jdbcSinkConfig.getInputSchemaProtoClass());
+        Parser protoParser = StencilUtils.getParser(stencilClient, jdbcSinkConfig.getInputSchemaProtoClass(), jdbcSinkConfig,
+                FieldProjection.of(jdbcSinkConfig.getInputSchemaProtoToColumnMapping()));
         ProtoToFieldMapper protoToFieldMapper = new ProtoToFieldMapper(protoParser, jdbcSinkConfig.getInputSchemaProtoToColumnMapping());
         return new QueryTemplate(jdbcSinkConfig, protoToFieldMapper);
     }
@@ -0,0 +1,114 @@
+package io.odpf.firehose.sink.jdbc.field;
+
+import com.google.gson.Gson;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.JsonFormat;
+import org.json.simple.JSONObject;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Type of a jdbc field, which converts the values of the field into a column.
+ * <p>
+ * The type is resolved once from the field descriptor, in the same order as {@link JdbcFieldFactory} picks a
+ * {@link JdbcField} for a value, so the conversion of every value does not need a field object.
+ */
+public enum JdbcFieldType {
+    COLLECTION {
+        @Override
+        public Object getColumn(Object columnValue) {
+            Collection<?> collectionOfMessages = (Collection<?>) columnValue;
+            if (!collectionOfMessages.isEmpty() && collectionOfMessages.iterator().next() instanceof Message) {
+                String messageJsons = collectionOfMessages
+                        .stream()
+                        .map(cValue -> MESSAGE.getColumn(cValue).toString())
+                        .collect(Collectors.joining(","));
+                return "[" + messageJsons + "]";
+            }
+            return Holder.GSON.toJson(collectionOfMessages);
+        }
+    },
+    MAP {
+        @Override
+        public Object getColumn(Object columnValue) {
+            HashMap<String, Object> columnFields = new HashMap<>();
+            for (Object entry : (List<?>) columnValue) {
+                Object[] data = ((Message) entry).getAllFields().values().toArray();
+                Object mapValue = data.length > 1 ? data[1] : "";
+                columnFields.put((String) data[0], mapValue);
+            }
+            return JSONObject.toJSONString(columnFields);
+        }
+    },
+    TIMESTAMP {
+        @Override
+        public Object getColumn(Object columnValue) {
+            Message timestamp = (Message) columnValue;
+            List<Descriptors.FieldDescriptor> fieldDescriptors = timestamp.getDescriptorForType().getFields();
+            long seconds = (long) timestamp.getField(fieldDescriptors.get(0));
+            int nanos = (int) timestamp.getField(fieldDescriptors.get(1));
+            return Instant.ofEpochSecond(seconds, nanos);
+        }
+    },
+    MESSAGE {
+        @Override
+        public Object getColumn(Object columnValue) {
+            try {
+                return Holder.PRINTER.print((Message) columnValue);
+            } catch (InvalidProtocolBufferException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    },
+    DEFAULT {
+        @Override
+        public Object getColumn(Object columnValue) {
+            return columnValue;
+        }
+    };
+
+    /**
+     * Converts a value of a field of this type into the column.
+     *
+     * @param columnValue the value of the field
+     * @return the column
+     */
+    public abstract Object getColumn(Object columnValue);
+
+    /**
+     * Resolves the type of a field.
+     *
+     * @param fieldDescriptor the field descriptor
+     * @return the type of the values of the field
+     */
+    public static JdbcFieldType of(Descriptors.FieldDescriptor fieldDescriptor) {
+        if (fieldDescriptor.isMapField()) {
+            return MAP;
+        }
+        if (fieldDescriptor.isRepeated()) {
+            return COLLECTION;
+        }
+        if (fieldDescriptor.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+            return DEFAULT;
+        }
+        if (fieldDescriptor.getMessageType().getName().equals(Timestamp.class.getSimpleName())) {
+            return TIMESTAMP;
+        }
+        return MESSAGE;
+    }
+
+    private static class Holder {
+        private static final Gson GSON = new Gson();
+        private static final JsonFormat.Printer PRINTER = JsonFormat.printer()
+                .omittingInsignificantWhitespace()
+                .preservingProtoFieldNames()
+                .includingDefaultValueFields();
+    }
+}
@@ -1,11 +1,6 @@
 package io.odpf.firehose.sink.jdbc.field;
 
 import com.google.protobuf.Descriptors;
-import com.google.protobuf.DynamicMessage;
-import org.json.simple.JSONObject;
-
-import java.util.HashMap;
-import java.util.List;
 
 /**
  * Jdbc map field.
@@ -22,15 +17,7 @@ public class JdbcMapField implements JdbcField {
 
     @Override
     public Object getColumn() throws RuntimeException {
-        HashMap<String, Object> columnFields = new HashMap<>();
-        List<DynamicMessage> values = (List<DynamicMessage>) this.columnValue;
-        for (DynamicMessage dynamicMessage : values) {
-            Object[] data = dynamicMessage.getAllFields().values().toArray();
-            Object mapValue = data.length > 1 ? data[1] : "";
-            columnFields.put((String) data[0], mapValue);
-        }
-        String columnEntry = JSONObject.toJSONString(columnFields);
-        return columnEntry;
+        return JdbcFieldType.MAP.getColumn(columnValue);
     }
 
     @Override
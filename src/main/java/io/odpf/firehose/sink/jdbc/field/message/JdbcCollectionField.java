@@ -1,13 +1,10 @@
 package io.odpf.firehose.sink.jdbc.field.message;
 
 import io.odpf.firehose.sink.jdbc.field.JdbcField;
-import com.google.gson.GsonBuilder;
+import io.odpf.firehose.sink.jdbc.field.JdbcFieldType;
 import com.google.protobuf.Descriptors;
-import com.google.protobuf.Message;
 
 import java.util.Collection;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class JdbcCollectionField implements JdbcField {
     private Object columnValue;
@@ -20,17 +17,7 @@ public class JdbcCollectionField implements JdbcField {
 
     @Override
     public Object getColumn() throws RuntimeException {
-        Collection collectionOfMessages = (Collection) columnValue;
-        Optional first = collectionOfMessages.stream().findFirst();
-        if (first.isPresent() && first.get() instanceof Message) {
-            Object messageJsons = collectionOfMessages
-                    .stream()
-                    .map(cValue -> new JdbcDefaultMessageField(cValue).getColumn().toString())
-                    .collect(Collectors.joining(","));
-            return "[" + messageJsons + "]";
-        } else {
-            return new GsonBuilder().create().toJson(collectionOfMessages);
-        }
+        return JdbcFieldType.COLLECTION.getColumn(columnValue);
     }
 
     @Override
@@ -1,16 +1,11 @@
 package io.odpf.firehose.sink.jdbc.field.message;
 
 import io.odpf.firehose.sink.jdbc.field.JdbcField;
-import com.google.protobuf.InvalidProtocolBufferException;
+import io.odpf.firehose.sink.jdbc.field.JdbcFieldType;
 import com.google.protobuf.Message;
-import com.google.protobuf.util.JsonFormat;
 
 public class JdbcDefaultMessageField implements JdbcField {
     private Object columnValue;
-    private JsonFormat.Printer jsonPrinter = JsonFormat.printer()
-            .omittingInsignificantWhitespace()
-            .preservingProtoFieldNames()
-            .includingDefaultValueFields();
 
     public JdbcDefaultMessageField(Object columnValue) {
         this.columnValue = columnValue;
@@ -18,11 +13,7 @@ public class JdbcDefaultMessageField implements JdbcField {
 
     @Override
     public Object getColumn() throws RuntimeException {
-        try {
-            columnValue = this.jsonPrinter.print((Message) columnValue);
-        } catch (InvalidProtocolBufferException e) {
-            throw new RuntimeException(e);
-        }
+        columnValue = JdbcFieldType.MESSAGE.getColumn(columnValue);
         return columnValue;
     }
 
@@ -1,14 +1,10 @@
 package io.odpf.firehose.sink.jdbc.field.message;
 
 import io.odpf.firehose.sink.jdbc.field.JdbcField;
-import com.google.protobuf.Descriptors;
+import io.odpf.firehose.sink.jdbc.field.JdbcFieldType;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.Timestamp;
 
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-
 public class JdbcTimestampField implements JdbcField {
     private Object columnValue;
 
@@ -18,13 +14,7 @@ public class JdbcTimestampField implements JdbcField {
 
     @Override
     public Object getColumn() {
-        List<Descriptors.FieldDescriptor> fieldDescriptors = ((DynamicMessage) columnValue).getDescriptorForType().getFields();
-        ArrayList<Object> timeFields = new ArrayList<>();
-        for (Descriptors.FieldDescriptor fieldDescriptor : fieldDescriptors) {
-            timeFields.add(((DynamicMessage) columnValue).getField(fieldDescriptor));
-        }
-        Instant instant = Instant.ofEpochSecond((long) timeFields.get(0), ((Integer) timeFields.get(1)).longValue());
-        return instant;
+        return JdbcFieldType.TIMESTAMP.getColumn(columnValue);
     }
 
     @Override
@@ -3,6 +3,7 @@ package io.odpf.firehose.sink.log;
 
 import io.odpf.firehose.config.AppConfig;
 import io.odpf.firehose.message.Message;
+import io.odpf.firehose.proto.CachingParser;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
 import io.odpf.stencil.Parser;
@@ -27,15 +28,11 @@ public class KeyOrMessageParser {
      * @throws IOException when invalid message is encountered
      */
     public DynamicMessage parse(Message message) throws IOException {
-        if (appConfig.getKafkaRecordParserMode().equals("key")) {
-            return protoParse(message.getLogKey());
-        }
-        return protoParse(message.getLogMessage());
-    }
-
-    private DynamicMessage protoParse(byte[] data) throws IOException {
         try {
-            return protoParser.parse(data);
+            if (appConfig.getKafkaRecordParserMode().equals("key")) {
+                return CachingParser.parseLogKey(protoParser, message);
+            }
+            return CachingParser.parseLogMessage(protoParser, message);
         } catch (InvalidProtocolBufferException e) {
             throw new IOException(e);
         }
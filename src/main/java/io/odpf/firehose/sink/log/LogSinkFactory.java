@@ -5,6 +5,7 @@ import io.odpf.firehose.config.AppConfig;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.sink.Sink;
+import io.odpf.firehose.utils.StencilUtils;
 import io.odpf.stencil.client.StencilClient;
 import org.aeonbits.owner.ConfigFactory;
 
@@ -29,7 +30,7 @@ public class LogSinkFactory {
      */
     public static Sink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient) {
         AppConfig appConfig = ConfigFactory.create(AppConfig.class, configuration);
-        KeyOrMessageParser parser = new KeyOrMessageParser(stencilClient.getParser(appConfig.getInputSchemaProtoClass()), appConfig);
+        KeyOrMessageParser parser = new KeyOrMessageParser(StencilUtils.getParser(stencilClient, appConfig.getInputSchemaProtoClass(), appConfig), appConfig);
         return new LogSink(parser, new Instrumentation(statsDReporter, LogSink.class));
     }
 }
@@ -15,6 +15,7 @@ import io.odpf.firehose.sink.mongodb.client.MongoSinkClient;
 import io.odpf.firehose.sink.mongodb.request.MongoRequestHandler;
 import io.odpf.firehose.sink.mongodb.request.MongoRequestHandlerFactory;
 import io.odpf.firehose.sink.mongodb.util.MongoSinkFactoryUtil;
+import io.odpf.firehose.utils.StencilUtils;
 import org.aeonbits.owner.ConfigFactory;
 
 import java.util.List;
@@ -44,7 +45,7 @@ public class MongoSinkFactory {
         logMongoConfig(mongoSinkConfig, instrumentation);
         MongoRequestHandler mongoRequestHandler = new MongoRequestHandlerFactory(mongoSinkConfig, new Instrumentation(statsDReporter, MongoRequestHandlerFactory.class),
                 mongoSinkConfig.getSinkMongoPrimaryKey(), mongoSinkConfig.getSinkMongoInputMessageType(),
-                new MessageToJson(stencilClient.getParser(mongoSinkConfig.getInputSchemaProtoClass()), mongoSinkConfig.isSinkMongoPreserveProtoFieldNamesEnable(), false)
+                new MessageToJson(StencilUtils.getParser(stencilClient, mongoSinkConfig.getInputSchemaProtoClass(), mongoSinkConfig), mongoSinkConfig.isSinkMongoPreserveProtoFieldNamesEnable(), false)
         ).getRequestHandler();
 
         MongoClient mongoClient = buildMongoClient(mongoSinkConfig, instrumentation);
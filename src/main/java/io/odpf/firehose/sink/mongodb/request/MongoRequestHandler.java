@@ -63,8 +63,8 @@ public abstract class MongoRequestHandler {
     /**
      * This method returns the JSON string parsed from the input message.
      * If the input message type is Protobuf, then the raw Protobuf byte
-     * array of the log message is first serialized to JSON and then
-     * the value stored in the logMessage key is returned.
+     * array of the log key or the log message is serialized to JSON
+     * and returned.
      * If the input message type is JSON, then the raw JSON byte array,
      * is first deserialized and the then the value stored in the
      * logMessage key is returned.
@@ -76,8 +76,14 @@ public abstract class MongoRequestHandler {
     protected String extractPayload(Message message) {
 
         if (messageType.equals(MongoSinkMessageType.PROTOBUF)) {
-            JSONObject messageJSONObject = getJSONObject(jsonSerializer.serialize(message));
-            return getFieldFromJSON(messageJSONObject, kafkaRecordParserMode.equals("key") ? "logKey" : "logMessage");
+            if (!kafkaRecordParserMode.equals("key")) {
+                return jsonSerializer.serializeLogMessage(message);
+            }
+            String logKey = jsonSerializer.serializeLogKey(message);
+            if (logKey == null) {
+                throw new IllegalArgumentException("Key: logKey not found in ESB Message");
+            }
+            return logKey;
         }
         return new String(kafkaRecordParserMode.equals("key") ? message.getLogKey() : message.getLogMessage(), Charset.defaultCharset());
     }
@@ -2,6 +2,7 @@ package io.odpf.firehose.sink.prometheus;
 
 
 import io.odpf.firehose.sink.common.AbstractHttpSink;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import io.odpf.firehose.sink.prometheus.request.PromRequest;
 import com.google.protobuf.DynamicMessage;
 import cortexpb.Cortex;
@@ -42,7 +43,22 @@ public class PromSink extends AbstractHttpSink {
      * @param requestLogStatusCodeRanges the request log status code ranges
      */
     public PromSink(Instrumentation instrumentation, PromRequest request, HttpClient httpClient, StencilClient stencilClient, Map<Integer, Boolean> retryStatusCodeRanges, Map<Integer, Boolean> requestLogStatusCodeRanges) {
-        super(instrumentation, "prometheus", httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges);
+        this(instrumentation, request, httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges, null);
+    }
+
+    /**
+     * Instantiates a new Prometheus sink which sends its requests within the limit of a concurrency limiter.
+     *
+     * @param instrumentation            the instrumentation
+     * @param request                    the request
+     * @param httpClient                 the http client
+     * @param stencilClient              the stencil client
+     * @param retryStatusCodeRanges      the retry status code ranges
+     * @param requestLogStatusCodeRanges the request log status code ranges
+     * @param concurrencyLimiter         the concurrency limiter, or null to send the requests without limit
+     */
+    public PromSink(Instrumentation instrumentation, PromRequest request, HttpClient httpClient, StencilClient stencilClient, Map<Integer, Boolean> retryStatusCodeRanges, Map<Integer, Boolean> requestLogStatusCodeRanges, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        super(instrumentation, "prometheus", httpClient, stencilClient, retryStatusCodeRanges, requestLogStatusCodeRanges, 1, concurrencyLimiter);
         this.request = request;
     }
 
@@ -56,7 +72,7 @@ public class PromSink extends AbstractHttpSink {
     @Override
     protected void prepare(List<Message> messages) throws DeserializerException, IOException {
         try {
-            setHttpRequests(request.build(messages));
+            setHttpRequests(request.build(messages), messages);
         } catch (URISyntaxException e) {
             throw new IOException(e);
         }
@@ -3,9 +3,13 @@ package io.odpf.firehose.sink.prometheus;
 import io.odpf.firehose.config.PromSinkConfig;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
+import io.odpf.firehose.proto.FieldProjection;
 import io.odpf.firehose.sink.AbstractSink;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import io.odpf.firehose.sink.prometheus.request.PromRequest;
 import io.odpf.firehose.sink.prometheus.request.PromRequestCreator;
+import io.odpf.firehose.utils.SharedResources;
+import io.odpf.firehose.utils.StencilUtils;
 import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.Parser;
 import org.aeonbits.owner.ConfigFactory;
@@ -36,6 +40,20 @@ public class PromSinkFactory {
      * @return PromSink
      */
     public static AbstractSink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient) {
+        return create(configuration, statsDReporter, stencilClient, new SharedResources(1, new Instrumentation(statsDReporter, SharedResources.class)));
+    }
+
+    /**
+     * Create Prometheus sink, sharing the concurrency limiter of the remote write endpoint with the sinks of the other
+     * consumer threads.
+     *
+     * @param configuration   the configuration
+     * @param statsDReporter  the statsd reporter
+     * @param stencilClient   the stencil client
+     * @param sharedResources resources shared by all the consumer threads
+     * @return PromSink
+     */
+    public static AbstractSink create(Map<String, String> configuration, StatsDReporter statsDReporter, StencilClient stencilClient, SharedResources sharedResources) {
         PromSinkConfig promSinkConfig = ConfigFactory.create(PromSinkConfig.class, configuration);
         String promSchemaProtoClass = promSinkConfig.getInputSchemaProtoClass();
 
@@ -44,17 +62,27 @@ public class PromSinkFactory {
         CloseableHttpClient closeableHttpClient = newHttpClient(promSinkConfig);
         instrumentation.logInfo("HTTP connection established");
 
-        Parser protoParser = stencilClient.getParser(promSchemaProtoClass);
+        FieldProjection projection = FieldProjection.of(promSinkConfig.getSinkPromMetricNameProtoIndexMapping(), promSinkConfig.getSinkPromLabelNameProtoIndexMapping());
+        if (promSinkConfig.isEventTimestampEnabled()) {
+            projection.addField(promSinkConfig.getSinkPromProtoEventTimestampIndex());
+        }
+        Parser protoParser = StencilUtils.getParser(stencilClient, promSchemaProtoClass, promSinkConfig, projection);
 
         PromRequest request = new PromRequestCreator(statsDReporter, promSinkConfig, protoParser).createRequest();
 
-        return new PromSink(new Instrumentation(statsDReporter, PromSink.class),
+        String limiterKey = "prometheus:" + promSinkConfig.getSinkPromServiceUrl();
+        AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.acquire("prometheus", limiterKey, configuration, statsDReporter, sharedResources);
+
+        PromSink promSink = new PromSink(new Instrumentation(statsDReporter, PromSink.class),
                 request,
                 closeableHttpClient,
                 stencilClient,
                 promSinkConfig.getSinkPromRetryStatusCodeRanges(),
-                promSinkConfig.getSinkPromRequestLogStatusCodeRanges()
+                promSinkConfig.getSinkPromRequestLogStatusCodeRanges(),
+                concurrencyLimiter
         );
+        promSink.setSharedResourcesCloser(() -> AdaptiveConcurrencyLimiter.release(limiterKey, sharedResources));
+        return promSink;
     }
 
     /**
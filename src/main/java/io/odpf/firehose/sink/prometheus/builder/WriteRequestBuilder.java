@@ -2,6 +2,7 @@ package io.odpf.firehose.sink.prometheus.builder;
 
 
 import io.odpf.firehose.message.Message;
+import io.odpf.firehose.proto.CachingParser;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
 import cortexpb.Cortex;
@@ -42,7 +43,7 @@ public class WriteRequestBuilder {
         writeRequestBuilder.clear();
         List<Cortex.TimeSeries> sortedTimeSeriesList = new ArrayList<>();
         for (Message message : messages) {
-            DynamicMessage protoMessage = protoParser.parse(message.getLogMessage());
+            DynamicMessage protoMessage = CachingParser.parseLogMessage(protoParser, message);
             int partition = message.getPartition();
             sortedTimeSeriesList.addAll(timeSeriesBuilder.buildTimeSeries(protoMessage, partition));
         }
@@ -12,6 +12,7 @@ import io.odpf.firehose.sink.redis.parsers.RedisParser;
 import io.odpf.firehose.sink.redis.parsers.RedisParserFactory;
 import io.odpf.firehose.sink.redis.ttl.RedisTtl;
 import io.odpf.firehose.sink.redis.ttl.RedisTTLFactory;
+import io.odpf.firehose.utils.StencilUtils;
 import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.Parser;
 import org.apache.commons.lang.StringUtils;
@@ -45,7 +46,7 @@ public class RedisClientFactory {
     }
 
     public RedisClient getClient() {
-        Parser protoParser =  stencilClient.getParser(redisSinkConfig.getInputSchemaProtoClass());
+        Parser protoParser =  StencilUtils.getParser(stencilClient, redisSinkConfig.getInputSchemaProtoClass(), redisSinkConfig);
         ProtoToFieldMapper protoToFieldMapper = new ProtoToFieldMapper(protoParser, redisSinkConfig.getInputSchemaProtoToColumnMapping());
         RedisParser redisParser = RedisParserFactory.getParser(protoToFieldMapper, protoParser, redisSinkConfig, statsDReporter);
         RedisSinkDeploymentType redisSinkDeploymentType = redisSinkConfig.getSinkRedisDeploymentType();
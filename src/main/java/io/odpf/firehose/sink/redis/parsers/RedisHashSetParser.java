@@ -42,7 +42,7 @@ public class RedisHashSetParser extends RedisParser {
         DynamicMessage parsedMessage = parseEsbMessage(message);
         String redisKey = parseTemplate(parsedMessage, redisSinkConfig.getSinkRedisKeyTemplate());
         List<RedisDataEntry> messageEntries = new ArrayList<>();
-        Map<String, Object> protoToFieldMap = protoToFieldMapper.getFields(getPayload(message));
+        Map<String, Object> protoToFieldMap = protoToFieldMapper.getFields(parsedMessage);
         protoToFieldMap.forEach((key, value) -> messageEntries.add(new RedisHashSetFieldEntry(redisKey, parseTemplate(parsedMessage, key), String.valueOf(value), new Instrumentation(statsDReporter, RedisHashSetFieldEntry.class))));
         return messageEntries;
     }
@@ -3,6 +3,7 @@ package io.odpf.firehose.sink.redis.parsers;
 
 import io.odpf.firehose.config.RedisSinkConfig;
 import io.odpf.firehose.message.Message;
+import io.odpf.firehose.proto.CachingParser;
 import io.odpf.firehose.sink.redis.dataentry.RedisDataEntry;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
@@ -45,7 +46,9 @@ public abstract class RedisParser {
     DynamicMessage parseEsbMessage(Message message) {
         DynamicMessage parsedMessage;
         try {
-            parsedMessage = protoParser.parse(getPayload(message));
+            parsedMessage = redisSinkConfig.getKafkaRecordParserMode().equals("key")
+                    ? CachingParser.parseLogKey(protoParser, message)
+                    : CachingParser.parseLogMessage(protoParser, message);
         } catch (InvalidProtocolBufferException e) {
             throw new IllegalArgumentException("Unable to parse data when reading Key", e);
         }
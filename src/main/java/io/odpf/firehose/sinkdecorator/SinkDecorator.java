@@ -3,8 +3,10 @@ package io.odpf.firehose.sinkdecorator;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.DeserializerException;
 import io.odpf.firehose.sink.Sink;
+import org.apache.kafka.common.TopicPartition;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -38,6 +40,11 @@ public class SinkDecorator implements Sink {
         sink.calculateCommittableOffsets();
     }
 
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        sink.onPartitionsRevoked(partitions);
+    }
+
     @Override
     public boolean canManageOffsets() {
         return sink.canManageOffsets();
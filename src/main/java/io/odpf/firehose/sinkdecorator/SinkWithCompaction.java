@@ -0,0 +1,119 @@
+package io.odpf.firehose.sinkdecorator;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import io.odpf.firehose.config.SinkCompactionConfig;
+import io.odpf.firehose.config.enums.SinkCompactionKeyType;
+import io.odpf.firehose.exception.ConfigurationException;
+import io.odpf.firehose.exception.DeserializerException;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.Sink;
+import io.odpf.firehose.sink.log.KeyOrMessageParser;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.odpf.firehose.metrics.Metrics.SINK_MESSAGES_COMPACTED_TOTAL;
+
+/**
+ * This Sink pushes only the latest message of each key of a batch, for sinks which upsert by the key.
+ * <p>
+ * The key is the kafka key, or a field of the parsed message. Messages superseded by a later message of the same
+ * key in the same partition are not pushed and are reported as successful, so their offsets are committed.
+ * Messages without a key, or which can not be parsed, are pushed as they are. Proto3 scalar keys are never missing,
+ * so messages whose key field has its default value are compacted together.
+ */
+public class SinkWithCompaction extends SinkDecorator {
+    private final SinkCompactionConfig config;
+    private final KeyOrMessageParser parser;
+    private final Instrumentation instrumentation;
+
+    public SinkWithCompaction(Sink sink, SinkCompactionConfig config, KeyOrMessageParser parser, Instrumentation instrumentation) {
+        super(sink);
+        if (config.getSinkCompactionKeyType() == SinkCompactionKeyType.PROTO_FIELD && config.getSinkCompactionKeyProtoIndex() == null) {
+            throw new ConfigurationException("SINK_COMPACTION_KEY_PROTO_INDEX is required when SINK_COMPACTION_KEY_TYPE is PROTO_FIELD");
+        }
+        this.config = config;
+        this.parser = parser;
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * Pushes the latest message of each key.
+     *
+     * @param inputMessages list of messages to push
+     * @return list of failed messages, which never includes superseded messages
+     * @throws IOException
+     * @throws DeserializerException
+     */
+    @Override
+    public List<Message> pushMessage(List<Message> inputMessages) throws IOException, DeserializerException {
+        if (super.canManageOffsets()) {
+            return super.pushMessage(inputMessages);
+        }
+        List<Message> compactedMessages = compact(inputMessages);
+        int supersededMessages = inputMessages.size() - compactedMessages.size();
+        if (supersededMessages > 0) {
+            instrumentation.logDebug("Compacted {} messages to {}", inputMessages.size(), compactedMessages.size());
+            instrumentation.captureCount(SINK_MESSAGES_COMPACTED_TOTAL, supersededMessages);
+        }
+        return super.pushMessage(compactedMessages);
+    }
+
+    private List<Message> compact(List<Message> messages) {
+        List<Message> compactedMessages = new ArrayList<>();
+        Set<CompactionKey> keys = new HashSet<>();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Message message = messages.get(i);
+            Object key = getKey(message);
+            if (key == null || keys.add(new CompactionKey(message.getTopic(), message.getPartition(), key))) {
+                compactedMessages.add(message);
+            }
+        }
+        Collections.reverse(compactedMessages);
+        return compactedMessages;
+    }
+
+    private Object getKey(Message message) {
+        if (config.getSinkCompactionKeyType() == SinkCompactionKeyType.KAFKA_KEY) {
+            byte[] logKey = message.getLogKey();
+            return logKey == null || logKey.length == 0 ? null : ByteBuffer.wrap(logKey);
+        }
+        try {
+            DynamicMessage parsedMessage = parser.parse(message);
+            Descriptors.FieldDescriptor field = parsedMessage.getDescriptorForType().findFieldByNumber(config.getSinkCompactionKeyProtoIndex());
+            if (field == null || field.isRepeated() || (hasPresence(field) && !parsedMessage.hasField(field))) {
+                return null;
+            }
+            return parsedMessage.getField(field);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Proto3 scalar fields outside a oneof do not track presence, so a key with the default value such as 0 or ""
+     * is not set according to {@link DynamicMessage#hasField} but is still the key of the message.
+     */
+    private static boolean hasPresence(Descriptors.FieldDescriptor field) {
+        return field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE
+                || field.getContainingOneof() != null
+                || field.getFile().getSyntax() != Descriptors.FileDescriptor.Syntax.PROTO3;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class CompactionKey {
+        private final String topic;
+        private final int partition;
+        private final Object key;
+    }
+}
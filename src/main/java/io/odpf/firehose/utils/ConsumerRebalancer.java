@@ -1,20 +1,35 @@
 package io.odpf.firehose.utils;
 
 import io.odpf.firehose.metrics.Instrumentation;
-import lombok.AllArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.common.TopicPartition;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * A callback to log when the partition rebalancing happens.
+ * A callback to log when the partition rebalancing happens and pass it on to the registered listeners.
+ * <p>
+ * With the cooperative sticky assignor, only the partitions which move to another consumer are revoked,
+ * so listeners must act on the given partitions only.
  */
-@AllArgsConstructor
 public class ConsumerRebalancer implements ConsumerRebalanceListener {
 
-    private Instrumentation instrumentation;
+    private final Instrumentation instrumentation;
+    private final List<ConsumerRebalanceListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ConsumerRebalancer(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * @param listener listener to be called on every rebalance
+     */
+    public void addListener(ConsumerRebalanceListener listener) {
+        listeners.add(listener);
+    }
 
     /**
      * Function to run On partitions revoked.
@@ -24,6 +39,7 @@ public class ConsumerRebalancer implements ConsumerRebalanceListener {
     @Override
     public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
         instrumentation.logWarn("Partitions Revoked {}", Arrays.toString(partitions.toArray()));
+        listeners.forEach(listener -> listener.onPartitionsRevoked(partitions));
     }
 
     /**
@@ -34,5 +50,17 @@ public class ConsumerRebalancer implements ConsumerRebalanceListener {
     @Override
     public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
         instrumentation.logInfo("Partitions Assigned {}", Arrays.toString(partitions.toArray()));
+        listeners.forEach(listener -> listener.onPartitionsAssigned(partitions));
+    }
+
+    /**
+     * Function to run On partitions lost, when they are owned by another consumer already.
+     *
+     * @param partitions list of partitions
+     */
+    @Override
+    public void onPartitionsLost(Collection<TopicPartition> partitions) {
+        instrumentation.logWarn("Partitions Lost {}", Arrays.toString(partitions.toArray()));
+        listeners.forEach(listener -> listener.onPartitionsLost(partitions));
     }
 }
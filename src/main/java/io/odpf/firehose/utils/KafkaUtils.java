@@ -38,12 +38,15 @@ public class KafkaUtils {
      * @param config         the config
      * @param kafkaConsumer  the kafka consumer
      * @param statsdReporter the statsd reporter
+     * @return the rebalance listener of the subscription
      */
-    public static void configureSubscription(KafkaConsumerConfig config, KafkaConsumer<byte[], byte[]> kafkaConsumer, StatsDReporter statsdReporter) {
+    public static ConsumerRebalancer configureSubscription(KafkaConsumerConfig config, KafkaConsumer<byte[], byte[]> kafkaConsumer, StatsDReporter statsdReporter) {
         Instrumentation instrumentation = new Instrumentation(statsdReporter, KafkaUtils.class);
         Pattern subscriptionTopicPattern = Pattern.compile(config.getSourceKafkaTopic());
         instrumentation.logInfo("consumer subscribed using pattern: {}", subscriptionTopicPattern);
-        kafkaConsumer.subscribe(subscriptionTopicPattern, new ConsumerRebalancer(new Instrumentation(statsdReporter, ConsumerRebalancer.class)));
+        ConsumerRebalancer consumerRebalancer = new ConsumerRebalancer(new Instrumentation(statsdReporter, ConsumerRebalancer.class));
+        kafkaConsumer.subscribe(subscriptionTopicPattern, consumerRebalancer);
+        return consumerRebalancer;
     }
 
     public static Map<String, Object> getConfig(KafkaConsumerConfig config, Map<String, String> extraParameters) {
@@ -78,12 +81,13 @@ public class KafkaUtils {
                                                        StatsDReporter statsDReporter, Tracer tracer) {
 
         KafkaConsumer<byte[], byte[]> kafkaConsumer = new KafkaConsumer<>(KafkaUtils.getConfig(config, extraKafkaParameters));
-        KafkaUtils.configureSubscription(config, kafkaConsumer, statsDReporter);
+        ConsumerRebalancer consumerRebalancer = KafkaUtils.configureSubscription(config, kafkaConsumer, statsDReporter);
         TracingKafkaConsumer<byte[], byte[]> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer, tracer);
         return new FirehoseKafkaConsumer(
                 tracingKafkaConsumer,
                 config,
-                new Instrumentation(statsDReporter, FirehoseKafkaConsumer.class));
+                new Instrumentation(statsDReporter, FirehoseKafkaConsumer.class),
+                consumerRebalancer);
     }
 
     /**
@@ -0,0 +1,138 @@
+package io.odpf.firehose.utils;
+
+import io.odpf.firehose.metrics.Instrumentation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Process wide registry of resources shared by all the consumer threads, like the stencil client
+ * and the connection pools of the sinks.
+ * <p>
+ * Every resource is created once per key and counted by reference, it is closed when the last user releases it.
+ * The concurrency is the number of sinks running in the process, so shared pools can be sized for all of them.
+ */
+public class SharedResources {
+    private final int concurrency;
+    private final Instrumentation instrumentation;
+    private final Map<String, Entry<?>> resources = new HashMap<>();
+
+    public SharedResources(int concurrency, Instrumentation instrumentation) {
+        this.concurrency = Math.max(1, concurrency);
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * @return number of sinks sharing the resources
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Returns the resource of the key, creating it on the first call.
+     *
+     * @param key     key of the resource
+     * @param factory creates the resource
+     * @param closer  closes the resource after the last release
+     * @param <T>     type of the resource
+     * @return shared resource
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T acquire(String key, Supplier<T> factory, Closer<T> closer) {
+        Entry<T> entry = (Entry<T>) resources.get(key);
+        if (entry == null) {
+            entry = new Entry<>(factory.get(), closer);
+            resources.put(key, entry);
+            instrumentation.logInfo("Created shared resource {}", key);
+        }
+        entry.references++;
+        return entry.resource;
+    }
+
+    /**
+     * Returns a proxy to the resource of the key, calling the release method on the proxy releases the resource
+     * once instead of closing it.
+     *
+     * @param type          interface of the resource
+     * @param key           key of the resource
+     * @param factory       creates the resource
+     * @param closer        closes the resource after the last release
+     * @param releaseMethod name of the method of the interface which closes the resource
+     * @param <T>           type of the resource
+     * @return proxy to the shared resource
+     */
+    public <T> T acquireProxy(Class<T> type, String key, Supplier<T> factory, Closer<T> closer, String releaseMethod) {
+        T resource = acquire(key, factory, closer);
+        AtomicBoolean released = new AtomicBoolean(false);
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getName().equals(releaseMethod) && method.getParameterCount() == 0) {
+                if (released.compareAndSet(false, true)) {
+                    release(key);
+                }
+                return null;
+            }
+            try {
+                return method.invoke(resource, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Releases one reference to the resource of the key and closes it if it was the last one.
+     *
+     * @param key key of the resource
+     */
+    public void release(String key) {
+        Entry<?> entry;
+        synchronized (this) {
+            entry = resources.get(key);
+            if (entry == null) {
+                return;
+            }
+            entry.references--;
+            if (entry.references > 0) {
+                return;
+            }
+            resources.remove(key);
+        }
+        instrumentation.logInfo("Closing shared resource {}", key);
+        entry.close(instrumentation, key);
+    }
+
+    /**
+     * Closes a shared resource.
+     *
+     * @param <T> type of the resource
+     */
+    @FunctionalInterface
+    public interface Closer<T> {
+        void close(T resource) throws Exception;
+    }
+
+    private static class Entry<T> {
+        private final T resource;
+        private final Closer<T> closer;
+        private int references = 0;
+
+        Entry(T resource, Closer<T> closer) {
+            this.resource = resource;
+            this.closer = closer;
+        }
+
+        void close(Instrumentation instrumentation, String key) {
+            try {
+                closer.close(resource);
+            } catch (Exception e) {
+                instrumentation.captureNonFatalError(e, "Exception on closing shared resource {}", key);
+            }
+        }
+    }
+}
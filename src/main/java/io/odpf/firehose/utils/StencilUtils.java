@@ -2,7 +2,13 @@ package io.odpf.firehose.utils;
 
 import com.timgroup.statsd.StatsDClient;
 import io.odpf.firehose.config.AppConfig;
+import io.odpf.firehose.message.DecodeCacheBudget;
+import io.odpf.firehose.proto.CachingParser;
+import io.odpf.firehose.proto.FieldProjection;
+import io.odpf.firehose.proto.SpecializedParser;
+import io.odpf.stencil.Parser;
 import io.odpf.stencil.SchemaUpdateListener;
+import io.odpf.stencil.client.StencilClient;
 import io.odpf.stencil.config.StencilConfig;
 
 public class StencilUtils {
@@ -26,4 +32,38 @@ public class StencilUtils {
     public static StencilConfig getStencilConfig(AppConfig appconfig, StatsDClient statsDClient) {
         return getStencilConfig(appconfig, statsDClient, null);
     }
+
+    /**
+     * Creates a parser for the proto class, which keeps parsed messages on the message when the decode cache is enabled.
+     *
+     * @param stencilClient  stencil client
+     * @param protoClassName proto class to parse with
+     * @param appConfig      config with the decode cache settings
+     * @return parser
+     */
+    public static Parser getParser(StencilClient stencilClient, String protoClassName, AppConfig appConfig) {
+        if (appConfig.isInputSchemaProtoDecodeCacheEnable()) {
+            return new CachingParser(stencilClient, protoClassName, appConfig.getInputSchemaProtoDecodeCacheMaxPayloadBytes(),
+                    DecodeCacheBudget.shared(appConfig.getInputSchemaProtoDecodeCacheMaxBytes()));
+        }
+        return stencilClient.getParser(protoClassName);
+    }
+
+    /**
+     * Creates a parser for the proto class which decodes only the projected fields when projection is enabled.
+     * <p>
+     * Projected messages are sparse, so they are not kept on the message for the filter, retries or the DLQ.
+     *
+     * @param stencilClient  stencil client
+     * @param protoClassName proto class to parse with
+     * @param appConfig      config with the projection and decode cache settings
+     * @param projection     fields the sink reads
+     * @return parser
+     */
+    public static Parser getParser(StencilClient stencilClient, String protoClassName, AppConfig appConfig, FieldProjection projection) {
+        if (appConfig.isInputSchemaProtoProjectionEnable()) {
+            return new SpecializedParser(stencilClient, protoClassName, projection);
+        }
+        return getParser(stencilClient, protoClassName, appConfig);
+    }
 }
@@ -11,9 +11,12 @@ import org.aeonbits.owner.ConfigFactory;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
@@ -101,4 +104,225 @@ public class ConsumerAndOffsetManagerTest {
             put(new TopicPartition("testing1", 1), new OffsetAndMetadata(2));
         }});
     }
+
+    @Test
+    public void shouldPauseAtHighWatermarkAndResumeAtLowWatermark() {
+        Sink s1 = Mockito.mock(Sink.class);
+        List<Sink> sinks = new ArrayList<Sink>() {{
+            add(s1);
+        }};
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<String, String>() {{
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_ENABLE", "true");
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_HIGH_WATERMARK_MESSAGES", "4");
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_LOW_WATERMARK_MESSAGES", "2");
+        }});
+        Instrumentation instrumentation = Mockito.mock(Instrumentation.class);
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(sinks, new OffsetManager(), consumer, config, instrumentation);
+        Object batch1 = new Object();
+        Object batch2 = new Object();
+        consumerAndOffsetManager.addOffsets(batch1, new ArrayList<Message>() {{
+            add(createMessage("testing", 1, 1));
+            add(createMessage("testing", 1, 2));
+        }});
+        consumerAndOffsetManager.readMessages();
+        Mockito.verify(consumer, Mockito.times(0)).pause();
+
+        consumerAndOffsetManager.addOffsets(batch2, new ArrayList<Message>() {{
+            add(createMessage("testing", 1, 3));
+            add(createMessage("testing", 1, 4));
+        }});
+        consumerAndOffsetManager.readMessages();
+        Mockito.verify(consumer, Mockito.times(1)).pause();
+
+        Mockito.when(consumer.isPaused()).thenReturn(true);
+        consumerAndOffsetManager.setCommittable(batch1);
+        consumerAndOffsetManager.readMessages();
+        Mockito.verify(consumer, Mockito.times(1)).resume();
+        Mockito.verify(consumer, Mockito.times(3)).readMessages();
+    }
+
+    @Test
+    public void shouldPauseAtHighWatermarkBytes() {
+        Sink s1 = Mockito.mock(Sink.class);
+        List<Sink> sinks = new ArrayList<Sink>() {{
+            add(s1);
+        }};
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<String, String>() {{
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_ENABLE", "true");
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_HIGH_WATERMARK_BYTES", "10");
+        }});
+        Instrumentation instrumentation = Mockito.mock(Instrumentation.class);
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(sinks, new OffsetManager(), consumer, config, instrumentation);
+        consumerAndOffsetManager.addOffsets(new Object(), new ArrayList<Message>() {{
+            add(new Message("key".getBytes(), "message".getBytes(), "testing", 1, 1));
+        }});
+        consumerAndOffsetManager.readMessages();
+        Mockito.verify(consumer, Mockito.times(1)).pause();
+    }
+
+    @Test
+    public void shouldPauseWhileSinksAreFullWithDefaultConfig() {
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<>());
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(
+                Collections.singletonList(Mockito.mock(Sink.class)), new OffsetManager(), consumer, config, Mockito.mock(Instrumentation.class));
+
+        consumerAndOffsetManager.readMessages(true);
+        Mockito.verify(consumer, Mockito.times(1)).pause();
+
+        Mockito.when(consumer.isPaused()).thenReturn(true);
+        consumerAndOffsetManager.readMessages(true);
+        Mockito.verify(consumer, Mockito.times(0)).resume();
+
+        consumerAndOffsetManager.readMessages(false);
+        Mockito.verify(consumer, Mockito.times(1)).resume();
+        Mockito.verify(consumer, Mockito.times(3)).readMessages();
+    }
+
+    @Test
+    public void shouldNotResumeWhenSinksAreFreeUntilUnderLowWatermark() {
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<String, String>() {{
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_HIGH_WATERMARK_MESSAGES", "2");
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_LOW_WATERMARK_MESSAGES", "0");
+        }});
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(
+                Collections.singletonList(Mockito.mock(Sink.class)), new OffsetManager(), consumer, config, Mockito.mock(Instrumentation.class));
+        Object batch = new Object();
+        consumerAndOffsetManager.addOffsets(batch, new ArrayList<Message>() {{
+            add(createMessage("testing", 1, 1));
+            add(createMessage("testing", 1, 2));
+        }});
+        consumerAndOffsetManager.readMessages(false);
+        Mockito.verify(consumer, Mockito.times(1)).pause();
+
+        Mockito.when(consumer.isPaused()).thenReturn(true);
+        consumerAndOffsetManager.readMessages(false);
+        Mockito.verify(consumer, Mockito.times(0)).resume();
+
+        consumerAndOffsetManager.setCommittable(batch);
+        consumerAndOffsetManager.readMessages(false);
+        Mockito.verify(consumer, Mockito.times(1)).resume();
+    }
+
+    @Test
+    public void shouldNotPauseIfBackpressureIsDisabled() {
+        Sink s1 = Mockito.mock(Sink.class);
+        List<Sink> sinks = new ArrayList<Sink>() {{
+            add(s1);
+        }};
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<String, String>() {{
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_ENABLE", "false");
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_HIGH_WATERMARK_MESSAGES", "1");
+        }});
+        Instrumentation instrumentation = Mockito.mock(Instrumentation.class);
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(sinks, new OffsetManager(), consumer, config, instrumentation);
+        consumerAndOffsetManager.addOffsets(new Object(), new ArrayList<Message>() {{
+            add(createMessage("testing", 1, 1));
+        }});
+        consumerAndOffsetManager.readMessages();
+        Mockito.verify(consumer, Mockito.times(0)).pause();
+    }
+
+    @Test
+    public void shouldRegisterAsRebalanceListener() {
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<>());
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(
+                Collections.singletonList(Mockito.mock(Sink.class)), new OffsetManager(), consumer, config, Mockito.mock(Instrumentation.class));
+        Mockito.verify(consumer, Mockito.times(1)).addRebalanceListener(consumerAndOffsetManager);
+    }
+
+    @Test
+    public void shouldFlushAndDropRevokedPartitions() {
+        Sink s1 = Mockito.mock(Sink.class);
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<>());
+        OffsetManager offsetManager = new OffsetManager();
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(
+                Collections.singletonList(s1), offsetManager, consumer, config, Mockito.mock(Instrumentation.class));
+        consumerAndOffsetManager.addOffsetsAndSetCommittable(new ArrayList<Message>() {{
+            add(createMessage("testing", 1, 1));
+            add(createMessage("testing", 2, 5));
+        }});
+        List<TopicPartition> revoked = Collections.singletonList(new TopicPartition("testing", 1));
+
+        consumerAndOffsetManager.onPartitionsRevoked(revoked);
+
+        InOrder inOrder = Mockito.inOrder(s1, consumer);
+        inOrder.verify(s1).onPartitionsRevoked(revoked);
+        inOrder.verify(s1).calculateCommittableOffsets();
+        inOrder.verify(consumer).commitRevoked(new HashMap<TopicPartition, OffsetAndMetadata>() {{
+            put(new TopicPartition("testing", 1), new OffsetAndMetadata(2));
+        }}, revoked);
+        consumerAndOffsetManager.commit();
+        Mockito.verify(consumer, Mockito.times(1)).commit(new HashMap<TopicPartition, OffsetAndMetadata>() {{
+            put(new TopicPartition("testing", 2), new OffsetAndMetadata(6));
+        }});
+    }
+
+    @Test
+    public void shouldNotCommitRevokedPartitionsUntilAssignedAgain() {
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<>());
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(
+                Collections.singletonList(Mockito.mock(Sink.class)), new OffsetManager(), consumer, config, Mockito.mock(Instrumentation.class));
+        List<TopicPartition> partitions = Collections.singletonList(new TopicPartition("testing", 1));
+        consumerAndOffsetManager.onPartitionsLost(partitions);
+
+        consumerAndOffsetManager.addOffsetsAndSetCommittable(Collections.singletonList(createMessage("testing", 1, 1)));
+        consumerAndOffsetManager.commit();
+        Mockito.verify(consumer, Mockito.times(1)).commit(new HashMap<>());
+
+        consumerAndOffsetManager.onPartitionsAssigned(partitions);
+        consumerAndOffsetManager.addOffsetsAndSetCommittable(Collections.singletonList(createMessage("testing", 1, 3)));
+        consumerAndOffsetManager.commit();
+        Mockito.verify(consumer, Mockito.times(1)).commit(new HashMap<TopicPartition, OffsetAndMetadata>() {{
+            put(new TopicPartition("testing", 1), new OffsetAndMetadata(4));
+        }});
+    }
+
+    @Test
+    public void shouldCoalesceCommitsUntilMaxBatches() {
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<String, String>() {{
+            put("SOURCE_KAFKA_COMMIT_INTERVAL_MS", "3600000");
+            put("SOURCE_KAFKA_COMMIT_MAX_BATCHES", "3");
+        }});
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(
+                Collections.singletonList(Mockito.mock(Sink.class)), new OffsetManager(), consumer, config, Mockito.mock(Instrumentation.class));
+        consumerAndOffsetManager.commit();
+        for (int i = 1; i <= 3; i++) {
+            consumerAndOffsetManager.addOffsetsAndSetCommittable(Collections.singletonList(createMessage("testing", 1, i)));
+            consumerAndOffsetManager.commit();
+        }
+        Mockito.verify(consumer, Mockito.times(2)).commit(Mockito.anyMap());
+        Mockito.verify(consumer, Mockito.times(1)).commit(new HashMap<TopicPartition, OffsetAndMetadata>() {{
+            put(new TopicPartition("testing", 1), new OffsetAndMetadata(4));
+        }});
+    }
+
+    @Test
+    public void shouldForceCommitOnClose() throws IOException {
+        FirehoseKafkaConsumer consumer = Mockito.mock(FirehoseKafkaConsumer.class);
+        KafkaConsumerConfig config = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<String, String>() {{
+            put("SOURCE_KAFKA_COMMIT_INTERVAL_MS", "3600000");
+        }});
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(
+                Collections.singletonList(Mockito.mock(Sink.class)), new OffsetManager(), consumer, config, Mockito.mock(Instrumentation.class));
+        consumerAndOffsetManager.commit();
+        consumerAndOffsetManager.addOffsetsAndSetCommittable(Collections.singletonList(createMessage("testing", 1, 1)));
+        consumerAndOffsetManager.commit();
+        Mockito.verify(consumer, Mockito.times(1)).commit(Mockito.anyMap());
+
+        consumerAndOffsetManager.close();
+        InOrder inOrder = Mockito.inOrder(consumer);
+        inOrder.verify(consumer).commit(new HashMap<TopicPartition, OffsetAndMetadata>() {{
+            put(new TopicPartition("testing", 1), new OffsetAndMetadata(2));
+        }});
+        inOrder.verify(consumer).close();
+    }
 }
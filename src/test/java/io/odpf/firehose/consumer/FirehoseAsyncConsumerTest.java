@@ -14,6 +14,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -24,6 +25,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.Future;
 
+import static org.junit.Assert.fail;
+
 public class FirehoseAsyncConsumerTest {
 
     @Rule
@@ -62,20 +65,33 @@ public class FirehoseAsyncConsumerTest {
             add(new Message(new byte[0], new byte[0], "topic1", 2, 6));
         }};
 
-        Mockito.when(consumerAndOffsetManager.readMessages()).thenReturn(messageList1);
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messageList1);
         Mockito.when(sinkPool.submitTask(messageList1)).thenReturn(future1);
         Mockito.when(sinkPool.submitTask(messageList2)).thenReturn(future2);
         Mockito.when(sinkPool.fetchFinishedSinkTasks()).thenReturn(new HashSet<>());
         Mockito.when(future1.isDone()).thenReturn(false);
         Mockito.when(future2.isDone()).thenReturn(false);
         asyncConsumer.process();
-        Mockito.when(consumerAndOffsetManager.readMessages()).thenReturn(messageList2);
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messageList2);
         asyncConsumer.process();
         Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).addOffsets(future1, messageList1);
         Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).addOffsets(future2, messageList2);
         Mockito.verify(consumerAndOffsetManager, Mockito.times(0)).setCommittable(Mockito.any());
     }
 
+    @Test
+    public void shouldTellTheOffsetManagerWhetherTheSinksAreFull() {
+        Mockito.when(sinkPool.fetchFinishedSinkTasks()).thenReturn(new HashSet<>());
+        Mockito.when(sinkPool.hasFreeSink()).thenReturn(false, true);
+
+        asyncConsumer.process();
+        asyncConsumer.process();
+
+        InOrder inOrder = Mockito.inOrder(consumerAndOffsetManager);
+        inOrder.verify(consumerAndOffsetManager).readMessages(true);
+        inOrder.verify(consumerAndOffsetManager).readMessages(false);
+    }
+
     @Test
     public void shouldCallSetCommittableForDoneFutures() {
         List<Message> messages = new ArrayList<Message>() {{
@@ -83,7 +99,7 @@ public class FirehoseAsyncConsumerTest {
             add(new Message(new byte[0], new byte[0], "topic1", 1, 11));
             add(new Message(new byte[0], new byte[0], "topic1", 1, 12));
         }};
-        Mockito.when(consumerAndOffsetManager.readMessages()).thenReturn(messages);
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages);
 
         Mockito.when(sinkPool.submitTask(messages)).thenReturn(future1);
         Mockito.when(sinkPool.fetchFinishedSinkTasks()).thenReturn(new HashSet<Future<List<Message>>>() {{
@@ -97,6 +113,22 @@ public class FirehoseAsyncConsumerTest {
         Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).commit();
     }
 
+    @Test
+    public void shouldNotCommitIfTaskCanNotBeSubmitted() {
+        List<Message> messages = new ArrayList<Message>() {{
+            add(new Message(new byte[0], new byte[0], "topic1", 1, 10));
+        }};
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages);
+        Mockito.when(sinkPool.submitTask(messages)).thenThrow(new SinkTaskFailedException(new InterruptedException()));
+        try {
+            asyncConsumer.process();
+            fail("expected SinkTaskFailedException");
+        } catch (SinkTaskFailedException e) {
+            Mockito.verify(consumerAndOffsetManager, Mockito.times(0)).addOffsets(Mockito.any(), Mockito.anyList());
+            Mockito.verify(consumerAndOffsetManager, Mockito.times(0)).commit();
+        }
+    }
+
     @Test
     public void shouldThrowExceptionIfSinkTaskFails() {
         expectedException.expect(SinkTaskFailedException.class);
@@ -105,7 +137,7 @@ public class FirehoseAsyncConsumerTest {
             add(new Message(new byte[0], new byte[0], "topic1", 1, 11));
             add(new Message(new byte[0], new byte[0], "topic1", 1, 12));
         }};
-        Mockito.when(consumerAndOffsetManager.readMessages()).thenReturn(messages);
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages);
         Mockito.when(sinkPool.submitTask(messages)).thenReturn(future1);
         Mockito.when(sinkPool.fetchFinishedSinkTasks()).thenThrow(new SinkTaskFailedException(new RuntimeException()));
         asyncConsumer.process();
@@ -122,7 +154,7 @@ public class FirehoseAsyncConsumerTest {
             add(new Message(new byte[0], new byte[0], "topic1", 1, 12));
         }};
 
-        Mockito.when(consumerAndOffsetManager.readMessages()).thenReturn(messages);
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages);
         Mockito.when(firehoseFilter.applyFilter(messages)).thenReturn(new FilteredMessages() {{
             addToValidMessages(messages.get(0));
             addToInvalidMessages(messages.get(1));
@@ -0,0 +1,142 @@
+package io.odpf.firehose.consumer;
+
+import io.odpf.firehose.consumer.kafka.ConsumerAndOffsetManager;
+import io.odpf.firehose.exception.FirehoseConsumerFailedException;
+import io.odpf.firehose.filter.FilterException;
+import io.odpf.firehose.filter.FilteredMessages;
+import io.odpf.firehose.filter.NoOpFilter;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.metrics.Metrics;
+import io.odpf.firehose.sink.SinkLanes;
+import io.odpf.firehose.tracer.SinkTracer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+public class FirehoseKeyOrderedConsumerTest {
+    @Mock
+    private SinkLanes sinkLanes;
+    @Mock
+    private SinkTracer tracer;
+    @Mock
+    private Instrumentation instrumentation;
+    @Mock
+    private ConsumerAndOffsetManager consumerAndOffsetManager;
+    @Mock
+    private Future<List<Message>> future1;
+    @Mock
+    private Future<List<Message>> future2;
+    private FirehoseKeyOrderedConsumer consumer;
+    private List<Message> messages;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        FirehoseFilter firehoseFilter = new FirehoseFilter(new NoOpFilter(instrumentation), instrumentation);
+        consumer = new FirehoseKeyOrderedConsumer(sinkLanes, tracer, consumerAndOffsetManager, firehoseFilter, 2, instrumentation);
+        messages = Arrays.asList(
+                new Message("key1".getBytes(), new byte[0], "topic1", 0, 10),
+                new Message("key2".getBytes(), new byte[0], "topic1", 0, 11));
+    }
+
+    @Test
+    public void shouldSubmitTasksAndAddOffsetsPerLane() {
+        Map<Future<List<Message>>, List<Message>> tasks = new LinkedHashMap<>();
+        tasks.put(future1, Collections.singletonList(messages.get(0)));
+        tasks.put(future2, Collections.singletonList(messages.get(1)));
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages);
+        Mockito.when(sinkLanes.submitTasks(messages)).thenReturn(tasks);
+        Mockito.when(sinkLanes.fetchFinishedSinkTasks()).thenReturn(new HashSet<Future<List<Message>>>() {{
+            add(future2);
+        }});
+
+        consumer.process();
+
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).addOffsets(future1, Collections.singletonList(messages.get(0)));
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).addOffsets(future2, Collections.singletonList(messages.get(1)));
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).setCommittable(future2);
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(0)).setCommittable(future1);
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).commit();
+        Mockito.verify(tracer, Mockito.times(1)).startTrace(messages);
+        Mockito.verify(instrumentation, Mockito.times(1)).captureDurationSince(Mockito.eq(Metrics.SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS), Mockito.any(Instant.class));
+    }
+
+    @Test
+    public void shouldWaitForFinishedTasksWhenTooManyTasksAreInFlight() {
+        Mockito.when(sinkLanes.getInFlightTasks()).thenReturn(2, 1);
+        Mockito.when(sinkLanes.awaitFinishedSinkTask()).thenReturn(future1);
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(new ArrayList<>());
+        Mockito.when(sinkLanes.fetchFinishedSinkTasks()).thenReturn(new HashSet<>());
+
+        consumer.process();
+
+        Mockito.verify(sinkLanes, Mockito.times(1)).awaitFinishedSinkTask();
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).setCommittable(future1);
+        Mockito.verify(sinkLanes, Mockito.times(0)).submitTasks(Mockito.anyList());
+    }
+
+    @Test
+    public void shouldPollWithPartitionsPausedInsteadOfWaitingWithBackpressure() {
+        Mockito.when(consumerAndOffsetManager.isBackpressureEnabled()).thenReturn(true);
+        Mockito.when(sinkLanes.getInFlightTasks()).thenReturn(2);
+        Mockito.when(consumerAndOffsetManager.readMessages(true)).thenReturn(new ArrayList<>());
+        Mockito.when(sinkLanes.fetchFinishedSinkTasks()).thenReturn(new HashSet<>());
+
+        consumer.process();
+
+        Mockito.verify(sinkLanes, Mockito.times(0)).awaitFinishedSinkTask();
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).readMessages(true);
+        Mockito.verify(sinkLanes, Mockito.times(0)).submitTasks(Mockito.anyList());
+    }
+
+    @Test
+    public void shouldForceAddOffsetsForInvalidMessages() throws FilterException {
+        FirehoseFilter firehoseFilter = Mockito.mock(FirehoseFilter.class);
+        consumer = new FirehoseKeyOrderedConsumer(sinkLanes, tracer, consumerAndOffsetManager, firehoseFilter, 2, instrumentation);
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages);
+        Mockito.when(firehoseFilter.applyFilter(messages)).thenReturn(new FilteredMessages() {{
+            addToInvalidMessages(messages.get(0));
+            addToInvalidMessages(messages.get(1));
+        }});
+        Mockito.when(sinkLanes.fetchFinishedSinkTasks()).thenReturn(new HashSet<>());
+
+        consumer.process();
+
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).forceAddOffsetsAndSetCommittable(messages);
+        Mockito.verify(sinkLanes, Mockito.times(0)).submitTasks(Mockito.anyList());
+    }
+
+    @Test(expected = FirehoseConsumerFailedException.class)
+    public void shouldThrowWhenFilterFails() throws FilterException {
+        FirehoseFilter firehoseFilter = Mockito.mock(FirehoseFilter.class);
+        consumer = new FirehoseKeyOrderedConsumer(sinkLanes, tracer, consumerAndOffsetManager, firehoseFilter, 2, instrumentation);
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages);
+        Mockito.when(firehoseFilter.applyFilter(messages)).thenThrow(new FilterException("test"));
+
+        consumer.process();
+    }
+
+    @Test
+    public void shouldCloseResources() throws IOException {
+        consumer.close();
+
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).close();
+        Mockito.verify(tracer, Mockito.times(1)).close();
+        Mockito.verify(sinkLanes, Mockito.times(1)).close();
+        Mockito.verify(instrumentation, Mockito.times(1)).close();
+    }
+}
@@ -0,0 +1,219 @@
+package io.odpf.firehose.consumer;
+
+import io.odpf.firehose.consumer.kafka.ConsumerAndOffsetManager;
+import io.odpf.firehose.exception.FirehoseConsumerFailedException;
+import io.odpf.firehose.filter.FilterException;
+import io.odpf.firehose.filter.FilteredMessages;
+import io.odpf.firehose.filter.NoOpFilter;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.metrics.Metrics;
+import io.odpf.firehose.sink.Sink;
+import io.odpf.firehose.tracer.SinkTracer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class FirehosePipelinedConsumerTest {
+    @Mock
+    private Sink sink;
+    @Mock
+    private SinkTracer tracer;
+    @Mock
+    private Instrumentation instrumentation;
+    @Mock
+    private ConsumerAndOffsetManager consumerAndOffsetManager;
+    private ExecutorService filterExecutor;
+    private ExecutorService sinkExecutor;
+    private FirehoseFilter firehoseFilter;
+    private List<Message> messages1;
+    private List<Message> messages2;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        filterExecutor = Executors.newSingleThreadExecutor();
+        sinkExecutor = Executors.newSingleThreadExecutor();
+        firehoseFilter = new FirehoseFilter(new NoOpFilter(instrumentation), instrumentation);
+        messages1 = Arrays.asList(
+                new Message(new byte[0], new byte[0], "topic1", 0, 10),
+                new Message(new byte[0], new byte[0], "topic1", 0, 11));
+        messages2 = Arrays.asList(
+                new Message(new byte[0], new byte[0], "topic1", 0, 12),
+                new Message(new byte[0], new byte[0], "topic1", 0, 13));
+        Mockito.when(tracer.startTrace(Mockito.anyList())).thenReturn(new ArrayList<>());
+    }
+
+    @After
+    public void tearDown() {
+        filterExecutor.shutdownNow();
+        sinkExecutor.shutdownNow();
+    }
+
+    private FirehosePipelinedConsumer createConsumer(int maxInFlightBatches) {
+        return new FirehosePipelinedConsumer(sink, tracer, consumerAndOffsetManager, firehoseFilter, filterExecutor, sinkExecutor, maxInFlightBatches, instrumentation);
+    }
+
+    @Test
+    public void shouldPushAndSetOffsetsCommittableWhenInFlightLimitIsOne() throws IOException {
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages1, messages2);
+        FirehosePipelinedConsumer consumer = createConsumer(1);
+
+        consumer.process();
+        consumer.process();
+
+        Mockito.verify(sink, Mockito.times(1)).pushMessage(messages1);
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).addOffsetsAndSetCommittable(messages1);
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(2)).commit();
+        Mockito.verify(instrumentation, Mockito.times(2)).captureDurationSince(eq(Metrics.SOURCE_KAFKA_PARTITIONS_PROCESS_TIME_MILLISECONDS), any(Instant.class));
+    }
+
+    @Test
+    public void shouldPollNextBatchWhileSinkIsBusy() throws Exception {
+        CountDownLatch sinkStarted = new CountDownLatch(1);
+        CountDownLatch releaseSink = new CountDownLatch(1);
+        Mockito.when(sink.pushMessage(messages1)).thenAnswer(invocation -> {
+            sinkStarted.countDown();
+            releaseSink.await();
+            return new ArrayList<>();
+        });
+        List<Message> messages3 = Collections.singletonList(new Message(new byte[0], new byte[0], "topic1", 0, 14));
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages1, messages2, messages3, new ArrayList<>());
+        FirehosePipelinedConsumer consumer = createConsumer(2);
+
+        consumer.process();
+        sinkStarted.await();
+        consumer.process();
+
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(2)).readMessages(Mockito.anyBoolean());
+        Mockito.verify(consumerAndOffsetManager, Mockito.never()).addOffsetsAndSetCommittable(Mockito.anyList());
+
+        releaseSink.countDown();
+        consumer.process();
+        consumer.process();
+
+        InOrder inOrder = Mockito.inOrder(sink, consumerAndOffsetManager);
+        inOrder.verify(sink).pushMessage(messages1);
+        inOrder.verify(consumerAndOffsetManager).addOffsetsAndSetCommittable(messages1);
+        inOrder.verify(sink).pushMessage(messages2);
+        inOrder.verify(consumerAndOffsetManager).addOffsetsAndSetCommittable(messages2);
+    }
+
+    @Test
+    public void shouldPollWithPartitionsPausedInsteadOfWaitingWhenPipelineIsFull() throws Exception {
+        CountDownLatch sinkStarted = new CountDownLatch(1);
+        CountDownLatch releaseSink = new CountDownLatch(1);
+        Mockito.when(sink.pushMessage(messages1)).thenAnswer(invocation -> {
+            sinkStarted.countDown();
+            releaseSink.await();
+            return new ArrayList<>();
+        });
+        Mockito.when(consumerAndOffsetManager.isBackpressureEnabled()).thenReturn(true);
+        Mockito.when(consumerAndOffsetManager.readMessages(false)).thenReturn(messages1);
+        Mockito.when(consumerAndOffsetManager.readMessages(true)).thenReturn(new ArrayList<>());
+        FirehosePipelinedConsumer consumer = createConsumer(1);
+
+        consumer.process();
+        sinkStarted.await();
+        consumer.process();
+
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).readMessages(true);
+        Mockito.verify(consumerAndOffsetManager, Mockito.never()).addOffsetsAndSetCommittable(Mockito.anyList());
+        releaseSink.countDown();
+    }
+
+    @Test
+    public void shouldForceAddOffsetsForInvalidMessages() throws Exception {
+        FirehoseFilter mockFilter = Mockito.mock(FirehoseFilter.class);
+        Message msg1 = messages1.get(0);
+        Message msg2 = messages1.get(1);
+        Mockito.when(mockFilter.applyFilter(messages1)).thenReturn(new FilteredMessages() {{
+            addToValidMessages(msg1);
+            addToInvalidMessages(msg2);
+        }});
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages1);
+        FirehosePipelinedConsumer consumer = new FirehosePipelinedConsumer(sink, tracer, consumerAndOffsetManager, mockFilter, filterExecutor, sinkExecutor, 1, instrumentation);
+
+        consumer.process();
+        consumer.process();
+
+        Mockito.verify(sink, Mockito.atLeastOnce()).pushMessage(Collections.singletonList(msg1));
+        Mockito.verify(consumerAndOffsetManager, Mockito.atLeastOnce()).forceAddOffsetsAndSetCommittable(Collections.singletonList(msg2));
+        Mockito.verify(consumerAndOffsetManager, Mockito.atLeastOnce()).addOffsetsAndSetCommittable(Collections.singletonList(msg1));
+    }
+
+    @Test
+    public void shouldNotPushEmptyBatches() throws IOException {
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(new ArrayList<>());
+        FirehosePipelinedConsumer consumer = createConsumer(1);
+
+        consumer.process();
+
+        Mockito.verify(sink, Mockito.never()).pushMessage(Mockito.anyList());
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).commit();
+    }
+
+    @Test(expected = FirehoseConsumerFailedException.class)
+    public void shouldThrowFirehoseConsumerFailedExceptionWhenFilterFails() throws Exception {
+        FirehoseFilter mockFilter = Mockito.mock(FirehoseFilter.class);
+        Mockito.when(mockFilter.applyFilter(messages1)).thenThrow(new FilterException("test"));
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages1);
+        FirehosePipelinedConsumer consumer = new FirehosePipelinedConsumer(sink, tracer, consumerAndOffsetManager, mockFilter, filterExecutor, sinkExecutor, 1, instrumentation);
+
+        consumer.process();
+        consumer.process();
+    }
+
+    @Test
+    public void shouldRethrowSinkExceptions() throws IOException {
+        Mockito.when(sink.pushMessage(messages1)).thenThrow(new IOException("sink failed"));
+        Mockito.when(consumerAndOffsetManager.readMessages(Mockito.anyBoolean())).thenReturn(messages1);
+        FirehosePipelinedConsumer consumer = createConsumer(1);
+
+        consumer.process();
+        try {
+            consumer.process();
+            Assert.fail("Expected IOException");
+        } catch (IOException e) {
+            Assert.assertEquals("sink failed", e.getMessage());
+        }
+        Mockito.verify(consumerAndOffsetManager, Mockito.never()).addOffsetsAndSetCommittable(Mockito.anyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowZeroInFlightBatches() {
+        createConsumer(0);
+    }
+
+    @Test
+    public void shouldCloseAllResources() throws IOException {
+        FirehosePipelinedConsumer consumer = createConsumer(1);
+
+        consumer.close();
+
+        Assert.assertTrue(filterExecutor.isShutdown());
+        Assert.assertTrue(sinkExecutor.isShutdown());
+        Mockito.verify(tracer, Mockito.times(1)).close();
+        Mockito.verify(consumerAndOffsetManager, Mockito.times(1)).close();
+        Mockito.verify(instrumentation, Mockito.times(1)).close();
+        Mockito.verify(sink, Mockito.times(1)).close();
+    }
+}
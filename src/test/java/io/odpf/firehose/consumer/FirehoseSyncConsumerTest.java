@@ -11,7 +11,10 @@ import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.Metrics;
 import io.odpf.firehose.sink.Sink;
 import io.odpf.firehose.tracer.SinkTracer;
+import io.opentracing.Span;
 import org.aeonbits.owner.ConfigFactory;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,9 +27,11 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -142,4 +147,87 @@ public class FirehoseSyncConsumerTest {
         verify(sink, times(1)).close();
         verify(instrumentation, times(1)).close();
     }
+
+    @Test
+    public void shouldPushAccumulatedMessagesOfSeveralPolls() throws IOException {
+        KafkaConsumerConfig kafkaConsumerConfig = ConfigFactory.create(KafkaConsumerConfig.class, System.getenv());
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(Collections.singletonList(sink), new OffsetManager(), firehoseKafkaConsumer, kafkaConsumerConfig, instrumentation);
+        FirehoseFilter firehoseFilter = new FirehoseFilter(new NoOpFilter(instrumentation), instrumentation);
+        firehoseSyncConsumer = new FirehoseSyncConsumer(sink, tracer, consumerAndOffsetManager, firehoseFilter, instrumentation, new MessageAccumulator(4, Long.MAX_VALUE, 60000));
+        List<Message> firstPoll = Arrays.asList(new Message(new byte[]{}, new byte[]{}, "topic", 0, 100), new Message(new byte[]{}, new byte[]{}, "topic", 0, 101));
+        List<Message> secondPoll = Arrays.asList(new Message(new byte[]{}, new byte[]{}, "topic", 0, 102), new Message(new byte[]{}, new byte[]{}, "topic", 0, 103));
+        when(firehoseKafkaConsumer.readMessages(anyLong())).thenReturn(firstPoll, secondPoll);
+
+        firehoseSyncConsumer.process();
+        verify(sink, times(0)).pushMessage(anyList());
+        verify(firehoseKafkaConsumer, times(0)).commit(Collections.singletonMap(new TopicPartition("topic", 0), new OffsetAndMetadata(102)));
+
+        firehoseSyncConsumer.process();
+        verify(sink, times(1)).pushMessage(new ArrayList<Message>() {{
+            addAll(firstPoll);
+            addAll(secondPoll);
+        }});
+        verify(firehoseKafkaConsumer, times(1)).commit(Collections.singletonMap(new TopicPartition("topic", 0), new OffsetAndMetadata(104)));
+    }
+
+    @Test
+    public void shouldNotCommitConsumerPositionWhileMessagesAreAccumulated() throws IOException {
+        KafkaConsumerConfig kafkaConsumerConfig = ConfigFactory.create(KafkaConsumerConfig.class,
+                Collections.singletonMap("SOURCE_KAFKA_COMMIT_ONLY_CURRENT_PARTITIONS_ENABLE", "false"));
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(Collections.singletonList(sink), new OffsetManager(), firehoseKafkaConsumer, kafkaConsumerConfig, instrumentation);
+        FirehoseFilter firehoseFilter = new FirehoseFilter(new NoOpFilter(instrumentation), instrumentation);
+        firehoseSyncConsumer = new FirehoseSyncConsumer(sink, tracer, consumerAndOffsetManager, firehoseFilter, instrumentation, new MessageAccumulator(4, Long.MAX_VALUE, 60000));
+        List<Message> firstPoll = Arrays.asList(new Message(new byte[]{}, new byte[]{}, "topic", 0, 100), new Message(new byte[]{}, new byte[]{}, "topic", 0, 101));
+        List<Message> secondPoll = Arrays.asList(new Message(new byte[]{}, new byte[]{}, "topic", 0, 102), new Message(new byte[]{}, new byte[]{}, "topic", 0, 103));
+        when(firehoseKafkaConsumer.readMessages(anyLong())).thenReturn(firstPoll, secondPoll);
+
+        firehoseSyncConsumer.process();
+        verify(firehoseKafkaConsumer, times(0)).commit();
+
+        firehoseSyncConsumer.process();
+        verify(sink, times(1)).pushMessage(anyList());
+        verify(firehoseKafkaConsumer, times(1)).commit();
+    }
+
+    @Test
+    public void shouldFinishTracesOfAccumulatedMessagesOnceTheyArePushed() throws IOException {
+        KafkaConsumerConfig kafkaConsumerConfig = ConfigFactory.create(KafkaConsumerConfig.class, System.getenv());
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(Collections.singletonList(sink), new OffsetManager(), firehoseKafkaConsumer, kafkaConsumerConfig, instrumentation);
+        FirehoseFilter firehoseFilter = new FirehoseFilter(new NoOpFilter(instrumentation), instrumentation);
+        firehoseSyncConsumer = new FirehoseSyncConsumer(sink, tracer, consumerAndOffsetManager, firehoseFilter, instrumentation, new MessageAccumulator(4, Long.MAX_VALUE, 60000));
+        List<Message> firstPoll = Arrays.asList(new Message(new byte[]{}, new byte[]{}, "topic", 0, 100), new Message(new byte[]{}, new byte[]{}, "topic", 0, 101));
+        List<Message> secondPoll = Arrays.asList(new Message(new byte[]{}, new byte[]{}, "topic", 0, 102), new Message(new byte[]{}, new byte[]{}, "topic", 0, 103));
+        Span firstSpan = mock(Span.class);
+        Span secondSpan = mock(Span.class);
+        when(firehoseKafkaConsumer.readMessages(anyLong())).thenReturn(firstPoll, secondPoll);
+        when(tracer.startTrace(firstPoll)).thenReturn(Collections.singletonList(firstSpan));
+        when(tracer.startTrace(secondPoll)).thenReturn(Collections.singletonList(secondSpan));
+
+        firehoseSyncConsumer.process();
+        verify(tracer, times(0)).finishTrace(anyList());
+
+        firehoseSyncConsumer.process();
+        verify(tracer, times(1)).finishTrace(Arrays.asList(firstSpan, secondSpan));
+    }
+
+    @Test
+    public void shouldNotPausePartitionsWhileMessagesAreAccumulated() throws IOException {
+        KafkaConsumerConfig kafkaConsumerConfig = ConfigFactory.create(KafkaConsumerConfig.class, new HashMap<String, String>() {{
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_ENABLE", "true");
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_HIGH_WATERMARK_MESSAGES", "1");
+            put("SOURCE_KAFKA_CONSUMER_BACKPRESSURE_HIGH_WATERMARK_BYTES", "1");
+        }});
+        ConsumerAndOffsetManager consumerAndOffsetManager = new ConsumerAndOffsetManager(Collections.singletonList(sink), new OffsetManager(), firehoseKafkaConsumer, kafkaConsumerConfig, instrumentation);
+        FirehoseFilter firehoseFilter = new FirehoseFilter(new NoOpFilter(instrumentation), instrumentation);
+        firehoseSyncConsumer = new FirehoseSyncConsumer(sink, tracer, consumerAndOffsetManager, firehoseFilter, instrumentation, new MessageAccumulator(4, Long.MAX_VALUE, 60000));
+        List<Message> firstPoll = Arrays.asList(new Message(new byte[]{}, new byte[]{}, "topic", 0, 100), new Message(new byte[]{}, new byte[]{}, "topic", 0, 101));
+        List<Message> secondPoll = Arrays.asList(new Message(new byte[]{}, new byte[]{}, "topic", 0, 102), new Message(new byte[]{}, new byte[]{}, "topic", 0, 103));
+        when(firehoseKafkaConsumer.readMessages(anyLong())).thenReturn(firstPoll, secondPoll);
+
+        firehoseSyncConsumer.process();
+        firehoseSyncConsumer.process();
+
+        verify(firehoseKafkaConsumer, times(0)).pause();
+        verify(sink, times(1)).pushMessage(anyList());
+    }
 }
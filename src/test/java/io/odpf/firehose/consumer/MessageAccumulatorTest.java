@@ -0,0 +1,66 @@
+package io.odpf.firehose.consumer;
+
+import io.odpf.firehose.message.Message;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class MessageAccumulatorTest {
+
+    private List<Message> createMessages(int count, int size) {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(new Message(new byte[0], new byte[size], "topic", 0, i));
+        }
+        return messages;
+    }
+
+    @Test
+    public void shouldBeReadyAtMaxMessages() {
+        MessageAccumulator accumulator = new MessageAccumulator(5, Long.MAX_VALUE, 60000);
+        accumulator.add(createMessages(3, 1));
+        Assert.assertFalse(accumulator.isReady());
+        accumulator.add(createMessages(2, 1));
+        Assert.assertTrue(accumulator.isReady());
+        Assert.assertEquals(5, accumulator.drain().size());
+        Assert.assertEquals(0, accumulator.size());
+    }
+
+    @Test
+    public void shouldBeReadyAtMaxBytes() {
+        MessageAccumulator accumulator = new MessageAccumulator(100, 20, 60000);
+        accumulator.add(createMessages(1, 10));
+        Assert.assertFalse(accumulator.isReady());
+        accumulator.add(createMessages(1, 10));
+        Assert.assertTrue(accumulator.isReady());
+    }
+
+    @Test
+    public void shouldBeReadyAfterLinger() throws InterruptedException {
+        MessageAccumulator accumulator = new MessageAccumulator(100, Long.MAX_VALUE, 10);
+        accumulator.add(createMessages(1, 1));
+        Thread.sleep(20);
+        Assert.assertEquals(0, accumulator.getRemainingLingerMs());
+        Assert.assertTrue(accumulator.isReady());
+    }
+
+    @Test
+    public void shouldNotBeReadyWhenEmpty() {
+        MessageAccumulator accumulator = new MessageAccumulator(1, 1, 0);
+        accumulator.add(Collections.emptyList());
+        Assert.assertFalse(accumulator.isReady());
+        Assert.assertEquals(Long.MAX_VALUE, accumulator.getRemainingLingerMs());
+    }
+
+    @Test
+    public void shouldUseNewBatchKeyAfterDrain() {
+        MessageAccumulator accumulator = new MessageAccumulator(100, Long.MAX_VALUE, 60000);
+        Object firstKey = accumulator.add(createMessages(1, 1));
+        Assert.assertSame(firstKey, accumulator.add(createMessages(1, 1)));
+        accumulator.drain();
+        Assert.assertNotSame(firstKey, accumulator.add(createMessages(1, 1)));
+    }
+}
@@ -5,6 +5,8 @@ import io.odpf.firehose.consumer.TestKey;
 import io.odpf.firehose.consumer.TestMessage;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.utils.ConsumerRebalancer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
@@ -23,11 +25,14 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
@@ -182,6 +187,33 @@ public class FirehoseKafkaConsumerTest {
         verify(kafkaConsumer, times(0)).commitSync(offsets);
     }
 
+    @Test
+    public void shouldCommitRevokedOffsetsSynchronouslyAndForgetThem() {
+        when(consumerConfig.isSourceKafkaAsyncCommitEnable()).thenReturn(true);
+        TopicPartition topicPartition = new TopicPartition("topic1", 1);
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<TopicPartition, OffsetAndMetadata>() {{
+            put(topicPartition, new OffsetAndMetadata(5));
+        }};
+        firehoseKafkaConsumer.commit(offsets);
+        firehoseKafkaConsumer.commitRevoked(offsets, Collections.singletonList(topicPartition));
+        verify(kafkaConsumer, times(0)).commitSync(offsets);
+
+        Map<TopicPartition, OffsetAndMetadata> lowerOffsets = new HashMap<TopicPartition, OffsetAndMetadata>() {{
+            put(topicPartition, new OffsetAndMetadata(3));
+        }};
+        firehoseKafkaConsumer.commitRevoked(lowerOffsets, Collections.singletonList(topicPartition));
+        verify(kafkaConsumer, times(1)).commitSync(lowerOffsets);
+    }
+
+    @Test
+    public void shouldRegisterRebalanceListener() {
+        ConsumerRebalancer consumerRebalancer = Mockito.mock(ConsumerRebalancer.class);
+        ConsumerRebalanceListener listener = Mockito.mock(ConsumerRebalanceListener.class);
+        firehoseKafkaConsumer = new FirehoseKafkaConsumer(kafkaConsumer, consumerConfig, instrumentation, consumerRebalancer);
+        firehoseKafkaConsumer.addRebalanceListener(listener);
+        verify(consumerRebalancer, times(1)).addListener(listener);
+    }
+
     @Test
     public void shouldCommitLatestOffsets() {
         when(consumerConfig.isSourceKafkaAsyncCommitEnable()).thenReturn(false);
@@ -251,4 +283,36 @@ public class FirehoseKafkaConsumerTest {
             put(new TopicPartition("topic1", 4), new OffsetAndMetadata(5));
         }}), Mockito.any(OffsetCommitCallback.class));
     }
+
+    @Test
+    public void shouldPollPausedPartitionsWithBackpressurePollTimeout() {
+        TopicPartition topicPartition = new TopicPartition("topic1", 1);
+        when(kafkaConsumer.assignment()).thenReturn(Collections.singleton(topicPartition));
+        when(consumerConfig.getSourceKafkaConsumerBackpressurePollTimeoutMs()).thenReturn(100L);
+        when(kafkaConsumer.poll(Duration.ofMillis(100L))).thenReturn(consumerRecords);
+        when(consumerRecords.iterator()).thenReturn(Collections.emptyIterator());
+
+        firehoseKafkaConsumer.pause();
+        firehoseKafkaConsumer.readMessages();
+
+        assertTrue(firehoseKafkaConsumer.isPaused());
+        verify(kafkaConsumer, times(2)).pause(Collections.singleton(topicPartition));
+        verify(kafkaConsumer, times(1)).poll(Duration.ofMillis(100L));
+    }
+
+    @Test
+    public void shouldResumePausedPartitions() {
+        TopicPartition topicPartition = new TopicPartition("topic1", 1);
+        when(kafkaConsumer.assignment()).thenReturn(Collections.singleton(topicPartition));
+        when(kafkaConsumer.paused()).thenReturn(Collections.singleton(topicPartition));
+        when(consumerRecords.iterator()).thenReturn(Collections.emptyIterator());
+
+        firehoseKafkaConsumer.pause();
+        firehoseKafkaConsumer.resume();
+        firehoseKafkaConsumer.readMessages();
+
+        assertFalse(firehoseKafkaConsumer.isPaused());
+        verify(kafkaConsumer, times(1)).resume(Collections.singleton(topicPartition));
+        verify(kafkaConsumer, times(1)).poll(Duration.ofMillis(500L));
+    }
 }
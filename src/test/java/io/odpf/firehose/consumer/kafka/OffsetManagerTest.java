@@ -10,28 +10,17 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 public class OffsetManagerTest {
 
-    private OffsetNode createOffsetNode(Message m) {
-        return new OffsetNode(getTopicPartition(m), getOffsetAndMetadata(m));
-    }
-
     private TopicPartition getTopicPartition(Message m) {
         return new TopicPartition(m.getTopic(), m.getPartition());
     }
 
-    private OffsetAndMetadata getOffsetAndMetadata(Message m) {
-        return new OffsetAndMetadata(m.getOffset() + 1);
-    }
-
     private Message createMessage(String topic, int partition, int offset) {
         return new Message("".getBytes(), "".getBytes(), topic, partition, offset);
     }
@@ -50,14 +39,12 @@ public class OffsetManagerTest {
         OffsetBatchKey key = new OffsetBatchKey("test", 10);
         messages.forEach(message -> manger.addOffsetToBatch(key, message));
         Assert.assertEquals(3, manger.getOffsetsForBatch(key).size());
-        Assert.assertTrue(manger.getOffsetsForBatch(key).
-                containsAll(messages.stream().map(this::createOffsetNode).collect(Collectors.toList())));
-        TreeSet<OffsetNode> offsetsForTopicPartition = manger.getOffsetsForTopicPartition(getTopicPartition(message1));
+        PartitionOffsets offsetsForTopicPartition = manger.getOffsetsForTopicPartition(getTopicPartition(message1));
+        Assert.assertArrayEquals(new long[]{3, 6, 2}, manger.getOffsetsForBatch(key).getOffsets(offsetsForTopicPartition));
         Assert.assertEquals(3, offsetsForTopicPartition.size());
-        Iterator<OffsetNode> it = offsetsForTopicPartition.iterator();
-        Assert.assertEquals(createOffsetNode(message1), it.next());
-        Assert.assertEquals(createOffsetNode(message2), it.next());
-        Assert.assertEquals(createOffsetNode(message5), it.next());
+        Assert.assertFalse(offsetsForTopicPartition.isCommittable(2));
+        Assert.assertFalse(offsetsForTopicPartition.isCommittable(3));
+        Assert.assertFalse(offsetsForTopicPartition.isCommittable(6));
     }
 
     @Test
@@ -85,17 +72,14 @@ public class OffsetManagerTest {
             add(message9);
         }};
         OffsetBatchKey key2 = new OffsetBatchKey("test2", 10);
-        messages2.forEach(message -> manger.addOffsetToBatch(key2, message));
+        manger.addOffsetToBatch(key2, messages2);
 
+        PartitionOffsets offsetsForTopicPartition = manger.getOffsetsForTopicPartition(getTopicPartition(message1));
         Assert.assertEquals(3, manger.getOffsetsForBatch(key1).size());
-        Assert.assertTrue(manger.getOffsetsForBatch(key1).
-                containsAll(messages1.stream().map(this::createOffsetNode).collect(Collectors.toList())));
-
-
+        Assert.assertArrayEquals(new long[]{3, 6, 2}, manger.getOffsetsForBatch(key1).getOffsets(offsetsForTopicPartition));
         Assert.assertEquals(3, manger.getOffsetsForBatch(key2).size());
-        Assert.assertTrue(manger.getOffsetsForBatch(key2).
-                containsAll(messages2.stream().map(this::createOffsetNode).collect(Collectors.toList())));
-
+        Assert.assertArrayEquals(new long[]{11, 8, 10}, manger.getOffsetsForBatch(key2).getOffsets(offsetsForTopicPartition));
+        Assert.assertEquals(6, offsetsForTopicPartition.size());
     }
 
     @Test
@@ -120,129 +104,88 @@ public class OffsetManagerTest {
         OffsetBatchKey key1 = new OffsetBatchKey("test", 10);
         messages1.forEach(message -> manger.addOffsetToBatch(key1, message));
         Assert.assertEquals(6, manger.getOffsetsForBatch(key1).size());
-        Assert.assertTrue(manger.getOffsetsForBatch(key1).
-                containsAll(messages1.stream().map(this::createOffsetNode).collect(Collectors.toList())));
 
-        TreeSet<OffsetNode> offsetsForTopicPartition = manger.getOffsetsForTopicPartition(getTopicPartition(message1));
+        PartitionOffsets offsetsForTopicPartition = manger.getOffsetsForTopicPartition(getTopicPartition(message1));
         Assert.assertEquals(3, offsetsForTopicPartition.size());
-        Iterator<OffsetNode> it = offsetsForTopicPartition.iterator();
-        Assert.assertEquals(createOffsetNode(message1), it.next());
-        Assert.assertEquals(createOffsetNode(message2), it.next());
-        Assert.assertEquals(createOffsetNode(message3), it.next());
+        Assert.assertArrayEquals(new long[]{6, 2, 3}, manger.getOffsetsForBatch(key1).getOffsets(offsetsForTopicPartition));
 
         offsetsForTopicPartition = manger.getOffsetsForTopicPartition(getTopicPartition(message4));
         Assert.assertEquals(3, offsetsForTopicPartition.size());
-        it = offsetsForTopicPartition.iterator();
-        Assert.assertEquals(createOffsetNode(message4), it.next());
-        Assert.assertEquals(createOffsetNode(message5), it.next());
-        Assert.assertEquals(createOffsetNode(message6), it.next());
+        Assert.assertArrayEquals(new long[]{3, 2, 6}, manger.getOffsetsForBatch(key1).getOffsets(offsetsForTopicPartition));
     }
 
     @Test
     public void shouldCompactAndFetch() {
-        OffsetManager manger = new OffsetManager();
-        Message message1 = createMessage("testing", 1, 1);
-        Message message2 = createMessage("testing", 1, 2);
-        Message message3 = createMessage("testing", 1, 3);
-        Message message4 = createMessage("testing", 1, 4);
-        Message message5 = createMessage("testing", 1, 5);
-        Message message6 = createMessage("testing", 1, 6);
-        Message message7 = createMessage("testing1", 2, 7);
-        Message message8 = createMessage("testing1", 2, 8);
-        Message message9 = createMessage("testing1", 2, 9);
-        Message message10 = createMessage("testing1", 2, 10);
-
-        List<Message> messages = new ArrayList<Message>() {{
-            add(message3);
-            add(message5);
-            add(message4);
-            add(message1);
-            add(message2);
-            add(message6);
-            add(message10);
-            add(message8);
-            add(message7);
-            add(message9);
-        }};
-        OffsetBatchKey key1 = new OffsetBatchKey("test", 10);
-        messages.forEach(message -> manger.addOffsetToBatch(key1, message));
-        TreeSet<OffsetNode> offsetsForTopicPartition = manger.getOffsetsForTopicPartition(getTopicPartition(message1));
-        Assert.assertEquals(6, offsetsForTopicPartition.size());
+        PartitionOffsets offsets = new PartitionOffsets(new TopicPartition("testing", 1));
+        offsets.add(3);
+        offsets.add(5);
+        offsets.add(4);
+        offsets.add(1);
+        offsets.add(2);
+        offsets.add(6);
+        Assert.assertEquals(6, offsets.size());
 
         // Test case 1
         // If the top is not committable then return empty
-        Optional<OffsetNode> offsetNode = manger.compactAndFetchFirstCommittableNode(offsetsForTopicPartition);
-        Assert.assertFalse(offsetNode.isPresent());
+        Assert.assertEquals(PartitionOffsets.NO_OFFSET, offsets.fetchCommittableOffset());
 
         // Test case 2
         // If only the first element is committable then return that
-        // Does not remove anything from the treeSet
-        Iterator<OffsetNode> it = offsetsForTopicPartition.iterator();
-        it.next().setCommittable(true);
-        offsetNode = manger.compactAndFetchFirstCommittableNode(offsetsForTopicPartition);
-        Assert.assertTrue(offsetNode.isPresent());
-        OffsetNode expected = createOffsetNode(message1);
-        expected.setCommittable(true);
-        Assert.assertEquals(expected, offsetNode.get());
-        Assert.assertEquals(6, offsetsForTopicPartition.size());
-        it = offsetsForTopicPartition.iterator();
-        Assert.assertTrue(it.next().isCommittable());
-        Assert.assertFalse(it.next().isCommittable());
+        // Does not remove anything
+        offsets.setCommittable(new long[]{1}, 1);
+        Assert.assertEquals(1, offsets.fetchCommittableOffset());
+        Assert.assertEquals(6, offsets.size());
+        Assert.assertTrue(offsets.isCommittable(1));
+        Assert.assertFalse(offsets.isCommittable(2));
 
         // Test Case 3
-        it = offsetsForTopicPartition.iterator();
-        it.next().setCommittable(true);
-        it.next();
-        it.next().setCommittable(true);
-        it.next().setCommittable(true);
-
-        offsetNode = manger.compactAndFetchFirstCommittableNode(offsetsForTopicPartition);
-        Assert.assertTrue(offsetNode.isPresent());
-        expected = createOffsetNode(message1);
-        expected.setCommittable(true);
-        Assert.assertEquals(expected, offsetNode.get());
-        Assert.assertEquals(6, offsetsForTopicPartition.size());
-        it = offsetsForTopicPartition.iterator();
-        Assert.assertTrue(it.next().isCommittable());
-        Assert.assertFalse(it.next().isCommittable());
+        // Gaps stop the contiguous committable offsets
+        offsets.setCommittable(new long[]{3, 4}, 2);
+        Assert.assertEquals(1, offsets.fetchCommittableOffset());
+        Assert.assertEquals(6, offsets.size());
 
         // Test case 4
-        // Removes the redundant offsets from the treeSet.
-        it = offsetsForTopicPartition.iterator();
-        it.next().setCommittable(true);
-        it.next().setCommittable(true);
-        it.next().setCommittable(true);
-        it.next().setCommittable(true);
-
-        expected = createOffsetNode(message4);
-        expected.setCommittable(true);
-        offsetNode = manger.compactAndFetchFirstCommittableNode(offsetsForTopicPartition);
-        Assert.assertTrue(offsetNode.isPresent());
-        Assert.assertEquals(expected, offsetNode.get());
-        Assert.assertEquals(3, offsetsForTopicPartition.size());
-        it = offsetsForTopicPartition.iterator();
-        Assert.assertTrue(it.next().isCommittable());
-        Assert.assertFalse(it.next().isCommittable());
-
+        // Removes the redundant offsets.
+        offsets.setCommittable(new long[]{2}, 1);
+        Assert.assertEquals(4, offsets.fetchCommittableOffset());
+        Assert.assertEquals(3, offsets.size());
+        Assert.assertTrue(offsets.isCommittable(4));
+        Assert.assertFalse(offsets.isCommittable(5));
 
         //Test Case 5
         //if everything is committable then it should keep only one element
-        offsetsForTopicPartition = manger.getOffsetsForTopicPartition(getTopicPartition(message7));
-        Assert.assertEquals(4, offsetsForTopicPartition.size());
-        it = offsetsForTopicPartition.iterator();
-        it.next().setCommittable(true);
-        it.next().setCommittable(true);
-        it.next().setCommittable(true);
-        it.next().setCommittable(true);
-
-        expected = createOffsetNode(message10);
-        expected.setCommittable(true);
-        offsetNode = manger.compactAndFetchFirstCommittableNode(offsetsForTopicPartition);
-        Assert.assertTrue(offsetNode.isPresent());
-        Assert.assertEquals(expected, offsetNode.get());
-        Assert.assertEquals(1, offsetsForTopicPartition.size());
-        it = offsetsForTopicPartition.iterator();
-        Assert.assertTrue(it.next().isCommittable());
+        offsets.setCommittable(new long[]{5, 6}, 2);
+        Assert.assertEquals(6, offsets.fetchCommittableOffset());
+        Assert.assertEquals(1, offsets.size());
+        Assert.assertEquals(6, offsets.fetchCommittableOffset());
+    }
+
+    @Test
+    public void shouldIgnoreDuplicateOffsets() {
+        PartitionOffsets offsets = new PartitionOffsets(new TopicPartition("testing", 1));
+        offsets.add(1);
+        offsets.add(2);
+        offsets.add(2);
+        offsets.add(1);
+        Assert.assertEquals(2, offsets.size());
+    }
+
+    @Test
+    public void shouldGrowAndCompactPartitionOffsets() {
+        PartitionOffsets offsets = new PartitionOffsets(new TopicPartition("testing", 1));
+        long[] committable = new long[1];
+        for (long offset = 1; offset <= 10000; offset++) {
+            offsets.add(offset);
+            committable[0] = offset;
+            offsets.setCommittable(committable, 1);
+            Assert.assertEquals(offset, offsets.fetchCommittableOffset());
+            Assert.assertEquals(1, offsets.size());
+        }
+        for (long offset = 20000; offset > 10000; offset--) {
+            offsets.add(offset);
+        }
+        Assert.assertEquals(10001, offsets.size());
+        Assert.assertEquals(10000, offsets.fetchCommittableOffset());
     }
 
     @Test
@@ -283,22 +226,40 @@ public class OffsetManagerTest {
         OffsetBatchKey key2 = new OffsetBatchKey("test2", 100);
         messageList2.forEach(message -> manger.addOffsetToBatch(key2, message));
 
-        Set<OffsetNode> offsetsForBatch1 = manger.getOffsetsForBatch(key1);
-        Set<OffsetNode> offsetsForBatch2 = manger.getOffsetsForBatch(key2);
-
-        Assert.assertEquals(6, offsetsForBatch1.size());
-        Assert.assertEquals(4, offsetsForBatch2.size());
-        offsetsForBatch1.forEach(node -> Assert.assertFalse(node.isCommittable()));
-        offsetsForBatch2.forEach(node -> Assert.assertFalse(node.isCommittable()));
+        Assert.assertEquals(6, manger.getOffsetsForBatch(key1).size());
+        Assert.assertEquals(4, manger.getOffsetsForBatch(key2).size());
+        messageList1.forEach(m -> Assert.assertFalse(manger.getOffsetsForTopicPartition(getTopicPartition(m)).isCommittable(m.getOffset() + 1)));
+        messageList2.forEach(m -> Assert.assertFalse(manger.getOffsetsForTopicPartition(getTopicPartition(m)).isCommittable(m.getOffset() + 1)));
 
         manger.setCommittable(key1);
-        offsetsForBatch1.forEach(node -> Assert.assertTrue(node.isCommittable()));
+        Assert.assertNull(manger.getOffsetsForBatch(key1));
+        messageList1.forEach(m -> Assert.assertTrue(manger.getOffsetsForTopicPartition(getTopicPartition(m)).isCommittable(m.getOffset() + 1)));
+        messageList2.forEach(m -> Assert.assertFalse(manger.getOffsetsForTopicPartition(getTopicPartition(m)).isCommittable(m.getOffset() + 1)));
 
         Message newMessage = createMessage("topic1", 10, 20);
         manger.addOffsetToBatch(key1, newMessage);
-        offsetsForBatch1 = manger.getOffsetsForBatch(key1);
+        BatchOffsets offsetsForBatch1 = manger.getOffsetsForBatch(key1);
         Assert.assertEquals(1, offsetsForBatch1.size());
-        Assert.assertTrue(offsetsForBatch1.contains(createOffsetNode(newMessage)));
+        Assert.assertArrayEquals(new long[]{21}, offsetsForBatch1.getOffsets(manger.getOffsetsForTopicPartition(getTopicPartition(newMessage))));
+    }
+
+    @Test
+    public void shouldAddOffsetsAndSetCommittable() {
+        OffsetManager manger = new OffsetManager();
+        manger.addOffsetToBatch("pending", createMessage("topic1", 1, 1));
+        manger.addOffsetsAndSetCommittable(new ArrayList<Message>() {{
+            add(createMessage("topic1", 1, 2));
+            add(createMessage("topic1", 1, 3));
+            add(createMessage("topic2", 1, 1));
+        }});
+        Map<TopicPartition, OffsetAndMetadata> committableOffset = manger.getCommittableOffset();
+        Assert.assertEquals(1, committableOffset.size());
+        Assert.assertEquals(new OffsetAndMetadata(2), committableOffset.get(new TopicPartition("topic2", 1)));
+
+        manger.setCommittable("pending");
+        committableOffset = manger.getCommittableOffset();
+        Assert.assertEquals(2, committableOffset.size());
+        Assert.assertEquals(new OffsetAndMetadata(4), committableOffset.get(new TopicPartition("topic1", 1)));
     }
 
     @Test
@@ -391,6 +352,40 @@ public class OffsetManagerTest {
 
     }
 
+    @Test
+    public void shouldFetchCommittableOffsetsOfGivenPartitions() {
+        OffsetManager manger = new OffsetManager();
+        manger.addOffsetsAndSetCommittable(new ArrayList<Message>() {{
+            add(createMessage("topic1", 1, 3));
+            add(createMessage("topic2", 1, 4));
+        }});
+        TopicPartition topicPartition1 = new TopicPartition("topic1", 1);
+
+        Map<TopicPartition, OffsetAndMetadata> committableOffset = manger.getCommittableOffset(
+                Arrays.asList(topicPartition1, new TopicPartition("topic3", 1)));
+        Assert.assertEquals(1, committableOffset.size());
+        Assert.assertEquals(new OffsetAndMetadata(4), committableOffset.get(topicPartition1));
+    }
+
+    @Test
+    public void shouldRemovePartitions() {
+        OffsetManager manger = new OffsetManager();
+        OffsetBatchKey key = new OffsetBatchKey("test", 10);
+        manger.addOffsetToBatch(key, new ArrayList<Message>() {{
+            add(createMessage("topic1", 1, 3));
+            add(createMessage("topic2", 1, 4));
+        }});
+        TopicPartition topicPartition1 = new TopicPartition("topic1", 1);
+
+        manger.removePartitions(Collections.singletonList(topicPartition1));
+        manger.setCommittable(key);
+
+        Assert.assertNull(manger.getOffsetsForTopicPartition(topicPartition1));
+        Map<TopicPartition, OffsetAndMetadata> committableOffset = manger.getCommittableOffset();
+        Assert.assertEquals(1, committableOffset.size());
+        Assert.assertEquals(new OffsetAndMetadata(5), committableOffset.get(new TopicPartition("topic2", 1)));
+    }
+
     @EqualsAndHashCode
     @Data
     @AllArgsConstructor
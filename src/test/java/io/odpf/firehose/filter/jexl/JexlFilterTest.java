@@ -18,8 +18,10 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
@@ -102,4 +104,54 @@ public class JexlFilterTest {
         Mockito.verify(instrumentation, Mockito.times(1)).logInfo("\n\tFilter schema: {}", TestMessage.class.getName());
         Mockito.verify(instrumentation, Mockito.times(1)).logInfo("\n\tFilter expression: {}", "testMessage.getOrderNumber() == 123");
     }
+
+    @Test
+    public void shouldFilterMessagesInParallelKeepingTheirOrder() throws FilterException {
+        Map<String, String> filterConfigs = new HashMap<>();
+        filterConfigs.put("FILTER_DATA_SOURCE", "message");
+        filterConfigs.put("FILTER_JEXL_EXPRESSION", "testMessage.getOrderNumber() == 123");
+        filterConfigs.put("FILTER_SCHEMA_PROTO_CLASS", TestMessage.class.getName());
+        filterConfigs.put("FILTER_JEXL_PARALLEL_MIN_MESSAGES", "2");
+        kafkaConsumerConfig = ConfigFactory.create(FilterConfig.class, filterConfigs);
+        filter = new JexlFilter(kafkaConsumerConfig, instrumentation);
+
+        List<Message> messages = new ArrayList<>();
+        FilteredMessages expectedMessages = new FilteredMessages();
+        for (int i = 0; i < 100; i++) {
+            TestMessage message = TestMessage.newBuilder().setOrderNumber(i % 2 == 0 ? "123" : "456").build();
+            Message esbMessage = new Message(key.toByteArray(), message.toByteArray(), "topic1", 0, i);
+            messages.add(esbMessage);
+            if (i % 2 == 0) {
+                expectedMessages.addToValidMessages(esbMessage);
+            } else {
+                expectedMessages.addToInvalidMessages(esbMessage);
+            }
+        }
+        assertEquals(expectedMessages, filter.filter(messages));
+    }
+
+    @Test(expected = FilterException.class)
+    public void shouldThrowExceptionOnInvalidFilterExpressionInParallel() throws FilterException {
+        Map<String, String> filterConfigs = new HashMap<>();
+        filterConfigs.put("FILTER_DATA_SOURCE", "message");
+        filterConfigs.put("FILTER_JEXL_EXPRESSION", "1+2");
+        filterConfigs.put("FILTER_SCHEMA_PROTO_CLASS", TestMessage.class.getName());
+        filterConfigs.put("FILTER_JEXL_PARALLEL_MIN_MESSAGES", "1");
+        kafkaConsumerConfig = ConfigFactory.create(FilterConfig.class, filterConfigs);
+
+        filter = new JexlFilter(kafkaConsumerConfig, instrumentation);
+        Message message = new Message(key.toByteArray(), this.testMessage.toByteArray(), "topic1", 0, 100);
+        filter.filter(Arrays.asList(message, message));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnInvalidSchemaClass() {
+        Map<String, String> filterConfigs = new HashMap<>();
+        filterConfigs.put("FILTER_DATA_SOURCE", "message");
+        filterConfigs.put("FILTER_JEXL_EXPRESSION", "testMessage.getOrderNumber() == 123");
+        filterConfigs.put("FILTER_SCHEMA_PROTO_CLASS", "io.odpf.firehose.consumer.Unknown");
+        kafkaConsumerConfig = ConfigFactory.create(FilterConfig.class, filterConfigs);
+
+        new JexlFilter(kafkaConsumerConfig, instrumentation);
+    }
 }
@@ -0,0 +1,85 @@
+package io.odpf.firehose.filter.proto;
+
+import io.odpf.firehose.config.FilterConfig;
+import io.odpf.firehose.consumer.TestBookingLogKey;
+import io.odpf.firehose.consumer.TestBookingLogMessage;
+import io.odpf.firehose.consumer.TestBookingStatus;
+import io.odpf.firehose.filter.FilterException;
+import io.odpf.firehose.filter.FilteredMessages;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProtoFilterTest {
+    @Mock
+    private Instrumentation instrumentation;
+
+    private Map<String, String> filterConfigs;
+    private Message completedMessage;
+    private Message createdMessage;
+
+    @Before
+    public void setUp() {
+        filterConfigs = new HashMap<>();
+        filterConfigs.put("FILTER_ENGINE", "proto");
+        filterConfigs.put("FILTER_DATA_SOURCE", "message");
+        filterConfigs.put("FILTER_SCHEMA_PROTO_CLASS", TestBookingLogMessage.class.getName());
+        filterConfigs.put("FILTER_PROTO_EXPRESSION", "status == \"COMPLETED\" && order_number != \"\"");
+        completedMessage = buildMessage(TestBookingStatus.Enum.COMPLETED);
+        createdMessage = buildMessage(TestBookingStatus.Enum.CREATED);
+    }
+
+    private Message buildMessage(TestBookingStatus.Enum status) {
+        TestBookingLogKey key = TestBookingLogKey.newBuilder().setOrderNumber("123").setStatus(status).build();
+        TestBookingLogMessage message = TestBookingLogMessage.newBuilder().setOrderNumber("123").setStatus(status).build();
+        return new Message(key.toByteArray(), message.toByteArray(), "topic1", 0, 100);
+    }
+
+    private ProtoFilter createFilter() {
+        return new ProtoFilter(TestBookingLogMessage.getDescriptor(), ConfigFactory.create(FilterConfig.class, filterConfigs), instrumentation);
+    }
+
+    @Test
+    public void shouldFilterMessages() throws FilterException {
+        FilteredMessages filteredMessages = createFilter().filter(Arrays.asList(completedMessage, createdMessage));
+
+        FilteredMessages expectedMessages = new FilteredMessages();
+        expectedMessages.addToValidMessages(completedMessage);
+        expectedMessages.addToInvalidMessages(createdMessage);
+        assertEquals(expectedMessages, filteredMessages);
+    }
+
+    @Test
+    public void shouldFilterKeys() throws FilterException {
+        filterConfigs.put("FILTER_DATA_SOURCE", "key");
+        filterConfigs.put("FILTER_SCHEMA_PROTO_CLASS", TestBookingLogKey.class.getName());
+        FilteredMessages filteredMessages = new ProtoFilter(TestBookingLogKey.getDescriptor(), ConfigFactory.create(FilterConfig.class, filterConfigs), instrumentation)
+                .filter(Arrays.asList(completedMessage, createdMessage));
+
+        assertEquals(1, filteredMessages.sizeOfValidMessages());
+        assertEquals(completedMessage, filteredMessages.getValidMessages().get(0));
+    }
+
+    @Test(expected = FilterException.class)
+    public void shouldThrowExceptionOnInvalidProtobufBytes() throws FilterException {
+        Message message = new Message(new byte[]{1}, new byte[]{(byte) 0x12, (byte) 0x05, 'a'}, "topic1", 0, 100);
+        createFilter().filter(Arrays.asList(message));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenSchemaIsNotFound() {
+        new ProtoFilter(null, ConfigFactory.create(FilterConfig.class, filterConfigs), instrumentation);
+    }
+}
@@ -0,0 +1,137 @@
+package io.odpf.firehose.filter.proto;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import io.odpf.firehose.consumer.TestBookingLogMessage;
+import io.odpf.firehose.consumer.TestBookingStatus;
+import io.odpf.firehose.consumer.TestLocation;
+import io.odpf.firehose.consumer.TestServiceType;
+import io.odpf.firehose.consumer.TestTypesMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProtoPredicateParserTest {
+    private final Descriptors.Descriptor descriptor = TestBookingLogMessage.getDescriptor();
+    private byte[] data;
+
+    @Before
+    public void setUp() {
+        data = TestBookingLogMessage.newBuilder()
+                .setServiceType(TestServiceType.Enum.GO_SEND)
+                .setOrderNumber("order-1")
+                .setStatus(TestBookingStatus.Enum.COMPLETED)
+                .setAmountPaidByCash(12.5f)
+                .setCancelReasonId(-3)
+                .setCustomerTotalFareWithoutSurge(1000L)
+                .setCustomerDynamicSurgeEnabled(true)
+                .setDriverPickupLocation(TestLocation.newBuilder().setName("home").setLatitude(-6.2).build())
+                .build()
+                .toByteArray();
+    }
+
+    private boolean test(String expression) throws IOException {
+        return ProtoPredicateParser.parse(descriptor, expression).test(data);
+    }
+
+    @Test
+    public void shouldCompareFieldsByNumber() throws IOException {
+        assertTrue(test("2 == \"order-1\""));
+        assertTrue(test("1 == \"GO_SEND\" && 26.3 < -6"));
+        assertFalse(test("2 != \"order-1\""));
+    }
+
+    @Test
+    public void shouldCompareFieldsByName() throws IOException {
+        assertTrue(test("status == \"COMPLETED\""));
+        assertTrue(test("status == 4"));
+        assertTrue(test("driver_pickup_location.name == \"home\""));
+        assertTrue(test("customer_total_fare_without_surge >= 1000"));
+        assertFalse(test("customer_total_fare_without_surge > 1000"));
+    }
+
+    @Test
+    public void shouldCompareNumbersOfAllEncodings() throws IOException {
+        assertTrue(test("amount_paid_by_cash > 12 && amount_paid_by_cash < 12.6"));
+        assertTrue(test("cancel_reason_id == -3"));
+        assertTrue(test("customer_dynamic_surge_enabled == true"));
+    }
+
+    @Test
+    public void shouldCompareUnsignedLongsAsUnsigned() throws IOException {
+        byte[] typesData = TestTypesMessage.newBuilder()
+                .setUint64Value(-1L)
+                .setFixed64Value(Long.MIN_VALUE)
+                .build()
+                .toByteArray();
+        Descriptors.Descriptor typesDescriptor = TestTypesMessage.getDescriptor();
+
+        assertTrue(ProtoPredicateParser.parse(typesDescriptor, "uint64_value == 18446744073709551615").test(typesData));
+        assertTrue(ProtoPredicateParser.parse(typesDescriptor, "uint64_value > 1").test(typesData));
+        assertTrue(ProtoPredicateParser.parse(typesDescriptor, "fixed64_value > 9223372036854775807").test(typesData));
+        assertTrue(ProtoPredicateParser.parse(typesDescriptor, "fixed64_value > 1.5").test(typesData));
+        assertFalse(ProtoPredicateParser.parse(typesDescriptor, "fixed64_value < 9223372036854775808").test(typesData));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnNegativeLiteralOfUnsignedField() {
+        ProtoPredicateParser.parse(TestTypesMessage.getDescriptor(), "uint64_value > -1");
+    }
+
+    @Test
+    public void shouldUseLastOccurrenceOfFields() throws IOException {
+        data = ByteString.copyFrom(data)
+                .concat(TestBookingLogMessage.newBuilder()
+                        .setOrderNumber("order-2")
+                        .setDriverPickupLocation(TestLocation.newBuilder().setLatitude(-6.3).build())
+                        .build()
+                        .toByteString())
+                .toByteArray();
+
+        assertTrue(test("order_number == \"order-2\""));
+        assertTrue(test("driver_pickup_location.name == \"home\" && driver_pickup_location.latitude < -6.25"));
+    }
+
+    @Test
+    public void shouldUseDefaultValueOfMissingFields() throws IOException {
+        assertTrue(test("customer_id == \"\""));
+        assertTrue(test("driver_dynamic_surge_enabled == false"));
+        assertTrue(test("driver_dropoff_location.latitude == 0"));
+        assertTrue(test("driver_total_fare_without_surge == 0"));
+    }
+
+    @Test
+    public void shouldCombineComparisons() throws IOException {
+        assertTrue(test("!(status == \"CREATED\") && (order_number == \"x\" || status == \"COMPLETED\")"));
+        assertFalse(test("status == \"CREATED\" || !(order_number == \"order-1\")"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnUnknownField() {
+        ProtoPredicateParser.parse(descriptor, "unknown_field == 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnUnknownEnumValue() {
+        ProtoPredicateParser.parse(descriptor, "status == \"UNKNOWN_STATUS\"");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnMismatchedLiteral() {
+        ProtoPredicateParser.parse(descriptor, "order_number == 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnMessageField() {
+        ProtoPredicateParser.parse(descriptor, "driver_pickup_location == 1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionOnIncompleteExpression() {
+        ProtoPredicateParser.parse(descriptor, "status == \"COMPLETED\" &&");
+    }
+}
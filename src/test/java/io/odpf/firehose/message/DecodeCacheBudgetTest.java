@@ -0,0 +1,39 @@
+package io.odpf.firehose.message;
+
+import com.google.protobuf.DynamicMessage;
+import io.odpf.firehose.consumer.TestKey;
+import io.odpf.firehose.consumer.TestMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DecodeCacheBudgetTest {
+
+    @Test
+    public void shouldCacheWithinTheBudget() {
+        DecodeCacheBudget budget = new DecodeCacheBudget(100);
+        DecodeCache decodeCache = new DecodeCache();
+        DynamicMessage parsedKey = DynamicMessage.getDefaultInstance(TestKey.getDescriptor());
+        DynamicMessage parsedMessage = DynamicMessage.getDefaultInstance(TestMessage.getDescriptor());
+
+        Assert.assertTrue(decodeCache.putLogKey(TestKey.getDescriptor(), parsedKey, 40, budget));
+        Assert.assertTrue(decodeCache.putLogMessage(TestMessage.getDescriptor(), parsedMessage, 60, budget));
+
+        Assert.assertSame(parsedKey, decodeCache.getLogKey(TestKey.getDescriptor()));
+        Assert.assertSame(parsedMessage, decodeCache.getLogMessage(TestMessage.getDescriptor()));
+        Assert.assertEquals(100, budget.getCachedBytes());
+    }
+
+    @Test
+    public void shouldNotCacheOverTheBudget() {
+        DecodeCacheBudget budget = new DecodeCacheBudget(100);
+        DecodeCache decodeCache = new DecodeCache();
+        DecodeCache otherDecodeCache = new DecodeCache();
+        DynamicMessage parsedMessage = DynamicMessage.getDefaultInstance(TestMessage.getDescriptor());
+
+        Assert.assertTrue(decodeCache.putLogMessage(TestMessage.getDescriptor(), parsedMessage, 80, budget));
+        Assert.assertFalse(otherDecodeCache.putLogMessage(TestMessage.getDescriptor(), parsedMessage, 30, budget));
+
+        Assert.assertNull(otherDecodeCache.getLogMessage(TestMessage.getDescriptor()));
+        Assert.assertEquals(80, budget.getCachedBytes());
+    }
+}
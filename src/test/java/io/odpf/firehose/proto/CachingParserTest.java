@@ -0,0 +1,111 @@
+package io.odpf.firehose.proto;
+
+import com.google.protobuf.DynamicMessage;
+import io.odpf.firehose.consumer.TestKey;
+import io.odpf.firehose.consumer.TestMessage;
+import io.odpf.firehose.message.DecodeCacheBudget;
+import io.odpf.firehose.message.Message;
+import io.odpf.stencil.Parser;
+import io.odpf.stencil.client.StencilClient;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingParserTest {
+    private static final String PROTO_CLASS = "io.odpf.firehose.consumer.TestMessage";
+
+    @Mock
+    private StencilClient stencilClient;
+
+    @Mock
+    private Parser protoParser;
+
+    private Message message;
+    private DynamicMessage parsedMessage;
+    private CachingParser cachingParser;
+
+    @Before
+    public void setUp() throws Exception {
+        TestMessage testMessage = TestMessage.newBuilder().setOrderNumber("123").build();
+        TestKey testKey = TestKey.newBuilder().setOrderNumber("123").build();
+        message = new Message(testKey.toByteArray(), testMessage.toByteArray(), "topic", 0, 100);
+        parsedMessage = DynamicMessage.parseFrom(TestMessage.getDescriptor(), testMessage.toByteArray());
+
+        Mockito.when(stencilClient.get(PROTO_CLASS)).thenReturn(TestMessage.getDescriptor());
+        Mockito.when(stencilClient.getParser(PROTO_CLASS)).thenReturn(protoParser);
+        Mockito.when(protoParser.parse(Mockito.any(byte[].class))).thenReturn(parsedMessage);
+        cachingParser = new CachingParser(stencilClient, PROTO_CLASS, 1024, new DecodeCacheBudget(1024));
+    }
+
+    @Test
+    public void shouldParseMessageOnlyOnce() throws Exception {
+        DynamicMessage first = cachingParser.parseLogMessage(message);
+        DynamicMessage second = cachingParser.parseLogMessage(message);
+
+        Assert.assertSame(first, second);
+        Mockito.verify(protoParser, Mockito.times(1)).parse(message.getLogMessage());
+    }
+
+    @Test
+    public void shouldCacheKeyAndMessageSeparately() throws Exception {
+        cachingParser.parseLogKey(message);
+        cachingParser.parseLogKey(message);
+        cachingParser.parseLogMessage(message);
+
+        Mockito.verify(protoParser, Mockito.times(1)).parse(message.getLogKey());
+        Mockito.verify(protoParser, Mockito.times(1)).parse(message.getLogMessage());
+    }
+
+    @Test
+    public void shouldShareCacheWithCopiedMessage() throws Exception {
+        cachingParser.parseLogMessage(message);
+        cachingParser.parseLogMessage(new Message(message));
+
+        Mockito.verify(protoParser, Mockito.times(1)).parse(message.getLogMessage());
+    }
+
+    @Test
+    public void shouldParseAgainWhenDescriptorChanges() throws Exception {
+        cachingParser.parseLogMessage(message);
+        Mockito.when(stencilClient.get(PROTO_CLASS)).thenReturn(TestKey.getDescriptor());
+        cachingParser.parseLogMessage(message);
+
+        Mockito.verify(protoParser, Mockito.times(2)).parse(message.getLogMessage());
+    }
+
+    @Test
+    public void shouldNotCachePayloadsBiggerThanMax() throws Exception {
+        cachingParser = new CachingParser(stencilClient, PROTO_CLASS, 1, new DecodeCacheBudget(1024));
+        cachingParser.parseLogMessage(message);
+        cachingParser.parseLogMessage(message);
+
+        Mockito.verify(protoParser, Mockito.times(2)).parse(message.getLogMessage());
+    }
+
+    @Test
+    public void shouldNotCacheOverTheBudget() throws Exception {
+        DecodeCacheBudget budget = new DecodeCacheBudget(message.getLogMessage().length);
+        cachingParser = new CachingParser(stencilClient, PROTO_CLASS, 1024, budget);
+        Message otherMessage = new Message(message.getLogKey(), message.getLogMessage(), "topic", 0, 101);
+        cachingParser.parseLogMessage(message);
+        cachingParser.parseLogMessage(message);
+        cachingParser.parseLogMessage(otherMessage);
+        cachingParser.parseLogMessage(otherMessage);
+
+        Mockito.verify(protoParser, Mockito.times(3)).parse(message.getLogMessage());
+        Assert.assertEquals(message.getLogMessage().length, budget.getCachedBytes());
+    }
+
+    @Test
+    public void shouldParseBytesWithPlainParser() throws Exception {
+        CachingParser.parseLogMessage(protoParser, message);
+        CachingParser.parseLogMessage(protoParser, message);
+
+        Mockito.verify(protoParser, Mockito.times(2)).parse(message.getLogMessage());
+    }
+}
@@ -0,0 +1,43 @@
+package io.odpf.firehose.proto;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Properties;
+
+public class FieldProjectionTest {
+
+    @Test
+    public void shouldProjectFieldsOfMappings() {
+        Properties nestedMapping = new Properties();
+        nestedMapping.put("2", "order_url");
+        Properties mapping = new Properties();
+        mapping.put("1", "order_number");
+        mapping.put("3", nestedMapping);
+        Properties otherMapping = new Properties();
+        otherMapping.put("4", "driver_id");
+
+        FieldProjection projection = FieldProjection.of(mapping, null, otherMapping).addField(5);
+
+        Assert.assertTrue(projection.contains(1));
+        Assert.assertNull(projection.getNested(1));
+        Assert.assertTrue(projection.getNested(3).contains(2));
+        Assert.assertFalse(projection.getNested(3).contains(1));
+        Assert.assertTrue(projection.contains(4));
+        Assert.assertTrue(projection.contains(5));
+        Assert.assertFalse(projection.contains(2));
+    }
+
+    @Test
+    public void shouldReadFieldWholeWhenAlsoMappedWhole() {
+        Properties nestedMapping = new Properties();
+        nestedMapping.put("2", "order_url");
+        Properties mapping = new Properties();
+        mapping.put("3", nestedMapping);
+
+        FieldProjection projection = FieldProjection.of(mapping).addField(3);
+
+        Assert.assertTrue(projection.contains(3));
+        Assert.assertNull(projection.getNested(3));
+    }
+}
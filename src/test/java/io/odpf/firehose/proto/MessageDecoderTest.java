@@ -0,0 +1,143 @@
+package io.odpf.firehose.proto;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.Value;
+import io.odpf.firehose.StatusBQ;
+import io.odpf.firehose.TestMessageBQ;
+import io.odpf.firehose.consumer.TestMessage;
+import io.odpf.firehose.consumer.TestNestedRepeatedMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Properties;
+
+public class MessageDecoderTest {
+
+    @Test
+    public void shouldDecodeProjectionOfEveryFieldAsDynamicMessage() throws Exception {
+        Struct properties = Struct.newBuilder()
+                .putFields("name", Value.newBuilder().setStringValue("firehose").build())
+                .putFields("tags", Value.newBuilder().setListValue(ListValue.newBuilder()
+                        .addValues(Value.newBuilder().setNumberValue(1.5).build())
+                        .addValues(Value.newBuilder().setBoolValue(true).build())).build())
+                .build();
+        byte[] data = TestMessageBQ.newBuilder()
+                .setOrderNumber("order-1")
+                .setCreatedAt(Timestamp.newBuilder().setSeconds(1600000000L).setNanos(100))
+                .setStatus(StatusBQ.CANCELLED)
+                .setDiscount(-42L)
+                .setSuccess(true)
+                .setPrice(10.5f)
+                .putCurrentState("state", "active")
+                .setUserToken(ByteString.copyFromUtf8("token"))
+                .addAliases("alias-1")
+                .addAliases("alias-2")
+                .setProperties(properties)
+                .addUpdatedAt(Timestamp.newBuilder().setSeconds(1L))
+                .addUpdatedAt(Timestamp.newBuilder().setSeconds(2L))
+                .build()
+                .toByteArray();
+
+        DynamicMessage decoded = MessageDecoder.compile(TestMessageBQ.getDescriptor(), everyField(TestMessageBQ.getDescriptor())).decode(data);
+
+        Assert.assertEquals(DynamicMessage.parseFrom(TestMessageBQ.getDescriptor(), data), decoded);
+    }
+
+    @Test
+    public void shouldDecodePackedRepeatedFields() throws Exception {
+        byte[] data = TestNestedRepeatedMessage.newBuilder()
+                .setSingleMessage(TestMessage.newBuilder().setOrderNumber("order-1"))
+                .addRepeatedMessage(TestMessage.newBuilder().setOrderUrl("url"))
+                .setNumberField(42)
+                .addRepeatedNumberField(7)
+                .addRepeatedNumberField(14)
+                .build()
+                .toByteArray();
+
+        DynamicMessage decoded = MessageDecoder.compile(TestNestedRepeatedMessage.getDescriptor(), everyField(TestNestedRepeatedMessage.getDescriptor())).decode(data);
+
+        Assert.assertEquals(DynamicMessage.parseFrom(TestNestedRepeatedMessage.getDescriptor(), data), decoded);
+    }
+
+    @Test(expected = MessageDecoder.FallbackException.class)
+    public void shouldFallBackOnUnknownEnumValue() throws Exception {
+        byte[] data = TestMessageBQ.newBuilder().setStatusValue(99).build().toByteArray();
+
+        MessageDecoder.compile(TestMessageBQ.getDescriptor(), everyField(TestMessageBQ.getDescriptor())).decode(data);
+    }
+
+    @Test
+    public void shouldDecodeOnlyProjectedFields() throws Exception {
+        byte[] data = TestNestedRepeatedMessage.newBuilder()
+                .setSingleMessage(TestMessage.newBuilder().setOrderNumber("order-1").setOrderUrl("url"))
+                .addRepeatedMessage(TestMessage.newBuilder().setOrderUrl("url"))
+                .setNumberField(42)
+                .addRepeatedNumberField(7)
+                .build()
+                .toByteArray();
+        Properties nestedMapping = new Properties();
+        nestedMapping.put("1", "order_number");
+        Properties mapping = new Properties();
+        mapping.put("1", nestedMapping);
+        mapping.put("3", "number_field");
+
+        DynamicMessage decoded = MessageDecoder.compile(TestNestedRepeatedMessage.getDescriptor(), FieldProjection.of(mapping)).decode(data);
+
+        DynamicMessage expected = DynamicMessage.parseFrom(TestNestedRepeatedMessage.getDescriptor(), TestNestedRepeatedMessage.newBuilder()
+                .setSingleMessage(TestMessage.newBuilder().setOrderNumber("order-1"))
+                .setNumberField(42)
+                .build()
+                .toByteArray());
+        Assert.assertEquals(expected, decoded);
+        Assert.assertFalse(ProtoUtils.hasUnknownField(decoded));
+    }
+
+    @Test
+    public void shouldNotRequireFieldsOutsideTheProjection() throws Exception {
+        Descriptors.Descriptor descriptor = requiredFieldsDescriptor();
+        byte[] data = DynamicMessage.newBuilder(descriptor)
+                .setField(descriptor.findFieldByNumber(1), "id-1")
+                .setField(descriptor.findFieldByNumber(2), 42L)
+                .build()
+                .toByteArray();
+        Properties mapping = new Properties();
+        mapping.put("2", "count");
+
+        DynamicMessage decoded = MessageDecoder.compile(descriptor, FieldProjection.of(mapping)).decode(data);
+
+        Assert.assertEquals(42L, decoded.getField(descriptor.findFieldByNumber(2)));
+        Assert.assertFalse(decoded.hasField(descriptor.findFieldByNumber(1)));
+    }
+
+    private static FieldProjection everyField(Descriptors.Descriptor descriptor) {
+        FieldProjection projection = new FieldProjection();
+        descriptor.getFields().forEach(field -> projection.addField(field.getNumber()));
+        return projection;
+    }
+
+    private static Descriptors.Descriptor requiredFieldsDescriptor() throws Descriptors.DescriptorValidationException {
+        DescriptorProtos.DescriptorProto message = DescriptorProtos.DescriptorProto.newBuilder()
+                .setName("RequiredFields")
+                .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                        .setName("id").setNumber(1)
+                        .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING)
+                        .setLabel(DescriptorProtos.FieldDescriptorProto.Label.LABEL_REQUIRED))
+                .addField(DescriptorProtos.FieldDescriptorProto.newBuilder()
+                        .setName("count").setNumber(2)
+                        .setType(DescriptorProtos.FieldDescriptorProto.Type.TYPE_INT64)
+                        .setLabel(DescriptorProtos.FieldDescriptorProto.Label.LABEL_REQUIRED))
+                .build();
+        DescriptorProtos.FileDescriptorProto file = DescriptorProtos.FileDescriptorProto.newBuilder()
+                .setName("required_fields.proto")
+                .setSyntax("proto2")
+                .addMessageType(message)
+                .build();
+        return Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0]).findMessageTypeByName("RequiredFields");
+    }
+}
@@ -0,0 +1,90 @@
+package io.odpf.firehose.proto;
+
+import com.google.gson.Gson;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Duration;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.JsonFormat;
+import com.jayway.jsonpath.JsonPath;
+import io.odpf.firehose.consumer.TestDurationMessage;
+import io.odpf.firehose.consumer.TestMapMessage;
+import io.odpf.firehose.consumer.TestMessage;
+import io.odpf.firehose.consumer.TestNestedRepeatedMessage;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ProtoFieldPathTest {
+    private final Gson gson = new Gson();
+
+    private final TestNestedRepeatedMessage nestedRepeatedMessage = TestNestedRepeatedMessage.newBuilder()
+            .setSingleMessage(TestMessage.newBuilder().setOrderNumber("order-1").setOrderUrl("http://order/1?a=b"))
+            .addRepeatedMessage(TestMessage.newBuilder().setOrderNumber("order-2"))
+            .addRepeatedMessage(TestMessage.newBuilder().setOrderDetails("<details>"))
+            .setNumberField(7)
+            .addRepeatedNumberField(1)
+            .addRepeatedNumberField(2)
+            .build();
+
+    @Test
+    public void shouldReadTheSameValuesAsJsonPathOnThePrintedMessage() throws Exception {
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.number_field");
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.single_message");
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.single_message.order_url");
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.single_message.order_details");
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.repeated_message");
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.repeated_message[1]");
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.repeated_message[1].order_details");
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.repeated_number_field");
+        assertSameAsJsonPath(nestedRepeatedMessage, "$.repeated_number_field[0]");
+    }
+
+    @Test
+    public void shouldReadMapsAndWellKnownTypesLikeJsonPath() throws Exception {
+        TestMapMessage mapMessage = TestMapMessage.newBuilder().setOrderNumber("order-1")
+                .putCurrentState("state_key_1", "state_value_1").putCurrentState("state_key_2", "state_value_2").build();
+        TestDurationMessage durationMessage = TestDurationMessage.newBuilder()
+                .setDuration(Duration.newBuilder().setSeconds(1).setNanos(500000000))
+                .setEventTimestamp(Timestamp.newBuilder().setSeconds(1490007240))
+                .build();
+
+        assertSameAsJsonPath(mapMessage, "$.current_state");
+        assertSameAsJsonPath(durationMessage, "$.duration");
+        assertSameAsJsonPath(durationMessage, "$.event_timestamp");
+    }
+
+    @Test
+    public void shouldReturnMissingWhenTheFieldIsNotPrinted() throws Exception {
+        TestNestedRepeatedMessage message = TestNestedRepeatedMessage.newBuilder().build();
+
+        assertSame(ProtoFieldPath.MISSING, compile(message, "$.single_message").read(message));
+        assertSame(ProtoFieldPath.MISSING, compile(message, "$.single_message.order_number").read(message));
+        assertSame(ProtoFieldPath.MISSING, compile(message, "$.repeated_message[0]").read(message));
+    }
+
+    @Test
+    public void shouldNotCompilePathsWhichNeedThePrintedMessage() {
+        Descriptors.Descriptor descriptor = TestNestedRepeatedMessage.getDescriptor();
+
+        assertNull(ProtoFieldPath.compile(descriptor, "$.unknown_field"));
+        assertNull(ProtoFieldPath.compile(descriptor, "$.repeated_message.order_number"));
+        assertNull(ProtoFieldPath.compile(descriptor, "$.repeated_message[*]"));
+        assertNull(ProtoFieldPath.compile(descriptor, "$..order_number"));
+        assertNull(ProtoFieldPath.compile(descriptor, "$.number_field[0]"));
+        assertNull(ProtoFieldPath.compile(TestMapMessage.getDescriptor(), "$.current_state.state_key_1"));
+        assertNull(ProtoFieldPath.compile(TestDurationMessage.getDescriptor(), "$.duration.seconds"));
+    }
+
+    private ProtoFieldPath compile(Message message, String path) {
+        return ProtoFieldPath.compile(message.getDescriptorForType(), path);
+    }
+
+    private void assertSameAsJsonPath(Message message, String path) throws Exception {
+        String printed = JsonFormat.printer().includingDefaultValueFields().preservingProtoFieldNames().print(message);
+        Object expected = JsonPath.read(printed, path);
+        assertEquals(gson.toJson(expected), gson.toJson(compile(message, path).read(message)));
+    }
+}
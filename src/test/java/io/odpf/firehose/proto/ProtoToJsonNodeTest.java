@@ -0,0 +1,100 @@
+package io.odpf.firehose.proto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Message;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.google.protobuf.util.Durations;
+import com.google.protobuf.util.JsonFormat;
+import com.google.protobuf.util.Timestamps;
+import io.odpf.firehose.consumer.TestEnumTypeMessage;
+import io.odpf.firehose.consumer.TestMapMessage;
+import io.odpf.firehose.consumer.TestMessage;
+import io.odpf.firehose.consumer.TestTypesMessage;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ProtoToJsonNodeTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private void assertSameAsPrinter(Message message) throws Exception {
+        DynamicMessage dynamicMessage = DynamicMessage.parseFrom(message.getDescriptorForType(), message.toByteArray());
+        assertEquals(objectMapper.readTree(JsonFormat.printer().preservingProtoFieldNames().print(dynamicMessage)),
+                new ProtoToJsonNode(true).convert(dynamicMessage));
+        assertEquals(objectMapper.readTree(JsonFormat.printer().print(dynamicMessage)),
+                new ProtoToJsonNode(false).convert(dynamicMessage));
+    }
+
+    @Test
+    public void shouldConvertAllFieldTypes() throws Exception {
+        TestTypesMessage message = TestTypesMessage.newBuilder()
+                .setFloatValue(1.1f)
+                .setDoubleValue(-2.25)
+                .setInt32Value(-3)
+                .setInt64Value(Long.MAX_VALUE)
+                .setUint32Value(-1)
+                .setUint64Value(-1L)
+                .setFixed32Value(Integer.MAX_VALUE)
+                .setFixed64Value(7L)
+                .setSfixed32Value(-8)
+                .setSfixed64Value(-9L)
+                .setSint32Value(-10)
+                .setSint64Value(-11L)
+                .setEnumValue(TestEnumTypeMessage.Enum.CATEGORY_2)
+                .setBytesValue(ByteString.copyFromUtf8("bytes"))
+                .setStringValue("string")
+                .setBoolValue(true)
+                .setMessageValue(TestMessage.newBuilder().setOrderNumber("order-1").build())
+                .addListValues("a")
+                .addListValues("b")
+                .addListMessageValues(TestMessage.newBuilder().setOrderUrl("url").build())
+                .setTimestampValue(Timestamps.fromMillis(1600000000123L))
+                .setDurationValue(Durations.fromMillis(1500))
+                .setWrappedBoolValue(BoolValue.newBuilder().setValue(true).build())
+                .build();
+        assertSameAsPrinter(message);
+    }
+
+    @Test
+    public void shouldConvertStructs() throws Exception {
+        Struct struct = Struct.newBuilder()
+                .putFields("null", Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build())
+                .putFields("number", Value.newBuilder().setNumberValue(1.5).build())
+                .putFields("string", Value.newBuilder().setStringValue("value").build())
+                .putFields("bool", Value.newBuilder().setBoolValue(true).build())
+                .putFields("list", Value.newBuilder().setListValue(ListValue.newBuilder()
+                        .addValues(Value.newBuilder().setNumberValue(2).build())
+                        .addValues(Value.newBuilder().setStringValue("item").build())).build())
+                .putFields("struct", Value.newBuilder().setStructValue(Struct.newBuilder()
+                        .putFields("inner", Value.newBuilder().setStringValue("x").build())).build())
+                .build();
+        assertSameAsPrinter(TestTypesMessage.newBuilder().setStructValue(struct).build());
+    }
+
+    @Test
+    public void shouldConvertMaps() throws Exception {
+        assertSameAsPrinter(TestMapMessage.newBuilder()
+                .setOrderNumber("order-1")
+                .putCurrentState("state_key_1", "state_value_1")
+                .putCurrentState("state_key_2", "state_value_2")
+                .build());
+    }
+
+    @Test
+    public void shouldConvertSpecialFloatingPointValues() throws Exception {
+        assertSameAsPrinter(TestTypesMessage.newBuilder().setFloatValue(Float.NaN).setDoubleValue(Double.NEGATIVE_INFINITY).build());
+    }
+
+    @Test
+    public void shouldLeaveOutDefaultValues() throws Exception {
+        JsonNode node = new ProtoToJsonNode(true).convert(TestTypesMessage.newBuilder().setStringValue("").setInt32Value(0).build());
+        assertEquals(0, node.size());
+    }
+}
@@ -0,0 +1,78 @@
+package io.odpf.firehose.proto;
+
+import com.google.protobuf.DynamicMessage;
+import io.odpf.firehose.StatusBQ;
+import io.odpf.firehose.TestMessageBQ;
+import io.odpf.firehose.consumer.TestMessage;
+import io.odpf.stencil.Parser;
+import io.odpf.stencil.client.StencilClient;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SpecializedParserTest {
+    private static final String PROTO_CLASS = "io.odpf.firehose.TestMessageBQ";
+
+    @Mock
+    private StencilClient stencilClient;
+
+    @Mock
+    private Parser protoParser;
+
+    private SpecializedParser specializedParser;
+
+    @Before
+    public void setUp() {
+        Mockito.when(stencilClient.get(PROTO_CLASS)).thenReturn(TestMessageBQ.getDescriptor());
+        Mockito.when(stencilClient.getParser(PROTO_CLASS)).thenReturn(protoParser);
+        FieldProjection projection = new FieldProjection();
+        TestMessageBQ.getDescriptor().getFields().forEach(field -> projection.addField(field.getNumber()));
+        TestMessage.getDescriptor().getFields().forEach(field -> projection.addField(field.getNumber()));
+        specializedParser = new SpecializedParser(stencilClient, PROTO_CLASS, projection);
+    }
+
+    @Test
+    public void shouldDecodeWithoutStencilParser() throws Exception {
+        byte[] data = TestMessageBQ.newBuilder().setOrderNumber("order-1").setDiscount(10L).build().toByteArray();
+
+        DynamicMessage parsed = specializedParser.parse(data);
+
+        Assert.assertEquals(DynamicMessage.parseFrom(TestMessageBQ.getDescriptor(), data), parsed);
+        Mockito.verify(protoParser, Mockito.never()).parse(Mockito.any(byte[].class));
+    }
+
+    @Test
+    public void shouldParseWithStencilParserWhenDecoderFallsBack() throws Exception {
+        byte[] data = TestMessageBQ.newBuilder().setStatusValue(99).build().toByteArray();
+        DynamicMessage parsedMessage = DynamicMessage.parseFrom(TestMessageBQ.getDescriptor(), data);
+        Mockito.when(protoParser.parse(data)).thenReturn(parsedMessage);
+
+        Assert.assertSame(parsedMessage, specializedParser.parse(data));
+    }
+
+    @Test
+    public void shouldParseInvalidMessageWithStencilParser() throws Exception {
+        byte[] data = new byte[]{10, 5, 1};
+        DynamicMessage parsedMessage = DynamicMessage.getDefaultInstance(TestMessageBQ.getDescriptor());
+        Mockito.when(protoParser.parse(data)).thenReturn(parsedMessage);
+
+        Assert.assertSame(parsedMessage, specializedParser.parse(data));
+    }
+
+    @Test
+    public void shouldCompileDecoderAgainWhenSchemaIsRefreshed() throws Exception {
+        byte[] data = TestMessage.newBuilder().setOrderNumber("order-1").setOrderUrl("url").build().toByteArray();
+        specializedParser.parse(TestMessageBQ.newBuilder().setStatus(StatusBQ.CANCELLED).build().toByteArray());
+        Mockito.when(stencilClient.get(PROTO_CLASS)).thenReturn(TestMessage.getDescriptor());
+
+        DynamicMessage parsed = specializedParser.parse(data);
+
+        Assert.assertEquals(TestMessage.getDescriptor(), parsed.getDescriptorForType());
+        Assert.assertEquals(DynamicMessage.parseFrom(TestMessage.getDescriptor(), data), parsed);
+    }
+}
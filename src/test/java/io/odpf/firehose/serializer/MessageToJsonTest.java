@@ -12,9 +12,11 @@ import io.odpf.stencil.Parser;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class MessageToJsonTest {
     private String logMessage;
@@ -36,13 +38,13 @@ public class MessageToJsonTest {
         Message message = new Message(Base64.getDecoder().decode(logKey.getBytes()),
                 Base64.getDecoder().decode(logMessage.getBytes()), "sample-topic", 0, 100);
         String actualOutput = messageToJson.serialize(message);
-        assertEquals(actualOutput, "{\"logMessage\":\"{\\\"uniqueDrivers\\\":\\\"3\\\","
+        assertEquals(actualOutput, "{\"logMessage\":\"{"
                 + "\\\"windowStartTime\\\":\\\"Mar 20, 2017 10:54:00 AM\\\","
-                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"vehicleType\\\":\\\"BIKE\\\","
-                + "\\\"s2Id\\\":\\\"3344472187078705152\\\"}\",\"topic\":\"sample-topic\",\"logKey\":\"{"
+                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"s2Id\\\":\\\"3344472187078705152\\\","
+                + "\\\"vehicleType\\\":\\\"BIKE\\\",\\\"uniqueDrivers\\\":\\\"3\\\"}\",\"topic\":\"sample-topic\",\"logKey\":\"{"
                 + "\\\"windowStartTime\\\":\\\"Mar 20, 2017 10:54:00 AM\\\","
-                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"vehicleType\\\":\\\"BIKE\\\","
-                + "\\\"s2Id\\\":\\\"3344472187078705152\\\"}\"}");
+                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"s2Id\\\":\\\"3344472187078705152\\\","
+                + "\\\"vehicleType\\\":\\\"BIKE\\\"}\"}");
     }
 
     @Test
@@ -52,10 +54,10 @@ public class MessageToJsonTest {
         Message message = new Message(null, Base64.getDecoder().decode(logMessage.getBytes()), "sample-topic", 0,
                 100);
         String actualOutput = messageToJson.serialize(message);
-        assertEquals("{\"logMessage\":\"{\\\"uniqueDrivers\\\":\\\"3\\\","
+        assertEquals("{\"logMessage\":\"{"
                 + "\\\"windowStartTime\\\":\\\"Mar 20, 2017 10:54:00 AM\\\","
-                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"vehicleType\\\":\\\"BIKE\\\","
-                + "\\\"s2Id\\\":\\\"3344472187078705152\\\"}\",\"topic\":\"sample-topic\"}", actualOutput);
+                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"s2Id\\\":\\\"3344472187078705152\\\","
+                + "\\\"vehicleType\\\":\\\"BIKE\\\",\\\"uniqueDrivers\\\":\\\"3\\\"}\",\"topic\":\"sample-topic\"}", actualOutput);
     }
 
     @Test
@@ -66,10 +68,10 @@ public class MessageToJsonTest {
                 "sample-topic", 0, 100);
 
         String actualOutput = messageToJson.serialize(message);
-        assertEquals("{\"logMessage\":\"{\\\"uniqueDrivers\\\":\\\"3\\\","
+        assertEquals("{\"logMessage\":\"{"
                 + "\\\"windowStartTime\\\":\\\"Mar 20, 2017 10:54:00 AM\\\","
-                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"vehicleType\\\":\\\"BIKE\\\","
-                + "\\\"s2Id\\\":\\\"3344472187078705152\\\"}\",\"topic\":\"sample-topic\"}", actualOutput);
+                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"s2Id\\\":\\\"3344472187078705152\\\","
+                + "\\\"vehicleType\\\":\\\"BIKE\\\",\\\"uniqueDrivers\\\":\\\"3\\\"}\",\"topic\":\"sample-topic\"}", actualOutput);
     }
 
     @Test
@@ -80,10 +82,10 @@ public class MessageToJsonTest {
                 "sample-topic", 0, 100);
 
         String actualOutput = messageToJson.serialize(message);
-        assertEquals("{\"logMessage\":\"{\\\"uniqueDrivers\\\":\\\"3\\\","
+        assertEquals("{\"logMessage\":\"{"
                 + "\\\"windowStartTime\\\":\\\"2017-03-20T10:54:00Z\\\","
-                + "\\\"windowEndTime\\\":\\\"2017-03-20T10:55:00Z\\\",\\\"s2IdLevel\\\":13,\\\"vehicleType\\\":\\\"BIKE\\\","
-                + "\\\"s2Id\\\":\\\"3344472187078705152\\\"}\",\"topic\":\"sample-topic\"}", actualOutput);
+                + "\\\"windowEndTime\\\":\\\"2017-03-20T10:55:00Z\\\",\\\"s2IdLevel\\\":13,\\\"s2Id\\\":\\\"3344472187078705152\\\","
+                + "\\\"vehicleType\\\":\\\"BIKE\\\",\\\"uniqueDrivers\\\":\\\"3\\\"}\",\"topic\":\"sample-topic\"}", actualOutput);
     }
 
     @Test
@@ -95,10 +97,10 @@ public class MessageToJsonTest {
                 "sample-topic", 0, 100);
 
         String actualOutput = messageToJson.serialize(message);
-        assertEquals("[{\"logMessage\":\"{\\\"uniqueDrivers\\\":\\\"3\\\","
+        assertEquals("[{\"logMessage\":\"{"
                 + "\\\"windowStartTime\\\":\\\"Mar 20, 2017 10:54:00 AM\\\","
-                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"vehicleType\\\":\\\"BIKE\\\","
-                + "\\\"s2Id\\\":\\\"3344472187078705152\\\"}\",\"topic\":\"sample-topic\"}]", actualOutput);
+                + "\\\"windowEndTime\\\":\\\"Mar 20, 2017 10:55:00 AM\\\",\\\"s2IdLevel\\\":13,\\\"s2Id\\\":\\\"3344472187078705152\\\","
+                + "\\\"vehicleType\\\":\\\"BIKE\\\",\\\"uniqueDrivers\\\":\\\"3\\\"}\",\"topic\":\"sample-topic\"}]", actualOutput);
     }
 
     @Test
@@ -110,9 +112,52 @@ public class MessageToJsonTest {
                 "sample-topic", 0, 100);
 
         String actualOutput = messageToJson.serialize(message);
-        assertEquals("[{\"logMessage\":\"{\\\"uniqueDrivers\\\":\\\"3\\\","
+        assertEquals("[{\"logMessage\":\"{"
                 + "\\\"windowStartTime\\\":\\\"2017-03-20T10:54:00Z\\\","
-                + "\\\"windowEndTime\\\":\\\"2017-03-20T10:55:00Z\\\",\\\"s2IdLevel\\\":13,\\\"vehicleType\\\":\\\"BIKE\\\","
-                + "\\\"s2Id\\\":\\\"3344472187078705152\\\"}\",\"topic\":\"sample-topic\"}]", actualOutput);
+                + "\\\"windowEndTime\\\":\\\"2017-03-20T10:55:00Z\\\",\\\"s2IdLevel\\\":13,\\\"s2Id\\\":\\\"3344472187078705152\\\","
+                + "\\\"vehicleType\\\":\\\"BIKE\\\",\\\"uniqueDrivers\\\":\\\"3\\\"}\",\"topic\":\"sample-topic\"}]", actualOutput);
+    }
+
+    @Test
+    public void shouldSerializeToUtf8BytesOfTheSerializedString() throws DeserializerException {
+        MessageToJson messageToJson = new MessageToJson(protoParser, false, true, false);
+
+        Message message = new Message(Base64.getDecoder().decode(logKey.getBytes()),
+                Base64.getDecoder().decode(logMessage.getBytes()), "sample-topic", 0, 100);
+
+        assertEquals(messageToJson.serialize(message), new String(messageToJson.serializeToBytes(message), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldSerializeOnlyTheLogMessage() throws DeserializerException {
+        MessageToJson messageToJson = new MessageToJson(protoParser, true, false);
+
+        Message message = new Message(Base64.getDecoder().decode(logKey.getBytes()),
+                Base64.getDecoder().decode(logMessage.getBytes()), "sample-topic", 0, 100);
+
+        assertEquals("{\"window_start_time\":\"2017-03-20T10:54:00Z\",\"window_end_time\":\"2017-03-20T10:55:00Z\","
+                + "\"s2_id_level\":13,\"s2_id\":\"3344472187078705152\",\"vehicle_type\":\"BIKE\",\"unique_drivers\":\"3\"}",
+                messageToJson.serializeLogMessage(message));
+    }
+
+    @Test
+    public void shouldSerializeOnlyTheLogKey() throws DeserializerException {
+        MessageToJson messageToJson = new MessageToJson(protoParser, true, false);
+
+        Message message = new Message(Base64.getDecoder().decode(logKey.getBytes()),
+                Base64.getDecoder().decode(logMessage.getBytes()), "sample-topic", 0, 100);
+
+        assertEquals("{\"window_start_time\":\"2017-03-20T10:54:00Z\",\"window_end_time\":\"2017-03-20T10:55:00Z\","
+                + "\"s2_id_level\":13,\"s2_id\":\"3344472187078705152\",\"vehicle_type\":\"BIKE\"}",
+                messageToJson.serializeLogKey(message));
+    }
+
+    @Test
+    public void shouldReturnNullLogKeyWhenKeyIsEmpty() throws DeserializerException {
+        MessageToJson messageToJson = new MessageToJson(protoParser, true, false);
+
+        Message message = new Message(new byte[]{}, Base64.getDecoder().decode(logMessage.getBytes()), "sample-topic", 0, 100);
+
+        assertNull(messageToJson.serializeLogKey(message));
     }
 }
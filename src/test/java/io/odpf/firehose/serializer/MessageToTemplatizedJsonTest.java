@@ -86,6 +86,39 @@ public class MessageToTemplatizedJsonTest {
         Assert.assertEquals(expectedMessage, serializedMessage);
     }
 
+    @Test
+    public void shouldProperlySerializeMessageToTemplateWithMultipleFields() {
+        String template = "{\"level\":\"$.s2_id_level\",\"id\":\"$.s2_id\",\"start\":\"$.window_start_time\","
+                + "\"vehicle\":{\"type\":\"$.vehicle_type\",\"same_type\":\"$.vehicle_type\"},\"literal\":\"value\"}";
+        StencilClient stencilClient = StencilClientFactory.getClient();
+        protoParser = stencilClient.getParser(TestAggregatedSupplyMessage.class.getName());
+        MessageToTemplatizedJson messageToTemplatizedJson = MessageToTemplatizedJson
+                .create(instrumentation, template, protoParser);
+        Message message = new Message(Base64.getDecoder().decode(logKey.getBytes()),
+                Base64.getDecoder().decode(logMessage.getBytes()), "sample-topic", 0, 100);
+
+        String serializedMessage = messageToTemplatizedJson.serialize(message);
+        String expectedMessage = "{\"level\":13,\"id\":\"3344472187078705152\",\"start\":\"2017-03-20T10:54:00Z\","
+                + "\"vehicle\":{\"type\":\"BIKE\",\"same_type\":\"BIKE\"},\"literal\":\"value\"}";
+        Assert.assertEquals(expectedMessage, serializedMessage);
+        Assert.assertEquals(expectedMessage, messageToTemplatizedJson.serialize(message));
+    }
+
+    @Test
+    public void shouldThrowIfTheFieldIsNotSetInTheMessage() {
+        expectedException.expect(DeserializerException.class);
+
+        String template = "{\"test\":\"$.event_timestamp\"}";
+        StencilClient stencilClient = StencilClientFactory.getClient();
+        protoParser = stencilClient.getParser(TestAggregatedSupplyMessage.class.getName());
+        MessageToTemplatizedJson messageToTemplatizedJson = MessageToTemplatizedJson
+                .create(instrumentation, template, protoParser);
+        Message message = new Message(Base64.getDecoder().decode(logKey.getBytes()),
+                Base64.getDecoder().decode(logMessage.getBytes()), "sample-topic", 0, 100);
+
+        messageToTemplatizedJson.serialize(message);
+    }
+
     @Test
     public void shouldThrowIfNoPathsFoundInTheProto() {
         expectedException.expect(DeserializerException.class);
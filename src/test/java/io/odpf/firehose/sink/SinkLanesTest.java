@@ -0,0 +1,121 @@
+package io.odpf.firehose.sink;
+
+import io.odpf.firehose.config.enums.SinkLanesShardType;
+import io.odpf.firehose.exception.SinkTaskFailedException;
+import io.odpf.firehose.message.Message;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SinkLanesTest {
+    @Mock
+    private Sink sink1;
+    @Mock
+    private Sink sink2;
+    private List<ExecutorService> executors;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        executors = Arrays.asList(Executors.newSingleThreadExecutor(), Executors.newSingleThreadExecutor());
+    }
+
+    @After
+    public void tearDown() {
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+
+    @Test
+    public void shouldSendMessagesWithSameKeyToSameLaneInOrder() throws IOException {
+        SinkLanes sinkLanes = new SinkLanes(Arrays.asList(sink1, sink2), executors, SinkLanesShardType.KEY);
+        Message message1 = new Message("key1".getBytes(), new byte[0], "topic1", 0, 10);
+        Message message2 = new Message("key2".getBytes(), new byte[0], "topic1", 0, 11);
+        Message message3 = new Message("key1".getBytes(), new byte[0], "topic1", 0, 12);
+
+        Map<Future<List<Message>>, List<Message>> tasks = sinkLanes.submitTasks(Arrays.asList(message1, message2, message3));
+
+        Set<Future<List<Message>>> finished = new HashSet<>();
+        while (finished.size() < tasks.size()) {
+            finished.add(sinkLanes.awaitFinishedSinkTask());
+        }
+        Assert.assertEquals(tasks.keySet(), finished);
+        Assert.assertEquals(0, sinkLanes.getInFlightTasks());
+        List<Message> key1Messages = tasks.values().stream().filter(batch -> batch.contains(message1)).findFirst().get();
+        Assert.assertEquals(0, key1Messages.indexOf(message1));
+        Assert.assertEquals(1, key1Messages.indexOf(message3));
+        Mockito.verify(sink1, Mockito.atMost(1)).pushMessage(Mockito.anyList());
+        Mockito.verify(sink2, Mockito.atMost(1)).pushMessage(Mockito.anyList());
+    }
+
+    @Test
+    public void shouldShardByPartition() {
+        SinkLanes sinkLanes = new SinkLanes(Arrays.asList(sink1, sink2), executors, SinkLanesShardType.PARTITION);
+        Message message1 = new Message("key1".getBytes(), new byte[0], "topic1", 1, 10);
+        Message message2 = new Message("key2".getBytes(), new byte[0], "topic1", 1, 11);
+
+        Map<Future<List<Message>>, List<Message>> tasks = sinkLanes.submitTasks(Arrays.asList(message1, message2));
+
+        Assert.assertEquals(1, tasks.size());
+        Assert.assertEquals(Arrays.asList(message1, message2), tasks.values().iterator().next());
+        Assert.assertEquals(1, sinkLanes.getInFlightTasks());
+    }
+
+    @Test
+    public void shouldFallBackToPartitionWhenKeyIsEmpty() {
+        SinkLanes sinkLanes = new SinkLanes(Arrays.asList(sink1, sink2), executors, SinkLanesShardType.KEY);
+        Message message1 = new Message(null, new byte[0], "topic1", 1, 10);
+        Message message2 = new Message(new byte[0], new byte[0], "topic1", 1, 11);
+
+        Map<Future<List<Message>>, List<Message>> tasks = sinkLanes.submitTasks(Arrays.asList(message1, message2));
+
+        Assert.assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void shouldNotSubmitEmptyBatches() {
+        SinkLanes sinkLanes = new SinkLanes(Arrays.asList(sink1, sink2), executors, SinkLanesShardType.KEY);
+
+        Assert.assertTrue(sinkLanes.submitTasks(new ArrayList<>()).isEmpty());
+        Assert.assertTrue(sinkLanes.fetchFinishedSinkTasks().isEmpty());
+    }
+
+    @Test(expected = SinkTaskFailedException.class)
+    public void shouldThrowWhenSinkTaskFails() throws IOException {
+        Mockito.when(sink1.pushMessage(Mockito.anyList())).thenThrow(new IOException("failed"));
+        SinkLanes sinkLanes = new SinkLanes(Arrays.asList(sink1), executors.subList(0, 1), SinkLanesShardType.KEY);
+
+        sinkLanes.submitTasks(Arrays.asList(new Message("key1".getBytes(), new byte[0], "topic1", 0, 10)));
+        sinkLanes.awaitFinishedSinkTask();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNeedOneExecutorPerSink() {
+        new SinkLanes(Arrays.asList(sink1, sink2), executors.subList(0, 1), SinkLanesShardType.KEY);
+    }
+
+    @Test
+    public void shouldShutdownExecutorsAndCloseSinks() throws IOException {
+        SinkLanes sinkLanes = new SinkLanes(Arrays.asList(sink1, sink2), executors, SinkLanesShardType.KEY);
+
+        sinkLanes.close();
+
+        executors.forEach(executor -> Assert.assertTrue(executor.isShutdown()));
+        Mockito.verify(sink1, Mockito.times(1)).close();
+        Mockito.verify(sink2, Mockito.times(1)).close();
+    }
+}
@@ -1,6 +1,10 @@
 package io.odpf.firehose.sink;
 
+import io.odpf.firehose.exception.SinkTaskFailedException;
 import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.metrics.Metrics;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,90 +13,195 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 public class SinkPoolTest {
 
-    @Mock
-    private BlockingQueue<Sink> workerSinks;
-    @Mock
-    private ExecutorService executorService;
-
-    private SinkPool sinkPool;
-
     @Mock
     private Sink sink1;
     @Mock
     private Sink sink2;
     @Mock
-    private Future<List<Message>> future1;
-    @Mock
-    private Future<List<Message>> future2;
+    private Instrumentation instrumentation;
+
+    private ExecutorService executorService;
+    private SinkPool sinkPool;
+
+    private final List<Message> messageList1 = new ArrayList<Message>() {{
+        add(new Message(new byte[0], new byte[0], "topic1", 1, 10));
+        add(new Message(new byte[0], new byte[0], "topic1", 2, 11));
+        add(new Message(new byte[0], new byte[0], "topic1", 3, 12));
+    }};
+    private final List<Message> messageList2 = new ArrayList<Message>() {{
+        add(new Message(new byte[0], new byte[0], "topic1", 2, 5));
+        add(new Message(new byte[0], new byte[0], "topic1", 2, 6));
+    }};
 
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        sinkPool = new SinkPool(workerSinks, executorService, 5);
+        executorService = Executors.newCachedThreadPool();
+        sinkPool = new SinkPool(new LinkedBlockingQueue<>(new ArrayList<Sink>() {{
+            add(sink1);
+            add(sink2);
+        }}), executorService, 5, instrumentation);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
     }
 
     @Test
-    public void shouldSubmitTask() throws InterruptedException {
-        List<Message> messages = new ArrayList<Message>() {{
-            add(new Message(new byte[0], new byte[0], "topic1", 1, 10));
-            add(new Message(new byte[0], new byte[0], "topic1", 2, 11));
-            add(new Message(new byte[0], new byte[0], "topic1", 3, 12));
-        }};
-        Mockito.when(workerSinks.poll(5, TimeUnit.MILLISECONDS)).thenReturn(sink1);
-        Mockito.when(executorService.submit(new SinkPool.SinkTask(sink1, messages))).thenReturn(future1);
-        Assert.assertEquals(future1, sinkPool.submitTask(messages));
+    public void shouldSubmitTask() throws Exception {
+        Mockito.when(sink1.pushMessage(messageList1)).thenReturn(new ArrayList<>());
+        Future<List<Message>> future = sinkPool.submitTask(messageList1);
 
+        Assert.assertNotNull(future);
+        Assert.assertEquals(0, future.get().size());
+        Mockito.verify(sink1, Mockito.times(1)).pushMessage(messageList1);
     }
 
     @Test
-    public void shouldNotSubmitTask() throws InterruptedException {
-        List<Message> messages = new ArrayList<Message>() {{
-            add(new Message(new byte[0], new byte[0], "topic1", 1, 10));
-            add(new Message(new byte[0], new byte[0], "topic1", 2, 11));
-            add(new Message(new byte[0], new byte[0], "topic1", 3, 12));
-        }};
-        Mockito.when(workerSinks.poll(5, TimeUnit.MILLISECONDS)).thenReturn(null);
-        Assert.assertNull(sinkPool.submitTask(messages));
+    public void shouldFetchFinishedFutures() throws Exception {
+        CountDownLatch pushLatch = new CountDownLatch(1);
+        Mockito.when(sink1.pushMessage(messageList1)).thenReturn(new ArrayList<>());
+        Mockito.when(sink2.pushMessage(messageList2)).thenAnswer(invocation -> {
+            pushLatch.await();
+            return new ArrayList<>();
+        });
+        Future<List<Message>> future1 = sinkPool.submitTask(messageList1);
+        Future<List<Message>> future2 = sinkPool.submitTask(messageList2);
+        future1.get();
+
+        Set<Future<List<Message>>> finishedTasks = awaitFinishedSinkTasks(1);
+        Assert.assertEquals(Collections.singleton(future1), finishedTasks);
+
+        pushLatch.countDown();
+        future2.get();
+        finishedTasks = awaitFinishedSinkTasks(1);
+        Assert.assertEquals(Collections.singleton(future2), finishedTasks);
+        Assert.assertEquals(0, sinkPool.fetchFinishedSinkTasks().size());
     }
 
     @Test
-    public void shouldFetchFinishedFutures() throws InterruptedException {
-        List<Message> messageList1 = new ArrayList<Message>() {{
-            add(new Message(new byte[0], new byte[0], "topic1", 1, 10));
-            add(new Message(new byte[0], new byte[0], "topic1", 2, 11));
-            add(new Message(new byte[0], new byte[0], "topic1", 3, 12));
+    public void shouldBlockOnFullPoolUntilASinkIsFree() throws Exception {
+        CountDownLatch pushLatch = new CountDownLatch(1);
+        List<Message> messageList3 = new ArrayList<Message>() {{
+            add(new Message(new byte[0], new byte[0], "topic1", 3, 13));
         }};
-        Mockito.when(workerSinks.poll(5, TimeUnit.MILLISECONDS)).thenReturn(sink1);
-        Mockito.when(executorService.submit(new SinkPool.SinkTask(sink1, messageList1))).thenReturn(future1);
+        Mockito.when(sink1.pushMessage(Mockito.anyList())).thenAnswer(invocation -> {
+            pushLatch.await();
+            return new ArrayList<>();
+        });
+        Mockito.when(sink2.pushMessage(Mockito.anyList())).thenAnswer(invocation -> {
+            pushLatch.await();
+            return new ArrayList<>();
+        });
+        Future<List<Message>> future1 = sinkPool.submitTask(messageList1);
+        Future<List<Message>> future2 = sinkPool.submitTask(messageList2);
+
+        ExecutorService submitter = Executors.newSingleThreadExecutor();
+        Future<Future<List<Message>>> submission = submitter.submit(() -> sinkPool.submitTask(messageList3));
+        Thread.sleep(50);
+        Assert.assertFalse(submission.isDone());
+
+        pushLatch.countDown();
+        Future<List<Message>> future3 = submission.get(5, TimeUnit.SECONDS);
+        submitter.shutdown();
+        Assert.assertNotNull(future3);
+        future3.get();
+
+        Set<Future<List<Message>>> finishedTasks = awaitFinishedSinkTasks(3);
+        Assert.assertEquals(new HashSet<Future<List<Message>>>() {{
+            add(future1);
+            add(future2);
+            add(future3);
+        }}, finishedTasks);
+    }
+
+    @Test
+    public void shouldHaveNoFreeSinkWhileAllSinksAreBusy() throws Exception {
+        CountDownLatch pushLatch = new CountDownLatch(1);
+        Mockito.when(sink1.pushMessage(Mockito.anyList())).thenAnswer(invocation -> {
+            pushLatch.await();
+            return new ArrayList<>();
+        });
+        Mockito.when(sink2.pushMessage(Mockito.anyList())).thenAnswer(invocation -> {
+            pushLatch.await();
+            return new ArrayList<>();
+        });
+        Assert.assertTrue(sinkPool.hasFreeSink());
 
         sinkPool.submitTask(messageList1);
+        Assert.assertTrue(sinkPool.hasFreeSink());
+        sinkPool.submitTask(messageList2);
+        Assert.assertFalse(sinkPool.hasFreeSink());
 
-        List<Message> messageList2 = new ArrayList<Message>() {{
-            add(new Message(new byte[0], new byte[0], "topic1", 2, 5));
-            add(new Message(new byte[0], new byte[0], "topic1", 2, 6));
-        }};
+        pushLatch.countDown();
+        awaitFinishedSinkTasks(2);
+        Assert.assertTrue(sinkPool.hasFreeSink());
+    }
+
+    @Test(expected = SinkTaskFailedException.class)
+    public void shouldThrowExceptionIfSinkTaskFails() throws Exception {
+        Mockito.when(sink1.pushMessage(messageList1)).thenThrow(new RuntimeException("push failed"));
+        sinkPool.submitTask(messageList1);
+        awaitFinishedSinkTasks(1);
+    }
 
-        Mockito.when(workerSinks.poll(5, TimeUnit.MILLISECONDS)).thenReturn(sink2);
-        Mockito.when(executorService.submit(new SinkPool.SinkTask(sink2, messageList2))).thenReturn(future2);
+    @Test
+    public void shouldThrowExceptionIfInterruptedWhileWaitingForAFreeSink() throws Exception {
+        CountDownLatch pushLatch = new CountDownLatch(1);
+        Mockito.when(sink1.pushMessage(Mockito.anyList())).thenAnswer(invocation -> {
+            pushLatch.await();
+            return new ArrayList<>();
+        });
+        Mockito.when(sink2.pushMessage(Mockito.anyList())).thenAnswer(invocation -> {
+            pushLatch.await();
+            return new ArrayList<>();
+        });
+        sinkPool.submitTask(messageList1);
         sinkPool.submitTask(messageList2);
 
-        Mockito.when(future1.isDone()).thenReturn(false);
-        Mockito.when(future2.isDone()).thenReturn(false);
-        Set<Future<List<Message>>> finishedTasks = sinkPool.fetchFinishedSinkTasks();
-        Assert.assertEquals(0, finishedTasks.size());
+        Thread.currentThread().interrupt();
+        try {
+            sinkPool.submitTask(messageList1);
+            Assert.fail("expected SinkTaskFailedException");
+        } catch (SinkTaskFailedException e) {
+            Assert.assertTrue(e.getCause() instanceof InterruptedException);
+            Assert.assertTrue(Thread.interrupted());
+        } finally {
+            pushLatch.countDown();
+        }
+    }
+
+    @Test
+    public void shouldCapturePoolGauges() throws Exception {
+        Mockito.when(sink1.pushMessage(messageList1)).thenReturn(new ArrayList<>());
+        sinkPool.submitTask(messageList1);
+
+        Mockito.verify(instrumentation, Mockito.atLeastOnce()).captureValue(Metrics.SINK_POOL_SIZE, 2);
+        Mockito.verify(instrumentation, Mockito.times(1)).captureValue(Metrics.SINK_POOL_ACTIVE_TASKS, 1);
+        Mockito.verify(instrumentation, Mockito.atLeastOnce()).captureValue(Mockito.eq(Metrics.SINK_POOL_QUEUE_DEPTH), Mockito.anyInt());
+    }
 
-        Mockito.when(future1.isDone()).thenReturn(true);
-        finishedTasks = sinkPool.fetchFinishedSinkTasks();
-        Assert.assertEquals(1, finishedTasks.size());
-        Mockito.verify(workerSinks, Mockito.times(1)).put(sink1);
+    private Set<Future<List<Message>>> awaitFinishedSinkTasks(int count) throws InterruptedException {
+        Set<Future<List<Message>>> finishedTasks = new HashSet<>();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (finishedTasks.size() < count && System.currentTimeMillis() < deadline) {
+            finishedTasks.addAll(sinkPool.fetchFinishedSinkTasks());
+            Thread.sleep(1);
+        }
+        return finishedTasks;
     }
 }
@@ -199,4 +199,39 @@ public class BlobSinkTest {
         assertEquals(ErrorType.UNKNOWN_FIELDS_ERROR, retryMessages.get(0).getErrorInfo().getErrorType());
         retryMessages.forEach(message -> assertNotNull(message.getErrorInfo()));
     }
+
+    @Test
+    public void shouldFlushOpenFilesWhenPartitionsAreRevoked() throws Exception {
+        blobSink = new BlobSink(instrumentation, "objectstorage", offsetManager, writerOrchestrator, messageDeSerializer, 1000);
+        Message message1 = new Message("".getBytes(), "".getBytes(), "booking", 1, 1);
+        Message message2 = new Message("".getBytes(), "".getBytes(), "booking", 2, 2);
+        Record record1 = mock(Record.class);
+        Record record2 = mock(Record.class);
+        String path1 = "/tmp/test1";
+        when(messageDeSerializer.deSerialize(message1)).thenReturn(record1);
+        when(messageDeSerializer.deSerialize(message2)).thenReturn(record2);
+        when(writerOrchestrator.write(record1)).thenReturn(path1);
+        when(writerOrchestrator.write(record2)).thenReturn(path1);
+        when(writerOrchestrator.flushOpenFiles(1000)).thenReturn(new HashSet<>(Collections.singletonList(path1)));
+        when(writerOrchestrator.getFlushedPaths()).thenReturn(new HashSet<>(Collections.singletonList(path1)));
+        blobSink.pushMessage(Arrays.asList(message1, message2));
+
+        blobSink.onPartitionsRevoked(Collections.singletonList(new TopicPartition("booking", 1)));
+
+        verify(writerOrchestrator, times(1)).flushOpenFiles(1000);
+        Map<TopicPartition, OffsetAndMetadata> committableOffsets = offsetManager.getCommittableOffset();
+        assertEquals(new OffsetAndMetadata(2), committableOffsets.get(new TopicPartition("booking", 1)));
+        assertEquals(new OffsetAndMetadata(3), committableOffsets.get(new TopicPartition("booking", 2)));
+    }
+
+    @Test
+    public void shouldStopWaitingForRevokedFilesAfterTimeout() throws Exception {
+        String path1 = "/tmp/test1";
+        when(writerOrchestrator.flushOpenFiles(0)).thenReturn(new HashSet<>(Collections.singletonList(path1)));
+        when(writerOrchestrator.getFlushedPaths()).thenReturn(new HashSet<>());
+
+        blobSink.onPartitionsRevoked(Collections.singletonList(new TopicPartition("booking", 1)));
+
+        verify(instrumentation, times(1)).logWarn("{} files were not flushed before partitions {} were revoked", 1, Collections.singletonList(new TopicPartition("booking", 1)));
+    }
 }
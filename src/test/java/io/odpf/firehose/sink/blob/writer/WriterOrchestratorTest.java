@@ -140,4 +140,27 @@ public class WriterOrchestratorTest {
             Assert.assertEquals(new HashSet<>(), writerOrchestrator.getFlushedPaths());
         }
     }
+
+    @Test
+    public void shouldUploadOpenFilesWithoutWaitingForTheCheckers() throws Exception {
+        Record record = Mockito.mock(Record.class);
+        LocalFileMetadata metadata = new LocalFileMetadata("/tmp/", "/tmp/test", 0, 0, 0);
+        Mockito.when(record.getTimestamp(timeStampFieldName)).thenReturn(Instant.ofEpochMilli(1L));
+        Mockito.when(record.getTopic("")).thenReturn(defaultTopic);
+        Mockito.when(localFileWriter1.getMetadata()).thenReturn(metadata);
+        Mockito.when(localFileWriter1.closeAndFetchMetaData()).thenReturn(metadata);
+        Mockito.when(localStorage.createLocalFileWriter(TimePartitionedPathUtils.getTimePartitionedPath(record, sinkConfig))).thenReturn(localFileWriter1);
+        Mockito.when(localFileWriter1.write(record)).thenReturn(true);
+        try (WriterOrchestrator writerOrchestrator = new WriterOrchestrator(sinkConfig, localStorage, blobStorage, statsDReporter)) {
+            writerOrchestrator.write(record);
+
+            Set<String> rotatedPaths = writerOrchestrator.flushOpenFiles(1000);
+
+            Assert.assertEquals(new HashSet<String>() {{
+                add("/tmp/test");
+            }}, rotatedPaths);
+            Assert.assertEquals(rotatedPaths, writerOrchestrator.getFlushedPaths());
+            Mockito.verify(blobStorage, Mockito.times(1)).store("test", "/tmp/test");
+        }
+    }
 }
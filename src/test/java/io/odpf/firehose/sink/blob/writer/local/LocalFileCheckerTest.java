@@ -12,7 +12,10 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -74,6 +77,20 @@ public class LocalFileCheckerTest {
         Assert.assertEquals(0, writerMap.size());
     }
 
+    @Test
+    public void shouldRotateAllFilesRegardlessOfPolicy() throws IOException {
+        writerMap.put(Paths.get("/tmp/a"), writer1);
+        writerMap.put(Paths.get("/tmp/b"), writer2);
+        when(writer1.closeAndFetchMetaData()).thenReturn(new LocalFileMetadata("/tmp", "/tmp/a/random-file-name-1", 1L, recordCount, fileSize));
+        when(writer2.closeAndFetchMetaData()).thenReturn(new LocalFileMetadata("/tmp", "/tmp/b/random-file-name-2", 1L, recordCount, fileSize));
+
+        Set<String> rotatedPaths = worker.rotateAll();
+        verify(localStorage, times(0)).shouldRotate(any());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("/tmp/a/random-file-name-1", "/tmp/b/random-file-name-2")), rotatedPaths);
+        Assert.assertEquals(2, toBeFlushedToRemotePaths.size());
+        Assert.assertEquals(0, writerMap.size());
+    }
+
     @Test
     public void shouldProduceFileMeta() throws IOException {
         long fileSize1 = 128L;
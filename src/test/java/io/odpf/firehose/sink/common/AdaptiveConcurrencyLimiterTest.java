@@ -0,0 +1,152 @@
+package io.odpf.firehose.sink.common;
+
+import io.odpf.firehose.metrics.Instrumentation;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.odpf.firehose.metrics.Metrics.SINK_CONCURRENCY_LIMIT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Mock
+    private Instrumentation instrumentation;
+
+    @Before
+    public void setup() {
+        initMocks(this);
+    }
+
+    @Test
+    public void shouldGrowTheLimitWhenRequestsSucceedAtTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "http", 1, 1, 10, 0.5, 0);
+
+        limiter.release(limiter.acquire(), false);
+
+        assertEquals(2, limiter.getLimit());
+        verify(instrumentation).captureValue(SINK_CONCURRENCY_LIMIT, 2, "sink=http");
+    }
+
+    @Test
+    public void shouldNotGrowTheLimitWhenItIsNotInUse() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "http", 4, 1, 10, 0.5, 0);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.release(limiter.acquire(), false);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void shouldNotGrowTheLimitAboveTheMax() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "grpc", 1, 1, 2, 0.5, 0);
+
+        for (int i = 0; i < 10; i++) {
+            long first = limiter.acquire();
+            long second = limiter.getLimit() > 1 ? limiter.acquire() : 0;
+            limiter.release(first, false);
+            if (second != 0) {
+                limiter.release(second, false);
+            }
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void shouldShrinkTheLimitWhenARequestIsDropped() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "elasticsearch", 8, 1, 10, 0.5, 0);
+
+        limiter.release(limiter.acquire(), true);
+
+        assertEquals(4, limiter.getLimit());
+        verify(instrumentation).captureValue(SINK_CONCURRENCY_LIMIT, 4, "sink=elasticsearch");
+    }
+
+    @Test
+    public void shouldShrinkTheLimitOnceForABurstOfDroppedRequests() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "http", 8, 1, 10, 0.5, 0);
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+        long third = limiter.acquire();
+
+        limiter.release(first, true);
+        limiter.release(second, true);
+        limiter.release(third, true);
+
+        assertEquals(4, limiter.getLimit());
+        limiter.release(limiter.acquire(), true);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void shouldNotShrinkTheLimitBelowTheMin() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "http", 4, 3, 10, 0.5, 0);
+
+        limiter.release(limiter.acquire(), true);
+        limiter.release(limiter.acquire(), true);
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    public void shouldShrinkTheLimitWhenARequestIsSlowerThanTheTolerance() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "http", 8, 1, 10, 0.5, 2);
+
+        limiter.release(limiter.acquire(), false);
+        long startTime = limiter.acquire();
+        Thread.sleep(50);
+        limiter.release(startTime, false);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void shouldWaitForARequestInFlightWhenTheLimitIsReached() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "http", 1, 1, 1, 0.5, 0);
+        long startTime = limiter.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+
+        Thread thread = new Thread(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        thread.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        limiter.release(startTime, false);
+        assertTrue(acquired.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldStopWaitingWhenClosed() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(instrumentation, "http", 1, 1, 1, 0.5, 0);
+        limiter.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+
+        Thread thread = new Thread(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        thread.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        limiter.close();
+        assertTrue(acquired.await(1, TimeUnit.SECONDS));
+    }
+}
@@ -4,6 +4,7 @@ import io.odpf.firehose.config.enums.SinkType;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.NeedToRetry;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import io.odpf.firehose.sink.elasticsearch.request.EsRequestHandler;
 import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.DocWriteResponse;
@@ -86,6 +87,20 @@ public class EsSinkTest {
         Assert.assertEquals(0, failedMessages.size());
     }
 
+    @Test
+    public void shouldSendBulkRequestWithinTheConcurrencyLimit() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = mock(AdaptiveConcurrencyLimiter.class);
+        when(concurrencyLimiter.acquire()).thenReturn(10L);
+        when(bulkResponse.hasFailures()).thenReturn(false);
+        EsSinkMock esSinkMock = new EsSinkMock(instrumentation, client, esRequestHandler, 5000, 1, esRetryStatusCodeBlacklist, concurrencyLimiter);
+        esSinkMock.setBulkResponse(bulkResponse);
+
+        esSinkMock.pushMessage(this.messages);
+
+        verify(concurrencyLimiter, times(1)).acquire();
+        verify(concurrencyLimiter, times(1)).release(10L, false);
+    }
+
     @Test
     public void shouldThrowNeedToRetryExceptionWhenBulkResponseHasFailuresExceptMentionedInBlacklist() {
         when(bulkResponse.buildFailureMessage()).thenReturn("400");
@@ -230,6 +245,11 @@ public class EsSinkTest {
             super(instrumentation, sinkType, client, esRequestHandler, esRequestTimeoutInMs, esWaitForActiveShardsCount, esRetryStatusCodeBlacklist);
         }
 
+        public EsSinkMock(Instrumentation instrumentation, RestHighLevelClient client, EsRequestHandler esRequestHandler, long esRequestTimeoutInMs,
+                          Integer esWaitForActiveShardsCount, List<String> esRetryStatusCodeBlacklist, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            super(instrumentation, client, esRequestHandler, esRequestTimeoutInMs, esWaitForActiveShardsCount, esRetryStatusCodeBlacklist, client, concurrencyLimiter);
+        }
+
         public void setBulkResponse(BulkResponse bulkResponse) {
             this.bulkResponse = bulkResponse;
         }
@@ -9,6 +9,7 @@ import io.odpf.firehose.consumer.TestGrpcRequest;
 import io.odpf.firehose.consumer.TestGrpcResponse;
 import io.odpf.firehose.consumer.TestServerGrpc;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import io.odpf.firehose.sink.grpc.client.GrpcClient;
 import com.google.protobuf.AbstractMessage;
 import com.google.protobuf.DynamicMessage;
@@ -166,6 +167,38 @@ public class GrpcClientTest {
         assertFalse(Boolean.parseBoolean(String.valueOf(response.getField(response.getDescriptorForType().findFieldByName("success")))));
     }
 
+    @Test
+    public void shouldNotReleaseTheConcurrencyLimiterAsDroppedWhenTheServiceReturnsError() throws InterruptedException {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = mock(AdaptiveConcurrencyLimiter.class);
+        when(concurrencyLimiter.acquire()).thenReturn(10L);
+        grpcClient = new GrpcClient(instrumentation, grpcSinkConfig, managedChannel, stencilClient, concurrencyLimiter);
+        doAnswerProtoReponse(TestGrpcResponse.newBuilder()
+                .setSuccess(false)
+                .build()).when(testGrpcService).testRpcMethod(any(TestGrpcRequest.class), any());
+        TestGrpcRequest request = TestGrpcRequest.newBuilder()
+                .setField1("field1")
+                .build();
+
+        grpcClient.execute(request.toByteArray(), headers);
+
+        verify(concurrencyLimiter, times(1)).release(10L, false);
+    }
+
+    @Test
+    public void shouldReleaseTheConcurrencyLimiterAsDroppedWhenTheCallFails() throws InterruptedException {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = mock(AdaptiveConcurrencyLimiter.class);
+        when(concurrencyLimiter.acquire()).thenReturn(10L);
+        grpcClient = new GrpcClient(instrumentation, grpcSinkConfig, managedChannel, stencilClient, concurrencyLimiter);
+        doThrow(new RuntimeException("error")).when(testGrpcService).testRpcMethod(any(TestGrpcRequest.class), any());
+        TestGrpcRequest request = TestGrpcRequest.newBuilder()
+                .setField1("field1")
+                .build();
+
+        grpcClient.execute(request.toByteArray(), headers);
+
+        verify(concurrencyLimiter, times(1)).release(10L, true);
+    }
+
     @Test
     public void shouldReturnErrorWhenGrpcException() {
         doThrow(new RuntimeException("error")).when(testGrpcService).testRpcMethod(any(TestGrpcRequest.class), any());
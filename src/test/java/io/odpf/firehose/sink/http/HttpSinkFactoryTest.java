@@ -2,8 +2,10 @@ package io.odpf.firehose.sink.http;
 
 
 import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.metrics.StatsDReporter;
 import io.odpf.firehose.sink.AbstractSink;
+import io.odpf.firehose.utils.SharedResources;
 import io.odpf.stencil.client.StencilClient;
 import org.gradle.internal.impldep.org.junit.Before;
 import org.junit.AfterClass;
@@ -11,10 +13,12 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockserver.integration.ClientAndServer;
 import org.mockserver.verify.VerificationTimes;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -86,4 +90,23 @@ public class HttpSinkFactoryTest {
 
         mockServer.verify(request().withPath("/oauth2/token"), VerificationTimes.exactly(1));
     }
+
+    @Test
+    public void shouldReleaseSharedClientAndTokenManagerWhenSinkIsClosed() throws IOException {
+        Map<String, String> configuration = new HashMap<>();
+        configuration.put("SINK_HTTP_OAUTH2_ENABLE", "true");
+        configuration.put("SINK_HTTP_OAUTH2_ACCESS_TOKEN_URL", "http://127.0.0.1:1080/oauth2/token");
+        configuration.put("SINK_HTTP_SERVICE_URL", "http://127.0.0.1:1080/api");
+        SharedResources sharedResources = Mockito.spy(new SharedResources(2, new Instrumentation(statsDReporter, SharedResources.class)));
+        AbstractSink firstSink = HttpSinkFactory.create(configuration, statsDReporter, stencilClient, sharedResources);
+        AbstractSink secondSink = HttpSinkFactory.create(configuration, statsDReporter, stencilClient, sharedResources);
+
+        firstSink.close();
+        Mockito.verify(sharedResources, Mockito.times(1)).release("http:http://127.0.0.1:1080/api");
+        Mockito.verify(sharedResources, Mockito.times(0)).release(Mockito.startsWith("oauth2:"));
+
+        secondSink.close();
+        Mockito.verify(sharedResources, Mockito.times(2)).release("http:http://127.0.0.1:1080/api");
+        Mockito.verify(sharedResources, Mockito.times(1)).release(Mockito.startsWith("oauth2:"));
+    }
 }
@@ -2,10 +2,16 @@ package io.odpf.firehose.sink.http;
 
 
 import io.odpf.firehose.config.converter.RangeToHashMapConverter;
+import io.odpf.firehose.error.ErrorType;
 import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.DeserializerException;
 import io.odpf.firehose.exception.NeedToRetry;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
+import io.odpf.firehose.sink.common.HttpBatchRequest;
+import io.odpf.firehose.sink.http.request.body.JsonBody;
+import io.odpf.firehose.sink.http.request.entity.PooledJsonEntity;
+import io.odpf.firehose.sink.http.request.entity.RequestEntityBuilder;
 import io.odpf.firehose.sink.http.request.types.Request;
 import io.odpf.stencil.client.StencilClient;
 import org.apache.http.Header;
@@ -29,6 +35,8 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -98,8 +106,8 @@ public class HttpSinkTest {
         verify(httpClient, times(1)).execute(httpPost);
     }
 
-    @Test(expected = NeedToRetry.class)
-    public void shouldThrowNeedToRetryExceptionWhenResponseCodeIsGivenRange() throws Exception {
+    @Test
+    public void shouldReturnMessagesOfRequestWhenResponseCodeIsGivenRange() throws Exception {
         when(response.getStatusLine()).thenReturn(statusLine);
         when(statusLine.getStatusCode()).thenReturn(500);
 
@@ -115,11 +123,130 @@ public class HttpSinkTest {
         HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient,
                 new RangeToHashMapConverter().convert(null, "400-505"), requestLogStatusCodeRanges);
         httpSink.prepare(messages);
-        httpSink.execute();
+        List<Message> failedMessages = httpSink.execute();
+
+        assertEquals(2, failedMessages.size());
+        assertTrue(failedMessages.get(0).getErrorInfo().getException() instanceof NeedToRetry);
+        assertEquals(ErrorType.DEFAULT_ERROR, failedMessages.get(0).getErrorInfo().getErrorType());
     }
 
     @Test(expected = NeedToRetry.class)
-    public void shouldThrowNeedToRetryExceptionWhenResponseIsNull() throws Exception {
+    public void shouldThrowNeedToRetryExceptionWhenRequestsAreSetWithoutMessages() throws Exception {
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(500);
+        when(httpClient.execute(httpPut)).thenReturn(response);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient,
+                new RangeToHashMapConverter().convert(null, "400-505"), requestLogStatusCodeRanges);
+        httpSink.setHttpRequests(Collections.singletonList(httpPut));
+        httpSink.execute();
+    }
+
+    @Test
+    public void shouldReturnOnlyMessagesOfFailedIndividualRequests() throws Exception {
+        Message failedMessage = new Message(null, "{}".getBytes(), "", 0, 2);
+        List<Message> individualMessages = Arrays.asList(failedMessage, messages.get(0));
+        HttpResponse failedResponse = mock(HttpResponse.class);
+        StatusLine failedStatusLine = mock(StatusLine.class);
+        when(failedResponse.getStatusLine()).thenReturn(failedStatusLine);
+        when(failedStatusLine.getStatusCode()).thenReturn(503);
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(200);
+        when(request.build(individualMessages)).thenReturn(Arrays.asList(httpPut, httpPost));
+        when(httpClient.execute(httpPut)).thenReturn(failedResponse);
+        when(httpClient.execute(httpPost)).thenReturn(response);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient,
+                new RangeToHashMapConverter().convert(null, "400-505"), requestLogStatusCodeRanges);
+        httpSink.prepare(individualMessages);
+        List<Message> failedMessages = httpSink.execute();
+
+        assertEquals(Collections.singletonList(failedMessage), failedMessages);
+        assertTrue(failedMessage.getErrorInfo().getException() instanceof NeedToRetry);
+        verify(httpClient, times(1)).execute(httpPost);
+    }
+
+    @Test
+    public void shouldReturnMessagesOfFailedBatchRequests() throws Exception {
+        Message tenantBMessage = new Message(null, "{}".getBytes(), "", 0, 2);
+        List<Message> batchMessages = Arrays.asList(messages.get(0), tenantBMessage);
+        HttpBatchRequest tenantARequest = new HttpBatchRequest("POST", new URI("http://dummy.com/a"), Collections.singletonList(messages.get(0)));
+        HttpBatchRequest tenantBRequest = new HttpBatchRequest("POST", new URI("http://dummy.com/b"), Collections.singletonList(tenantBMessage));
+        HttpResponse failedResponse = mock(HttpResponse.class);
+        StatusLine failedStatusLine = mock(StatusLine.class);
+        when(failedResponse.getStatusLine()).thenReturn(failedStatusLine);
+        when(failedStatusLine.getStatusCode()).thenReturn(503);
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(200);
+        when(request.build(batchMessages)).thenReturn(Arrays.asList(tenantARequest, tenantBRequest));
+        when(httpClient.execute(tenantARequest)).thenReturn(response);
+        when(httpClient.execute(tenantBRequest)).thenReturn(failedResponse);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient,
+                new RangeToHashMapConverter().convert(null, "400-505"), requestLogStatusCodeRanges);
+        httpSink.prepare(batchMessages);
+        List<Message> failedMessages = httpSink.execute();
+
+        assertEquals(Collections.singletonList(tenantBMessage), failedMessages);
+    }
+
+    @Test
+    public void shouldReturnMessagesOfRequestWhenHttpClientThrowsIOException() throws Exception {
+        IOException exception = new IOException("connection reset");
+        when(request.build(messages)).thenReturn(Collections.singletonList(httpPut));
+        when(httpClient.execute(httpPut)).thenThrow(exception);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient, retryStatusCodeRange, requestLogStatusCodeRanges);
+        httpSink.prepare(messages);
+        List<Message> failedMessages = httpSink.execute();
+
+        assertEquals(2, failedMessages.size());
+        assertEquals(exception, failedMessages.get(0).getErrorInfo().getException());
+    }
+
+    @Test
+    public void shouldSendRequestsConcurrentlyWhenRequestParallelismIsSet() throws Exception {
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(200);
+        when(request.build(messages)).thenReturn(Arrays.asList(httpPut, httpPost));
+        when(httpClient.execute(httpPut)).thenReturn(response);
+        when(httpClient.execute(httpPost)).thenReturn(response);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient, retryStatusCodeRange, requestLogStatusCodeRanges, 2);
+        httpSink.prepare(messages);
+        List<Message> failedMessages = httpSink.execute();
+        httpSink.close();
+
+        assertEquals(0, failedMessages.size());
+        verify(httpClient, times(1)).execute(httpPut);
+        verify(httpClient, times(1)).execute(httpPost);
+    }
+
+    @Test
+    public void shouldReturnMessagesOfFailedConcurrentRequests() throws Exception {
+        HttpResponse failedResponse = mock(HttpResponse.class);
+        StatusLine failedStatusLine = mock(StatusLine.class);
+        when(failedResponse.getStatusLine()).thenReturn(failedStatusLine);
+        when(failedStatusLine.getStatusCode()).thenReturn(500);
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(200);
+        when(request.build(messages)).thenReturn(Arrays.asList(httpPut, httpPost));
+        when(httpClient.execute(httpPut)).thenReturn(failedResponse);
+        when(httpClient.execute(httpPost)).thenReturn(response);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient,
+                new RangeToHashMapConverter().convert(null, "400-505"), requestLogStatusCodeRanges, 2);
+        httpSink.prepare(messages);
+        List<Message> failedMessages = httpSink.execute();
+        httpSink.close();
+
+        assertEquals(1, failedMessages.size());
+        verify(httpClient, times(1)).execute(httpPut);
+        verify(httpClient, times(1)).execute(httpPost);
+    }
+
+    @Test
+    public void shouldReturnMessagesOfRequestWhenResponseIsNull() throws Exception {
 
         List<HttpEntityEnclosingRequestBase> httpRequests = Arrays.asList(httpPut);
 
@@ -132,11 +259,14 @@ public class HttpSinkTest {
 
         HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient, retryStatusCodeRange, requestLogStatusCodeRanges);
         httpSink.prepare(messages);
-        httpSink.execute();
+        List<Message> failedMessages = httpSink.execute();
+
+        assertEquals(2, failedMessages.size());
+        assertTrue(failedMessages.get(0).getErrorInfo().getException() instanceof NeedToRetry);
     }
 
-    @Test(expected = NeedToRetry.class)
-    public void shouldThrowNeedToRetryExceptionWhenResponseStatusCodeIsZero() throws Exception {
+    @Test
+    public void shouldReturnMessagesOfRequestWhenResponseStatusCodeIsZero() throws Exception {
 
         List<HttpEntityEnclosingRequestBase> httpRequests = Arrays.asList(httpPut);
 
@@ -151,7 +281,10 @@ public class HttpSinkTest {
 
         HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient, retryStatusCodeRange, requestLogStatusCodeRanges);
         httpSink.prepare(messages);
-        httpSink.execute();
+        List<Message> failedMessages = httpSink.execute();
+
+        assertEquals(2, failedMessages.size());
+        assertTrue(failedMessages.get(0).getErrorInfo().getException() instanceof NeedToRetry);
     }
 
     @Test(expected = IOException.class)
@@ -321,7 +454,7 @@ public class HttpSinkTest {
         verify(instrumentation, times(1)).captureCount("firehose_sink_messages_drop_total", 2, "cause= 500");
     }
 
-    @Test(expected = NeedToRetry.class)
+    @Test
     public void shouldNotCaptureDroppedMessagesMetricsIfInStatusCodeRange() throws Exception {
         when(response.getStatusLine()).thenReturn(statusLine);
         when(statusLine.getStatusCode()).thenReturn(500);
@@ -455,4 +588,63 @@ public class HttpSinkTest {
         httpSink.execute();
         verify(instrumentation, times(0)).logDebug(any());
     }
+
+    @Test
+    public void shouldCaptureDroppedMessagesFromTheStreamedBatchWithoutParsingTheBody() throws Exception {
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(500);
+
+        PooledJsonEntity entity = new RequestEntityBuilder().setStreaming(true)
+                .buildHttpEntity(messages, new JsonBody(message -> new String(message.getLogMessage())));
+        HttpPut streamedPut = new HttpPut(new URI("http://dummy.com"));
+        streamedPut.setEntity(entity);
+        when(request.build(messages)).thenReturn(Collections.singletonList(streamedPut));
+        when(httpClient.execute(streamedPut)).thenReturn(response);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient,
+                new RangeToHashMapConverter().convert(null, "400-499"), requestLogStatusCodeRanges);
+        httpSink.prepare(messages);
+        httpSink.execute();
+        verify(instrumentation, times(1)).captureCount("firehose_sink_messages_drop_total", 2, "cause= 500");
+
+        httpSink.close();
+        assertEquals(0, entity.getContentLength());
+    }
+
+    @Test
+    public void shouldReleaseTheConcurrencyLimiterAsDroppedWhenTheServiceIsOverloaded() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = mock(AdaptiveConcurrencyLimiter.class);
+        when(concurrencyLimiter.acquire()).thenReturn(10L);
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(503);
+        when(httpPut.getURI()).thenReturn(new URI("http://dummy.com"));
+        when(request.build(messages)).thenReturn(Collections.singletonList(httpPut));
+        when(httpClient.execute(httpPut)).thenReturn(response);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient,
+                new RangeToHashMapConverter().convert(null, "400-600"), requestLogStatusCodeRanges, 1, concurrencyLimiter);
+        httpSink.prepare(messages);
+        List<Message> failedMessages = httpSink.execute();
+
+        assertEquals(messages, failedMessages);
+        verify(concurrencyLimiter, times(1)).release(10L, true);
+    }
+
+    @Test
+    public void shouldReleaseTheConcurrencyLimiterAsNotDroppedWhenTheRequestSucceeds() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = mock(AdaptiveConcurrencyLimiter.class);
+        when(concurrencyLimiter.acquire()).thenReturn(10L);
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(200);
+        when(httpPut.getURI()).thenReturn(new URI("http://dummy.com"));
+        when(request.build(messages)).thenReturn(Collections.singletonList(httpPut));
+        when(httpClient.execute(httpPut)).thenReturn(response);
+
+        HttpSink httpSink = new HttpSink(instrumentation, request, httpClient, stencilClient,
+                new RangeToHashMapConverter().convert(null, "400-600"), requestLogStatusCodeRanges, 1, concurrencyLimiter);
+        httpSink.prepare(messages);
+        httpSink.execute();
+
+        verify(concurrencyLimiter, times(1)).release(10L, false);
+    }
 }
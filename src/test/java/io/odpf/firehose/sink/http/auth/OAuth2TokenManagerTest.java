@@ -0,0 +1,110 @@
+package io.odpf.firehose.sink.http.auth;
+
+import io.odpf.firehose.metrics.Instrumentation;
+import org.joda.time.DateTimeUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class OAuth2TokenManagerTest {
+
+    @Mock
+    private OAuth2Client client;
+
+    @Mock
+    private Instrumentation instrumentation;
+
+    private OAuth2TokenManager tokenManager;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        DateTimeUtils.setCurrentMillisSystem();
+        tokenManager = new OAuth2TokenManager(instrumentation, client);
+    }
+
+    @After
+    public void tearDown() {
+        tokenManager.close();
+    }
+
+    @Test
+    public void shouldReturnCachedTokenWithoutRequestingIt() throws Exception {
+        OAuth2AccessToken token = new OAuth2AccessToken("ACCESSTOKEN", 3600);
+        tokenManager.setAccessToken(token);
+
+        assertSame(token, tokenManager.getValidAccessToken());
+        verifyZeroInteractions(client);
+    }
+
+    @Test
+    public void shouldRequestTokenOnceForConcurrentRequestsOfAnExpiredToken() throws Exception {
+        CountDownLatch requested = new CountDownLatch(1);
+        when(client.requestClientCredentialsGrantAccessToken()).thenAnswer(invocation -> {
+            requested.countDown();
+            Thread.sleep(100);
+            return new OAuth2AccessToken("ACCESSTOKEN", 3600);
+        });
+        tokenManager.setAccessToken(new OAuth2AccessToken("EXPIRED", -1));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    tokenManager.getValidAccessToken();
+                } catch (Exception ignored) {
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        verify(client, times(1)).requestClientCredentialsGrantAccessToken();
+        assertEquals("ACCESSTOKEN", tokenManager.getAccessToken().toString());
+    }
+
+    @Test
+    public void shouldRequestTokenOnceAfterConcurrentRejectionsOfTheSameToken() throws Exception {
+        OAuth2AccessToken rejectedToken = new OAuth2AccessToken("REJECTED", 3600);
+        when(client.requestClientCredentialsGrantAccessToken()).thenReturn(new OAuth2AccessToken("ACCESSTOKEN", 3600));
+        tokenManager.setAccessToken(rejectedToken);
+
+        tokenManager.invalidate(rejectedToken);
+        assertNull(tokenManager.getAccessToken());
+        OAuth2AccessToken token = tokenManager.getValidAccessToken();
+        tokenManager.invalidate(rejectedToken);
+
+        assertSame(token, tokenManager.getValidAccessToken());
+        verify(client, times(1)).requestClientCredentialsGrantAccessToken();
+    }
+
+    @Test
+    public void shouldRefreshTokenInBackgroundAheadOfItsExpiry() throws Exception {
+        when(client.requestClientCredentialsGrantAccessToken())
+                .thenReturn(new OAuth2AccessToken("FIRST", 2))
+                .thenReturn(new OAuth2AccessToken("SECOND", 3600));
+
+        assertEquals("FIRST", tokenManager.getValidAccessToken().toString());
+
+        verify(client, timeout(3000).times(2)).requestClientCredentialsGrantAccessToken();
+        assertEquals("SECOND", tokenManager.getValidAccessToken().toString());
+    }
+}
@@ -5,6 +5,8 @@ import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.DeserializerException;
 import io.odpf.firehose.metrics.Instrumentation;
 import io.odpf.firehose.sink.http.request.body.JsonBody;
+import io.odpf.firehose.sink.http.request.entity.BufferPool;
+import io.odpf.firehose.sink.http.request.entity.PooledJsonEntity;
 import io.odpf.firehose.sink.http.request.entity.RequestEntityBuilder;
 import io.odpf.firehose.sink.http.request.header.HeaderBuilder;
 import io.odpf.firehose.sink.http.request.uri.UriBuilder;
@@ -148,4 +150,28 @@ public class BatchRequestCreatorTest {
         verify(instrumentation, times(1)).logDebug("\nRequest URL: {}\nRequest headers: {}\nRequest content: {}\nRequest method: {}",
                 uriBuilder.build(), headerBuilder.build(), jsonBody.serialize(messages), HttpSinkRequestMethodType.POST);
     }
+
+    @Test
+    public void shouldStreamMessagesIntoTheEntityWithoutSerializingThemToStrings() throws Exception {
+        Message message1 = new Message(new byte[]{10, 20}, new byte[]{1, 2}, "sample-topic", 0, 100);
+        Message message2 = new Message(new byte[]{10, 20}, new byte[]{1, 2}, "sample-topic", 0, 100);
+        messages = new ArrayList<>();
+        messages.add(message1);
+        messages.add(message2);
+        PooledJsonEntity entity = new PooledJsonEntity(new BufferPool(16, 1), false, 2);
+
+        when(uriBuilder.build()).thenReturn(new URI("dummyEndpoint"));
+        when(headerBuilder.build()).thenReturn(new HashMap<>());
+        when(requestEntityBuilder.isStreaming()).thenReturn(true);
+        when(requestEntityBuilder.buildHttpEntity(messages, jsonBody)).thenReturn(entity);
+
+        BatchRequestCreator batchRequestCreator = new BatchRequestCreator(instrumentation, uriBuilder, headerBuilder, HttpSinkRequestMethodType.POST, jsonBody);
+        List<HttpEntityEnclosingRequestBase> requests = batchRequestCreator.create(messages, requestEntityBuilder);
+
+        assertEquals(1, requests.size());
+        assertEquals(entity, requests.get(0).getEntity());
+        verify(jsonBody, times(0)).serialize(messages);
+        verify(instrumentation, times(1)).logDebug("\nRequest URL: {}\nRequest headers: {}\nRequest content: {} messages\nRequest method: {}",
+                new URI("dummyEndpoint"), new HashMap<>(), 2, HttpSinkRequestMethodType.POST);
+    }
 }
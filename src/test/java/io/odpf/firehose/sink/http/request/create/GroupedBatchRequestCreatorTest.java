@@ -0,0 +1,99 @@
+package io.odpf.firehose.sink.http.request.create;
+
+import io.odpf.firehose.config.enums.HttpSinkRequestMethodType;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.common.HttpBatchRequest;
+import io.odpf.firehose.sink.http.request.body.JsonBody;
+import io.odpf.firehose.sink.http.request.entity.RequestEntityBuilder;
+import io.odpf.firehose.sink.http.request.header.HeaderBuilder;
+import io.odpf.firehose.sink.http.request.uri.UriBuilder;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class GroupedBatchRequestCreatorTest {
+
+    @Mock
+    private UriBuilder uriBuilder;
+
+    @Mock
+    private HeaderBuilder headerBuilder;
+
+    @Mock
+    private JsonBody jsonBody;
+
+    @Mock
+    private Instrumentation instrumentation;
+
+    private Message message1;
+    private Message message2;
+    private Message message3;
+    private List<Message> messages;
+
+    @Before
+    public void setup() throws Exception {
+        initMocks(this);
+        message1 = new Message(new byte[]{10, 20}, new byte[]{1, 2}, "sample-topic", 0, 100);
+        message2 = new Message(new byte[]{10, 20}, new byte[]{1, 2}, "sample-topic", 0, 101);
+        message3 = new Message(new byte[]{10, 20}, new byte[]{1, 2}, "sample-topic", 0, 102);
+        messages = Arrays.asList(message1, message2, message3);
+        when(uriBuilder.build(message1)).thenReturn(new URI("http://dummy.com/tenant-a"));
+        when(uriBuilder.build(message2)).thenReturn(new URI("http://dummy.com/tenant-b"));
+        when(uriBuilder.build(message3)).thenReturn(new URI("http://dummy.com/tenant-a"));
+        when(jsonBody.serialize(Arrays.asList(message1, message3))).thenReturn(Arrays.asList("{\"a\":1}", "{\"a\":3}"));
+        when(jsonBody.serialize(Collections.singletonList(message2))).thenReturn(Collections.singletonList("{\"b\":2}"));
+    }
+
+    @Test
+    public void shouldCreateOneBatchRequestPerRenderedUri() throws Exception {
+        when(headerBuilder.build(message1)).thenReturn(new HashMap<>());
+        when(headerBuilder.build(message2)).thenReturn(new HashMap<>());
+        when(headerBuilder.build(message3)).thenReturn(new HashMap<>());
+
+        GroupedBatchRequestCreator requestCreator = new GroupedBatchRequestCreator(instrumentation, uriBuilder, headerBuilder, HttpSinkRequestMethodType.POST, jsonBody);
+        List<HttpEntityEnclosingRequestBase> requests = requestCreator.create(messages, new RequestEntityBuilder());
+
+        assertEquals(2, requests.size());
+        assertEquals(new URI("http://dummy.com/tenant-a"), requests.get(0).getURI());
+        assertEquals("POST", requests.get(0).getMethod());
+        assertEquals("[{\"a\":1}, {\"a\":3}]", EntityUtils.toString(requests.get(0).getEntity()));
+        assertEquals(Arrays.asList(message1, message3), ((HttpBatchRequest) requests.get(0)).getMessages());
+        assertEquals(new URI("http://dummy.com/tenant-b"), requests.get(1).getURI());
+        assertEquals("[{\"b\":2}]", EntityUtils.toString(requests.get(1).getEntity()));
+        assertEquals(Collections.singletonList(message2), ((HttpBatchRequest) requests.get(1)).getMessages());
+    }
+
+    @Test
+    public void shouldSplitGroupsOfTheSameUriWithDifferentHeaders() throws Exception {
+        Map<String, String> headersA = Collections.singletonMap("tenant", "a");
+        Map<String, String> headersC = Collections.singletonMap("tenant", "c");
+        when(headerBuilder.build(message1)).thenReturn(headersA);
+        when(headerBuilder.build(message2)).thenReturn(headersA);
+        when(headerBuilder.build(message3)).thenReturn(headersC);
+        when(jsonBody.serialize(Collections.singletonList(message1))).thenReturn(Collections.singletonList("{\"a\":1}"));
+        when(jsonBody.serialize(Collections.singletonList(message3))).thenReturn(Collections.singletonList("{\"a\":3}"));
+
+        GroupedBatchRequestCreator requestCreator = new GroupedBatchRequestCreator(instrumentation, uriBuilder, headerBuilder, HttpSinkRequestMethodType.PUT, jsonBody);
+        List<HttpEntityEnclosingRequestBase> requests = requestCreator.create(messages, new RequestEntityBuilder());
+
+        assertEquals(3, requests.size());
+        assertEquals("PUT", requests.get(0).getMethod());
+        assertEquals("a", requests.get(0).getFirstHeader("tenant").getValue());
+        assertEquals("c", requests.get(2).getFirstHeader("tenant").getValue());
+        assertEquals(Collections.singletonList(message3), ((HttpBatchRequest) requests.get(2)).getMessages());
+    }
+}
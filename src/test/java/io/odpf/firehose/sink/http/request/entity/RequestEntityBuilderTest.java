@@ -1,23 +1,40 @@
 package io.odpf.firehose.sink.http.request.entity;
 
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.serializer.MessageSerializer;
+import io.odpf.firehose.sink.http.request.body.JsonBody;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.entity.StringEntity;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.MockitoAnnotations.initMocks;
 
 public class RequestEntityBuilderTest {
 
     private String bodyContent;
+    private JsonBody jsonBody;
+    private List<Message> messages;
 
     @Before
     public void setUp() {
         initMocks(this);
         bodyContent = "dummyContent";
+        MessageSerializer serializer = message -> "{\"value\":\"" + new String(message.getLogMessage(), StandardCharsets.UTF_8) + "\"}";
+        jsonBody = new JsonBody(serializer);
+        messages = Arrays.asList(
+                new Message(null, "first".getBytes(StandardCharsets.UTF_8), "topic", 0, 1),
+                new Message(null, "second".getBytes(StandardCharsets.UTF_8), "topic", 0, 2));
     }
 
     @Test
@@ -46,4 +63,62 @@ public class RequestEntityBuilderTest {
         byte[] bytes = IOUtils.toByteArray(stringEntity.getContent());
         Assert.assertEquals("dummyContent", new String(bytes));
     }
+
+    @Test
+    public void shouldStreamTheSameContentAsTheStringEntity() throws IOException {
+        RequestEntityBuilder requestEntityBuilder = new RequestEntityBuilder().setStreaming(true);
+
+        PooledJsonEntity entity = requestEntityBuilder.buildHttpEntity(messages, jsonBody);
+        String expected = jsonBody.serialize(messages).toString();
+
+        Assert.assertEquals(expected, new String(IOUtils.toByteArray(entity.getContent()), StandardCharsets.UTF_8));
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        entity.writeTo(written);
+        Assert.assertEquals(expected, new String(written.toByteArray(), StandardCharsets.UTF_8));
+        Assert.assertEquals(expected.length(), entity.getContentLength());
+        Assert.assertEquals(2, entity.getMessageCount());
+        Assert.assertTrue(entity.isRepeatable());
+    }
+
+    @Test
+    public void shouldWrapStreamedEntityIfSet() throws IOException {
+        RequestEntityBuilder requestEntityBuilder = new RequestEntityBuilder().setStreaming(true).setWrapping(true);
+
+        PooledJsonEntity entity = requestEntityBuilder.buildHttpEntity(messages, jsonBody);
+
+        Assert.assertEquals("[[{\"value\":\"first\"}, {\"value\":\"second\"}]]", new String(IOUtils.toByteArray(entity.getJsonContent()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldGzipStreamedEntityIfSet() throws IOException {
+        RequestEntityBuilder requestEntityBuilder = new RequestEntityBuilder().setStreaming(true).setGzip(true);
+
+        PooledJsonEntity entity = requestEntityBuilder.buildHttpEntity(messages, jsonBody);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        entity.writeTo(written);
+
+        byte[] uncompressed = IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(written.toByteArray())));
+        Assert.assertEquals(jsonBody.serialize(messages).toString(), new String(uncompressed, StandardCharsets.UTF_8));
+        Assert.assertEquals("gzip", entity.getContentEncoding().getValue());
+        Assert.assertEquals(-1, entity.getContentLength());
+        Assert.assertEquals(jsonBody.serialize(messages).toString(), new String(IOUtils.toByteArray(entity.getJsonContent()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldStreamBodiesLargerThanAChunk() throws IOException {
+        List<Message> largeMessages = new ArrayList<>();
+        char[] payload = new char[1000];
+        Arrays.fill(payload, 'a');
+        for (int i = 0; i < 200; i++) {
+            largeMessages.add(new Message(null, new String(payload).getBytes(StandardCharsets.UTF_8), "topic", 0, i));
+        }
+        RequestEntityBuilder requestEntityBuilder = new RequestEntityBuilder().setStreaming(true);
+
+        PooledJsonEntity entity = requestEntityBuilder.buildHttpEntity(largeMessages, jsonBody);
+        String expected = jsonBody.serialize(largeMessages).toString();
+
+        Assert.assertEquals(expected, new String(IOUtils.toByteArray(entity.getContent()), StandardCharsets.UTF_8));
+        entity.close();
+        Assert.assertEquals(0, entity.getContentLength());
+    }
 }
@@ -12,17 +12,21 @@ import io.odpf.firehose.sink.http.request.body.JsonBody;
 import io.odpf.firehose.sink.http.request.entity.RequestEntityBuilder;
 import io.odpf.firehose.sink.http.request.header.HeaderBuilder;
 import io.odpf.firehose.sink.http.request.uri.UriBuilder;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 
 import static org.gradle.internal.impldep.org.junit.Assert.assertFalse;
 import static org.gradle.internal.impldep.org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -152,4 +156,24 @@ public class ParameterizedUriRequestTest {
         verify(headerBuilder, times(3)).build(message);
         verify(requestEntityBuilder, times(3)).buildHttpEntity(any(String.class));
     }
+
+    @org.junit.Test
+    public void shouldGroupMessagesOfTheSameUriIntoABatchRequestWhenGroupByUrlIsEnabled() throws Exception {
+        List<Message> messages = Arrays.asList(message, message, message);
+        when(httpSinkConfig.getSinkHttpParameterSource()).thenReturn(HttpSinkParameterSourceType.MESSAGE);
+        when(uriBuilder.withParameterizedURI(protoToFieldMapper, HttpSinkParameterSourceType.MESSAGE)).thenReturn(uriBuilder);
+        when(httpSinkConfig.isSinkHttpRequestGroupByUrlEnable()).thenReturn(true);
+        when(uriBuilder.build(message)).thenReturn(new URI("http://127.0.0.1:1080/api"));
+        when(headerBuilder.build(message)).thenReturn(new HashMap<>());
+        when(jsonBody.serialize(any())).thenReturn(Arrays.asList("Hello", "World!", "How"));
+        when(requestEntityBuilder.setWrapping(false)).thenReturn(requestEntityBuilder);
+
+        parameterizedURIRequest = new ParameterizedUriRequest(statsDReporter, httpSinkConfig, jsonBody, httpSinkRequestMethodType, protoToFieldMapper);
+        Request request = parameterizedURIRequest.setRequestStrategy(headerBuilder, uriBuilder, requestEntityBuilder);
+        List<HttpEntityEnclosingRequestBase> requests = request.build(messages);
+
+        assertEquals(1, requests.size());
+        verify(uriBuilder, times(3)).build(message);
+        verify(requestEntityBuilder, times(1)).buildHttpEntity("[Hello, World!, How]");
+    }
 }
@@ -10,6 +10,7 @@ import io.odpf.firehose.consumer.TestBookingLogMessage;
 import io.odpf.firehose.consumer.TestNestedMessage;
 import io.odpf.firehose.consumer.TestNestedRepeatedMessage;
 import io.odpf.firehose.proto.ProtoToFieldMapper;
+import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.Timestamp;
 import io.odpf.stencil.StencilClientFactory;
 import io.odpf.stencil.client.StencilClient;
@@ -229,4 +230,37 @@ public class ProtoToFieldMapperTest {
 
         protoToFieldMapper.getFields(TestBookingLogMessage.newBuilder().setCustomerEmail("test.com").build().toByteArray());
     }
+
+    @Test
+    public void shouldRebuildMappingWhenDescriptorChanges() throws Exception {
+        Properties properties = new Properties();
+        properties.put("1", "order_number");
+        ProtoToFieldMapper protoToFieldMapper = new ProtoToFieldMapper(protoParser, properties);
+
+        Map<String, Object> fields = protoToFieldMapper.getFields(message.toByteArray());
+        Map<String, Object> refreshedFields = protoToFieldMapper.getFields(DynamicMessage.parseFrom(TestMessage.getDescriptor(), testMessage.toByteArray()));
+
+        Assert.assertEquals(fields.get("order_number"), "12345");
+        Assert.assertEquals(refreshedFields.get("order_number"), "order_number");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionWhenFieldIsNotInMessage() {
+        Properties properties = new Properties();
+        properties.put("99", "order_number");
+        ProtoToFieldMapper protoToFieldMapper = new ProtoToFieldMapper(protoParser, properties);
+
+        protoToFieldMapper.getFields(message.toByteArray());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowIllegalStateExceptionWhenNestedMappingIsNotOnMessage() {
+        Properties properties = new Properties();
+        Properties nestedProperties = new Properties();
+        nestedProperties.put("1", "order_number");
+        properties.put("1", nestedProperties);
+        ProtoToFieldMapper protoToFieldMapper = new ProtoToFieldMapper(protoParser, properties);
+
+        protoToFieldMapper.getFields(message.toByteArray());
+    }
 }
@@ -0,0 +1,24 @@
+package io.odpf.firehose.sink.jdbc.field;
+
+import io.odpf.firehose.consumer.TestFeedbackLogMessage;
+import io.odpf.firehose.consumer.TestMapMessage;
+import io.odpf.firehose.consumer.TestNestedRepeatedMessage;
+import com.google.protobuf.Descriptors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JdbcFieldTypeTest {
+
+    @Test
+    public void shouldResolveTypeOfFields() {
+        Descriptors.Descriptor feedback = TestFeedbackLogMessage.getDescriptor();
+        Descriptors.Descriptor nested = TestNestedRepeatedMessage.getDescriptor();
+
+        Assert.assertEquals(JdbcFieldType.DEFAULT, JdbcFieldType.of(feedback.findFieldByName("order_number")));
+        Assert.assertEquals(JdbcFieldType.TIMESTAMP, JdbcFieldType.of(feedback.findFieldByName("event_timestamp")));
+        Assert.assertEquals(JdbcFieldType.MESSAGE, JdbcFieldType.of(nested.findFieldByName("single_message")));
+        Assert.assertEquals(JdbcFieldType.COLLECTION, JdbcFieldType.of(nested.findFieldByName("repeated_message")));
+        Assert.assertEquals(JdbcFieldType.COLLECTION, JdbcFieldType.of(nested.findFieldByName("repeated_number_field")));
+        Assert.assertEquals(JdbcFieldType.MAP, JdbcFieldType.of(TestMapMessage.getDescriptor().findFieldByName("current_state")));
+    }
+}
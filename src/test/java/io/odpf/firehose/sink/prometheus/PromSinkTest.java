@@ -7,6 +7,7 @@ import io.odpf.firehose.message.Message;
 import io.odpf.firehose.exception.DeserializerException;
 import io.odpf.firehose.exception.NeedToRetry;
 import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.common.AdaptiveConcurrencyLimiter;
 import io.odpf.firehose.sink.prometheus.request.PromRequest;
 import io.odpf.stencil.client.StencilClient;
 import org.apache.http.Header;
@@ -36,6 +37,7 @@ import java.util.Map;
 
 import static io.odpf.firehose.sink.prometheus.PromSinkConstants.PROMETHEUS_LABEL_FOR_METRIC_NAME;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -100,8 +102,26 @@ public class PromSinkTest {
         verify(httpClient, times(1)).execute(httpPost);
     }
 
-    @Test(expected = NeedToRetry.class)
-    public void shouldThrowNeedToRetryExceptionWhenResponseCodeIsGivenRange() throws Exception {
+    @Test
+    public void shouldSendRequestsWithinTheConcurrencyLimit() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = mock(AdaptiveConcurrencyLimiter.class);
+        when(concurrencyLimiter.acquire()).thenReturn(10L);
+        when(httpPost.getURI()).thenReturn(new URI("http://dummy.com"));
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(statusLine.getStatusCode()).thenReturn(200);
+        when(request.build(messages)).thenReturn(httpPostList);
+        when(httpClient.execute(httpPost)).thenReturn(response);
+
+        PromSink promSink = new PromSink(instrumentation, request, httpClient, stencilClient, retryStatusCodeRange, requestLogStatusCodeRanges, concurrencyLimiter);
+        promSink.prepare(messages);
+        promSink.execute();
+
+        verify(concurrencyLimiter, times(1)).acquire();
+        verify(concurrencyLimiter, times(1)).release(10L, false);
+    }
+
+    @Test
+    public void shouldReturnMessagesOfRequestWhenResponseCodeIsGivenRange() throws Exception {
         when(response.getStatusLine()).thenReturn(statusLine);
         when(statusLine.getStatusCode()).thenReturn(500);
         when(httpPost.getURI()).thenReturn(new URI("http://dummy.com"));
@@ -111,11 +131,14 @@ public class PromSinkTest {
         PromSink promSink = new PromSink(instrumentation, request, httpClient, stencilClient,
                 new RangeToHashMapConverter().convert(null, "400-505"), requestLogStatusCodeRanges);
         promSink.prepare(messages);
-        promSink.execute();
+        List<Message> failedMessages = promSink.execute();
+
+        assertEquals(messages, failedMessages);
+        assertTrue(failedMessages.get(0).getErrorInfo().getException() instanceof NeedToRetry);
     }
 
-    @Test(expected = NeedToRetry.class)
-    public void shouldThrowNeedToRetryExceptionWhenResponseCodeIsNull() throws Exception {
+    @Test
+    public void shouldReturnMessagesOfRequestWhenResponseCodeIsNull() throws Exception {
         when(httpPost.getURI()).thenReturn(new URI("http://dummy.com"));
         when(httpPost.getAllHeaders()).thenReturn(new Header[]{});
         when(httpPost.getEntity()).thenReturn(httpEntity);
@@ -125,7 +148,10 @@ public class PromSinkTest {
 
         PromSink promSink = new PromSink(instrumentation, request, httpClient, stencilClient, retryStatusCodeRange, requestLogStatusCodeRanges);
         promSink.prepare(messages);
-        promSink.execute();
+        List<Message> failedMessages = promSink.execute();
+
+        assertEquals(messages, failedMessages);
+        assertTrue(failedMessages.get(0).getErrorInfo().getException() instanceof NeedToRetry);
     }
 
     @Test(expected = IOException.class)
@@ -219,7 +245,7 @@ public class PromSinkTest {
         verify(instrumentation, times(1)).captureCount("firehose_sink_messages_drop_total", 1, "cause= 500");
     }
 
-    @Test(expected = NeedToRetry.class)
+    @Test
     public void shouldNotCaptureDroppedMessagesMetricsIfInStatusCodeRange() throws Exception {
         when(response.getStatusLine()).thenReturn(statusLine);
         when(statusLine.getStatusCode()).thenReturn(500);
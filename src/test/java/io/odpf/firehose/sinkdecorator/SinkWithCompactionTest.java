@@ -0,0 +1,126 @@
+package io.odpf.firehose.sinkdecorator;
+
+import com.google.protobuf.DynamicMessage;
+import io.odpf.firehose.config.SinkCompactionConfig;
+import io.odpf.firehose.consumer.TestMessage;
+import io.odpf.firehose.consumer.TestNestedRepeatedMessage;
+import io.odpf.firehose.exception.ConfigurationException;
+import io.odpf.firehose.message.Message;
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.Sink;
+import io.odpf.firehose.sink.log.KeyOrMessageParser;
+import org.aeonbits.owner.ConfigFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.odpf.firehose.metrics.Metrics.SINK_MESSAGES_COMPACTED_TOTAL;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class SinkWithCompactionTest {
+
+    @Mock
+    private Sink sink;
+
+    @Mock
+    private KeyOrMessageParser parser;
+
+    @Mock
+    private Instrumentation instrumentation;
+
+    private Map<String, String> configuration;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        configuration = new HashMap<>();
+        configuration.put("SINK_COMPACTION_ENABLE", "true");
+    }
+
+    @Test
+    public void shouldPushLatestMessageOfEachKafkaKey() throws Exception {
+        Message first = new Message("key-1".getBytes(), "first".getBytes(), "topic", 0, 1);
+        Message second = new Message("key-2".getBytes(), "second".getBytes(), "topic", 0, 2);
+        Message third = new Message("key-1".getBytes(), "third".getBytes(), "topic", 0, 3);
+        Message withoutKey = new Message(null, "fourth".getBytes(), "topic", 0, 4);
+        Message otherPartition = new Message("key-1".getBytes(), "fifth".getBytes(), "topic", 1, 1);
+        List<Message> failedMessages = Collections.singletonList(third);
+        when(sink.pushMessage(anyList())).thenReturn(failedMessages);
+        SinkWithCompaction sinkWithCompaction = new SinkWithCompaction(sink, ConfigFactory.create(SinkCompactionConfig.class, configuration), parser, instrumentation);
+
+        List<Message> result = sinkWithCompaction.pushMessage(Arrays.asList(first, second, third, withoutKey, otherPartition));
+
+        verify(sink).pushMessage(Arrays.asList(second, third, withoutKey, otherPartition));
+        verify(instrumentation).captureCount(SINK_MESSAGES_COMPACTED_TOTAL, 1);
+        verifyZeroInteractions(parser);
+        Assert.assertEquals(failedMessages, result);
+    }
+
+    @Test
+    public void shouldPushLatestMessageOfEachProtoFieldValue() throws Exception {
+        configuration.put("SINK_COMPACTION_KEY_TYPE", "PROTO_FIELD");
+        configuration.put("SINK_COMPACTION_KEY_PROTO_INDEX", "1");
+        Message first = new Message(null, TestMessage.newBuilder().setOrderNumber("order-1").setOrderUrl("url-1").build().toByteArray(), "topic", 0, 1);
+        Message second = new Message(null, TestMessage.newBuilder().setOrderNumber("order-1").setOrderUrl("url-2").build().toByteArray(), "topic", 0, 2);
+        Message withoutField = new Message(null, TestMessage.newBuilder().setOrderUrl("url-3").build().toByteArray(), "topic", 0, 3);
+        for (Message message : Arrays.asList(first, second, withoutField)) {
+            when(parser.parse(message)).thenReturn(DynamicMessage.parseFrom(TestMessage.getDescriptor(), message.getLogMessage()));
+        }
+        when(sink.pushMessage(anyList())).thenReturn(Collections.emptyList());
+        SinkWithCompaction sinkWithCompaction = new SinkWithCompaction(sink, ConfigFactory.create(SinkCompactionConfig.class, configuration), parser, instrumentation);
+
+        List<Message> result = sinkWithCompaction.pushMessage(Arrays.asList(first, second, withoutField));
+
+        verify(sink).pushMessage(Arrays.asList(second, withoutField));
+        Assert.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void shouldCompactProto3ScalarKeysWithDefaultValue() throws Exception {
+        configuration.put("SINK_COMPACTION_KEY_TYPE", "PROTO_FIELD");
+        configuration.put("SINK_COMPACTION_KEY_PROTO_INDEX", "3");
+        Message first = new Message(null, TestNestedRepeatedMessage.newBuilder().setNumberField(0).addRepeatedNumberField(1).build().toByteArray(), "topic", 0, 1);
+        Message second = new Message(null, TestNestedRepeatedMessage.newBuilder().setNumberField(7).build().toByteArray(), "topic", 0, 2);
+        Message third = new Message(null, TestNestedRepeatedMessage.newBuilder().setNumberField(0).addRepeatedNumberField(2).build().toByteArray(), "topic", 0, 3);
+        for (Message message : Arrays.asList(first, second, third)) {
+            when(parser.parse(message)).thenReturn(DynamicMessage.parseFrom(TestNestedRepeatedMessage.getDescriptor(), message.getLogMessage()));
+        }
+        when(sink.pushMessage(anyList())).thenReturn(Collections.emptyList());
+        SinkWithCompaction sinkWithCompaction = new SinkWithCompaction(sink, ConfigFactory.create(SinkCompactionConfig.class, configuration), parser, instrumentation);
+
+        sinkWithCompaction.pushMessage(Arrays.asList(first, second, third));
+
+        verify(sink).pushMessage(Arrays.asList(second, third));
+        verify(instrumentation).captureCount(SINK_MESSAGES_COMPACTED_TOTAL, 1);
+    }
+
+    @Test
+    public void shouldNotCompactWhenSinkManagesOffsets() throws Exception {
+        Message first = new Message("key-1".getBytes(), "first".getBytes(), "topic", 0, 1);
+        Message second = new Message("key-1".getBytes(), "second".getBytes(), "topic", 0, 2);
+        List<Message> messages = Arrays.asList(first, second);
+        when(sink.canManageOffsets()).thenReturn(true);
+        when(sink.pushMessage(messages)).thenReturn(Collections.emptyList());
+        SinkWithCompaction sinkWithCompaction = new SinkWithCompaction(sink, ConfigFactory.create(SinkCompactionConfig.class, configuration), parser, instrumentation);
+
+        sinkWithCompaction.pushMessage(messages);
+
+        verify(sink).pushMessage(messages);
+        verify(instrumentation, never()).captureCount(anyString(), anyInt());
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void shouldThrowWhenProtoIndexIsMissing() {
+        configuration.put("SINK_COMPACTION_KEY_TYPE", "PROTO_FIELD");
+
+        new SinkWithCompaction(sink, ConfigFactory.create(SinkCompactionConfig.class, configuration), parser, instrumentation);
+    }
+}
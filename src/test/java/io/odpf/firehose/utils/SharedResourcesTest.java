@@ -0,0 +1,106 @@
+package io.odpf.firehose.utils;
+
+import io.odpf.firehose.metrics.Instrumentation;
+import io.odpf.firehose.sink.jdbc.JdbcConnectionPool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedResourcesTest {
+
+    @Mock
+    private Instrumentation instrumentation;
+
+    @Mock
+    private JdbcConnectionPool connectionPool;
+
+    @Mock
+    private Connection connection;
+
+    private SharedResources sharedResources;
+
+    @Before
+    public void setUp() {
+        sharedResources = new SharedResources(4, instrumentation);
+    }
+
+    @Test
+    public void shouldCreateResourceOncePerKey() {
+        AtomicInteger created = new AtomicInteger();
+        Object first = sharedResources.acquire("key", () -> new Object[]{created.incrementAndGet()}, resource -> { });
+        Object second = sharedResources.acquire("key", () -> new Object[]{created.incrementAndGet()}, resource -> { });
+        Object other = sharedResources.acquire("other", () -> new Object[]{created.incrementAndGet()}, resource -> { });
+
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(first, other);
+        Assert.assertEquals(2, created.get());
+    }
+
+    @Test
+    public void shouldCloseResourceAfterLastRelease() {
+        AtomicInteger closed = new AtomicInteger();
+        sharedResources.acquire("key", Object::new, resource -> closed.incrementAndGet());
+        sharedResources.acquire("key", Object::new, resource -> closed.incrementAndGet());
+
+        sharedResources.release("key");
+        Assert.assertEquals(0, closed.get());
+        sharedResources.release("key");
+        Assert.assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void shouldCreateResourceAgainAfterItIsClosed() {
+        Object first = sharedResources.acquire("key", Object::new, resource -> { });
+        sharedResources.release("key");
+        Object second = sharedResources.acquire("key", Object::new, resource -> { });
+
+        Assert.assertNotSame(first, second);
+    }
+
+    @Test
+    public void shouldNotThrowWhenCloseFails() {
+        Exception exception = new RuntimeException("failed");
+        sharedResources.acquire("key", Object::new, resource -> {
+            throw exception;
+        });
+        sharedResources.release("key");
+
+        Mockito.verify(instrumentation, Mockito.times(1)).captureNonFatalError(exception, "Exception on closing shared resource {}", "key");
+    }
+
+    @Test
+    public void shouldDelegateCallsOfProxy() throws Exception {
+        Mockito.when(connectionPool.getConnection()).thenReturn(connection);
+        JdbcConnectionPool proxy = sharedResources.acquireProxy(JdbcConnectionPool.class, "jdbc", () -> connectionPool, JdbcConnectionPool::shutdown, "shutdown");
+
+        Assert.assertEquals(connection, proxy.getConnection());
+        proxy.release(connection);
+        Mockito.verify(connectionPool, Mockito.times(1)).release(connection);
+    }
+
+    @Test
+    public void shouldReleaseProxyOnlyOnce() throws Exception {
+        JdbcConnectionPool first = sharedResources.acquireProxy(JdbcConnectionPool.class, "jdbc", () -> connectionPool, JdbcConnectionPool::shutdown, "shutdown");
+        JdbcConnectionPool second = sharedResources.acquireProxy(JdbcConnectionPool.class, "jdbc", () -> connectionPool, JdbcConnectionPool::shutdown, "shutdown");
+
+        first.shutdown();
+        first.shutdown();
+        Mockito.verify(connectionPool, Mockito.never()).shutdown();
+        second.shutdown();
+        Mockito.verify(connectionPool, Mockito.times(1)).shutdown();
+    }
+
+    @Test
+    public void shouldUseAtLeastOneAsConcurrency() {
+        Assert.assertEquals(1, new SharedResources(0, instrumentation).getConcurrency());
+        Assert.assertEquals(4, sharedResources.getConcurrency());
+    }
+}